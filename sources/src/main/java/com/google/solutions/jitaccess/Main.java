@@ -21,6 +21,7 @@
 
 package com.google.solutions.jitaccess;
 
+import com.google.solutions.jitaccess.apis.AsyncLogWriter;
 import com.google.solutions.jitaccess.apis.StructuredLogger;
 import com.google.solutions.jitaccess.apis.clients.CloudIdentityGroupsClient;
 import com.google.solutions.jitaccess.apis.clients.IamCredentialsClient;
@@ -48,9 +49,21 @@ public class Main implements QuarkusApplication {
       // Create a logger. We can't rely on CDI injection as we're not
       // in a CDI context here.
       //
-      var logger = new StructuredLogger(System.out);
       var configuration = new ApplicationConfiguration(System.getenv());
 
+      Appendable logOutput = System.out;
+      if (configuration.isAsyncLoggingEnabled()) {
+        //
+        // Write log entries on a background thread, and make sure
+        // that pending entries are written before we exit.
+        //
+        var asyncLogOutput = new AsyncLogWriter(System.out, configuration.asyncLogOptions());
+        Runtime.getRuntime().addShutdownHook(new Thread(asyncLogOutput::close));
+        logOutput = asyncLogOutput;
+      }
+
+      var logger = new StructuredLogger(logOutput, configuration.logFilter());
+
       if (!configuration.isSmtpConfigured()) {
         logger.warn(
           EventIds.STARTUP,
@@ -73,7 +86,7 @@ public class Main implements QuarkusApplication {
       // which in turn produces long, difficult to interpret
       // stack traces.
       //
-      Application.initialize(runtime, configuration, logger);
+      Application.initialize(runtime, configuration, logger, logOutput);
 
       if (runtime.type() == ApplicationRuntime.Type.DEVELOPMENT) {
         logger.warn(
@@ -0,0 +1,303 @@
+//
+// Copyright 2026 Google LLC
+//
+// Licensed to the Apache Software Foundation (ASF) under one
+// or more contributor license agreements.  See the NOTICE file
+// distributed with this work for additional information
+// regarding copyright ownership.  The ASF licenses this file
+// to you under the Apache License, Version 2.0 (the
+// "License"); you may not use this file except in compliance
+// with the License.  You may obtain a copy of the License at
+//
+//   http://www.apache.org/licenses/LICENSE-2.0
+//
+// Unless required by applicable law or agreed to in writing,
+// software distributed under the License is distributed on an
+// "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+// KIND, either express or implied.  See the License for the
+// specific language governing permissions and limitations
+// under the License.
+//
+
+package com.google.solutions.jitaccess.apis;
+
+import com.google.common.base.Preconditions;
+import org.jetbrains.annotations.NotNull;
+
+import java.io.Closeable;
+import java.io.Flushable;
+import java.io.IOException;
+import java.time.Duration;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Output for log entries that moves writing off the calling thread.
+ * <p>
+ * Callers add complete log lines to a bounded, lock-free queue, and a
+ * dedicated writer thread appends them to the underlying output in
+ * batches, using a single write per batch.
+ */
+public class AsyncLogWriter implements Appendable, Flushable, Closeable {
+  private static final long IDLE_WAIT_NANOS = TimeUnit.MILLISECONDS.toNanos(100);
+  private static final long OVERFLOW_WAIT_NANOS = TimeUnit.MICROSECONDS.toNanos(100);
+
+  private final @NotNull Appendable output;
+  private final @NotNull Options options;
+  private final @NotNull ConcurrentLinkedQueue<CharSequence> queue = new ConcurrentLinkedQueue<>();
+  private final @NotNull AtomicInteger queueSize = new AtomicInteger();
+  private final @NotNull AtomicLong dropped = new AtomicLong();
+  private final @NotNull AtomicLong droppedTotal = new AtomicLong();
+  private final @NotNull Thread writerThread;
+  private volatile boolean closed = false;
+  private volatile boolean writing = false;
+
+  public AsyncLogWriter(
+    @NotNull Appendable output,
+    @NotNull Options options
+  ) {
+    Preconditions.checkNotNull(output, "output");
+    Preconditions.checkNotNull(options, "options");
+
+    this.output = output;
+    this.options = options;
+    this.writerThread = Thread.ofPlatform()
+      .name("log-writer")
+      .daemon(true)
+      .start(this::run);
+  }
+
+  /**
+   * Add a line to the queue.
+   *
+   * @param line complete line, including trailing newline
+   * @param policy what to do if the queue is full
+   * @return false if the line was dropped
+   */
+  public boolean append(
+    @NotNull CharSequence line,
+    @NotNull OverflowPolicy policy
+  ) {
+    while (true) {
+      var size = this.queueSize.get();
+      if (this.closed) {
+        //
+        // Writer thread is gone, write synchronously.
+        //
+        synchronized (this.output) {
+          writeQuietly(line);
+        }
+        return true;
+      }
+      else if (size < this.options.capacity) {
+        if (this.queueSize.compareAndSet(size, size + 1)) {
+          this.queue.offer(line);
+          if (size == 0) {
+            LockSupport.unpark(this.writerThread);
+          }
+          return true;
+        }
+      }
+      else if (policy == OverflowPolicy.DROP) {
+        this.dropped.incrementAndGet();
+        this.droppedTotal.incrementAndGet();
+        return false;
+      }
+      else {
+        //
+        // Wait for the writer thread to catch up.
+        //
+        LockSupport.unpark(this.writerThread);
+        LockSupport.parkNanos(OVERFLOW_WAIT_NANOS);
+      }
+    }
+  }
+
+  /**
+   * Overflow policy for informational entries.
+   */
+  public @NotNull OverflowPolicy overflowPolicy() {
+    return this.options.overflowPolicy;
+  }
+
+  /**
+   * Number of lines dropped because the queue was full.
+   */
+  public long droppedCount() {
+    return this.droppedTotal.get();
+  }
+
+  private void writeQuietly(@NotNull CharSequence text) {
+    try {
+      this.output.append(text);
+      if (this.output instanceof Flushable flushable) {
+        flushable.flush();
+      }
+    }
+    catch (IOException ignored) {
+    }
+  }
+
+  /**
+   * Write all lines that are currently queued.
+   *
+   * @return number of lines written
+   */
+  private int drain() {
+    this.writing = true;
+
+    var batch = new StringBuilder();
+    int count = 0;
+
+    CharSequence line;
+    while (count < this.options.maxBatchSize && (line = this.queue.poll()) != null) {
+      batch.append(line);
+      count++;
+    }
+
+    if (count > 0) {
+      this.queueSize.addAndGet(-count);
+    }
+
+    //
+    // Report dropped lines, if any, so that gaps in the log
+    // don't go unnoticed.
+    //
+    var dropped = this.dropped.getAndSet(0);
+    if (dropped > 0) {
+      new StructuredLogger(batch).warn(
+        EventIds.DROP_LOG_ENTRIES,
+        "Dropped %d log entries because the log queue was full",
+        dropped);
+    }
+
+    if (!batch.isEmpty()) {
+      synchronized (this.output) {
+        writeQuietly(batch);
+      }
+    }
+
+    this.writing = false;
+    return count;
+  }
+
+  private void run() {
+    while (!this.closed) {
+      if (drain() == 0) {
+        LockSupport.parkNanos(this, IDLE_WAIT_NANOS);
+      }
+    }
+
+    //
+    // Flush remaining lines.
+    //
+    while (drain() > 0) {
+      Thread.onSpinWait();
+    }
+  }
+
+  //---------------------------------------------------------------------------
+  // Appendable.
+  //---------------------------------------------------------------------------
+
+  @Override
+  public @NotNull Appendable append(CharSequence csq) {
+    append(csq, OverflowPolicy.BLOCK);
+    return this;
+  }
+
+  @Override
+  public @NotNull Appendable append(CharSequence csq, int start, int end) {
+    return append(csq.subSequence(start, end));
+  }
+
+  @Override
+  public @NotNull Appendable append(char c) {
+    return append(String.valueOf(c));
+  }
+
+  //---------------------------------------------------------------------------
+  // Flushable, Closeable.
+  //---------------------------------------------------------------------------
+
+  /**
+   * Wait until all lines that are currently queued have been written.
+   */
+  @Override
+  public void flush() {
+    while ((this.queueSize.get() > 0 || this.writing) && this.writerThread.isAlive()) {
+      LockSupport.unpark(this.writerThread);
+      LockSupport.parkNanos(OVERFLOW_WAIT_NANOS);
+    }
+  }
+
+  /**
+   * Stop the writer thread after writing all queued lines.
+   */
+  @Override
+  public void close() {
+    this.closed = true;
+    LockSupport.unpark(this.writerThread);
+
+    try {
+      this.writerThread.join(this.options.shutdownTimeout.toMillis());
+    }
+    catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+    }
+
+    //
+    // Write any lines that were queued while we were closing.
+    //
+    while (drain() > 0) {
+      Thread.onSpinWait();
+    }
+  }
+
+  //---------------------------------------------------------------------------
+  // Inner classes.
+  //---------------------------------------------------------------------------
+
+  public enum OverflowPolicy {
+    /**
+     * Wait until there's room in the queue.
+     */
+    BLOCK,
+
+    /**
+     * Discard the line.
+     */
+    DROP
+  }
+
+  /**
+   * @param capacity maximum number of queued lines
+   * @param maxBatchSize maximum number of lines to write at once
+   * @param overflowPolicy overflow policy for informational entries,
+   *                       warnings, errors, and audit entries always block
+   * @param shutdownTimeout time to wait for queued lines to be written
+   *                        when closing
+   */
+  public record Options(
+    int capacity,
+    int maxBatchSize,
+    @NotNull OverflowPolicy overflowPolicy,
+    @NotNull Duration shutdownTimeout
+  ) {
+    public static final @NotNull Options DEFAULT = new Options(
+      8192,
+      256,
+      OverflowPolicy.DROP,
+      Duration.ofSeconds(5));
+
+    public Options {
+      Preconditions.checkArgument(capacity > 0, "capacity");
+      Preconditions.checkArgument(maxBatchSize > 0, "maxBatchSize");
+      Preconditions.checkNotNull(overflowPolicy, "overflowPolicy");
+      Preconditions.checkNotNull(shutdownTimeout, "shutdownTimeout");
+    }
+  }
+}
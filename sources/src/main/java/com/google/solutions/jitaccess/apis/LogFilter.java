@@ -0,0 +1,170 @@
+//
+// Copyright 2026 Google LLC
+//
+// Licensed to the Apache Software Foundation (ASF) under one
+// or more contributor license agreements.  See the NOTICE file
+// distributed with this work for additional information
+// regarding copyright ownership.  The ASF licenses this file
+// to you under the Apache License, Version 2.0 (the
+// "License"); you may not use this file except in compliance
+// with the License.  You may obtain a copy of the License at
+//
+//   http://www.apache.org/licenses/LICENSE-2.0
+//
+// Unless required by applicable law or agreed to in writing,
+// software distributed under the License is distributed on an
+// "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+// KIND, either express or implied.  See the License for the
+// specific language governing permissions and limitations
+// under the License.
+//
+
+package com.google.solutions.jitaccess.apis;
+
+import com.google.common.base.Preconditions;
+import org.jetbrains.annotations.NotNull;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * Decides which log entries to write, based on their event ID
+ * and severity.
+ * <p>
+ * Each event ID can have a rule that specifies a minimum severity
+ * and a sampling rate for informational entries. Event IDs without
+ * a rule use the default rule.
+ * <p>
+ * Audit entries aren't subject to filtering.
+ */
+public class LogFilter {
+  /**
+   * Filter that lets all entries pass.
+   */
+  public static final @NotNull LogFilter NONE = new LogFilter(Rule.DEFAULT, Map.of());
+
+  private final @NotNull Rule defaultRule;
+  private final @NotNull Map<String, Rule> rules;
+
+  public LogFilter(
+    @NotNull Rule defaultRule,
+    @NotNull Map<String, Rule> rules
+  ) {
+    Preconditions.checkNotNull(defaultRule, "defaultRule");
+    Preconditions.checkNotNull(rules, "rules");
+
+    this.defaultRule = defaultRule;
+    this.rules = Map.copyOf(rules);
+  }
+
+  /**
+   * Parse a filter specification.
+   * <p>
+   * The specification is a comma-separated list of rules in the format
+   * {@code event-id=SEVERITY} or {@code event-id=SEVERITY:rate}, where
+   * rate is a number between 0 and 1. The event ID {@code *} denotes the
+   * default rule.
+   * <p>
+   * Example: {@code api.authenticate=WARN,catalog.subject.resolve=INFO:0.1}
+   *
+   * @throws IllegalArgumentException if the specification is malformed
+   */
+  public static @NotNull LogFilter parse(@NotNull String specification) {
+    var defaultRule = Rule.DEFAULT;
+    var rules = new HashMap<String, Rule>();
+
+    for (var item : specification.split(",")) {
+      if (item.isBlank()) {
+        continue;
+      }
+
+      var keyAndValue = item.split("=", 2);
+      if (keyAndValue.length != 2 || keyAndValue[0].isBlank()) {
+        throw new IllegalArgumentException(
+          String.format("The log filter rule '%s' is malformed", item.trim()));
+      }
+
+      var rule = Rule.parse(keyAndValue[1].trim());
+      var eventId = keyAndValue[0].trim();
+      if (eventId.equals("*")) {
+        defaultRule = rule;
+      }
+      else {
+        rules.put(eventId, rule);
+      }
+    }
+
+    return new LogFilter(defaultRule, rules);
+  }
+
+  /**
+   * Check if an operational entry should be written.
+   *
+   * @param severity severity, INFO, WARN, or ERROR.
+   * @param eventId event ID
+   */
+  public boolean isLoggable(
+    @NotNull String severity,
+    @NotNull String eventId
+  ) {
+    var rule = this.rules.getOrDefault(eventId, this.defaultRule);
+    var level = Severity.parse(severity);
+
+    if (level.compareTo(rule.threshold) < 0) {
+      return false;
+    }
+    else if (level == Severity.INFO && rule.samplingRate < 1.0) {
+      return ThreadLocalRandom.current().nextDouble() < rule.samplingRate;
+    }
+    else {
+      return true;
+    }
+  }
+
+  //---------------------------------------------------------------------------
+  // Inner classes.
+  //---------------------------------------------------------------------------
+
+  public enum Severity {
+    INFO,
+    WARN,
+    ERROR;
+
+    static @NotNull Severity parse(@NotNull String s) {
+      return switch (s) {
+        case "WARN", "WARNING" -> WARN;
+        case "ERROR" -> ERROR;
+        default -> INFO;
+      };
+    }
+  }
+
+  /**
+   * @param threshold minimum severity of entries to write
+   * @param samplingRate fraction of informational entries to write,
+   *                     between 0 and 1.
+   */
+  public record Rule(
+    @NotNull Severity threshold,
+    double samplingRate
+  ) {
+    public static final @NotNull Rule DEFAULT = new Rule(Severity.INFO, 1.0);
+
+    public Rule {
+      Preconditions.checkNotNull(threshold, "threshold");
+      Preconditions.checkArgument(
+        samplingRate >= 0.0 && samplingRate <= 1.0,
+        "The sampling rate must be between 0 and 1");
+    }
+
+    static @NotNull Rule parse(@NotNull String s) {
+      var severityAndRate = s.split(":", 2);
+      return new Rule(
+        Severity.valueOf(severityAndRate[0].trim().toUpperCase()),
+        severityAndRate.length == 2
+          ? Double.parseDouble(severityAndRate[1].trim())
+          : 1.0);
+    }
+  }
+}
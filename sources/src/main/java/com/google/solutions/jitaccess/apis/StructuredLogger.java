@@ -21,14 +21,14 @@
 
 package com.google.solutions.jitaccess.apis;
 
-import com.fasterxml.jackson.annotation.JsonInclude;
-import com.fasterxml.jackson.annotation.JsonProperty;
-import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonGenerator;
 import com.google.solutions.jitaccess.common.Exceptions;
 import org.jetbrains.annotations.NotNull;
 import org.jetbrains.annotations.Nullable;
 
 import java.io.IOException;
+import java.io.Writer;
 import java.util.Formatter;
 import java.util.HashMap;
 import java.util.Map;
@@ -39,15 +39,34 @@ import java.util.Map;
  */
 public class StructuredLogger implements Logger {
   private static final String LABEL_EXCEPTION_TRACE = "exception/stacktrace";
-  private static final ObjectMapper JSON_MAPPER = new ObjectMapper()
-    .setSerializationInclusion(JsonInclude.Include.NON_NULL);
+  private static final JsonFactory JSON_FACTORY = new JsonFactory();
+
+  /**
+   * Buffer for encoding entries, reused across entries of the same thread.
+   */
+  private static final ThreadLocal<EncodingBuffer> ENCODING_BUFFER =
+    ThreadLocal.withInitial(EncodingBuffer::new);
 
   protected final @NotNull Appendable output;
+  protected final @NotNull LogFilter filter;
 
-  public StructuredLogger(@NotNull Appendable output) {
+  public StructuredLogger(
+    @NotNull Appendable output,
+    @NotNull LogFilter filter
+  ) {
     this.output = output;
+    this.filter = filter;
   }
 
+  public StructuredLogger(@NotNull Appendable output) {
+    this(output, LogFilter.NONE);
+  }
+
+  /**
+   * Create the labels for a new entry. Each entry gets its own map
+   * because callers can keep adding labels to an entry until they
+   * write it, so the map can't be shared with other entries.
+   */
   protected @NotNull Map<String, String> createLabels(String eventId) {
     var labels = new HashMap<String, String>();
     labels.put("event/id", eventId);
@@ -125,6 +144,13 @@ public class StructuredLogger implements Logger {
     @NotNull String eventId,
     @NotNull Exception exception
   ) {
+    if (!this.filter.isLoggable("WARN", eventId)) {
+      //
+      // Avoid the cost of capturing the stack trace.
+      //
+      return;
+    }
+
     buildWarning(eventId)
       .addLabel(LABEL_EXCEPTION_TRACE, Exceptions.stackTrace(exception))
       .setMessage(Exceptions.fullMessage(exception))
@@ -137,6 +163,13 @@ public class StructuredLogger implements Logger {
     @NotNull String message,
     @NotNull Exception exception
   ) {
+    if (!this.filter.isLoggable("WARN", eventId)) {
+      //
+      // Avoid the cost of capturing the stack trace.
+      //
+      return;
+    }
+
     buildWarning(eventId)
       .addLabel(LABEL_EXCEPTION_TRACE, Exceptions.stackTrace(exception))
       .setMessage("%s: %s", message, Exceptions.fullMessage(exception))
@@ -169,6 +202,13 @@ public class StructuredLogger implements Logger {
     @NotNull String eventId,
     @NotNull Exception exception
   ) {
+    if (!this.filter.isLoggable("ERROR", eventId)) {
+      //
+      // Avoid the cost of capturing the stack trace.
+      //
+      return;
+    }
+
     buildError(eventId)
       .addLabel(LABEL_EXCEPTION_TRACE, Exceptions.stackTrace(exception))
       .setMessage(Exceptions.fullMessage(exception))
@@ -181,6 +221,13 @@ public class StructuredLogger implements Logger {
     @NotNull String message,
     @NotNull Exception exception
   ) {
+    if (!this.filter.isLoggable("ERROR", eventId)) {
+      //
+      // Avoid the cost of capturing the stack trace.
+      //
+      return;
+    }
+
     buildError(eventId)
       .addLabel(LABEL_EXCEPTION_TRACE, Exceptions.stackTrace(exception))
       .setMessage("%s: %s", message, Exceptions.fullMessage(exception))
@@ -194,18 +241,11 @@ public class StructuredLogger implements Logger {
   /**
    * Entry that, when serialized to JSON, can be parsed and interpreted by Cloud Logging.
    */
-  @SuppressWarnings("FieldCanBeLocal")
   public class JsonLogEntry implements LogEntry {
-    @JsonProperty("severity")
     private final @NotNull String severity;
-
-    @JsonProperty("logging.googleapis.com/labels")
     private final @NotNull Map<String, String> labels;
-
-    @JsonProperty("message")
     private @Nullable String message;
-
-    @JsonProperty("logging.googleapis.com/trace")
+    private @Nullable Object[] messageArgs;
     private final @Nullable String traceId;
 
     private JsonLogEntry(
@@ -218,6 +258,49 @@ public class StructuredLogger implements Logger {
       this.traceId = traceId;
     }
 
+    /**
+     * Encode the entry as a single line of JSON.
+     * <p>
+     * The entry is streamed into a thread-local buffer, which avoids
+     * building an intermediate object tree and reuses the buffer's
+     * memory across entries. Message arguments are formatted into a
+     * reusable buffer as well. The only per-entry allocation here is
+     * the resulting line, which must outlive the buffer because
+     * asynchronous output might write it later.
+     */
+    @NotNull String encode() throws IOException {
+      var buffer = ENCODING_BUFFER.get();
+      buffer.reset();
+
+      try (var generator = JSON_FACTORY.createGenerator(buffer)) {
+        generator.writeStartObject();
+        generator.writeStringField("severity", this.severity);
+
+        generator.writeObjectFieldStart("logging.googleapis.com/labels");
+        for (var label : this.labels.entrySet()) {
+          generator.writeStringField(label.getKey(), label.getValue());
+        }
+        generator.writeEndObject();
+
+        if (this.message != null && this.messageArgs != null) {
+          generator.writeFieldName("message");
+          buffer.writeFormatted(generator, this.message, this.messageArgs);
+        }
+        else if (this.message != null) {
+          generator.writeStringField("message", this.message);
+        }
+
+        if (this.traceId != null) {
+          generator.writeStringField("logging.googleapis.com/trace", this.traceId);
+        }
+
+        generator.writeEndObject();
+      }
+
+      buffer.write('\n');
+      return buffer.toString();
+    }
+
     @Override
     public @NotNull LogEntry addLabel(@NotNull String label, @Nullable Object value) {
       if (value != null) {
@@ -235,32 +318,159 @@ public class StructuredLogger implements Logger {
     @Override
     public @NotNull LogEntry setMessage(@NotNull String message) {
       this.message = message;
+      this.messageArgs = null;
       return this;
     }
 
     @Override
     public @NotNull LogEntry setMessage(@NotNull String format, Object... args) {
-      this.message = new Formatter()
-        .format(format, args)
-        .toString();
+      //
+      // Defer formatting until we know that the entry is
+      // going to be written.
+      //
+      this.message = format;
+      this.messageArgs = args;
       return this;
     }
 
+    private @Nullable String message() {
+      if (this.message != null && this.messageArgs != null) {
+        this.message = String.format(this.message, this.messageArgs);
+        this.messageArgs = null;
+      }
+
+      return this.message;
+    }
+
+    /**
+     * Check if the entry passes the filter. Audit entries always pass.
+     */
+    private boolean isLoggable() {
+      var eventId = this.labels.get("event/id");
+      return "audit".equals(this.labels.get("event/type")) ||
+        eventId == null ||
+        StructuredLogger.this.filter.isLoggable(this.severity, eventId);
+    }
+
     @Override
     public void write() {
+      if (!isLoggable()) {
+        return;
+      }
+
+      String line;
       try {
-        StructuredLogger.this.output
-          .append(JSON_MAPPER.writeValueAsString(this))
-          .append("\n");
+        line = encode();
       }
       catch (IOException e) {
-        try {
-          StructuredLogger.this.output
-            .append(String.format("Failed to log: %s\n", this.message));
+        line = String.format("Failed to log: %s\n", message());
+      }
+
+      try {
+        if (StructuredLogger.this.output instanceof AsyncLogWriter asyncOutput) {
+          asyncOutput.append(line, overflowPolicy());
         }
-        catch (IOException ignored) {
+        else {
+          StructuredLogger.this.output.append(line);
         }
       }
+      catch (IOException ignored) {
+      }
+    }
+
+    /**
+     * Determine what to do if the entry can't be written immediately.
+     * Audit entries, warnings, and errors must not get lost.
+     */
+    private @NotNull AsyncLogWriter.OverflowPolicy overflowPolicy() {
+      if ("INFO".equals(this.severity) && !"audit".equals(this.labels.get("event/type"))) {
+        return ((AsyncLogWriter)StructuredLogger.this.output).overflowPolicy();
+      }
+      else {
+        return AsyncLogWriter.OverflowPolicy.BLOCK;
+      }
+    }
+  }
+
+  /**
+   * Writer that appends to a reusable buffer.
+   */
+  private static class EncodingBuffer extends Writer {
+    private static final int MAX_RETAINED_CAPACITY = 64 * 1024;
+    private @NotNull StringBuilder buffer = new StringBuilder(1024);
+
+    /**
+     * Buffer for formatting messages, reused across entries.
+     */
+    private final @NotNull StringBuilder messageBuffer = new StringBuilder(256);
+    private final @NotNull Formatter messageFormatter = new Formatter(this.messageBuffer);
+    private char @NotNull [] messageChars = new char[256];
+
+    void reset() {
+      if (this.buffer.capacity() > MAX_RETAINED_CAPACITY) {
+        //
+        // Don't hold on to memory after logging an unusually
+        // large entry.
+        //
+        this.buffer = new StringBuilder(1024);
+      }
+      else {
+        this.buffer.setLength(0);
+      }
+
+      if (this.messageChars.length > MAX_RETAINED_CAPACITY) {
+        this.messageBuffer.setLength(0);
+        this.messageBuffer.trimToSize();
+        this.messageChars = new char[256];
+      }
+    }
+
+    /**
+     * Format a message and write it to the generator as a string value.
+     */
+    void writeFormatted(
+      @NotNull JsonGenerator generator,
+      @NotNull String format,
+      Object @NotNull [] args
+    ) throws IOException {
+      this.messageBuffer.setLength(0);
+      this.messageFormatter.format(format, args);
+
+      var length = this.messageBuffer.length();
+      if (this.messageChars.length < length) {
+        this.messageChars = new char[length];
+      }
+
+      this.messageBuffer.getChars(0, length, this.messageChars, 0);
+      generator.writeString(this.messageChars, 0, length);
+    }
+
+    @Override
+    public void write(char @NotNull [] chars, int offset, int length) {
+      this.buffer.append(chars, offset, length);
+    }
+
+    @Override
+    public void write(int c) {
+      this.buffer.append((char)c);
+    }
+
+    @Override
+    public void write(@NotNull String str, int offset, int length) {
+      this.buffer.append(str, offset, offset + length);
+    }
+
+    @Override
+    public void flush() {
+    }
+
+    @Override
+    public void close() {
+    }
+
+    @Override
+    public String toString() {
+      return this.buffer.toString();
     }
   }
 }
@@ -24,11 +24,13 @@ package com.google.solutions.jitaccess.apis.clients;
 import com.google.api.client.googleapis.json.GoogleJsonResponseException;
 import com.google.api.client.googleapis.services.json.AbstractGoogleJsonClient;
 import com.google.api.client.googleapis.services.json.AbstractGoogleJsonClientRequest;
+import com.google.api.client.util.Key;
 import com.google.api.services.cloudresourcemanager.v3.model.GetIamPolicyRequest;
 import com.google.api.services.cloudresourcemanager.v3.model.GetPolicyOptions;
 import com.google.api.services.cloudresourcemanager.v3.model.Policy;
 import com.google.api.services.cloudresourcemanager.v3.model.SetIamPolicyRequest;
 import com.google.common.base.Preconditions;
+import com.google.solutions.jitaccess.common.Deadline;
 import org.jetbrains.annotations.NotNull;
 import org.jetbrains.annotations.Nullable;
 
@@ -40,6 +42,7 @@ import java.util.function.Consumer;
  */
 public abstract class AbstractIamClient {
   private static final int MAX_SET_IAM_POLICY_ATTEMPTS = 4;
+  private static final String IAM_POLICY_FIELDS = "bindings,etag,version";
 
   private static boolean isRoleNotGrantableErrorMessage(@Nullable String message)
   {
@@ -111,7 +114,15 @@ public abstract class AbstractIamClient {
           fullResourcePath,
           new GetIamPolicyRequest()
             .setOptions(optionsV3));
-        var policy = getRequest.execute();
+
+        //
+        // Only fetch what we need to modify and write back the policy. Without
+        // an explicit update mask, setIamPolicy only touches bindings and etag,
+        // so omitting other fields (such as audit configs) is safe.
+        //
+        var policy = getRequest
+          .setFields(IAM_POLICY_FIELDS)
+          .execute();
 
         //
         // Make sure we're using v3; older versions don't support conditions.
@@ -140,8 +151,10 @@ public abstract class AbstractIamClient {
         catch (GoogleJsonResponseException e) {
           if (e.getStatusCode() == 412) {
             //
-            // Concurrent modification - back off and retry.
+            // Concurrent modification - back off and retry, unless
+            // the caller has given up already.
             //
+            Deadline.checkCurrent();
             try {
               Thread.sleep(200);
             }
@@ -197,6 +210,12 @@ public abstract class AbstractIamClient {
   //---------------------------------------------------------------------------
 
   static class GetIamPolicy extends AbstractGoogleJsonClientRequest<Policy> {
+    /**
+     * Selector specifying which fields to include in a partial response.
+     */
+    @Key
+    private @Nullable String fields;
+
     protected GetIamPolicy(
       @NotNull AbstractGoogleJsonClient client,
       @NotNull String fullResourcePath,
@@ -209,6 +228,11 @@ public abstract class AbstractIamClient {
         content,
         Policy.class);
     }
+
+    public @NotNull GetIamPolicy setFields(@Nullable String fields) {
+      this.fields = fields;
+      return this;
+    }
   }
 
   static class SetIamPolicy extends AbstractGoogleJsonClientRequest<Policy> {
@@ -23,19 +23,37 @@ package com.google.solutions.jitaccess.apis.clients;
 
 import com.google.api.client.googleapis.json.GoogleJsonResponseException;
 import com.google.api.services.cloudasset.v1.CloudAsset;
+import com.google.api.services.cloudasset.v1.model.IamPolicySearchResult;
 import com.google.api.services.cloudasset.v1.model.PolicyInfo;
 import com.google.auth.oauth2.GoogleCredentials;
 import com.google.common.base.Preconditions;
+import com.google.common.collect.Lists;
+import com.google.solutions.jitaccess.common.CompletableFutures;
+import com.google.solutions.jitaccess.common.Exceptions;
 import org.jetbrains.annotations.NotNull;
 
 import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executor;
+import java.util.function.Consumer;
 
 /**
  * Adapter for the Asset Inventory API.
  */
 public class AssetInventoryClient {
   private static final String ABSOLUTE_PREFIX = "//cloudresourcemanager.googleapis.com/";
+
+  /**
+   * Maximum number of resources per BatchGetEffectiveIamPolicies request.
+   */
+  public static final int MAX_BATCH_SIZE = 20;
+
+  private static final int SEARCH_IAM_POLICIES_PAGE_SIZE = 500;
   public static final String OAUTH_SCOPE = "https://www.googleapis.com/auth/cloud-platform";
   private final @NotNull GoogleCredentials credentials;
   protected final @NotNull HttpTransport.Options httpOptions;
@@ -68,18 +86,99 @@ public class AssetInventoryClient {
     Preconditions.checkNotNull(resourceId, "resourceId");
     Preconditions.checkNotNull(resourceId.contains("/"), "resourceId");
 
+    return batchGetEffectiveIamPolicies(scope, List.of(resourceId))
+      .getOrDefault(resourceId, List.of());
+  }
+
+  /**
+   * Get effective set of IAM policies for multiple resources.
+   * <p>
+   * Resources are looked up in batches of up to MAX_BATCH_SIZE
+   * resources, and batches are looked up concurrently.
+   *
+   * @return policies by resource ID. Resources that don't exist
+   *         are omitted, and so are the other resources in the same
+   *         batch. Callers must look up omitted resources individually
+   *         if they need them.
+   */
+  public @NotNull Map<String, List<PolicyInfo>> getEffectiveIamPolicies(
+    @NotNull String scope,
+    @NotNull Collection<String> resourceIds,
+    @NotNull Executor executor,
+    @NotNull CompletableFutures.FanOutOptions fanOutOptions
+  ) throws AccessException, IOException {
+    Preconditions.checkNotNull(scope, "scope");
+    Preconditions.checkNotNull(resourceIds, "resourceIds");
+
+    var future = CompletableFutures.mapAsync(
+      Lists.partition(new ArrayList<>(resourceIds), MAX_BATCH_SIZE),
+      batch -> {
+        try {
+          return batchGetEffectiveIamPolicies(scope, batch);
+        }
+        catch (ResourceNotFoundException e) {
+          //
+          // At least one of the resources doesn't exist, but we don't
+          // know which. Looking up each resource individually would
+          // multiply the number of requests, so leave that to the
+          // caller.
+          //
+          return Map.<String, List<PolicyInfo>>of();
+        }
+      },
+      executor,
+      fanOutOptions);
+
+    try {
+      var policies = new HashMap<String, List<PolicyInfo>>();
+      future.get().forEach(policies::putAll);
+      return policies;
+    }
+    catch (InterruptedException | ExecutionException e) {
+      if (Exceptions.unwrap(e) instanceof AccessException accessException) {
+        throw (AccessException) accessException.fillInStackTrace();
+      }
+      else if (Exceptions.unwrap(e) instanceof IOException ioException) {
+        throw (IOException) ioException.fillInStackTrace();
+      }
+      else {
+        throw new IOException("Looking up effective IAM policies failed", e);
+      }
+    }
+  }
+
+  /**
+   * Get effective IAM policies using a single
+   * BatchGetEffectiveIamPolicies request.
+   */
+  private @NotNull Map<String, List<PolicyInfo>> batchGetEffectiveIamPolicies(
+    @NotNull String scope,
+    @NotNull List<String> resourceIds
+  ) throws AccessException, IOException {
+    assert resourceIds.size() <= MAX_BATCH_SIZE;
+
     try
     {
       var results = createClient()
         .effectiveIamPolicies()
         .batchGet(scope)
-        .setNames(List.of(ABSOLUTE_PREFIX +  resourceId))
+        .setNames(resourceIds
+          .stream()
+          .map(id -> ABSOLUTE_PREFIX + id)
+          .toList())
         .execute()
         .getPolicyResults();
 
-      return results.isEmpty()
-        ? List.of()
-        : results.get(0).getPolicies();
+      var policies = new HashMap<String, List<PolicyInfo>>();
+      if (results != null) {
+        for (var result : results) {
+          policies.put(
+            result.getFullResourceName().substring(ABSOLUTE_PREFIX.length()),
+            result.getPolicies() != null ? result.getPolicies() : List.of());
+        }
+      }
+
+      return policies;
     }
     catch (GoogleJsonResponseException e) {
       switch (e.getStatusCode()) {
@@ -90,7 +189,10 @@ public class AssetInventoryClient {
             String.format("Access to scope '%s' is denied", scope), e);
         case 404:
           throw new ResourceNotFoundException(
-            String.format("The resource '%s' does not exist", resourceId), e);
+            resourceIds.size() == 1
+              ? String.format("The resource '%s' does not exist", resourceIds.get(0))
+              : "One or more of the resources do not exist",
+            e);
         case 429:
           throw new QuotaExceededException(
             "Exceeded quota for BatchGetEffectiveIamPolicies API requests. Consider increasing the request " +
@@ -101,4 +203,67 @@ public class AssetInventoryClient {
       }
     }
   }
+
+  /**
+   * Search IAM policies of all resources in a scope.
+   * <p>
+   * Results are passed to the consumer page by page, so that the
+   * caller doesn't need to hold all results in memory.
+   *
+   * @param scope scope to search, for example organizations/123
+   * @param query search query
+   * @param assetTypes asset types to search, or empty to search all
+   * @param consumer consumer for search results
+   */
+  public void searchAllIamPolicies(
+    @NotNull String scope,
+    @NotNull String query,
+    @NotNull List<String> assetTypes,
+    @NotNull Consumer<IamPolicySearchResult> consumer
+  ) throws AccessException, IOException {
+    Preconditions.checkNotNull(scope, "scope");
+    Preconditions.checkNotNull(query, "query");
+    Preconditions.checkNotNull(assetTypes, "assetTypes");
+    Preconditions.checkNotNull(consumer, "consumer");
+
+    try {
+      var client = createClient();
+
+      String pageToken = null;
+      do {
+        var request = client
+          .v1()
+          .searchAllIamPolicies(scope)
+          .setQuery(query)
+          .setPageSize(SEARCH_IAM_POLICIES_PAGE_SIZE)
+          .setPageToken(pageToken);
+        if (!assetTypes.isEmpty()) {
+          request.setAssetTypes(assetTypes);
+        }
+
+        var response = request.execute();
+        if (response.getResults() != null) {
+          response.getResults().forEach(consumer);
+        }
+
+        pageToken = response.getNextPageToken();
+      } while (pageToken != null && !pageToken.isEmpty());
+    }
+    catch (GoogleJsonResponseException e) {
+      switch (e.getStatusCode()) {
+        case 401:
+          throw new NotAuthenticatedException("Not authenticated", e);
+        case 403:
+          throw new AccessDeniedException(
+            String.format("Access to scope '%s' is denied", scope), e);
+        case 429:
+          throw new QuotaExceededException(
+            "Exceeded quota for SearchAllIamPolicies API requests. Consider increasing the request " +
+              "quota in the application project.",
+            e);
+        default:
+          throw (GoogleJsonResponseException) e.fillInStackTrace();
+      }
+    }
+  }
 }
\ No newline at end of file
@@ -32,6 +32,7 @@ import com.google.solutions.jitaccess.apis.CustomerId;
 import com.google.solutions.jitaccess.auth.GroupId;
 import com.google.solutions.jitaccess.auth.IamPrincipalId;
 import com.google.solutions.jitaccess.common.Coalesce;
+import com.google.solutions.jitaccess.common.Deadline;
 import jakarta.inject.Singleton;
 import org.crac.Resource;
 import org.jetbrains.annotations.NotNull;
@@ -195,8 +196,10 @@ public class CloudIdentityGroupsClient {
             .anyMatch(err -> e.getMessage() != null && err.getMessage().contains("INVALID_GAIA_GROUP"))) {
 
           //
-          // This is most likely an intermittent error.
+          // This is most likely an intermittent error. Retry, unless
+          // the caller has given up already.
           //
+          Deadline.checkCurrent();
           try {
             Thread.sleep(200);
           }
@@ -240,15 +243,19 @@ public class CloudIdentityGroupsClient {
 
   /**
    * Get details for an existing group.
+   *
+   * @param fields partial response mask, or null to return all fields
    */
   private @NotNull Group getGroup(
     @NotNull CloudIdentity client,
-    @NotNull GroupKey groupKey
+    @NotNull GroupKey groupKey,
+    @Nullable String fields
   ) throws AccessException, IOException {
     try {
       return client
         .groups()
         .get(groupKey.toString())
+        .setFields(fields)
         .execute();
     }
     catch (GoogleJsonResponseException e) {
@@ -263,7 +270,7 @@ public class CloudIdentityGroupsClient {
   public @NotNull Group getGroup(
     @NotNull GroupKey groupKey
   ) throws AccessException, IOException {
-    return getGroup(createClient(), groupKey);
+    return getGroup(createClient(), groupKey, null);
   }
 
   /**
@@ -271,9 +278,21 @@ public class CloudIdentityGroupsClient {
    */
   public @NotNull Group getGroup(
     @NotNull GroupId groupId
+  ) throws AccessException, IOException {
+    return getGroup(groupId, null);
+  }
+
+  /**
+   * Get selected details for an existing group.
+   *
+   * @param fields partial response mask, or null to return all fields
+   */
+  public @NotNull Group getGroup(
+    @NotNull GroupId groupId,
+    @Nullable String fields
   ) throws AccessException, IOException {
     var client = createClient();
-    return getGroup(client, lookupGroup(client, groupId));
+    return getGroup(client, lookupGroup(client, groupId), fields);
   }
 
   /**
@@ -779,6 +798,18 @@ public class CloudIdentityGroupsClient {
    */
   public @NotNull List<MembershipRelation> listMembershipsByUser(
     @NotNull IamPrincipalId member
+  ) throws AccessException, IOException {
+    return listMembershipsByUser(member, null);
+  }
+
+  /**
+   * List groups a user is a member of.
+   *
+   * @param fields partial response mask for each membership, or null to return all fields
+   */
+  public @NotNull List<MembershipRelation> listMembershipsByUser(
+    @NotNull IamPrincipalId member,
+    @Nullable String fields
   ) throws AccessException, IOException {
     Preconditions.checkArgument(member.value().indexOf('\'') < 0);
 
@@ -794,6 +825,7 @@ public class CloudIdentityGroupsClient {
           .setQuery(String.format("member_key_id=='%s'", member.value()))
           .setPageToken(pageToken)
           .setPageSize(SEARCH_PAGE_SIZE)
+          .setFields(PartialResponse.forPage("memberships", fields))
           .execute();
 
         if (page.getMemberships() != null) {
@@ -806,6 +838,7 @@ public class CloudIdentityGroupsClient {
         assert page.getMemberships() == null || page
           .getMemberships()
           .stream()
+          .filter(m -> m.getRoles() != null)
           .flatMap(m -> m.getRoles().stream())
           .allMatch(r -> r.getExpiryDetail() == null);
 
@@ -836,6 +869,19 @@ public class CloudIdentityGroupsClient {
   public @NotNull List<Group> searchGroups(
     @NotNull String query,
     boolean fullDetails
+  ) throws AccessException, IOException {
+    return searchGroups(query, fullDetails, null);
+  }
+
+  /**
+   * Search for groups that match a certain CEL query.
+   *
+   * @param fields partial response mask for each group, or null to return all fields
+   */
+  public @NotNull List<Group> searchGroups(
+    @NotNull String query,
+    boolean fullDetails,
+    @Nullable String fields
   ) throws AccessException, IOException {
     try {
       var client = createClient();
@@ -849,6 +895,7 @@ public class CloudIdentityGroupsClient {
           .setPageToken(pageToken)
           .setPageSize(SEARCH_PAGE_SIZE)
           .setView(fullDetails ? "FULL" : "BASIC")
+          .setFields(PartialResponse.forPage("groups", fields))
           .execute();
 
         if (page.getGroups() != null) {
@@ -872,6 +919,19 @@ public class CloudIdentityGroupsClient {
   public @NotNull List<Group> searchGroupsByPrefix(
     @NotNull String groupNamePrefix,
     boolean fullDetails
+  ) throws AccessException, IOException {
+    return searchGroupsByPrefix(groupNamePrefix, fullDetails, null);
+  }
+
+  /**
+   * Search for groups by prefix.
+   *
+   * @param fields partial response mask for each group, or null to return all fields
+   */
+  public @NotNull List<Group> searchGroupsByPrefix(
+    @NotNull String groupNamePrefix,
+    boolean fullDetails,
+    @Nullable String fields
   ) throws AccessException, IOException {
     Preconditions.checkArgument(groupNamePrefix.indexOf('\'') < 0);
 
@@ -879,7 +939,8 @@ public class CloudIdentityGroupsClient {
       String.format("parent=='customers/%s' && group_key.startsWith('%s')",
         this.options.customerId,
         groupNamePrefix),
-      fullDetails);
+      fullDetails,
+      fields);
   }
 
   /**
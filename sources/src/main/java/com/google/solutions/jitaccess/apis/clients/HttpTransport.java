@@ -27,6 +27,7 @@ import com.google.api.client.http.HttpRequestInitializer;
 import com.google.api.client.http.javanet.NetHttpTransport;
 import com.google.auth.Credentials;
 import com.google.auth.http.HttpCredentialsAdapter;
+import com.google.solutions.jitaccess.common.Deadline;
 import org.jetbrains.annotations.NotNull;
 
 import java.io.FileInputStream;
@@ -72,6 +73,14 @@ public class HttpTransport {
     }
   }
 
+  /**
+   * Create a request initializer that authenticates requests and
+   * applies timeouts.
+   * <p>
+   * If the current thread has a deadline, timeouts are shortened
+   * to the time remaining until the deadline, and requests fail
+   * right away if the deadline has already expired.
+   */
   public static @NotNull HttpRequestInitializer newAuthenticatingRequestInitializer(
     @NotNull Credentials credentials,
     @NotNull Options httpOptions
@@ -79,18 +88,32 @@ public class HttpTransport {
     return new HttpCredentialsAdapter(credentials) {
       @Override
       public void initialize(@NotNull HttpRequest request) throws IOException {
+        var deadline = Deadline.current();
+        if (deadline.isPresent()) {
+          deadline.get().check();
+        }
+
         super.initialize(request);
 
-        if (!httpOptions.readTimeout.isZero()) {
-          request.setReadTimeout((int) httpOptions.readTimeout.toMillis());
+        var readTimeout = deadline
+          .map(d -> d.limit(httpOptions.readTimeout))
+          .orElse(httpOptions.readTimeout);
+        if (!readTimeout.isZero()) {
+          request.setReadTimeout((int) readTimeout.toMillis());
         }
 
-        if (!httpOptions.writeTimeout.isZero()) {
-          request.setWriteTimeout((int) httpOptions.writeTimeout.toMillis());
+        var writeTimeout = deadline
+          .map(d -> d.limit(httpOptions.writeTimeout))
+          .orElse(httpOptions.writeTimeout);
+        if (!writeTimeout.isZero()) {
+          request.setWriteTimeout((int) writeTimeout.toMillis());
         }
 
-        if (!httpOptions.connectTimeout.isZero()) {
-          request.setConnectTimeout((int) httpOptions.connectTimeout.toMillis());
+        var connectTimeout = deadline
+          .map(d -> d.limit(httpOptions.connectTimeout))
+          .orElse(httpOptions.connectTimeout);
+        if (!connectTimeout.isZero()) {
+          request.setConnectTimeout((int) connectTimeout.toMillis());
         }
       }
     };
@@ -0,0 +1,292 @@
+//
+// Copyright 2026 Google LLC
+//
+// Licensed to the Apache Software Foundation (ASF) under one
+// or more contributor license agreements.  See the NOTICE file
+// distributed with this work for additional information
+// regarding copyright ownership.  The ASF licenses this file
+// to you under the Apache License, Version 2.0 (the
+// "License"); you may not use this file except in compliance
+// with the License.  You may obtain a copy of the License at
+//
+//   http://www.apache.org/licenses/LICENSE-2.0
+//
+// Unless required by applicable law or agreed to in writing,
+// software distributed under the License is distributed on an
+// "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+// KIND, either express or implied.  See the License for the
+// specific language governing permissions and limitations
+// under the License.
+//
+
+package com.google.solutions.jitaccess.apis.clients;
+
+import com.google.api.client.http.GenericUrl;
+import com.google.api.client.json.GenericJson;
+import com.google.api.client.json.JsonObjectParser;
+import com.google.api.client.json.gson.GsonFactory;
+import com.google.api.client.util.Key;
+import com.google.common.base.Preconditions;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import java.io.IOException;
+import java.math.BigInteger;
+import java.security.AlgorithmParameters;
+import java.security.GeneralSecurityException;
+import java.security.KeyFactory;
+import java.security.PublicKey;
+import java.security.spec.ECGenParameterSpec;
+import java.security.spec.ECParameterSpec;
+import java.security.spec.ECPoint;
+import java.security.spec.ECPublicKeySpec;
+import java.security.spec.RSAPublicKeySpec;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Base64;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Cache for the public keys of a JSON Web Key Set (JWKS).
+ * <p>
+ * Keys are refreshed in the background once they reach a certain
+ * age, so that callers don't have to wait for keys to be fetched.
+ * Lookups for unknown key IDs trigger an immediate refresh because
+ * the keys might have been rotated, but such refreshes are
+ * rate-limited.
+ */
+public class JsonWebKeySetCache {
+  private final @NotNull String url;
+  private final @NotNull Executor executor;
+  private final @NotNull HttpTransport.Options httpOptions;
+  private final @NotNull Options options;
+
+  private final @NotNull Object refreshLock = new Object();
+  private final @NotNull AtomicBoolean backgroundRefreshPending = new AtomicBoolean(false);
+  private volatile @NotNull Map<String, PublicKey> keys = Map.of();
+  private volatile @NotNull Instant lastRefresh = Instant.EPOCH;
+
+  public JsonWebKeySetCache(
+    @NotNull String url,
+    @NotNull Executor executor,
+    @NotNull HttpTransport.Options httpOptions,
+    @NotNull Options options
+  ) {
+    Preconditions.checkNotNull(url, "url");
+    Preconditions.checkNotNull(executor, "executor");
+    Preconditions.checkNotNull(httpOptions, "httpOptions");
+    Preconditions.checkNotNull(options, "options");
+
+    this.url = url;
+    this.executor = executor;
+    this.httpOptions = httpOptions;
+    this.options = options;
+  }
+
+  /**
+   * Parse a single JWK into a public key.
+   *
+   * @return key, or empty if the key type isn't supported
+   */
+  static @NotNull Optional<PublicKey> parseKey(
+    @NotNull JsonWebKey key
+  ) throws GeneralSecurityException {
+    var decoder = Base64.getUrlDecoder();
+
+    if ("RSA".equals(key.keyType) && key.modulus != null && key.exponent != null) {
+      return Optional.of(KeyFactory
+        .getInstance("RSA")
+        .generatePublic(new RSAPublicKeySpec(
+          new BigInteger(1, decoder.decode(key.modulus)),
+          new BigInteger(1, decoder.decode(key.exponent)))));
+    }
+    else if ("EC".equals(key.keyType) && "P-256".equals(key.curve) && key.x != null && key.y != null) {
+      var parameters = AlgorithmParameters.getInstance("EC");
+      parameters.init(new ECGenParameterSpec("secp256r1"));
+
+      return Optional.of(KeyFactory
+        .getInstance("EC")
+        .generatePublic(new ECPublicKeySpec(
+          new ECPoint(
+            new BigInteger(1, decoder.decode(key.x)),
+            new BigInteger(1, decoder.decode(key.y))),
+          parameters.getParameterSpec(ECParameterSpec.class))));
+    }
+    else {
+      return Optional.empty();
+    }
+  }
+
+  /**
+   * Fetch the key set and replace all cached keys.
+   */
+  public void refresh() throws IOException {
+    synchronized (this.refreshLock) {
+      refreshCore();
+    }
+  }
+
+  private void refreshCore() throws IOException {
+    JsonWebKeySet keySet;
+    try {
+      var request = HttpTransport.newTransport()
+        .createRequestFactory()
+        .buildGetRequest(new GenericUrl(this.url))
+        .setParser(new JsonObjectParser(GsonFactory.getDefaultInstance()));
+
+      if (!this.httpOptions.connectTimeout().isZero()) {
+        request.setConnectTimeout((int)this.httpOptions.connectTimeout().toMillis());
+      }
+      if (!this.httpOptions.readTimeout().isZero()) {
+        request.setReadTimeout((int)this.httpOptions.readTimeout().toMillis());
+      }
+
+      keySet = request.execute().parseAs(JsonWebKeySet.class);
+    }
+    catch (GeneralSecurityException e) {
+      throw new IOException("Creating HTTP transport failed", e);
+    }
+
+    var keys = new HashMap<String, PublicKey>();
+    if (keySet.keys != null) {
+      for (var key : keySet.keys) {
+        if (key.keyId == null) {
+          continue;
+        }
+
+        try {
+          parseKey(key).ifPresent(k -> keys.put(key.keyId, k));
+        }
+        catch (GeneralSecurityException e) {
+          throw new IOException(
+            String.format("The key set %s contains an invalid key", this.url),
+            e);
+        }
+      }
+    }
+
+    this.keys = Map.copyOf(keys);
+    this.lastRefresh = Instant.now();
+  }
+
+  /**
+   * Look up a key by its ID.
+   *
+   * @return key, or empty if the key set doesn't contain a key
+   * with this ID.
+   */
+  public @NotNull Optional<PublicKey> get(
+    @NotNull String keyId
+  ) throws IOException {
+    var key = this.keys.get(keyId);
+    if (key != null) {
+      if (Instant.now().isAfter(this.lastRefresh.plus(this.options.refreshInterval)) &&
+        this.backgroundRefreshPending.compareAndSet(false, true)) {
+        //
+        // Keys are getting old, refresh them in the background
+        // while we continue to use the current ones.
+        //
+        try {
+          this.executor.execute(() -> {
+            try {
+              refresh();
+            }
+            catch (IOException ignored) {
+              //
+              // Keep using the current keys, we'll try again later.
+              //
+            }
+            finally {
+              this.backgroundRefreshPending.set(false);
+            }
+          });
+        }
+        catch (RejectedExecutionException e) {
+          //
+          // Try again on next access.
+          //
+          this.backgroundRefreshPending.set(false);
+        }
+      }
+
+      return Optional.of(key);
+    }
+
+    //
+    // The key might have been rotated, or we haven't fetched
+    // the keys yet.
+    //
+    synchronized (this.refreshLock) {
+      key = this.keys.get(keyId);
+      if (key == null &&
+        Instant.now().isAfter(this.lastRefresh.plus(this.options.minRefreshInterval))) {
+        refresh();
+        key = this.keys.get(keyId);
+      }
+    }
+
+    return Optional.ofNullable(key);
+  }
+
+  //---------------------------------------------------------------------------
+  // Inner classes.
+  //---------------------------------------------------------------------------
+
+  /**
+   * JSON Web Key Set, see RFC 7517.
+   */
+  public static class JsonWebKeySet extends GenericJson {
+    @Key("keys")
+    public @Nullable List<JsonWebKey> keys;
+  }
+
+  /**
+   * JSON Web Key, see RFC 7517 and RFC 7518.
+   */
+  public static class JsonWebKey extends GenericJson {
+    @Key("kid")
+    public @Nullable String keyId;
+
+    @Key("kty")
+    public @Nullable String keyType;
+
+    @Key("crv")
+    public @Nullable String curve;
+
+    @Key("x")
+    public @Nullable String x;
+
+    @Key("y")
+    public @Nullable String y;
+
+    @Key("n")
+    public @Nullable String modulus;
+
+    @Key("e")
+    public @Nullable String exponent;
+  }
+
+  /**
+   * @param refreshInterval age after which keys are refreshed in the background.
+   * @param minRefreshInterval minimum time between refreshes caused by unknown key IDs.
+   */
+  public record Options(
+    @NotNull Duration refreshInterval,
+    @NotNull Duration minRefreshInterval
+  ) {
+    public static final @NotNull Options DEFAULT = new Options(
+      Duration.ofMinutes(30),
+      Duration.ofSeconds(30));
+
+    public Options {
+      Preconditions.checkNotNull(refreshInterval, "refreshInterval");
+      Preconditions.checkNotNull(minRefreshInterval, "minRefreshInterval");
+    }
+  }
+}
@@ -76,28 +76,33 @@ public class ParameterManagerClient {
    */
   public @Nullable String render(
     String parameterPath
+  ) throws AccessException, IOException {
+    return renderVersion(parameterPath).payload();
+  }
+
+  /**
+   * Access a rendered parameter version and determine the version
+   * that was rendered.
+   * @param parameterPath resource path, in the format projects/x/locations/q/parameter/y/versions/z
+   */
+  public @NotNull ParameterVersion renderVersion(
+    String parameterPath
   ) throws AccessException, IOException {
     try {
-      var payload = createClient()
+      var response = createClient()
         .projects()
         .locations()
         .parameters()
         .versions()
         .render(parameterPath)
-        .execute()
-        .getPayload();
+        .execute();
 
-      if (payload == null) {
-        return null;
-      }
+      var payload = response.getPayload();
+      var payloadData = payload != null ? payload.decodeData() : null;
 
-      var payloadData = payload.decodeData();
-      if (payloadData == null) {
-        return null;
-      }
-      else {
-        return new String(payloadData, PARAMETER_CHARSET);
-      }
+      return new ParameterVersion(
+        response.getParameterVersion(),
+        payloadData != null ? new String(payloadData, PARAMETER_CHARSET) : null);
     }
     catch (GoogleJsonResponseException e) {
       switch (e.getStatusCode()) {
@@ -114,4 +119,19 @@ public class ParameterManagerClient {
       }
     }
   }
+
+  /**
+   * Parameter version and its rendered payload.
+   *
+   * @param name resource name of the version, in the format
+   *             projects/x/locations/q/parameters/y/versions/z,
+   *             or null if unknown.
+   * @param payload payload, if any. References to secrets are
+   *                resolved at render time, so the payload can change
+   *                even if the parameter version doesn't.
+   */
+  public record ParameterVersion(
+    @Nullable String name,
+    @Nullable String payload
+  ) {}
 }
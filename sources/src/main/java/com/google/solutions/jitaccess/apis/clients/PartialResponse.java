@@ -0,0 +1,58 @@
+//
+// Copyright 2026 Google LLC
+//
+// Licensed to the Apache Software Foundation (ASF) under one
+// or more contributor license agreements.  See the NOTICE file
+// distributed with this work for additional information
+// regarding copyright ownership.  The ASF licenses this file
+// to you under the Apache License, Version 2.0 (the
+// "License"); you may not use this file except in compliance
+// with the License.  You may obtain a copy of the License at
+//
+//   http://www.apache.org/licenses/LICENSE-2.0
+//
+// Unless required by applicable law or agreed to in writing,
+// software distributed under the License is distributed on an
+// "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+// KIND, either express or implied.  See the License for the
+// specific language governing permissions and limitations
+// under the License.
+//
+
+package com.google.solutions.jitaccess.apis.clients;
+
+import com.google.common.base.Preconditions;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+/**
+ * Helper class for building partial response field masks, see
+ * <a href="https://cloud.google.com/apis/docs/system-parameters">System parameters</a>.
+ */
+abstract class PartialResponse {
+  private static final String NEXT_PAGE_TOKEN = "nextPageToken";
+
+  /**
+   * Create a field mask for a paged list response.
+   *
+   * @param collection name of the field that contains the items
+   * @param itemFields fields to include for each item, or null to include all fields
+   * @return field mask, or null if all fields should be included
+   */
+  static @Nullable String forPage(
+    @NotNull String collection,
+    @Nullable String itemFields
+  ) {
+    Preconditions.checkNotNull(collection, "collection");
+
+    if (itemFields == null) {
+      return null;
+    }
+
+    //
+    // Always include the page token, otherwise we'd silently
+    // stop paging after the first page.
+    //
+    return String.format("%s,%s(%s)", NEXT_PAGE_TOKEN, collection, itemFields);
+  }
+}
@@ -0,0 +1,604 @@
+//
+// Copyright 2026 Google LLC
+//
+// Licensed to the Apache Software Foundation (ASF) under one
+// or more contributor license agreements.  See the NOTICE file
+// distributed with this work for additional information
+// regarding copyright ownership.  The ASF licenses this file
+// to you under the Apache License, Version 2.0 (the
+// "License"); you may not use this file except in compliance
+// with the License.  You may obtain a copy of the License at
+//
+//   http://www.apache.org/licenses/LICENSE-2.0
+//
+// Unless required by applicable law or agreed to in writing,
+// software distributed under the License is distributed on an
+// "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+// KIND, either express or implied.  See the License for the
+// specific language governing permissions and limitations
+// under the License.
+//
+
+package com.google.solutions.jitaccess.apis.clients;
+
+import com.google.api.services.pubsub.model.PubsubMessage;
+import com.google.common.base.Preconditions;
+import com.google.common.base.Strings;
+import com.google.common.util.concurrent.ThreadFactoryBuilder;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import java.time.Duration;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.ScheduledThreadPoolExecutor;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Publishes messages to a Pub/Sub topic in batches.
+ * <p>
+ * Messages are collected until a batch is full or has been waiting
+ * for the maximum delay, and are then published using a single request.
+ * Multiple batches can be in flight at the same time, but batches for
+ * the same ordering key are published one after another so that
+ * messages with the same key retain their order.
+ * <p>
+ * The number of messages waiting to be published is bounded. If the
+ * backlog is full, publishing blocks until there's room, or until
+ * the caller's timeout elapses, in which case the message is dropped.
+ * <p>
+ * Failed batches are retried with exponential backoff. If a batch
+ * for an ordering key fails permanently, the key is paused: messages
+ * that are waiting behind the failed batch fail, and so do messages
+ * that are published for the key later, until the key is resumed
+ * by calling {@link #resumePublish(String)}. That way, messages with
+ * the same key are never published out of order.
+ */
+public class PubSubBatchPublisher implements AutoCloseable {
+  private final @NotNull PubSubClient client;
+  private final @NotNull PubSubTopic topic;
+  private final @NotNull Executor executor;
+  private final @NotNull Options options;
+  private final @NotNull ScheduledExecutorService scheduler;
+  private final @NotNull Semaphore backlog;
+
+  /**
+   * Lock that guards all batch state.
+   */
+  private final @NotNull Object lock = new Object();
+
+  /**
+   * Pending messages by ordering key. Messages without an
+   * ordering key use the empty key.
+   */
+  private final @NotNull Map<String, KeyState> keys = new HashMap<>();
+
+  /**
+   * Keys that have a batch that's ready to be sent, but that
+   * has to wait for another batch to complete first.
+   */
+  private final @NotNull ArrayDeque<String> readyKeys = new ArrayDeque<>();
+
+  private int inFlightBatches = 0;
+  private boolean closing = false;
+
+  /**
+   * Number of messages dropped because the backlog was full.
+   */
+  private final @NotNull AtomicLong droppedMessages = new AtomicLong();
+
+  public PubSubBatchPublisher(
+    @NotNull PubSubClient client,
+    @NotNull PubSubTopic topic,
+    @NotNull Executor executor,
+    @NotNull Options options
+  ) {
+    Preconditions.checkNotNull(client, "client");
+    Preconditions.checkNotNull(topic, "topic");
+    Preconditions.checkNotNull(executor, "executor");
+    Preconditions.checkNotNull(options, "options");
+
+    this.client = client;
+    this.topic = topic;
+    this.executor = executor;
+    this.options = options;
+    this.backlog = new Semaphore(options.maxBacklog);
+    this.scheduler = new ScheduledThreadPoolExecutor(
+      1,
+      new ThreadFactoryBuilder()
+        .setNameFormat("pubsub-batch-%d")
+        .setDaemon(true)
+        .build());
+  }
+
+  /**
+   * Estimate the size of a message in a publish request.
+   */
+  static int estimateSize(@NotNull PubsubMessage message) {
+    int size = 16;
+
+    if (message.getData() != null) {
+      size += message.getData().length();
+    }
+
+    if (message.getOrderingKey() != null) {
+      size += message.getOrderingKey().length();
+    }
+
+    if (message.getAttributes() != null) {
+      for (var attribute : message.getAttributes().entrySet()) {
+        size += attribute.getKey().length() + attribute.getValue().length() + 8;
+      }
+    }
+
+    return size;
+  }
+
+  /**
+   * Queue a message for publishing, waiting for room in the
+   * backlog if necessary.
+   *
+   * @return future that completes with the message ID once the
+   *         batch containing the message has been published.
+   */
+  public @NotNull CompletableFuture<String> publish(
+    @NotNull PubsubMessage message
+  ) throws InterruptedException {
+    Preconditions.checkNotNull(message, "message");
+
+    //
+    // Apply backpressure if the backlog is full.
+    //
+    this.backlog.acquire();
+
+    return enqueue(message);
+  }
+
+  /**
+   * Queue a message for publishing, waiting at most the given
+   * time for room in the backlog.
+   *
+   * @return future that completes with the message ID once the
+   *         batch containing the message has been published, or fails
+   *         if the message was dropped because the backlog is full.
+   */
+  public @NotNull CompletableFuture<String> publish(
+    @NotNull PubsubMessage message,
+    @NotNull Duration timeout
+  ) throws InterruptedException {
+    Preconditions.checkNotNull(message, "message");
+    Preconditions.checkNotNull(timeout, "timeout");
+
+    if (!this.backlog.tryAcquire(timeout.toNanos(), TimeUnit.NANOSECONDS)) {
+      this.droppedMessages.incrementAndGet();
+      return CompletableFuture.failedFuture(
+        new RejectedExecutionException("The backlog of messages to publish is full"));
+    }
+
+    return enqueue(message);
+  }
+
+  /**
+   * Get the number of messages that were dropped because the
+   * backlog was full.
+   */
+  public long droppedMessages() {
+    return this.droppedMessages.get();
+  }
+
+  /**
+   * Resume publishing messages for an ordering key that has been
+   * paused because a batch failed.
+   */
+  public void resumePublish(@NotNull String orderingKey) {
+    Preconditions.checkNotNull(orderingKey, "orderingKey");
+
+    synchronized (this.lock) {
+      var state = this.keys.get(orderingKey);
+      if (state != null && state.pausedBy != null) {
+        this.keys.remove(orderingKey);
+      }
+    }
+  }
+
+  private @NotNull CompletableFuture<String> enqueue(
+    @NotNull PubsubMessage message
+  ) {
+    var pending = new PendingMessage(
+      message,
+      estimateSize(message),
+      new CompletableFuture<>());
+    var key = Strings.nullToEmpty(message.getOrderingKey());
+
+    synchronized (this.lock) {
+      var state = this.keys.computeIfAbsent(key, k -> new KeyState());
+      if (state.pausedBy != null) {
+        //
+        // A previous batch for this key failed. Publishing this
+        // message would violate ordering.
+        //
+        failMessages(
+          List.of(pending),
+          new IllegalStateException(
+            String.format("Publishing messages with ordering key '%s' is paused", key),
+            state.pausedBy));
+        return pending.future;
+      }
+
+      state.messages.add(pending);
+      state.bytes += pending.size;
+
+      if (state.isBatchFull(this.options)) {
+        trySendBatch(key, state);
+      }
+      else if (this.closing) {
+        //
+        // Don't wait for the batch to fill up.
+        //
+        trySendBatch(key, state);
+      }
+      else if (state.timer == null) {
+        try {
+          state.timer = this.scheduler.schedule(
+            () -> {
+              synchronized (this.lock) {
+                state.timer = null;
+                trySendBatch(key, state);
+              }
+            },
+            this.options.maxDelay.toMillis(),
+            TimeUnit.MILLISECONDS);
+        }
+        catch (RejectedExecutionException e) {
+          trySendBatch(key, state);
+        }
+      }
+    }
+
+    return pending.future;
+  }
+
+  /**
+   * Send a batch for the key, unless that would exceed the limit for
+   * in-flight batches, or violate ordering.
+   * <p>
+   * Must be called while holding the lock.
+   */
+  private void trySendBatch(@NotNull String key, @NotNull KeyState state) {
+    assert Thread.holdsLock(this.lock);
+
+    if (state.messages.isEmpty() || state.inFlight) {
+      //
+      // Nothing to send, or another batch for this key is
+      // in flight. In the latter case, we'll try again once
+      // that batch completes.
+      //
+      return;
+    }
+
+    if (this.inFlightBatches >= this.options.maxInFlightBatches) {
+      if (!this.readyKeys.contains(key)) {
+        this.readyKeys.add(key);
+      }
+      return;
+    }
+
+    if (state.timer != null) {
+      state.timer.cancel(false);
+      state.timer = null;
+    }
+
+    //
+    // Take as many messages as fit into a batch.
+    //
+    var batch = new ArrayList<PendingMessage>();
+    int batchBytes = 0;
+    while (!state.messages.isEmpty() &&
+      batch.size() < this.options.maxMessages &&
+      (batch.isEmpty() || batchBytes + state.messages.peek().size <= this.options.maxBytes)) {
+      var message = state.messages.poll();
+      batch.add(message);
+      batchBytes += message.size;
+    }
+
+    state.bytes -= batchBytes;
+    state.inFlight = !key.isEmpty(); // Only ordered keys need to be serialized.
+    this.inFlightBatches++;
+
+    try {
+      this.executor.execute(() -> sendBatch(key, batch, 1));
+    }
+    catch (RejectedExecutionException e) {
+      //
+      // Undo the bookkeeping. Retrying won't help, so fail the
+      // batch and everything that's queued behind it.
+      //
+      this.inFlightBatches--;
+      state.inFlight = false;
+      failMessages(batch, e);
+      failMessages(pauseKey(key, state, e), e);
+      this.lock.notifyAll();
+    }
+  }
+
+  private void sendBatch(
+    @NotNull String key,
+    @NotNull List<PendingMessage> batch,
+    int attempt
+  ) {
+    try {
+      var messageIds = this.client.publish(
+        this.topic,
+        batch.stream().map(m -> m.message).toList());
+
+      this.backlog.release(batch.size());
+      for (int i = 0; i < batch.size(); i++) {
+        batch.get(i).future.complete(messageIds.get(i));
+      }
+
+      batchCompleted(key, null);
+    }
+    catch (Exception e) {
+      if (attempt < this.options.maxAttempts && retryBatch(key, batch, attempt + 1)) {
+        //
+        // Keep the batch in flight so that messages with
+        // the same key continue to wait.
+        //
+        return;
+      }
+
+      failMessages(batch, e);
+      batchCompleted(key, e);
+    }
+  }
+
+  /**
+   * Schedule another attempt to send a batch.
+   *
+   * @return false if the attempt couldn't be scheduled.
+   */
+  private boolean retryBatch(
+    @NotNull String key,
+    @NotNull List<PendingMessage> batch,
+    int attempt
+  ) {
+    var backoff = this.options.initialBackoff.multipliedBy(1L << Math.min(attempt - 2, 16));
+
+    try {
+      this.scheduler.schedule(
+        () -> {
+          try {
+            this.executor.execute(() -> sendBatch(key, batch, attempt));
+          }
+          catch (RejectedExecutionException e) {
+            failMessages(batch, e);
+            batchCompleted(key, e);
+          }
+        },
+        backoff.toMillis(),
+        TimeUnit.MILLISECONDS);
+      return true;
+    }
+    catch (RejectedExecutionException e) {
+      return false;
+    }
+  }
+
+  private void batchCompleted(@NotNull String key, @Nullable Exception exception) {
+    List<PendingMessage> failedMessages = List.of();
+
+    synchronized (this.lock) {
+      this.inFlightBatches--;
+
+      var state = this.keys.get(key);
+      if (state != null) {
+        state.inFlight = false;
+
+        if (exception != null && !key.isEmpty()) {
+          //
+          // Pause the key and fail all messages that are waiting
+          // behind the failed batch. Sending them would violate
+          // ordering.
+          //
+          failedMessages = pauseKey(key, state, exception);
+        }
+        else if (state.isBatchFull(this.options) ||
+          (!state.messages.isEmpty() && (state.timer == null || this.closing))) {
+          //
+          // Send remaining messages for this key if they make a full
+          // batch, or if they have been waiting for a previous batch.
+          //
+          trySendBatch(key, state);
+        }
+        else if (state.messages.isEmpty() && state.timer == null) {
+          this.keys.remove(key);
+        }
+      }
+
+      //
+      // Send batches that were waiting for an in-flight slot.
+      //
+      while (!this.readyKeys.isEmpty() &&
+        this.inFlightBatches < this.options.maxInFlightBatches) {
+        var readyKey = this.readyKeys.poll();
+        var readyState = this.keys.get(readyKey);
+        if (readyState != null) {
+          trySendBatch(readyKey, readyState);
+        }
+      }
+
+      this.lock.notifyAll();
+    }
+
+    failMessages(failedMessages, exception);
+  }
+
+  /**
+   * Pause an ordering key and return the messages that were queued
+   * for it. Messages without an ordering key aren't ordered, so the
+   * empty key is removed instead of being paused.
+   * <p>
+   * Must be called while holding the lock.
+   */
+  private @NotNull List<PendingMessage> pauseKey(
+    @NotNull String key,
+    @NotNull KeyState state,
+    @NotNull Exception cause
+  ) {
+    assert Thread.holdsLock(this.lock);
+
+    if (state.timer != null) {
+      state.timer.cancel(false);
+      state.timer = null;
+    }
+
+    var messages = List.copyOf(state.messages);
+    state.messages.clear();
+    state.bytes = 0;
+
+    if (key.isEmpty()) {
+      this.keys.remove(key);
+    }
+    else {
+      state.pausedBy = cause;
+    }
+
+    this.readyKeys.remove(key);
+
+    return messages;
+  }
+
+  private void failMessages(
+    @NotNull List<PendingMessage> messages,
+    @Nullable Exception exception
+  ) {
+    if (!messages.isEmpty()) {
+      this.backlog.release(messages.size());
+      for (var message : messages) {
+        message.future.completeExceptionally(exception);
+      }
+    }
+  }
+
+  /**
+   * Publish all pending messages without waiting for
+   * their batches to fill up.
+   */
+  public void flush() {
+    synchronized (this.lock) {
+      for (var entry : List.copyOf(this.keys.entrySet())) {
+        trySendBatch(entry.getKey(), entry.getValue());
+      }
+    }
+  }
+
+  /**
+   * Publish pending messages, wait for in-flight batches to
+   * complete, and stop the batch timer.
+   */
+  @Override
+  public void close() {
+    synchronized (this.lock) {
+      this.closing = true;
+    }
+
+    flush();
+
+    var deadline = System.nanoTime() + this.options.shutdownTimeout.toNanos();
+    synchronized (this.lock) {
+      try {
+        long remaining;
+        while ((this.inFlightBatches > 0 ||
+          this.keys.values().stream().anyMatch(k -> !k.messages.isEmpty())) &&
+          (remaining = deadline - System.nanoTime()) > 0) {
+          TimeUnit.NANOSECONDS.timedWait(this.lock, remaining);
+        }
+      }
+      catch (InterruptedException e) {
+        Thread.currentThread().interrupt();
+      }
+    }
+
+    this.scheduler.shutdown();
+  }
+
+  //---------------------------------------------------------------------------
+  // Inner classes.
+  //---------------------------------------------------------------------------
+
+  private record PendingMessage(
+    @NotNull PubsubMessage message,
+    int size,
+    @NotNull CompletableFuture<String> future
+  ) {}
+
+  private static class KeyState {
+    private final @NotNull ArrayDeque<PendingMessage> messages = new ArrayDeque<>();
+    private int bytes = 0;
+    private boolean inFlight = false;
+    private @Nullable ScheduledFuture<?> timer = null;
+
+    /**
+     * Failure that caused the key to be paused, if any.
+     */
+    private @Nullable Exception pausedBy = null;
+
+    boolean isBatchFull(@NotNull Options options) {
+      return this.messages.size() >= options.maxMessages || this.bytes >= options.maxBytes;
+    }
+  }
+
+  /**
+   * @param maxMessages maximum number of messages per batch
+   * @param maxBytes maximum size of a batch, in bytes
+   * @param maxDelay maximum time a message waits for its batch to fill up
+   * @param maxInFlightBatches maximum number of batches being published concurrently
+   * @param maxBacklog maximum number of messages waiting to be published
+   * @param maxAttempts maximum number of attempts to publish a batch
+   * @param initialBackoff time to wait before the first retry, doubles
+   *                       with each retry
+   * @param shutdownTimeout maximum time to wait for pending messages
+   *                        to be published when closing
+   */
+  public record Options(
+    int maxMessages,
+    int maxBytes,
+    @NotNull Duration maxDelay,
+    int maxInFlightBatches,
+    int maxBacklog,
+    int maxAttempts,
+    @NotNull Duration initialBackoff,
+    @NotNull Duration shutdownTimeout
+  ) {
+    public static final @NotNull Options DEFAULT = new Options(
+      100,
+      1024 * 1024,
+      Duration.ofMillis(50),
+      4,
+      10_000,
+      5,
+      Duration.ofSeconds(1),
+      Duration.ofSeconds(10));
+
+    public Options {
+      Preconditions.checkArgument(maxMessages > 0 && maxMessages <= 1000, "maxMessages");
+      Preconditions.checkArgument(maxBytes > 0 && maxBytes <= 10 * 1024 * 1024, "maxBytes");
+      Preconditions.checkNotNull(maxDelay, "maxDelay");
+      Preconditions.checkArgument(maxInFlightBatches > 0, "maxInFlightBatches");
+      Preconditions.checkArgument(maxBacklog > 0, "maxBacklog");
+      Preconditions.checkArgument(maxAttempts > 0, "maxAttempts");
+      Preconditions.checkNotNull(initialBackoff, "initialBackoff");
+      Preconditions.checkNotNull(shutdownTimeout, "shutdownTimeout");
+    }
+  }
+}
@@ -23,8 +23,11 @@ package com.google.solutions.jitaccess.apis.clients;
 
 import com.google.api.client.googleapis.json.GoogleJsonResponseException;
 import com.google.api.services.pubsub.Pubsub;
+import com.google.api.services.pubsub.model.AcknowledgeRequest;
 import com.google.api.services.pubsub.model.PublishRequest;
 import com.google.api.services.pubsub.model.PubsubMessage;
+import com.google.api.services.pubsub.model.PullRequest;
+import com.google.api.services.pubsub.model.ReceivedMessage;
 import com.google.auth.oauth2.GoogleCredentials;
 import com.google.common.base.Preconditions;
 import jakarta.inject.Singleton;
@@ -59,24 +62,38 @@ public class PubSubClient {
     @NotNull PubSubTopic topic,
     @NotNull PubsubMessage message
   ) throws AccessException, IOException {
+    return publish(topic, List.of(message)).get(0);
+  }
+
+  /**
+   * Publish a batch of messages using a single request.
+   *
+   * @return message IDs, in the same order as the messages.
+   */
+  public @NotNull List<String> publish(
+    @NotNull PubSubTopic topic,
+    @NotNull List<PubsubMessage> messages
+  ) throws AccessException, IOException {
+    Preconditions.checkArgument(!messages.isEmpty(), "messages");
+
     var client = createClient();
 
     try {
       var request = new PublishRequest();
-      request.setMessages(List.of(message));
+      request.setMessages(messages);
 
       var result = client
         .projects()
         .topics()
         .publish(topic.getFullResourceName(), request)
         .execute();
-      if (result.getMessageIds()
-        .isEmpty()){
+      if (result.getMessageIds() == null ||
+        result.getMessageIds().size() != messages.size()){
         throw new IOException(
-          String.format("Publishing message to topic %s returned empty response", topic));
+          String.format("Publishing messages to topic %s returned an incomplete response", topic));
       }
 
-      return result.getMessageIds().get(0);
+      return result.getMessageIds();
     }
     catch (GoogleJsonResponseException e) {
       switch (e.getStatusCode()) {
@@ -95,4 +112,88 @@ public class PubSubClient {
       }
     }
   }
+
+  /**
+   * Pull messages from a subscription.
+   *
+   * @return received messages, possibly empty.
+   */
+  public @NotNull List<ReceivedMessage> pull(
+    @NotNull PubSubSubscription subscription,
+    int maxMessages
+  ) throws AccessException, IOException {
+    Preconditions.checkArgument(maxMessages > 0, "maxMessages");
+
+    var client = createClient();
+
+    try {
+      var result = client
+        .projects()
+        .subscriptions()
+        .pull(
+          subscription.getFullResourceName(),
+          new PullRequest().setMaxMessages(maxMessages))
+        .execute();
+
+      return result.getReceivedMessages() != null
+        ? result.getReceivedMessages()
+        : List.of();
+    }
+    catch (GoogleJsonResponseException e) {
+      switch (e.getStatusCode()) {
+        case 401:
+          throw new NotAuthenticatedException("Not authenticated", e);
+        case 403:
+        case 404:
+          throw new AccessDeniedException(
+            String.format(
+              "Pub/Sub subscription '%s' cannot be accessed or does not exist: %s",
+              subscription,
+              e.getMessage()),
+            e);
+        default:
+          throw (GoogleJsonResponseException)e.fillInStackTrace();
+      }
+    }
+  }
+
+  /**
+   * Acknowledge messages that have been processed.
+   */
+  public void acknowledge(
+    @NotNull PubSubSubscription subscription,
+    @NotNull List<String> ackIds
+  ) throws AccessException, IOException {
+    if (ackIds.isEmpty()) {
+      return;
+    }
+
+    var client = createClient();
+
+    try {
+      client
+        .projects()
+        .subscriptions()
+        .acknowledge(
+          subscription.getFullResourceName(),
+          new AcknowledgeRequest().setAckIds(ackIds))
+        .execute();
+    }
+    catch (GoogleJsonResponseException e) {
+      switch (e.getStatusCode()) {
+        case 401:
+          throw new NotAuthenticatedException("Not authenticated", e);
+        case 403:
+        case 404:
+          throw new AccessDeniedException(
+            String.format(
+              "Pub/Sub subscription '%s' cannot be accessed or does not exist: %s",
+              subscription,
+              e.getMessage()),
+            e);
+        default:
+          throw (GoogleJsonResponseException)e.fillInStackTrace();
+      }
+    }
+  }
 }
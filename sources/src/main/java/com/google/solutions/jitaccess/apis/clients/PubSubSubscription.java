@@ -0,0 +1,65 @@
+//
+// Copyright 2026 Google LLC
+//
+// Licensed to the Apache Software Foundation (ASF) under one
+// or more contributor license agreements.  See the NOTICE file
+// distributed with this work for additional information
+// regarding copyright ownership.  The ASF licenses this file
+// to you under the Apache License, Version 2.0 (the
+// "License"); you may not use this file except in compliance
+// with the License.  You may obtain a copy of the License at
+//
+//   http://www.apache.org/licenses/LICENSE-2.0
+//
+// Unless required by applicable law or agreed to in writing,
+// software distributed under the License is distributed on an
+// "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+// KIND, either express or implied.  See the License for the
+// specific language governing permissions and limitations
+// under the License.
+//
+
+package com.google.solutions.jitaccess.apis.clients;
+
+import com.google.common.base.Preconditions;
+import org.jetbrains.annotations.NotNull;
+
+import java.util.Optional;
+import java.util.regex.Pattern;
+
+public record PubSubSubscription(
+  @NotNull String projectId,
+  @NotNull String subscriptionName
+) {
+  public PubSubSubscription {
+    Preconditions.checkNotNull(projectId, "projectId");
+    Preconditions.checkNotNull(subscriptionName, "subscriptionName");
+  }
+
+  private static final Pattern RESOURCE_NAME_PATTERN =
+    Pattern.compile("^projects/([^/]+)/subscriptions/([^/]+)$");
+
+  /**
+   * Parse a subscription from its full resource name,
+   * projects/x/subscriptions/y.
+   */
+  public static @NotNull Optional<PubSubSubscription> parse(String s) {
+    if (s == null) {
+      return Optional.empty();
+    }
+
+    var matcher = RESOURCE_NAME_PATTERN.matcher(s.trim());
+    return matcher.matches()
+      ? Optional.of(new PubSubSubscription(matcher.group(1), matcher.group(2)))
+      : Optional.empty();
+  }
+
+  @Override
+  public String toString() {
+    return getFullResourceName();
+  }
+
+  public @NotNull String getFullResourceName() {
+    return String.format("projects/%s/subscriptions/%s", this.projectId, this.subscriptionName);
+  }
+}
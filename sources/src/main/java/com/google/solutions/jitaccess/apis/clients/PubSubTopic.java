@@ -24,6 +24,9 @@ package com.google.solutions.jitaccess.apis.clients;
 import com.google.common.base.Preconditions;
 import org.jetbrains.annotations.NotNull;
 
+import java.util.Optional;
+import java.util.regex.Pattern;
+
 public record PubSubTopic(
   @NotNull String projectId,
   @NotNull String topicName
@@ -33,6 +36,23 @@ public record PubSubTopic(
     Preconditions.checkNotNull(topicName, "topicName");
   }
 
+  private static final Pattern RESOURCE_NAME_PATTERN =
+    Pattern.compile("^projects/([^/]+)/topics/([^/]+)$");
+
+  /**
+   * Parse a topic from its full resource name, projects/x/topics/y.
+   */
+  public static @NotNull Optional<PubSubTopic> parse(String s) {
+    if (s == null) {
+      return Optional.empty();
+    }
+
+    var matcher = RESOURCE_NAME_PATTERN.matcher(s.trim());
+    return matcher.matches()
+      ? Optional.of(new PubSubTopic(matcher.group(1), matcher.group(2)))
+      : Optional.empty();
+  }
+
   @Override
   public String toString() {
     return getFullResourceName();
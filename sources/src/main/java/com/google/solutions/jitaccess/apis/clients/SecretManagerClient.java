@@ -65,27 +65,36 @@ public class SecretManagerClient {
    */
   public @Nullable String accessSecret(
     String secretPath
+  ) throws AccessException, IOException {
+    return accessSecretVersion(secretPath).payload();
+  }
+
+  /**
+   * Access a secret and determine the version that was accessed.
+   * @param secretPath resource path, in the format projects/x/secrets/y/versions/z
+   */
+  public @NotNull SecretVersion accessSecretVersion(
+    String secretPath
   ) throws AccessException, IOException {
     try {
-      var payload = createClient()
+      var response = createClient()
         .projects()
         .secrets()
         .versions()
         .access(secretPath)
-        .execute()
-        .getPayload();
+        .execute();
 
-      if (payload == null) {
-        return null;
-      }
+      var payload = response.getPayload();
+      var payloadData = payload != null ? payload.decodeData() : null;
 
-      var payloadData = payload.decodeData();
-      if (payloadData == null) {
-        return null;
-      }
-      else {
-        return new String(payloadData, SECRET_CHARSET);
-      }
+      //
+      // The response names the version that was accessed, which
+      // might differ from the requested path if that path uses an
+      // alias such as "latest".
+      //
+      return new SecretVersion(
+        response.getName(),
+        payloadData != null ? new String(payloadData, SECRET_CHARSET) : null);
     }
     catch (GoogleJsonResponseException e) {
       switch (e.getStatusCode()) {
@@ -102,4 +111,16 @@ public class SecretManagerClient {
       }
     }
   }
+
+  /**
+   * Secret version and its payload.
+   *
+   * @param name resource name of the version, in the format
+   *             projects/x/secrets/y/versions/z, or null if unknown.
+   * @param payload payload, if any.
+   */
+  public record SecretVersion(
+    @Nullable String name,
+    @Nullable String payload
+  ) {}
 }
@@ -33,18 +33,32 @@ import org.jetbrains.annotations.Nullable;
 
 import java.io.IOException;
 import java.io.UnsupportedEncodingException;
+import java.time.Duration;
+import java.time.Instant;
 import java.util.Collection;
 import java.util.EnumSet;
 import java.util.Map;
 import java.util.Properties;
+import java.util.concurrent.BlockingDeque;
+import java.util.concurrent.LinkedBlockingDeque;
 
 /**
  * Adapter for sending email over SMTP.
+ * <p>
+ * The client keeps a small pool of connected, authenticated SMTP
+ * transports so that sending a mail doesn't require a new connection,
+ * TLS handshake, and authentication each time.
  */
-public class SmtpClient {
+public class SmtpClient implements AutoCloseable {
   private final @NotNull SecretManagerClient secretManagerClient;
   private final @NotNull Options options;
+  private final @NotNull Session session;
 
+  /**
+   * Connected transports that are currently not in use, most
+   * recently used first.
+   */
+  private final @NotNull BlockingDeque<PooledTransport> idleTransports = new LinkedBlockingDeque<>();
 
   public SmtpClient(
     @NotNull SecretManagerClient secretManagerClient,
@@ -55,6 +69,116 @@ public class SmtpClient {
 
     this.secretManagerClient = secretManagerClient;
     this.options = options;
+    this.session = Session.getInstance(this.options.smtpProperties);
+  }
+
+  /**
+   * Get a connected transport, either from the pool or by
+   * opening a new connection.
+   */
+  private @NotNull Transport acquireTransport() throws MessagingException, MailException {
+    PooledTransport pooled;
+    while ((pooled = this.idleTransports.pollFirst()) != null) {
+      var idleTime = Duration.between(pooled.idleSince, Instant.now());
+      if (idleTime.compareTo(this.options.maxIdleTime) < 0 && pooled.transport.isConnected()) {
+        return pooled.transport;
+      }
+
+      //
+      // The server might have dropped the connection already.
+      //
+      closeQuietly(pooled.transport);
+    }
+
+    var transport = this.session.getTransport("smtp");
+    if (this.options.isAuthenticationRequired()) {
+      PasswordAuthentication authentication;
+      try {
+        authentication = this.options.createPasswordAuthentication(this.secretManagerClient);
+      }
+      catch (Exception e) {
+        throw new MailException("Looking up SMTP credentials failed", e);
+      }
+
+      try {
+        transport.connect(authentication.getUserName(), authentication.getPassword());
+      }
+      catch (AuthenticationFailedException e) {
+        //
+        // The password might have been rotated, so look it up
+        // again next time.
+        //
+        this.options.invalidatePasswordAuthentication();
+        throw e;
+      }
+    }
+    else {
+      transport.connect();
+    }
+
+    return transport;
+  }
+
+  /**
+   * Return a transport to the pool, or close it if the pool is full.
+   */
+  private void releaseTransport(@NotNull Transport transport) {
+    if (this.idleTransports.size() >= this.options.connectionPoolSize ||
+      !this.idleTransports.offerFirst(new PooledTransport(transport, Instant.now()))) {
+      closeQuietly(transport);
+    }
+  }
+
+  private static void closeQuietly(@NotNull Transport transport) {
+    try {
+      transport.close();
+    }
+    catch (MessagingException ignored) {
+    }
+  }
+
+  private void send(@NotNull MimeMessage message) throws MessagingException, MailException {
+    message.saveChanges();
+
+    for (int attempt = 0; ; attempt++) {
+      var transport = acquireTransport();
+      try {
+        transport.sendMessage(message, message.getAllRecipients());
+        releaseTransport(transport);
+        return;
+      }
+      catch (SendFailedException e) {
+        //
+        // The server rejected the message, but the connection
+        // is still good.
+        //
+        releaseTransport(transport);
+        throw e;
+      }
+      catch (MessagingException e) {
+        closeQuietly(transport);
+
+        if (attempt > 0) {
+          throw e;
+        }
+
+        //
+        // The server might have closed a pooled connection,
+        // retry once using a new connection.
+        //
+      }
+    }
+  }
+
+  /**
+   * Close all pooled connections.
+   */
+  @Override
+  public void close() {
+    PooledTransport pooled;
+    while ((pooled = this.idleTransports.pollFirst()) != null) {
+      closeQuietly(pooled.transport);
+    }
   }
 
   public void sendMail(
@@ -69,25 +193,8 @@ public class SmtpClient {
     Preconditions.checkNotNull(subject, "subject");
     Preconditions.checkNotNull(content, "content");
 
-    PasswordAuthentication authentication;
     try {
-      authentication = this.options.createPasswordAuthentication(this.secretManagerClient);
-    }
-    catch (Exception e) {
-      throw new MailException("Looking up SMTP credentials failed", e);
-    }
-
-    var session = Session.getDefaultInstance(
-      this.options.smtpProperties,
-      new Authenticator() {
-        @Override
-        protected PasswordAuthentication getPasswordAuthentication() {
-          return authentication;
-        }
-      });
-
-    try {
-      var message = new MimeMessage(session);
+      var message = new MimeMessage(this.session);
       message.setContent(content);
 
       message.setFrom(new InternetAddress(
@@ -120,7 +227,7 @@ public class SmtpClient {
         message.setSubject(subject);
       }
 
-      Transport.send(message);
+      send(message);
     }
     catch (MessagingException | UnsupportedEncodingException e) {
       throw new MailException("The mail could not be delivered", e);
@@ -167,8 +274,17 @@ public class SmtpClient {
     REPLY
   }
 
+  private record PooledTransport(
+    @NotNull Transport transport,
+    @NotNull Instant idleSince
+  ) {}
+
   public static class Options {
     private @Nullable PasswordAuthentication cachedAuthentication = null;
+    private @NotNull Instant cachedAuthenticationExpiry = Instant.MIN;
+    private int connectionPoolSize = 2;
+    private @NotNull Duration maxIdleTime = Duration.ofMinutes(1);
+    private @NotNull Duration credentialsTtl = Duration.ofMinutes(10);
     private final @NotNull String senderName;
     private final @NotNull EmailAddress senderAddress;
     private final @NotNull Properties smtpProperties;
@@ -241,37 +357,84 @@ public class SmtpClient {
       return this;
     }
 
+    /**
+     * Set the maximum number of idle connections to keep open.
+     */
+    public @NotNull Options setConnectionPoolSize(int connectionPoolSize) {
+      Preconditions.checkArgument(connectionPoolSize >= 0, "connectionPoolSize");
+
+      this.connectionPoolSize = connectionPoolSize;
+      return this;
+    }
+
+    /**
+     * Set the time after which idle connections are closed.
+     */
+    public @NotNull Options setMaxIdleTime(@NotNull Duration maxIdleTime) {
+      Preconditions.checkNotNull(maxIdleTime, "maxIdleTime");
+
+      this.maxIdleTime = maxIdleTime;
+      return this;
+    }
+
+    /**
+     * Set the time for which to cache credentials that have been
+     * read from Secret Manager.
+     */
+    public @NotNull Options setCredentialsTtl(@NotNull Duration credentialsTtl) {
+      Preconditions.checkNotNull(credentialsTtl, "credentialsTtl");
+
+      this.credentialsTtl = credentialsTtl;
+      return this;
+    }
+
+    boolean isAuthenticationRequired() {
+      return this.smtpUsername != null;
+    }
+
     public @NotNull PasswordAuthentication createPasswordAuthentication(
       @NotNull SecretManagerClient adapter
     ) throws AccessException, IOException {
       //
-      // Resolve authenticator on first use. To avoid holding a lock for
-      // longer than necessary, we allow the lookup to occur multiple times and
-      // let the first writer win.
+      // Resolve authenticator on first use, and again after the cached
+      // credentials expire. To avoid holding a lock for longer than
+      // necessary, we allow the lookup to occur multiple times and
+      // let the last writer win.
       //
-      if (this.cachedAuthentication == null)
-      {
-        String password;
-        if (this.smtpSecretPath != null && !this.smtpSecretPath.isEmpty()) {
-          //
-          // Read password from secret manager.
-          //
-          password = adapter.accessSecret(this.smtpSecretPath);
-        }
-        else {
-          //
-          // Use clear-text password.
-          //
-          password = this.smtpPassword;
+      synchronized (this) {
+        if (this.cachedAuthentication != null && Instant.now().isBefore(this.cachedAuthenticationExpiry)) {
+          return this.cachedAuthentication;
         }
+      }
 
-        synchronized (this) {
-          this.cachedAuthentication = new PasswordAuthentication(this.smtpUsername, password);
-        }
+      String password;
+      if (this.smtpSecretPath != null && !this.smtpSecretPath.isEmpty()) {
+        //
+        // Read password from secret manager.
+        //
+        password = adapter.accessSecret(this.smtpSecretPath);
+      }
+      else {
+        //
+        // Use clear-text password.
+        //
+        password = this.smtpPassword;
+      }
+
+      var authentication = new PasswordAuthentication(this.smtpUsername, password);
+      synchronized (this) {
+        this.cachedAuthentication = authentication;
+        this.cachedAuthenticationExpiry = Instant.now().plus(this.credentialsTtl);
       }
 
-      assert this.cachedAuthentication != null;
-      return this.cachedAuthentication;
+      return authentication;
+    }
+
+    /**
+     * Discard cached credentials.
+     */
+    synchronized void invalidatePasswordAuthentication() {
+      this.cachedAuthentication = null;
     }
   }
 
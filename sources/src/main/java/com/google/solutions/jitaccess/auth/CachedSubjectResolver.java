@@ -28,6 +28,8 @@ import com.google.common.util.concurrent.UncheckedExecutionException;
 import com.google.solutions.jitaccess.apis.Logger;
 import com.google.solutions.jitaccess.apis.clients.AccessException;
 import com.google.solutions.jitaccess.apis.clients.CloudIdentityGroupsClient;
+import com.google.solutions.jitaccess.common.Deadline;
+import com.google.solutions.jitaccess.common.FanOutExecutor;
 import jakarta.inject.Singleton;
 import org.jetbrains.annotations.NotNull;
 
@@ -46,7 +48,7 @@ public class CachedSubjectResolver extends SubjectResolver {
   public CachedSubjectResolver(
     @NotNull CloudIdentityGroupsClient groupsClient,
     @NotNull GroupMapping groupMapping,
-    @NotNull Executor executor,
+    @NotNull @FanOutExecutor Executor executor,
     @NotNull Logger logger,
     @NotNull Options options
   ) {
@@ -58,7 +60,13 @@ public class CachedSubjectResolver extends SubjectResolver {
 
         @Override
         public @NotNull Set<Principal> load(@NotNull EndUserId userId) throws Exception {
-          return CachedSubjectResolver.super.resolveGroupPrincipals(userId);
+          //
+          // Concurrent requests for the same user wait for this load,
+          // so don't let the deadline of the first request cut it short.
+          //
+          try (var ignored = Deadline.clear()) {
+            return CachedSubjectResolver.super.resolveGroupPrincipals(userId);
+          }
         }
       });
   }
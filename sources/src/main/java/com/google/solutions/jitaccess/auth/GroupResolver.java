@@ -29,6 +29,7 @@ import com.google.solutions.jitaccess.common.CompletableFutures;
 import com.google.solutions.jitaccess.common.Exceptions;
 import org.jetbrains.annotations.NotNull;
 
+import java.time.Duration;
 import java.util.HashSet;
 import java.util.Optional;
 import java.util.Set;
@@ -40,6 +41,13 @@ import java.util.concurrent.Executor;
  * Groups API.
  */
 public class GroupResolver {
+  /**
+   * Limits for expanding groups. A single failure fails the
+   * entire expansion, so there's no point in continuing.
+   */
+  private static final @NotNull CompletableFutures.FanOutOptions EXPAND_FAN_OUT =
+    new CompletableFutures.FanOutOptions(8, Duration.ofSeconds(30), true);
+
   private final @NotNull CloudIdentityGroupsClient groupsClient;
   private final @NotNull Executor executor;
 
@@ -107,7 +115,8 @@ public class GroupResolver {
         .map(m -> principalFromMembership(m))
         .flatMap(Optional::stream)
         .toList(),
-      this.executor);
+      this.executor,
+      EXPAND_FAN_OUT);
 
     try {
       var expandedPrincipals = new HashSet<>(nonGroups);
@@ -57,6 +57,13 @@ public class IamRoleResolver {
       () -> new HashSet<>(iamClient.listPredefinedRoles()));
   }
 
+  /**
+   * Load the list of predefined roles ahead of first access.
+   */
+  public void prefetch() {
+    this.predefinedRoles.get();
+  }
+
   /**
    * Check if a given role exists.
    */
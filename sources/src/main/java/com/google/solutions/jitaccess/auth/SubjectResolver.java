@@ -33,6 +33,7 @@ import com.google.solutions.jitaccess.common.CompletableFutures;
 import org.jetbrains.annotations.NotNull;
 
 import java.io.IOException;
+import java.time.Duration;
 import java.time.Instant;
 import java.util.HashSet;
 import java.util.List;
@@ -46,6 +47,19 @@ import java.util.stream.Collectors;
  * Resolves information necessary to build a subject from a user ID.
  */
 public class SubjectResolver {
+  /**
+   * Partial response mask for the membership fields we actually use.
+   */
+  private static final @NotNull String MEMBERSHIP_FIELDS = "groupKey,membership,roles";
+
+  /**
+   * Limits for looking up membership details: at most 8 concurrent
+   * lookups, and 30 seconds for all of them. A failing or slow lookup
+   * doesn't cancel the others, because their results remain useful.
+   */
+  private static final @NotNull CompletableFutures.FanOutOptions MEMBERSHIP_FAN_OUT =
+    new CompletableFutures.FanOutOptions(8, Duration.ofSeconds(30), false);
+
   private final @NotNull CloudIdentityGroupsClient groupsClient;
   private final @NotNull GroupMapping groupMapping;
   private final @NotNull Directory internalDirectory;
@@ -75,9 +89,11 @@ public class SubjectResolver {
       .allMatch(m -> this.groupMapping.isJitGroup(m.group));
 
     //
-    // Lookup details for each membership.
+    // Lookup details for each membership. If a lookup fails or
+    // doesn't complete in time, skip that membership but keep
+    // the others.
     //
-    var resolvedMembershipsFuture = CompletableFutures.mapAsync(
+    var resolvedMembershipsFuture = CompletableFutures.mapAsyncPartial(
       memberships,
       membership -> {
         try {
@@ -93,7 +109,15 @@ public class SubjectResolver {
           return Optional.<ResolvedMembership>empty();
         }
       },
-      this.executor);
+      this.executor,
+      MEMBERSHIP_FAN_OUT,
+      (membership, e) -> this.logger.warn(
+        EventIds.SUBJECT_RESOLUTION,
+        String.format(
+          "Resolving the membership of user '%s' in group '%s' failed",
+          user,
+          membership.group),
+        e));
 
     var principals = new HashSet<Principal>();
     try {
@@ -160,7 +184,7 @@ public class SubjectResolver {
     List<MembershipRelation> allMemberships;
     try {
       allMemberships = this.groupsClient
-        .listMembershipsByUser(user)
+        .listMembershipsByUser(user, MEMBERSHIP_FIELDS)
         .stream()
         .toList();
     }
@@ -217,10 +241,10 @@ public class SubjectResolver {
 
     this.logger.info(
       EventIds.SUBJECT_RESOLUTION,
-      String.format("The user '%s' is a member of %d JIT groups and %d other groups",
-        user,
-        jitGroupPrincipals.size(),
-        otherGroupPrincipals.size()));
+      "The user '%s' is a member of %d JIT groups and %d other groups",
+      user,
+      jitGroupPrincipals.size(),
+      otherGroupPrincipals.size());
 
     var allGroupPrincipals = new HashSet<Principal>();
     allGroupPrincipals.addAll(otherGroupPrincipals);
@@ -78,12 +78,13 @@ public class EnvironmentContext {
    */
   public Optional<PolicyDocumentSource> export() {
     //
-    // NB. Load and return original source to ensure that
-    // any formatting and comments are retained.
+    // NB. Return original source to ensure that any formatting
+    // and comments are retained. Use the cached source so that
+    // it's consistent with the policy that's in effect.
     //
     return NullaryOptional
       .ifTrue(canExport())
-      .map(() -> this.environment.loadPolicy());
+      .map(() -> this.environment.policySource());
   }
 
   /**
@@ -29,4 +29,5 @@ public class EventIds {
   public static final String PROVISION_IAM_BINDINGS = "catalog.iam.provision.";
   public static final String PROVISION_MEMBER = "catalog.member.provision.";
   public static final String MAP_LEGACY_ROLE_ = "catalog.legacy.map.";
+  public static final String LOAD_LEGACY_POLICY = "catalog.legacy.load";
 }
@@ -0,0 +1,72 @@
+//
+// Copyright 2026 Google LLC
+//
+// Licensed to the Apache Software Foundation (ASF) under one
+// or more contributor license agreements.  See the NOTICE file
+// distributed with this work for additional information
+// regarding copyright ownership.  The ASF licenses this file
+// to you under the Apache License, Version 2.0 (the
+// "License"); you may not use this file except in compliance
+// with the License.  You may obtain a copy of the License at
+//
+//   http://www.apache.org/licenses/LICENSE-2.0
+//
+// Unless required by applicable law or agreed to in writing,
+// software distributed under the License is distributed on an
+// "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+// KIND, either express or implied.  See the License for the
+// specific language governing permissions and limitations
+// under the License.
+//
+
+package com.google.solutions.jitaccess.catalog.legacy;
+
+import com.google.common.base.Preconditions;
+import com.google.solutions.jitaccess.apis.clients.AccessException;
+import org.jetbrains.annotations.NotNull;
+
+import java.io.IOException;
+import java.util.Collection;
+import java.util.List;
+
+/**
+ * Source of notifications about changes to assets.
+ */
+public interface AssetFeed {
+  /**
+   * Receive pending notifications.
+   *
+   * @return notifications, or an empty list if there are none.
+   */
+  @NotNull List<Notification> receive() throws AccessException, IOException;
+
+  /**
+   * Acknowledge notifications that have been processed.
+   */
+  void acknowledge(
+    @NotNull Collection<Notification> notifications
+  ) throws AccessException, IOException;
+
+  /**
+   * Notification about a change to an asset.
+   *
+   * @param id unique ID of the notification.
+   * @param assetName full resource name of the asset, for
+   *                  example //cloudresourcemanager.googleapis.com/projects/123.
+   * @param assetType asset type, for example
+   *                  cloudresourcemanager.googleapis.com/Project.
+   * @param deleted indicates whether the asset has been deleted.
+   */
+  record Notification(
+    @NotNull String id,
+    @NotNull String assetName,
+    @NotNull String assetType,
+    boolean deleted
+  ) {
+    public Notification {
+      Preconditions.checkNotNull(id, "id");
+      Preconditions.checkNotNull(assetName, "assetName");
+      Preconditions.checkNotNull(assetType, "assetType");
+    }
+  }
+}
@@ -0,0 +1,79 @@
+//
+// Copyright 2026 Google LLC
+//
+// Licensed to the Apache Software Foundation (ASF) under one
+// or more contributor license agreements.  See the NOTICE file
+// distributed with this work for additional information
+// regarding copyright ownership.  The ASF licenses this file
+// to you under the Apache License, Version 2.0 (the
+// "License"); you may not use this file except in compliance
+// with the License.  You may obtain a copy of the License at
+//
+//   http://www.apache.org/licenses/LICENSE-2.0
+//
+// Unless required by applicable law or agreed to in writing,
+// software distributed under the License is distributed on an
+// "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+// KIND, either express or implied.  See the License for the
+// specific language governing permissions and limitations
+// under the License.
+//
+
+package com.google.solutions.jitaccess.catalog.legacy;
+
+import org.jetbrains.annotations.NotNull;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Asset feed that's backed by an in-memory queue, for testing
+ * and local development.
+ */
+public class InMemoryAssetFeed implements AssetFeed {
+  private final @NotNull ConcurrentLinkedQueue<Notification> pending = new ConcurrentLinkedQueue<>();
+  private final @NotNull AtomicInteger acknowledged = new AtomicInteger(0);
+  private final @NotNull AtomicInteger nextId = new AtomicInteger(0);
+
+  /**
+   * Publish a notification about a change to an asset.
+   */
+  public void publish(
+    @NotNull String assetName,
+    @NotNull String assetType,
+    boolean deleted
+  ) {
+    this.pending.add(new Notification(
+      String.valueOf(this.nextId.incrementAndGet()),
+      assetName,
+      assetType,
+      deleted));
+  }
+
+  /**
+   * Number of notifications that have been acknowledged.
+   */
+  public int acknowledged() {
+    return this.acknowledged.get();
+  }
+
+  @Override
+  public @NotNull List<Notification> receive() {
+    var notifications = new ArrayList<Notification>();
+
+    Notification notification;
+    while ((notification = this.pending.poll()) != null) {
+      notifications.add(notification);
+    }
+
+    return notifications;
+  }
+
+  @Override
+  public void acknowledge(@NotNull Collection<Notification> notifications) {
+    this.acknowledged.addAndGet(notifications.size());
+  }
+}
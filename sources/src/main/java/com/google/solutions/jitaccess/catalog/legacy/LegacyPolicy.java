@@ -32,10 +32,14 @@ import com.google.solutions.jitaccess.auth.*;
 import com.google.solutions.jitaccess.catalog.JitGroupCompliance;
 import com.google.solutions.jitaccess.catalog.policy.*;
 import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
 
 import java.time.Duration;
 import java.util.*;
 import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Function;
 import java.util.regex.Pattern;
 import java.util.stream.Stream;
 
@@ -97,12 +101,62 @@ public class LegacyPolicy extends EnvironmentPolicy {
       .toList();
   }
 
+  /**
+   * Maximum number of projects to keep initialized.
+   */
+  private final int maxInitializedProjects;
+
+  /**
+   * Function for reloading the bindings of an evicted project, or
+   * null to reuse the project's original bindings.
+   */
+  private final @Nullable Function<ProjectId, Collection<Binding>> reloadBindings;
+
+  /**
+   * Initialized projects, in least-recently-used order. Guarded
+   * by initializedProjectsLock.
+   */
+  private final @NotNull LinkedHashMap<Long, ProjectPolicy> initializedProjects =
+    new LinkedHashMap<>(16, 0.75f, true);
+  private final @NotNull ReentrantLock initializedProjectsLock = new ReentrantLock();
+
+  private final @NotNull AtomicLong hits = new AtomicLong(0);
+  private final @NotNull AtomicLong misses = new AtomicLong(0);
+  private final @NotNull AtomicLong evictions = new AtomicLong(0);
+
   LegacyPolicy(
     @NotNull Duration activationTimeout,
     @NotNull String justificationPattern,
     @NotNull String justificationHint,
     @NotNull Collection<Binding> rootBindings,
     @NotNull Metadata metadata
+  ) {
+    this(
+      activationTimeout,
+      justificationPattern,
+      justificationHint,
+      rootBindings,
+      metadata,
+      Integer.MAX_VALUE,
+      null);
+  }
+
+  /**
+   * @param maxInitializedProjects maximum number of projects to keep
+   *                               initialized. When exceeded, the least
+   *                               recently used project is evicted and
+   *                               initialized again on next access.
+   * @param reloadBindings function for reloading the bindings of an
+   *                       evicted project.
+   */
+  LegacyPolicy(
+    @NotNull Duration activationTimeout,
+    @NotNull String justificationPattern,
+    @NotNull String justificationHint,
+    @NotNull Collection<Binding> rootBindings,
+    @NotNull Metadata metadata,
+    int maxInitializedProjects,
+    @Nullable Function<ProjectId, Collection<Binding>> reloadBindings
   ) {
     super(
       NAME,
@@ -157,6 +211,111 @@ public class LegacyPolicy extends EnvironmentPolicy {
         )
       ),
       metadata);
+
+    Preconditions.checkArgument(maxInitializedProjects > 0, "maxInitializedProjects");
+
+    this.maxInitializedProjects = maxInitializedProjects;
+    this.reloadBindings = reloadBindings;
+  }
+
+  /**
+   * Track that a project has been accessed, and evict the least
+   * recently used project if there are too many initialized projects.
+   */
+  private void accessed(@NotNull ProjectPolicy project, boolean initialized) {
+    if (initialized) {
+      this.misses.incrementAndGet();
+    }
+    else {
+      this.hits.incrementAndGet();
+    }
+
+    if (this.maxInitializedProjects == Integer.MAX_VALUE) {
+      return;
+    }
+
+    if (!initialized) {
+      //
+      // A hit only affects the order of eviction, so we don't wait
+      // for the lock. If another thread holds the lock, the project
+      // keeps its previous position, which only makes the LRU order
+      // slightly less accurate.
+      //
+      if (this.initializedProjectsLock.tryLock()) {
+        try {
+          this.initializedProjects.get(project.projectNumber);
+        }
+        finally {
+          this.initializedProjectsLock.unlock();
+        }
+      }
+
+      return;
+    }
+
+    this.initializedProjectsLock.lock();
+    try {
+      if (project(project.projectNumber).orElse(null) != project) {
+        //
+        // Project has been replaced or evicted already, but the caller
+        // still holds on to it.
+        //
+        return;
+      }
+
+      this.initializedProjects.put(project.projectNumber, project);
+
+      if (this.initializedProjects.size() > this.maxInitializedProjects) {
+        var eldest = this.initializedProjects.firstEntry().getValue();
+
+        //
+        // Replace the project by an uninitialized copy so that it
+        // becomes eligible for garbage collection. Callers that
+        // still hold on to the old project remain unaffected.
+        //
+        var reload = this.reloadBindings;
+        replace(
+          eldest.projectNumber,
+          eldest.projectId,
+          reload != null
+            ? () -> reload.apply(eldest.projectId)
+            : eldest.loadBindings);
+        this.evictions.incrementAndGet();
+      }
+    }
+    finally {
+      this.initializedProjectsLock.unlock();
+    }
+  }
+
+  /**
+   * Get cache metrics for initialized projects.
+   */
+  public @NotNull Metrics metrics() {
+    this.initializedProjectsLock.lock();
+    try {
+      //
+      // NB. Only projects are tracked if the number of initialized
+      // projects is bounded.
+      //
+      var projects = this.maxInitializedProjects == Integer.MAX_VALUE
+        ? this.systems()
+          .stream()
+          .map(p -> (ProjectPolicy)p)
+          .filter(ProjectPolicy::isInitialized)
+          .toList()
+        : List.copyOf(this.initializedProjects.values());
+
+      return new Metrics(
+        projects.size(),
+        projects.stream().mapToInt(ProjectPolicy::initializedGroupCount).sum(),
+        this.hits.get(),
+        this.misses.get(),
+        this.evictions.get());
+    }
+    finally {
+      this.initializedProjectsLock.unlock();
+    }
   }
 
   @Override
@@ -178,6 +337,53 @@ public class LegacyPolicy extends EnvironmentPolicy {
       bindings));
   }
 
+  /**
+   * Lookup a project by its number.
+   */
+  @NotNull Optional<ProjectPolicy> project(long projectNumber) {
+    return system(ProjectPolicy.createName(projectNumber))
+      .map(p -> (ProjectPolicy)p);
+  }
+
+  /**
+   * Replace a project, for example because its IAM policy changed.
+   */
+  void replace(
+    long projectNumber,
+    @NotNull ProjectId projectId,
+    @NotNull Supplier<Collection<Binding>> bindings
+  ) {
+    this.initializedProjectsLock.lock();
+    try {
+      //
+      // The new project is uninitialized, so stop tracking the
+      // old one.
+      //
+      super.replace(new ProjectPolicy(
+        projectNumber,
+        projectId,
+        bindings));
+      this.initializedProjects.remove(projectNumber);
+    }
+    finally {
+      this.initializedProjectsLock.unlock();
+    }
+  }
+
+  /**
+   * Remove a project, for example because it has been deleted.
+   */
+  void remove(long projectNumber) {
+    this.initializedProjectsLock.lock();
+    try {
+      super.remove(ProjectPolicy.createName(projectNumber));
+      this.initializedProjects.remove(projectNumber);
+    }
+    finally {
+      this.initializedProjectsLock.unlock();
+    }
+  }
+
   /**
    * Incompatibilities encountered while mapping groups.
    */
@@ -193,6 +399,7 @@ public class LegacyPolicy extends EnvironmentPolicy {
    * Maps a project to a System.
    */
   static class ProjectPolicy extends SystemPolicy {
+    private final long projectNumber;
     private final @NotNull ProjectId projectId;
     private final @NotNull AtomicBoolean initialized = new AtomicBoolean(false);
     private final @NotNull Supplier<Collection<Binding>> loadBindings;
@@ -221,14 +428,18 @@ public class LegacyPolicy extends EnvironmentPolicy {
         null,          // No access control, like in 1.x
         Map.of());     // All constraints are global.
 
+      this.projectNumber = projectNumber;
       this.projectId = projectId;
       this.loadBindings = loadBindings;
     }
 
     private void initializeLazily() {
+      boolean initializedNow = false;
+
       synchronized (this.initialized) {
         if (!this.initialized.get()) {
           this.initialized.set(true);
+          initializedNow = true;
 
           var roles = new HashMap<String, RolePolicy>();
           for (var binding : this.loadBindings.get()) {
@@ -268,6 +479,29 @@ public class LegacyPolicy extends EnvironmentPolicy {
           roles.values().forEach(super::add);
         }
       }
+
+      if (this.parent().isPresent() && this.parent().get() instanceof LegacyPolicy policy) {
+        policy.accessed(this, initializedNow);
+      }
+    }
+
+    boolean isInitialized() {
+      return this.initialized.get();
+    }
+
+    /**
+     * Number of groups, without initializing the project.
+     */
+    int initializedGroupCount() {
+      return this.initialized.get() ? super.groups().size() : 0;
+    }
+
+    long projectNumber() {
+      return this.projectNumber;
+    }
+
+    @NotNull ProjectId projectId() {
+      return this.projectId;
     }
 
     /**
@@ -484,4 +718,31 @@ public class LegacyPolicy extends EnvironmentPolicy {
           .toList());
     }
   }
+
+  /**
+   * Cache metrics.
+   *
+   * @param initializedProjects number of projects that are initialized
+   *                            and kept in memory.
+   * @param initializedGroups number of groups of initialized projects.
+   * @param hits number of accesses to initialized projects.
+   * @param misses number of accesses that required a project to be
+   *               initialized.
+   * @param evictions number of projects that have been evicted.
+   */
+  public record Metrics(
+    int initializedProjects,
+    int initializedGroups,
+    long hits,
+    long misses,
+    long evictions
+  ) {
+    /**
+     * Ratio of hits to total accesses.
+     */
+    public double hitRate() {
+      var total = this.hits + this.misses;
+      return total == 0 ? 0 : (double)this.hits / total;
+    }
+  }
 }
@@ -22,32 +22,75 @@
 package com.google.solutions.jitaccess.catalog.legacy;
 
 import com.google.api.services.cloudasset.v1.model.Binding;
+import com.google.api.services.cloudresourcemanager.v3.model.Project;
+import com.google.common.base.Preconditions;
+import com.google.common.collect.Lists;
+import com.google.common.math.IntMath;
+import com.google.common.util.concurrent.RateLimiter;
 import com.google.common.util.concurrent.UncheckedExecutionException;
 import com.google.solutions.jitaccess.apis.Logger;
+import com.google.solutions.jitaccess.apis.ProjectId;
 import com.google.solutions.jitaccess.apis.clients.AccessException;
 import com.google.solutions.jitaccess.apis.clients.AssetInventoryClient;
 import com.google.solutions.jitaccess.apis.clients.ResourceManagerClient;
 import com.google.solutions.jitaccess.apis.clients.ResourceNotFoundException;
+import com.google.solutions.jitaccess.catalog.EventIds;
 import com.google.solutions.jitaccess.catalog.policy.Policy;
+import com.google.solutions.jitaccess.common.CompletableFutures;
 import org.jetbrains.annotations.NotNull;
 
 import java.io.IOException;
+import java.math.RoundingMode;
 import java.time.Duration;
 import java.time.Instant;
+import java.util.ArrayList;
 import java.util.Collection;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Executor;
+import java.util.concurrent.atomic.AtomicInteger;
 import java.util.function.Supplier;
 
 public class LegacyPolicyLoader {
+  /**
+   * Query that matches IAM policies containing eligible role bindings.
+   * The query is broad, bindings are checked again after loading.
+   */
+  static final String ELIGIBLE_BINDINGS_QUERY =
+    "policy:jitAccessConstraint OR policy:multiPartyApprovalConstraint";
+
+  private static final String PROJECT_ASSET_TYPE = "cloudresourcemanager.googleapis.com/Project";
+  private static final String FOLDER_ASSET_TYPE = "cloudresourcemanager.googleapis.com/Folder";
+  private static final String ORGANIZATION_ASSET_TYPE = "cloudresourcemanager.googleapis.com/Organization";
+  private static final String PROJECT_RESOURCE_PREFIX = "//cloudresourcemanager.googleapis.com/projects/";
+
   private final @NotNull Supplier<ResourceManagerClient> produceResourceManagerClient;
   private final @NotNull Supplier<AssetInventoryClient> produceAssetInventoryClient;
+  private final @NotNull Executor executor;
+  private final @NotNull Options options;
 
   public LegacyPolicyLoader(
     @NotNull Supplier<ResourceManagerClient> produceResourceManagerClient,
-    @NotNull Supplier<AssetInventoryClient> produceAssetInventoryClient
+    @NotNull Supplier<AssetInventoryClient> produceAssetInventoryClient,
+    @NotNull Executor executor,
+    @NotNull Options options
   ) {
     this.produceResourceManagerClient = produceResourceManagerClient;
     this.produceAssetInventoryClient = produceAssetInventoryClient;
+    this.executor = executor;
+    this.options = options;
+  }
+
+  public LegacyPolicyLoader(
+    @NotNull Supplier<ResourceManagerClient> produceResourceManagerClient,
+    @NotNull Supplier<AssetInventoryClient> produceAssetInventoryClient
+  ) {
+    this(
+      produceResourceManagerClient,
+      produceAssetInventoryClient,
+      Runnable::run,
+      Options.DEFAULT);
   }
 
   private Collection<Binding> getEffectiveIamPolicies(
@@ -63,46 +106,307 @@ public class LegacyPolicyLoader {
       .toList();
   }
 
-  public @NotNull LegacyPolicy load(
-    @NotNull String projectQuery,
+  private @NotNull Collection<Binding> getProjectBindings(
+    @NotNull String scope,
+    @NotNull Project project
+  ) throws AccessException, IOException {
+    return getProjectBindings(scope, new ProjectId(project.getProjectId()));
+  }
+
+  /**
+   * Load the effective IAM bindings of a project.
+   */
+  @NotNull Collection<Binding> getProjectBindings(
+    @NotNull String scope,
+    @NotNull ProjectId projectId
+  ) throws AccessException, IOException {
+    try {
+      return getEffectiveIamPolicies(scope, "projects/" + projectId.id());
+    }
+    catch (ResourceNotFoundException e) {
+      //
+      // Project not in scope.
+      //
+      return List.of();
+    }
+  }
+
+  /**
+   * Load the effective IAM policies of all projects, using batch
+   * requests and a bounded number of concurrent requests.
+   *
+   * @return bindings by project ID. Projects for which loading
+   *         failed or timed out, or that are in a batch with a project
+   *         that doesn't exist, are missing from the result.
+   */
+  private @NotNull Map<String, Collection<Binding>> prefetchProjectBindings(
+    @NotNull String scope,
+    @NotNull Collection<Project> projects,
+    @NotNull Logger logger
+  ) {
+    var results = new HashMap<String, Collection<Binding>>();
+    var failures = 0;
+    var rateLimiter = RateLimiter.create(this.options.maxRequestsPerMinute / 60.0);
+    var deadline = System.nanoTime() + this.options.prefetchTimeout.toNanos();
+    var client = this.produceAssetInventoryClient.get();
+
+    //
+    // Load projects in waves. Each wave uses one batch request per
+    // worker, and waits for the rate limiter before it starts.
+    //
+    var waveSize = AssetInventoryClient.MAX_BATCH_SIZE * this.options.maxParallelism;
+    for (var wave : Lists.partition(new ArrayList<>(projects), waveSize)) {
+      var timeLeft = Duration.ofNanos(deadline - System.nanoTime());
+      if (timeLeft.isNegative() || timeLeft.isZero()) {
+        break;
+      }
+
+      rateLimiter.acquire(IntMath.divide(
+        wave.size(),
+        AssetInventoryClient.MAX_BATCH_SIZE,
+        RoundingMode.CEILING));
+
+      try {
+        var policies = client.getEffectiveIamPolicies(
+          scope,
+          wave.stream().map(p -> "projects/" + p.getProjectId()).toList(),
+          this.executor,
+          new CompletableFutures.FanOutOptions(this.options.maxParallelism, timeLeft, true));
+
+        for (var project : wave) {
+          var projectPolicies = policies.get("projects/" + project.getProjectId());
+          if (projectPolicies == null) {
+            //
+            // The project's batch failed because one of the projects
+            // doesn't exist (or isn't in scope). Load the project on
+            // first access instead.
+            //
+            continue;
+          }
+
+          results.put(
+            project.getProjectId(),
+            projectPolicies
+              .stream()
+
+              // All bindings, across all resources in the ancestry.
+              .flatMap(p -> p.getPolicy().getBindings().stream())
+              .toList());
+        }
+      }
+      catch (Exception e) {
+        failures++;
+      }
+    }
+
+    if (results.size() < projects.size()) {
+      logger.warn(
+        EventIds.LOAD_LEGACY_POLICY,
+        "Prefetching IAM policies failed or was skipped for %d of %d projects (%d failed requests), " +
+          "these projects will be loaded on first access",
+        projects.size() - results.size(),
+        projects.size(),
+        failures);
+    }
+
+    return results;
+  }
+
+  private @NotNull LegacyPolicy createPolicy(
     @NotNull String scope,
     @NotNull Duration activationTimeout,
     @NotNull String justificationPattern,
-    @NotNull String justificationHint,
-    @NotNull Logger logger
+    @NotNull String justificationHint
   ) throws AccessException, IOException {
-
-    var policy = new LegacyPolicy(
+    return new LegacyPolicy(
       activationTimeout,
       justificationPattern,
       justificationHint,
       getEffectiveIamPolicies(scope, scope),
       new Policy.Metadata(
         String.format("IAM policies in %s", scope),
-        Instant.now()));
+        Instant.now()),
+      this.options.maxInitializedProjects,
+      projectId -> {
+        try {
+          return getProjectBindings(scope, projectId);
+        }
+        catch (Exception e) {
+          throw new UncheckedExecutionException(e);
+        }
+      });
+  }
 
-    for (var project : this
+  public @NotNull LegacyPolicy load(
+    @NotNull String projectQuery,
+    @NotNull String scope,
+    @NotNull Duration activationTimeout,
+    @NotNull String justificationPattern,
+    @NotNull String justificationHint,
+    @NotNull Logger logger
+  ) throws AccessException, IOException {
+    var projects = this
       .produceResourceManagerClient.get()
-      .searchProjects(projectQuery)) {
+      .searchProjects(projectQuery);
 
-      policy.add(
-        project,
-        () -> {
-          try {
-            return getEffectiveIamPolicies(scope, "projects/" + project.getProjectId());
-          }
-          catch (ResourceNotFoundException e) {
-            //
-            // Project not in scope.
-            //
-            return List.of();
-          }
-          catch (Exception e) {
-            throw new UncheckedExecutionException(e);
-          }
-        });
+    return load(
+      projects,
+      scope,
+      createPolicy(scope, activationTimeout, justificationPattern, justificationHint),
+      logger);
+  }
+
+  private @NotNull LegacyPolicy load(
+    @NotNull Collection<Project> projects,
+    @NotNull String scope,
+    @NotNull LegacyPolicy policy,
+    @NotNull Logger logger
+  ) {
+    //
+    // In eager mode, load all projects before adding any of them
+    // to the policy. That way, the policy is either fully loaded
+    // or not at all, and no user has to wait for a project to load.
+    //
+    var prefetchedBindings = this.options.prefetch
+      ? prefetchProjectBindings(scope, projects, logger)
+      : Map.<String, Collection<Binding>>of();
+
+    for (var project : projects) {
+      var bindings = prefetchedBindings.get(project.getProjectId());
+      if (bindings != null) {
+        policy.add(project, () -> bindings);
+      }
+      else {
+        //
+        // Load lazily on first access.
+        //
+        policy.add(
+          project,
+          () -> {
+            try {
+              return getProjectBindings(scope, project);
+            }
+            catch (Exception e) {
+              throw new UncheckedExecutionException(e);
+            }
+          });
+      }
+    }
+
+    return policy;
+  }
+
+  /**
+   * Load the policy by searching all IAM policies in the scope for
+   * eligible role bindings, instead of looking up the effective
+   * IAM policy of each project.
+   * <p>
+   * Search results only contain bindings that are attached to a
+   * project directly. If the search finds eligible role bindings
+   * that are attached to folders or the organization, all projects
+   * might inherit them, so the method falls back to looking up
+   * effective IAM policies.
+   */
+  public @NotNull LegacyPolicy loadUsingSearch(
+    @NotNull String projectQuery,
+    @NotNull String scope,
+    @NotNull Duration activationTimeout,
+    @NotNull String justificationPattern,
+    @NotNull String justificationHint,
+    @NotNull Logger logger
+  ) throws AccessException, IOException {
+    var policy = createPolicy(scope, activationTimeout, justificationPattern, justificationHint);
+    var projects = this
+      .produceResourceManagerClient.get()
+      .searchProjects(projectQuery);
+
+    var bindingsByProjectNumber = new HashMap<String, List<Binding>>();
+    var inheritedBindings = new AtomicInteger(0);
+
+    this.produceAssetInventoryClient.get().searchAllIamPolicies(
+      scope,
+      ELIGIBLE_BINDINGS_QUERY,
+      List.of(PROJECT_ASSET_TYPE, FOLDER_ASSET_TYPE, ORGANIZATION_ASSET_TYPE),
+      result -> {
+        if (result.getPolicy() == null || result.getPolicy().getBindings() == null) {
+          return;
+        }
+
+        var eligibleBindings = result.getPolicy().getBindings()
+          .stream()
+          .filter(b -> ProjectRole.EligibilityCondition.parse(b.getCondition()).isPresent())
+          .toList();
+
+        if (eligibleBindings.isEmpty()) {
+          return;
+        }
+        else if (PROJECT_ASSET_TYPE.equals(result.getAssetType()) &&
+          result.getResource().startsWith(PROJECT_RESOURCE_PREFIX)) {
+          bindingsByProjectNumber
+            .computeIfAbsent(
+              result.getResource().substring(PROJECT_RESOURCE_PREFIX.length()),
+              k -> new ArrayList<>())
+            .addAll(eligibleBindings);
+        }
+        else {
+          inheritedBindings.addAndGet(eligibleBindings.size());
+        }
+      });
+
+    if (inheritedBindings.get() > 0) {
+      logger.warn(
+        EventIds.LOAD_LEGACY_POLICY,
+        "Found %d eligible role bindings on folders or the organization, " +
+          "looking up effective IAM policies instead",
+        inheritedBindings.get());
+
+      return load(projects, scope, policy, logger);
+    }
+
+    for (var project : projects) {
+      var projectNumber = ProjectId.parse(project.getName())
+        .map(ProjectId::id)
+        .orElse("");
+      var bindings = List.copyOf(bindingsByProjectNumber.getOrDefault(projectNumber, List.of()));
+
+      policy.add(project, () -> bindings);
     }
 
     return policy;
   }
+
+  /**
+   * @param prefetch load the IAM policies of all projects eagerly
+   *                 instead of on first access.
+   * @param maxParallelism maximum number of concurrent requests
+   *                       when prefetching.
+   * @param maxRequestsPerMinute maximum number of Asset Inventory requests
+   *                             per minute when prefetching.
+   * @param prefetchTimeout maximum time to spend on prefetching, projects
+   *                        that haven't been loaded by then are loaded lazily.
+   * @param maxInitializedProjects maximum number of projects to keep in
+   *                               memory, least recently used projects
+   *                               are evicted and reloaded on next access.
+   */
+  public record Options(
+    boolean prefetch,
+    int maxParallelism,
+    int maxRequestsPerMinute,
+    @NotNull Duration prefetchTimeout,
+    int maxInitializedProjects
+  ) {
+    public static final @NotNull Options DEFAULT = new Options(
+      false,
+      8,
+      100,
+      Duration.ofMinutes(2),
+      Integer.MAX_VALUE);
+
+    public Options {
+      Preconditions.checkArgument(maxParallelism > 0, "maxParallelism");
+      Preconditions.checkArgument(maxRequestsPerMinute > 0, "maxRequestsPerMinute");
+      Preconditions.checkNotNull(prefetchTimeout, "prefetchTimeout");
+      Preconditions.checkArgument(maxInitializedProjects > 0, "maxInitializedProjects");
+    }
+  }
 }
@@ -0,0 +1,446 @@
+//
+// Copyright 2026 Google LLC
+//
+// Licensed to the Apache Software Foundation (ASF) under one
+// or more contributor license agreements.  See the NOTICE file
+// distributed with this work for additional information
+// regarding copyright ownership.  The ASF licenses this file
+// to you under the Apache License, Version 2.0 (the
+// "License"); you may not use this file except in compliance
+// with the License.  You may obtain a copy of the License at
+//
+//   http://www.apache.org/licenses/LICENSE-2.0
+//
+// Unless required by applicable law or agreed to in writing,
+// software distributed under the License is distributed on an
+// "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+// KIND, either express or implied.  See the License for the
+// specific language governing permissions and limitations
+// under the License.
+//
+
+package com.google.solutions.jitaccess.catalog.legacy;
+
+import com.google.common.base.Preconditions;
+import com.google.common.util.concurrent.UncheckedExecutionException;
+import com.google.solutions.jitaccess.apis.Logger;
+import com.google.solutions.jitaccess.apis.ProjectId;
+import com.google.solutions.jitaccess.apis.clients.AccessException;
+import com.google.solutions.jitaccess.catalog.EventIds;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Keeps a legacy policy up to date by applying notifications from
+ * an asset feed.
+ * <p>
+ * When a project's IAM policy changes, the updater replaces the
+ * affected project so that its bindings are reloaded on next access.
+ * When the IAM policy of a folder or organization changes, any project
+ * might be affected, so the updater replaces all projects. When the
+ * IAM policy of the scope itself changes, the policy's ACL might be
+ * affected too, so the updater asks for the entire policy to be
+ * reloaded.
+ * <p>
+ * Notifications don't cover projects that have been created since
+ * the policy was loaded, these only appear after the next full load.
+ * <p>
+ * A full load can take several minutes, and might miss changes that
+ * happen while it's in progress. The updater therefore records the
+ * notifications it receives during a load, and applies them to the
+ * new policy when it's attached.
+ */
+public class LegacyPolicyUpdater implements Closeable {
+  private static final String PROJECT_ASSET_TYPE = "cloudresourcemanager.googleapis.com/Project";
+  private static final String FOLDER_ASSET_TYPE = "cloudresourcemanager.googleapis.com/Folder";
+  private static final String ORGANIZATION_ASSET_TYPE = "cloudresourcemanager.googleapis.com/Organization";
+  private static final String RESOURCE_PREFIX = "//cloudresourcemanager.googleapis.com/";
+  private static final String PROJECT_RESOURCE_PREFIX = RESOURCE_PREFIX + "projects/";
+
+  private final @NotNull LegacyPolicyLoader loader;
+  private final @NotNull String scope;
+  private final @NotNull AssetFeed feed;
+  private final @NotNull Options options;
+  private final @NotNull Logger logger;
+
+  /**
+   * Lock that guards the policy and the notification log.
+   */
+  private final @NotNull Object lock = new Object();
+
+  /**
+   * Policy to keep up to date, if any.
+   */
+  private @Nullable LegacyPolicy policy;
+
+  /**
+   * Sequence number of the next notification.
+   */
+  private long nextSequence = 0;
+
+  /**
+   * Watermarks of loads that are in progress.
+   */
+  private final @NotNull List<Watermark> pendingLoads = new ArrayList<>();
+
+  /**
+   * Notifications received while loads are in progress, to be
+   * applied to the policies once they're attached.
+   */
+  private final @NotNull List<LoggedNotification> notificationLog = new ArrayList<>();
+
+  /**
+   * Listener to notify when the entire policy needs to be reloaded.
+   */
+  private volatile @Nullable Runnable reloadListener;
+
+  private @Nullable Thread thread;
+  private volatile boolean closed = false;
+
+  public LegacyPolicyUpdater(
+    @NotNull LegacyPolicyLoader loader,
+    @NotNull String scope,
+    @NotNull AssetFeed feed,
+    @NotNull Options options,
+    @NotNull Logger logger
+  ) {
+    Preconditions.checkNotNull(loader, "loader");
+    Preconditions.checkNotNull(scope, "scope");
+    Preconditions.checkNotNull(feed, "feed");
+    Preconditions.checkNotNull(options, "options");
+    Preconditions.checkNotNull(logger, "logger");
+
+    this.loader = loader;
+    this.scope = scope;
+    this.feed = feed;
+    this.options = options;
+    this.logger = logger;
+  }
+
+  /**
+   * Record that a full load is about to start. Notifications
+   * received from now on are applied to the policy once it's
+   * attached.
+   *
+   * @return watermark to pass to attach or abandonLoad.
+   */
+  public @NotNull Watermark beginLoad() {
+    synchronized (this.lock) {
+      var watermark = new Watermark(this.nextSequence);
+      this.pendingLoads.add(watermark);
+      return watermark;
+    }
+  }
+
+  /**
+   * Record that a full load failed.
+   */
+  public void abandonLoad(@NotNull Watermark watermark) {
+    Preconditions.checkNotNull(watermark, "watermark");
+
+    synchronized (this.lock) {
+      endLoad(watermark);
+    }
+  }
+
+  /**
+   * Start updating a policy. Replaces the policy that's been
+   * updated so far, if any.
+   * <p>
+   * Notifications that have been received since the load started
+   * are applied to the policy first.
+   */
+  public void attach(
+    @NotNull LegacyPolicy policy,
+    @NotNull Watermark watermark
+  ) {
+    Preconditions.checkNotNull(policy, "policy");
+    Preconditions.checkNotNull(watermark, "watermark");
+
+    boolean reloadRequired = false;
+    synchronized (this.lock) {
+      for (var logged : this.notificationLog) {
+        if (logged.sequence >= watermark.sequence && !apply(policy, logged.notification)) {
+          reloadRequired = true;
+          break;
+        }
+      }
+
+      endLoad(watermark);
+      this.policy = reloadRequired ? null : policy;
+    }
+
+    if (reloadRequired) {
+      //
+      // The policy is outdated already.
+      //
+      notifyReloadRequired();
+    }
+  }
+
+  /**
+   * Stop tracking a load, and drop notifications that
+   * no pending load needs anymore.
+   * <p>
+   * Must be called while holding the lock.
+   */
+  private void endLoad(@NotNull Watermark watermark) {
+    assert Thread.holdsLock(this.lock);
+
+    this.pendingLoads.remove(watermark);
+
+    var oldestPendingLoad = this.pendingLoads
+      .stream()
+      .mapToLong(w -> w.sequence)
+      .min()
+      .orElse(this.nextSequence);
+
+    this.notificationLog.removeIf(n -> n.sequence < oldestPendingLoad);
+  }
+
+  private void notifyReloadRequired() {
+    var listener = this.reloadListener;
+    if (listener != null) {
+      listener.run();
+    }
+  }
+
+  /**
+   * Set a listener to notify when a change can't be applied
+   * incrementally, and the entire policy needs to be reloaded.
+   */
+  public void onReloadRequired(@NotNull Runnable listener) {
+    Preconditions.checkNotNull(listener, "listener");
+    this.reloadListener = listener;
+  }
+
+  /**
+   * Start processing notifications in the background.
+   */
+  public void start() {
+    Preconditions.checkState(this.thread == null, "Already started");
+
+    this.thread = Thread.ofPlatform()
+      .name("legacy-policy-updater")
+      .daemon(true)
+      .start(this::run);
+  }
+
+  private void run() {
+    while (!this.closed) {
+      try {
+        if (processNotifications() == 0) {
+          Thread.sleep(this.options.pollInterval);
+        }
+      }
+      catch (InterruptedException e) {
+        return;
+      }
+      catch (Exception e) {
+        this.logger.warn(
+          EventIds.LOAD_LEGACY_POLICY,
+          "Processing asset change notifications failed",
+          e);
+
+        try {
+          Thread.sleep(this.options.pollInterval);
+        }
+        catch (InterruptedException ignored) {
+          return;
+        }
+      }
+    }
+  }
+
+  /**
+   * Receive and apply one batch of notifications.
+   *
+   * @return number of notifications processed.
+   */
+  int processNotifications() throws AccessException, IOException {
+    var notifications = this.feed.receive();
+    if (notifications.isEmpty()) {
+      return 0;
+    }
+
+    boolean reloadRequired = false;
+    synchronized (this.lock) {
+      if (!this.pendingLoads.isEmpty()) {
+        //
+        // A load that's in progress might have missed these
+        // changes, so keep them for when it completes.
+        //
+        for (var notification : notifications) {
+          this.notificationLog.add(new LoggedNotification(this.nextSequence++, notification));
+        }
+      }
+      else {
+        this.nextSequence += notifications.size();
+      }
+
+      if (this.policy != null) {
+        for (var notification : notifications) {
+          if (!apply(this.policy, notification)) {
+            //
+            // Stop updating this policy, the reloaded policy
+            // will reflect all changes.
+            //
+            this.policy = null;
+            reloadRequired = true;
+            break;
+          }
+        }
+      }
+    }
+
+    if (reloadRequired) {
+      notifyReloadRequired();
+    }
+
+    //
+    // Acknowledge notifications even if there's no policy. If
+    // a load is in progress, we've logged the notifications.
+    // Otherwise, the next load starts after these changes, and
+    // will reflect them.
+    //
+    this.feed.acknowledge(notifications);
+    return notifications.size();
+  }
+
+  private void replaceProject(
+    @NotNull LegacyPolicy policy,
+    long projectNumber,
+    @NotNull ProjectId projectId
+  ) {
+    policy.replace(
+      projectNumber,
+      projectId,
+      () -> {
+        try {
+          return this.loader.getProjectBindings(this.scope, projectId);
+        }
+        catch (Exception e) {
+          throw new UncheckedExecutionException(e);
+        }
+      });
+  }
+
+  /**
+   * Apply a notification to the policy.
+   *
+   * @return false if the notification can't be applied
+   *         incrementally and the policy must be reloaded.
+   */
+  private boolean apply(
+    @NotNull LegacyPolicy policy,
+    @NotNull AssetFeed.Notification notification
+  ) {
+    switch (notification.assetType()) {
+      case PROJECT_ASSET_TYPE -> {
+        if (!notification.assetName().startsWith(PROJECT_RESOURCE_PREFIX)) {
+          return true;
+        }
+
+        long projectNumber;
+        try {
+          projectNumber = Long.parseLong(
+            notification.assetName().substring(PROJECT_RESOURCE_PREFIX.length()));
+        }
+        catch (NumberFormatException e) {
+          return true;
+        }
+
+        var existing = policy.project(projectNumber);
+        if (existing.isEmpty()) {
+          //
+          // New project, or a project we're not interested in.
+          //
+        }
+        else if (notification.deleted()) {
+          policy.remove(projectNumber);
+        }
+        else {
+          replaceProject(policy, projectNumber, existing.get().projectId());
+        }
+      }
+
+      case FOLDER_ASSET_TYPE, ORGANIZATION_ASSET_TYPE -> {
+        if (notification.assetName().equals(RESOURCE_PREFIX + this.scope)) {
+          //
+          // The policy's ACL is derived from the scope's bindings,
+          // and we can't update it in place.
+          //
+          return false;
+        }
+
+        //
+        // Bindings are inherited, so any project might be affected.
+        //
+        for (var system : policy.systems()) {
+          var project = (LegacyPolicy.ProjectPolicy)system;
+          replaceProject(policy, project.projectNumber(), project.projectId());
+        }
+      }
+
+      default -> {
+        //
+        // Irrelevant asset type, ignore.
+        //
+      }
+    }
+
+    return true;
+  }
+
+  @Override
+  public void close() {
+    this.closed = true;
+
+    if (this.thread != null) {
+      this.thread.interrupt();
+    }
+  }
+
+  /**
+   * Position in the stream of notifications at which a load started.
+   */
+  public static final class Watermark {
+    private final long sequence;
+
+    private Watermark(long sequence) {
+      this.sequence = sequence;
+    }
+  }
+
+  private record LoggedNotification(
+    long sequence,
+    @NotNull AssetFeed.Notification notification
+  ) {}
+
+  /**
+   * @param pollInterval time to wait before checking for new
+   *                     notifications if there were none.
+   * @param resyncInterval time after which to load the entire
+   *                       policy again, as a safety net for
+   *                       missed notifications.
+   */
+  public record Options(
+    @NotNull Duration pollInterval,
+    @NotNull Duration resyncInterval
+  ) {
+    public static final @NotNull Options DEFAULT = new Options(
+      Duration.ofSeconds(5),
+      Duration.ofHours(6));
+
+    public Options {
+      Preconditions.checkNotNull(pollInterval, "pollInterval");
+      Preconditions.checkNotNull(resyncInterval, "resyncInterval");
+    }
+  }
+}
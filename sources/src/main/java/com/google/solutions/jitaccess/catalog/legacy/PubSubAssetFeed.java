@@ -0,0 +1,119 @@
+//
+// Copyright 2026 Google LLC
+//
+// Licensed to the Apache Software Foundation (ASF) under one
+// or more contributor license agreements.  See the NOTICE file
+// distributed with this work for additional information
+// regarding copyright ownership.  The ASF licenses this file
+// to you under the Apache License, Version 2.0 (the
+// "License"); you may not use this file except in compliance
+// with the License.  You may obtain a copy of the License at
+//
+//   http://www.apache.org/licenses/LICENSE-2.0
+//
+// Unless required by applicable law or agreed to in writing,
+// software distributed under the License is distributed on an
+// "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+// KIND, either express or implied.  See the License for the
+// specific language governing permissions and limitations
+// under the License.
+//
+
+package com.google.solutions.jitaccess.catalog.legacy;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.google.common.base.Preconditions;
+import com.google.solutions.jitaccess.apis.clients.AccessException;
+import com.google.solutions.jitaccess.apis.clients.PubSubClient;
+import com.google.solutions.jitaccess.apis.clients.PubSubSubscription;
+import org.jetbrains.annotations.NotNull;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.Collection;
+import java.util.List;
+
+/**
+ * Asset feed that receives notifications from a Pub/Sub
+ * subscription of an Asset Inventory feed.
+ */
+public class PubSubAssetFeed implements AssetFeed {
+  private static final ObjectMapper OBJECT_MAPPER = new ObjectMapper();
+  private static final int MAX_MESSAGES = 100;
+
+  private final @NotNull PubSubClient client;
+  private final @NotNull PubSubSubscription subscription;
+
+  public PubSubAssetFeed(
+    @NotNull PubSubClient client,
+    @NotNull PubSubSubscription subscription
+  ) {
+    Preconditions.checkNotNull(client, "client");
+    Preconditions.checkNotNull(subscription, "subscription");
+
+    this.client = client;
+    this.subscription = subscription;
+  }
+
+  private static @NotNull String text(
+    @NotNull JsonNode node,
+    @NotNull String... fieldNames
+  ) {
+    for (var fieldName : fieldNames) {
+      var field = node.path(fieldName);
+      if (field.isTextual()) {
+        return field.asText();
+      }
+    }
+
+    return "";
+  }
+
+  /**
+   * Parse a feed notification. Notifications use the JSON encoding
+   * of a TemporalAsset.
+   */
+  static @NotNull Notification parse(
+    @NotNull String id,
+    @NotNull byte[] data
+  ) {
+    try {
+      var json = OBJECT_MAPPER.readTree(new String(data, StandardCharsets.UTF_8));
+      var asset = json.path("asset");
+
+      return new Notification(
+        id,
+        text(asset, "name"),
+        text(asset, "asset_type", "assetType"),
+        json.path("deleted").asBoolean(false));
+    }
+    catch (IOException e) {
+      //
+      // Return a notification that's ignored, so that
+      // the message is acknowledged anyway.
+      //
+      return new Notification(id, "", "", false);
+    }
+  }
+
+  @Override
+  public @NotNull List<Notification> receive() throws AccessException, IOException {
+    return this.client
+      .pull(this.subscription, MAX_MESSAGES)
+      .stream()
+      .map(m -> parse(
+        m.getAckId(),
+        m.getMessage().decodeData() != null ? m.getMessage().decodeData() : new byte[0]))
+      .toList();
+  }
+
+  @Override
+  public void acknowledge(
+    @NotNull Collection<Notification> notifications
+  ) throws AccessException, IOException {
+    this.client.acknowledge(
+      this.subscription,
+      notifications.stream().map(Notification::id).toList());
+  }
+}
@@ -38,7 +38,7 @@ abstract class AbstractPolicy extends AbstractSecurableComponent implements Poli
   private final @NotNull String name;
   private final @NotNull String displayName;
   private final @NotNull String description;
-  private @Nullable Policy parent;
+  private volatile @Nullable Policy parent;
   private final @Nullable AccessControlList acl;
   private final @NotNull Map<ConstraintClass, Collection<Constraint>> constraints;
 
@@ -152,6 +152,22 @@ abstract class AbstractPolicy extends AbstractSecurableComponent implements Poli
     this.parent = parent;
   }
 
+  /**
+   * Move the policy to a copy of its current parent. The copy must
+   * have the same name, ACL, and constraints, so that the policy's
+   * effective ACL and constraints don't change.
+   * <p>
+   * This method should only be used by policies that are
+   * updated incrementally.
+   */
+  protected void reparent(@NotNull Policy parent) {
+    Preconditions.checkArgument(parent != this, "Parent must not be the same policy");
+    Preconditions.checkArgument(
+      this.parent != null && this.parent.name().equals(parent.name()),
+      "The new parent must be a copy of the current parent");
+    this.parent = parent;
+  }
+
   @Override
   public @NotNull String toString() {
     return this.name;
@@ -26,6 +26,7 @@ import com.google.solutions.jitaccess.auth.ClassPrincipalSet;
 import org.jetbrains.annotations.NotNull;
 
 import java.util.*;
+import java.util.concurrent.ConcurrentSkipListMap;
 
 /**
  * Policy for an environment. Environments comprise a number
@@ -44,7 +45,7 @@ public class EnvironmentPolicy extends AbstractPolicy {
   static final AccessControlList DEFAULT_ACCESS_CONTROL_LIST = new AccessControlList(
     List.of(new AccessControlList.AllowedEntry(ClassPrincipalSet.IAP_USERS, PolicyPermission.VIEW.toMask())));
 
-  private final @NotNull Map<String, SystemPolicy> systems = new TreeMap<>();
+  private final @NotNull Map<String, SystemPolicy> systems = new ConcurrentSkipListMap<>();
 
   private final @NotNull Metadata metadata;
 
@@ -95,6 +96,38 @@ public class EnvironmentPolicy extends AbstractPolicy {
     return this;
   }
 
+  /**
+   * Replace a system policy, or add it if it doesn't exist yet.
+   * This method should only be used by policies that are
+   * updated incrementally.
+   */
+  protected void replace(@NotNull SystemPolicy system) {
+    system.setParent(this);
+    this.systems.put(system.name(), system);
+  }
+
+  /**
+   * Replace a system policy by an unchanged system policy of a previous
+   * copy of this environment. This method should only be used by policies
+   * that are updated incrementally, before the policy is published.
+   */
+  void retain(@NotNull SystemPolicy system) {
+    Preconditions.checkArgument(
+      this.systems.containsKey(system.name()),
+      "The system must replace an existing system");
+
+    system.reparent(this);
+    this.systems.put(system.name(), system);
+  }
+
+  /**
+   * Remove a system policy. This method should only be used by
+   * policies that are updated incrementally.
+   */
+  protected void remove(@NotNull String name) {
+    this.systems.remove(name);
+  }
+
   /**
    * Get the list of system policies.
    */
@@ -53,13 +53,23 @@ public class PolicyDocument {
   private final @NotNull List<Issue> warnings;
   private final @NotNull EnvironmentPolicy policy;
 
-  private PolicyDocument(@NotNull EnvironmentPolicy policy, @NotNull List<Issue> warnings) {
+  /**
+   * Element that the policy was parsed from, if any.
+   */
+  private final @Nullable DocumentElement element;
+
+  private PolicyDocument(
+    @NotNull EnvironmentPolicy policy,
+    @NotNull List<Issue> warnings,
+    @Nullable DocumentElement element
+  ) {
     this.warnings = warnings;
     this.policy = policy;
+    this.element = element;
   }
 
   public PolicyDocument(@NotNull EnvironmentPolicy policy) {
-    this(policy, List.of());
+    this(policy, List.of(), null);
   }
 
   /**
@@ -103,12 +113,13 @@ public class PolicyDocument {
   ) throws SyntaxException {
     var issues = new IssueCollection();
 
+    DocumentElement element;
     Optional<EnvironmentPolicy> policy;
     try {
       //
       // Parse YAML and validate it.
       //
-      var element = new YAMLMapper().readValue(source.yaml(), DocumentElement.class);
+      element = new YAMLMapper().readValue(source.yaml(), DocumentElement.class);
       policy = element.toPolicy(issues, source.metadata());
     }
     catch (PropertyBindingException e) {
@@ -159,9 +170,153 @@ public class PolicyDocument {
         issues.issues());
     }
 
-    return new PolicyDocument(policy.get(), issues.issues);
+    return new PolicyDocument(policy.get(), issues.issues, element);
+  }
+
+  //---------------------------------------------------------------------------
+  // Incremental updates.
+  //---------------------------------------------------------------------------
+
+  private static @NotNull Map<String, SystemElement> systemElements(@NotNull EnvironmentElement environment) {
+    var systems = new LinkedHashMap<String, SystemElement>();
+    Coalesce
+      .emptyIfNull(environment.systems())
+      .stream()
+      .filter(s -> s != null)
+      .forEach(s -> systems.put(s.name().toLowerCase(), s));
+    return systems;
+  }
+
+  private static @NotNull Map<String, GroupElement> groupElements(@NotNull SystemElement system) {
+    var groups = new LinkedHashMap<String, GroupElement>();
+    Coalesce
+      .emptyIfNull(system.groups())
+      .stream()
+      .filter(g -> g != null)
+      .forEach(g -> groups.put(g.name().toLowerCase(), g));
+    return groups;
+  }
+
+  private static void addGroupIds(
+    @NotNull SystemPolicy system,
+    @NotNull Collection<JitGroupId> groupIds
+  ) {
+    system.groups().forEach(g -> groupIds.add(g.id()));
   }
 
+  /**
+   * Update this document so that it retains the systems and groups
+   * of a previous document that haven't changed.
+   * <p>
+   * Retaining unchanged systems and groups keeps existing policy
+   * instances (and any state they hold) valid. The previous document's
+   * policy isn't copied: retained systems and groups are moved to the
+   * equivalent parent in this document's policy while the previous
+   * policy might still be in use.
+   * <p>
+   * The new parents have the same name, ACL, and constraints as the
+   * previous ones, so the effective ACL and constraints of a retained
+   * system or group don't change during the update. But a reader that
+   * walks from a retained system or group to its parent, for example
+   * to enumerate sibling systems or groups, might reach this document's
+   * policy before it's complete, and see systems and groups that differ
+   * from the previous policy's. Readers that need a consistent view of
+   * all systems and groups must start from the environment policy.
+   * <p>
+   * An incremental update isn't possible if either document hasn't
+   * been parsed from YAML, or if the environment's name, description,
+   * ACL, or constraints changed, as that affects all groups.
+   * <p>
+   * This method must be called before this document is published.
+   *
+   * @return updated document and the groups that were added, changed,
+   *         or removed, or empty if an incremental update isn't possible.
+   */
+  public @NotNull Optional<Update> applyTo(@NotNull PolicyDocument previous) {
+    if (this.element == null ||
+      this.element.environment() == null ||
+      previous.element == null ||
+      previous.element.environment() == null ||
+      !this.policy.name().equals(previous.policy.name()) ||
+      !this.element.environment().equalsIgnoringSystems(previous.element.environment())) {
+      return Optional.empty();
+    }
+
+    var previousPolicy = previous.policy;
+    var changedGroups = new LinkedHashSet<JitGroupId>();
+
+    var previousSystems = systemElements(previous.element.environment());
+    var systems = systemElements(this.element.environment());
+
+    for (var systemEntry : systems.entrySet()) {
+      var systemElement = systemEntry.getValue();
+      var previousSystemElement = previousSystems.get(systemEntry.getKey());
+      var system = this.policy.system(systemEntry.getKey()).orElseThrow();
+      var previousSystem = previousPolicy.system(systemEntry.getKey());
+
+      if (previousSystem.isPresent() && systemElement.equals(previousSystemElement)) {
+        //
+        // System unchanged, retain.
+        //
+        this.policy.retain(previousSystem.get());
+      }
+      else if (previousSystem.isEmpty() ||
+        previousSystemElement == null ||
+        !systemElement.equalsIgnoringGroups(previousSystemElement)) {
+        //
+        // New system, or the system's ACL or constraints changed, which
+        // affects all its groups. Use the new system and all its groups.
+        //
+        previousSystem.ifPresent(s -> addGroupIds(s, changedGroups));
+        addGroupIds(system, changedGroups);
+      }
+      else {
+        //
+        // Only some groups changed, retain the others.
+        //
+        var previousGroups = groupElements(previousSystemElement);
+
+        for (var groupEntry : groupElements(systemElement).entrySet()) {
+          var group = system.group(groupEntry.getKey()).orElseThrow();
+          var previousGroup = previousSystem.get().group(groupEntry.getKey());
+
+          if (previousGroup.isPresent() &&
+            groupEntry.getValue().equals(previousGroups.get(groupEntry.getKey()))) {
+            system.retain(previousGroup.get());
+          }
+          else {
+            changedGroups.add(group.id());
+          }
+        }
+
+        for (var previousGroup : previousSystem.get().groups()) {
+          if (system.group(previousGroup.name()).isEmpty()) {
+            changedGroups.add(previousGroup.id());
+          }
+        }
+      }
+    }
+
+    for (var previousSystem : previousPolicy.systems()) {
+      if (this.policy.system(previousSystem.name()).isEmpty()) {
+        addGroupIds(previousSystem, changedGroups);
+      }
+    }
+
+    return Optional.of(new Update(this, changedGroups));
+  }
+
+  /**
+   * Result of an incremental update.
+   *
+   * @param document document that reflects the update.
+   * @param changedGroups groups that were added, changed, or removed.
+   */
+  public record Update(
+    @NotNull PolicyDocument document,
+    @NotNull Collection<JitGroupId> changedGroups
+  ) {}
+
   /**
    * Warning or error affecting a policy.
    *
@@ -329,6 +484,15 @@ public class PolicyDocument {
     @JsonProperty("constraints") ConstraintsElement constraints,
     @JsonProperty("systems") List<SystemElement> systems
   ) {
+    /**
+     * Compare elements, ignoring systems.
+     */
+    boolean equalsIgnoringSystems(@NotNull EnvironmentElement other) {
+      return Objects.equals(this.name, other.name) &&
+        Objects.equals(this.description, other.description) &&
+        Objects.equals(this.acl, other.acl) &&
+        Objects.equals(this.constraints, other.constraints);
+    }
 
     static EnvironmentElement toYaml(
       @NotNull EnvironmentPolicy policy
@@ -413,6 +577,15 @@ public class PolicyDocument {
     @JsonProperty("constraints") ConstraintsElement constraints,
     @JsonProperty("groups") List<GroupElement> groups
   ) {
+    /**
+     * Compare elements, ignoring groups.
+     */
+    boolean equalsIgnoringGroups(@NotNull SystemElement other) {
+      return Objects.equals(this.name, other.name) &&
+        Objects.equals(this.description, other.description) &&
+        Objects.equals(this.acl, other.acl) &&
+        Objects.equals(this.constraints, other.constraints);
+    }
     static SystemElement toYaml(@NotNull SystemPolicy policy) {
       return new SystemElement(
         policy.name(),
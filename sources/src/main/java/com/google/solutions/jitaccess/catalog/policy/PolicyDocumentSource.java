@@ -21,13 +21,17 @@
 
 package com.google.solutions.jitaccess.catalog.policy;
 
+import com.google.common.hash.Hashing;
 import org.jetbrains.annotations.NotNull;
 
 import java.io.File;
 import java.io.FileNotFoundException;
 import java.io.IOException;
+import java.nio.charset.StandardCharsets;
 import java.nio.file.Files;
 import java.time.Instant;
+import java.util.Objects;
+import java.util.Optional;
 
 /**
  * Raw, unparsed source of a policy document.
@@ -48,6 +52,38 @@ public abstract class PolicyDocumentSource {
    */
   public abstract PolicyDocument parse() throws PolicyDocument.SyntaxException;
 
+  /**
+   * Hash of the source, if available. Sources with the same
+   * fingerprint parse to equivalent policies.
+   */
+  public @NotNull Optional<String> fingerprint() {
+    return Optional.empty();
+  }
+
+  /**
+   * Check if this source is known to be equivalent to
+   * another source, either because both stem from the same
+   * version or because their content is identical.
+   */
+  public boolean isUnchangedFrom(@NotNull PolicyDocumentSource other) {
+    var metadata = metadata();
+    var otherMetadata = other.metadata();
+
+    if (!Objects.equals(metadata.defaultName(), otherMetadata.defaultName())) {
+      return false;
+    }
+    else if (metadata.version() != null && metadata.version().equals(otherMetadata.version())) {
+      //
+      // Versions are immutable.
+      //
+      return true;
+    }
+    else {
+      var fingerprint = fingerprint();
+      return fingerprint.isPresent() && fingerprint.equals(other.fingerprint());
+    }
+  }
+
   /**
    * Create a policy document from an in-memory string.
    */
@@ -70,6 +106,16 @@ public abstract class PolicyDocumentSource {
       public PolicyDocument parse() throws PolicyDocument.SyntaxException {
         return PolicyDocument.parse(this);
       }
+
+      @Override
+      public @NotNull Optional<String> fingerprint() {
+        return Optional
+          .ofNullable(yaml)
+          .map(s -> Hashing
+            .sha256()
+            .hashString(s, StandardCharsets.UTF_8)
+            .toString());
+      }
     };
   }
 
@@ -26,6 +26,7 @@ import org.jetbrains.annotations.NotNull;
 import org.jetbrains.annotations.Nullable;
 
 import java.util.*;
+import java.util.concurrent.ConcurrentSkipListMap;
 
 /**
  * Policy for a system. A system could correspond to a Google Cloud
@@ -38,7 +39,12 @@ import java.util.*;
 public class SystemPolicy extends AbstractPolicy {
   static final String NAME_PATTERN = "^[a-zA-Z0-9\\-]{1,16}$";
 
-  private final @NotNull Map<String, JitGroupPolicy> groups = new TreeMap<>();
+  /**
+   * Groups, by name. Use a concurrent map because readers of a previous
+   * policy can reach this system while it's being built, see
+   * {@link PolicyDocument#applyTo(PolicyDocument)}.
+   */
+  private final @NotNull Map<String, JitGroupPolicy> groups = new ConcurrentSkipListMap<>();
 
   public SystemPolicy(
     @NotNull String name,
@@ -75,6 +81,20 @@ public class SystemPolicy extends AbstractPolicy {
     return this;
   }
 
+  /**
+   * Replace a group policy by an unchanged group policy of a previous
+   * copy of this system. This method should only be used by policies
+   * that are updated incrementally, before the policy is published.
+   */
+  void retain(@NotNull JitGroupPolicy group) {
+    Preconditions.checkArgument(
+      this.groups.containsKey(group.name()),
+      "The group must replace an existing group");
+
+    group.reparent(this);
+    this.groups.put(group.name(), group);
+  }
+
   /**
    * Get the parent policy.
    */
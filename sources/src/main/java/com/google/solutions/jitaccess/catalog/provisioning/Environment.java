@@ -21,12 +21,19 @@
 
 package com.google.solutions.jitaccess.catalog.provisioning;
 
+import com.google.solutions.jitaccess.auth.JitGroupId;
 import com.google.solutions.jitaccess.catalog.policy.EnvironmentPolicy;
+import com.google.solutions.jitaccess.catalog.policy.PolicyDocument;
 import com.google.solutions.jitaccess.catalog.policy.PolicyDocumentSource;
+import com.google.solutions.jitaccess.common.Deadline;
 import com.google.solutions.jitaccess.common.Lazy;
 import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
 
 import java.time.Duration;
+import java.util.Collection;
+import java.util.Optional;
+import java.util.concurrent.atomic.AtomicLong;
 
 /**
  * Environment that can be provisioned to.
@@ -34,9 +41,20 @@ import java.time.Duration;
 public abstract class Environment {
   private final @NotNull String name;
   private final @NotNull String description;
-  private final @NotNull Lazy<EnvironmentPolicy> policy;
+  private final @NotNull Lazy<Snapshot> snapshot;
   private final @NotNull Provisioner provisioner;
 
+  /**
+   * Most recently loaded snapshot, if any.
+   */
+  private volatile @Nullable Snapshot lastSnapshot;
+  private final @NotNull Object updateLock = new Object();
+
+  /**
+   * Incremented whenever the policy is invalidated.
+   */
+  private final @NotNull AtomicLong generation = new AtomicLong(0);
+
   protected Environment(
     @NotNull String name,
     @NotNull String description,
@@ -49,15 +67,90 @@ public abstract class Environment {
 
     //
     // Load policy on first access only, because doing so
-    // might be slow.
+    // might be slow. Keep the source so that exports are
+    // consistent with the parsed policy.
+    //
+    // The policy is shared across requests, so loading it
+    // must not be cut short by the deadline of the request
+    // that happens to trigger the load.
     //
-    this.policy = Lazy
-      .initializeOpportunistically(() -> loadPolicy()
-        .parse()
-        .policy())
+    this.snapshot = Lazy
+      .initializeOpportunistically(() -> {
+        try (var ignored = Deadline.clear()) {
+          var generation = this.generation.get();
+          return load(loadPolicy(), generation);
+        }
+      })
       .reinitializeAfter(policyCacheDuration);
   }
 
+  private @NotNull Snapshot load(
+    @NotNull PolicyDocumentSource source,
+    long generation
+  ) throws PolicyDocument.SyntaxException {
+    //
+    // Serialize updates as they move unchanged systems and groups
+    // of the previous policy to the new policy.
+    //
+    synchronized (this.updateLock) {
+      var previous = this.lastSnapshot;
+
+      Snapshot snapshot;
+      if (previous != null && source.isUnchangedFrom(previous.source())) {
+        //
+        // The policy hasn't changed, so we can skip parsing and keep
+        // using the existing policy, including its compiled constraints.
+        //
+        snapshot = new Snapshot(source, previous.document(), generation);
+      }
+      else {
+        var document = source.parse();
+        var update = previous != null
+          ? document.applyTo(previous.document())
+          : Optional.<PolicyDocument.Update>empty();
+
+        if (update.isPresent()) {
+          //
+          // The new policy retains all systems and groups of the
+          // previous policy that haven't changed. Readers continue
+          // to use the previous policy until we publish the new one.
+          //
+          snapshot = new Snapshot(source, update.get().document(), generation);
+          policyUpdated(snapshot.policy(), update.get().changedGroups());
+        }
+        else {
+          snapshot = new Snapshot(source, document, generation);
+        }
+
+        policyLoaded(source);
+      }
+
+      this.lastSnapshot = snapshot;
+      return snapshot;
+    }
+  }
+
+  /**
+   * Invoked after a new or changed policy has been parsed
+   * and validated successfully.
+   *
+   * @param source source of the policy
+   */
+  protected void policyLoaded(@NotNull PolicyDocumentSource source) {
+  }
+
+  /**
+   * Invoked after the policy has been updated incrementally.
+   *
+   * @param policy updated policy
+   * @param changedGroups groups that were added, changed, or removed.
+   */
+  protected void policyUpdated(
+    @NotNull EnvironmentPolicy policy,
+    @NotNull Collection<JitGroupId> changedGroups
+  ) {
+  }
+
   /**
    * Name of the policy.
    */
@@ -76,7 +169,42 @@ public abstract class Environment {
    * Policy for this environment, can be delay-loaded.
    */
   public @NotNull EnvironmentPolicy policy() {
-    return this.policy.get();
+    return snapshot().policy();
+  }
+
+  /**
+   * Raw, unparsed source of the policy, can be delay-loaded.
+   * <p>
+   * The source stems from the same load as the policy returned
+   * by policy().
+   */
+  public @NotNull PolicyDocumentSource policySource() {
+    return snapshot().source();
+  }
+
+  private @NotNull Snapshot snapshot() {
+    var snapshot = this.snapshot.get();
+    if (snapshot.generation() != this.generation.get()) {
+      //
+      // The policy was invalidated while it was being loaded, and
+      // the reset might have happened before the snapshot was cached.
+      //
+      this.snapshot.reset();
+      snapshot = this.snapshot.get();
+    }
+
+    return snapshot;
+  }
+
+  /**
+   * Discard the cached policy so that it's reloaded on next access.
+   * <p>
+   * If the policy is currently being loaded, the loaded policy is
+   * discarded too.
+   */
+  public void invalidatePolicy() {
+    this.generation.incrementAndGet();
+    this.snapshot.reset();
   }
 
   /**
@@ -90,4 +218,19 @@ public abstract class Environment {
    * Load the raw, unparsed policy from file or backing store.
    */
   public abstract PolicyDocumentSource loadPolicy();
+
+  /**
+   * Policy document and the source it was parsed from.
+   *
+   * @param generation generation at the time the load started.
+   */
+  private record Snapshot(
+    @NotNull PolicyDocumentSource source,
+    @NotNull PolicyDocument document,
+    long generation
+  ) {
+    @NotNull EnvironmentPolicy policy() {
+      return this.document.policy();
+    }
+  }
 }
\ No newline at end of file
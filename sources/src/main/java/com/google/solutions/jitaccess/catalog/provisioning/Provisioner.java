@@ -40,6 +40,7 @@ import org.jetbrains.annotations.NotNull;
 import org.jetbrains.annotations.Nullable;
 
 import java.io.IOException;
+import java.time.Duration;
 import java.time.Instant;
 import java.util.*;
 import java.util.concurrent.ExecutionException;
@@ -173,6 +174,13 @@ public class Provisioner {
    * Provisioner for Cloud Identity groups and memberships.
    */
   public static class GroupProvisioner {
+    /**
+     * Partial response masks for the group fields we actually use.
+     */
+    private static final @NotNull String GROUP_NAME_FIELDS = "name";
+    private static final @NotNull String GROUP_KEY_FIELDS = "groupKey";
+    private static final @NotNull String GROUP_NAME_AND_KEY_FIELDS = "name,groupKey";
+
     private final @NotNull GroupMapping mapping;
     private final @NotNull CloudIdentityGroupsClient groupsClient;
     private final @NotNull Logger logger;
@@ -218,7 +226,7 @@ public class Provisioner {
       @NotNull GroupId groupId
     ) throws AccessException, IOException {
       try {
-        this.groupsClient.getGroup(groupId);
+        this.groupsClient.getGroup(groupId, GROUP_NAME_FIELDS);
         return true;
       }
       catch (ResourceNotFoundException e) {
@@ -241,7 +249,8 @@ public class Provisioner {
       //
       return this.groupsClient.searchGroupsByPrefix(
           this.mapping.groupPrefix(environmentName),
-          false)
+          false,
+          GROUP_KEY_FIELDS)
         .stream()
         .map(grp -> new GroupId(grp.getGroupKey().getId()))
         .filter(this.mapping::isJitGroup)
@@ -301,7 +310,7 @@ public class Provisioner {
         // GKE-enable (or disable) the group.
         //
         var gkeSecurityGroup = this.groupsClient
-          .searchGroupsByPrefix(GKE_SECURITY_GROUPS_PREFIX, false)
+          .searchGroupsByPrefix(GKE_SECURITY_GROUPS_PREFIX, false, GROUP_NAME_AND_KEY_FIELDS)
           .stream()
           .filter(g -> g.getGroupKey().getId().startsWith(GKE_SECURITY_GROUPS_PREFIX))
           .findFirst();
@@ -345,6 +354,20 @@ public class Provisioner {
    * Provisions IAM policy bindings.
    */
   public static class IamProvisioner {
+    /**
+     * Partial response mask for the group fields we need to
+     * compare and update the binding checksum.
+     */
+    private static final @NotNull String GROUP_CHECKSUM_FIELDS = "name,description";
+
+    /**
+     * Limits for modifying IAM policies. If one resource fails, the
+     * group's checksum isn't updated and all bindings are provisioned
+     * again next time, so there's no point in continuing.
+     */
+    private static final @NotNull CompletableFutures.FanOutOptions IAM_POLICY_FAN_OUT =
+      new CompletableFutures.FanOutOptions(4, Duration.ofMinutes(2), true);
+
     private final @NotNull CloudIdentityGroupsClient groupsClient;
     private final @NotNull ResourceManagerClient resourceManagerClient;
     private final @NotNull Executor executor;
@@ -425,7 +448,7 @@ public class Provisioner {
       @NotNull Set<IamRoleBinding> roleBindings
     ) throws AccessException, IOException {
 
-      var groupDetails = this.groupsClient.getGroup(groupId);
+      var groupDetails = this.groupsClient.getGroup(groupId, GROUP_CHECKSUM_FIELDS);
 
       var expectedChecksum = IamBindingChecksum.fromBindings(roleBindings);
       var actualChecksum = IamBindingChecksum.fromTaggedDescription(groupDetails.getDescription());
@@ -463,7 +486,8 @@ public class Provisioner {
               "Provisioning JIT group");
             return bindingsForResource.getKey();
           },
-          this.executor);
+          this.executor,
+          IAM_POLICY_FAN_OUT);
 
         try {
           future.get();
@@ -21,13 +21,26 @@
 
 package com.google.solutions.jitaccess.common;
 
+import com.google.common.base.Preconditions;
 import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
 
+import java.time.Duration;
+import java.util.ArrayList;
 import java.util.Collection;
 import java.util.LinkedList;
+import java.util.List;
 import java.util.concurrent.Callable;
+import java.util.concurrent.CancellationException;
 import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutionException;
 import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.BiConsumer;
 
 /**
  * Utility methods for using CompletableFutures.
@@ -40,15 +53,18 @@ public abstract class CompletableFutures {
    * Any checked exceptions thrown by the callable are wrapped
    * so that future.get() throws an ExecutionException with the
    * checked exception as cause.
+   * <p>
+   * The callable inherits the calling thread's deadline, if any.
    */
   public static @NotNull <T> CompletableFuture<T> supplyAsync(
     @NotNull Callable<T> callable,
     @NotNull Executor executor
     ) {
     var future = new CompletableFuture<T>();
+    var callableWithDeadline = Deadline.propagate(callable);
     executor.execute(() -> {
       try {
-        future.complete(callable.call());
+        future.complete(callableWithDeadline.call());
       }
       catch (Exception e) {
         future.completeExceptionally(e);
@@ -70,32 +86,266 @@ public abstract class CompletableFutures {
     @NotNull ThrowingFunction<T, R> function,
     @NotNull Executor executor
   ) {
-    var futures = new LinkedList<CompletableFuture<R>>();
-    for (var argument : arguments) {
-      futures.add(supplyAsync(() -> function.apply(argument), executor));
+    return mapAsync(arguments, function, executor, FanOutOptions.UNBOUNDED);
+  }
+
+  /**
+   * Invokes a function for each supplied argument and returns a
+   * CompletableFuture.
+   * <p>
+   * At most {@code options.maxParallelism} functions are run
+   * concurrently, remaining arguments are queued until a
+   * running function completes. Results are aggregated without
+   * blocking an executor thread.
+   * <p>
+   * If one of the function throws an exception, or the deadline
+   * elapses, the future will throw an AggregateException.
+   * <p>
+   * Functions inherit the calling thread's deadline, if any,
+   * and the fan-out never outlives that deadline.
+   */
+  public static <T, R> CompletableFuture<Collection<R>> mapAsync(
+    @NotNull Iterable<T> arguments,
+    @NotNull ThrowingFunction<T, R> function,
+    @NotNull Executor executor,
+    @NotNull FanOutOptions options
+  ) {
+    var fanOut = new FanOut<>(arguments, function, executor, options, null);
+    fanOut.start();
+    return fanOut.result;
+  }
+
+  /**
+   * Invokes a function for each supplied argument and returns a
+   * CompletableFuture, like {@link #mapAsync(Iterable, ThrowingFunction, Executor, FanOutOptions)}.
+   * <p>
+   * Unlike mapAsync, the future doesn't fail if some of the functions
+   * fail or don't complete before the deadline. Instead, the future
+   * completes with the results of all functions that succeeded, and
+   * each failure is reported to the failure handler.
+   */
+  public static <T, R> CompletableFuture<Collection<R>> mapAsyncPartial(
+    @NotNull Iterable<T> arguments,
+    @NotNull ThrowingFunction<T, R> function,
+    @NotNull Executor executor,
+    @NotNull FanOutOptions options,
+    @NotNull BiConsumer<T, Exception> failureHandler
+  ) {
+    Preconditions.checkNotNull(failureHandler, "failureHandler");
+
+    var fanOut = new FanOut<>(arguments, function, executor, options, failureHandler);
+    fanOut.start();
+    return fanOut.result;
+  }
+
+  /**
+   * Options for a fan-out.
+   *
+   * @param maxParallelism maximum number of functions to run concurrently
+   * @param timeout overall deadline for all functions, or null
+   * @param cancelOnFailure cancel pending functions as soon as one fails
+   */
+  public record FanOutOptions(
+    int maxParallelism,
+    @Nullable Duration timeout,
+    boolean cancelOnFailure
+  ) {
+    public static final @NotNull FanOutOptions UNBOUNDED = new FanOutOptions(
+      Integer.MAX_VALUE,
+      null,
+      false);
+
+    public FanOutOptions {
+      Preconditions.checkArgument(maxParallelism > 0, "maxParallelism");
+      Preconditions.checkArgument(
+        timeout == null || !timeout.isNegative(),
+        "timeout");
+    }
+  }
+
+  /**
+   * State of a single mapAsync invocation.
+   */
+  private static class FanOut<T, R> {
+    private final @NotNull List<T> arguments;
+    private final @NotNull List<CompletableFuture<R>> branches;
+    private final @NotNull ThrowingFunction<T, R> function;
+    private final @NotNull Executor executor;
+    private final @NotNull FanOutOptions options;
+    private final @Nullable BiConsumer<T, Exception> failureHandler;
+    private final @Nullable Deadline deadline;
+    private final @NotNull AtomicInteger nextIndex = new AtomicInteger(0);
+    private final @NotNull AtomicBoolean cancelled = new AtomicBoolean(false);
+    private final @NotNull CompletableFuture<Collection<R>> result;
+
+    private FanOut(
+      @NotNull Iterable<T> arguments,
+      @NotNull ThrowingFunction<T, R> function,
+      @NotNull Executor executor,
+      @NotNull FanOutOptions options,
+      @Nullable BiConsumer<T, Exception> failureHandler
+    ) {
+      this.arguments = new ArrayList<>();
+      arguments.forEach(this.arguments::add);
+
+      this.function = function;
+      this.executor = executor;
+      this.options = options;
+      this.failureHandler = failureHandler;
+      this.deadline = Deadline.current().orElse(null);
+
+      //
+      // Don't let the fan-out outlive the caller's deadline.
+      //
+      var timeout = this.deadline != null
+        ? this.deadline.limit(options.timeout() != null ? options.timeout() : Duration.ZERO)
+        : options.timeout();
+
+      this.branches = new ArrayList<>(this.arguments.size());
+      for (int i = 0; i < this.arguments.size(); i++) {
+        var branch = new CompletableFuture<R>();
+        if (timeout != null) {
+          //
+          // All branches are created at the same time, so applying
+          // the same timeout to each of them yields an overall deadline.
+          // Branches that are still queued when the deadline elapses
+          // are never started.
+          //
+          branch.orTimeout(timeout.toMillis(), TimeUnit.MILLISECONDS);
+        }
+
+        if (options.cancelOnFailure()) {
+          branch.whenComplete((r, e) -> {
+            if (e != null && !(e instanceof CancellationException)) {
+              cancelBranches();
+            }
+          });
+        }
+
+        this.branches.add(branch);
+      }
+
+      //
+      // Aggregate results once all branches are done. This runs on
+      // whichever thread completes the last branch, so it doesn't
+      // occupy an executor thread while waiting.
+      //
+      this.result = CompletableFuture
+        .allOf(this.branches.toArray(CompletableFuture[]::new))
+        .handle((ignored, e) -> aggregate());
+
+      //
+      // Propagate cancellation of the overall future to the branches.
+      //
+      this.result.whenComplete((r, e) -> {
+        if (this.result.isCancelled()) {
+          cancelBranches();
+        }
+      });
     }
 
-    return supplyAsync(
-      () -> {
-        var results = new LinkedList<R>();
-        var exceptions = new LinkedList<Exception>();
-        for (var future : futures) {
+    private void cancelBranches() {
+      this.cancelled.set(true);
+      this.branches.forEach(b -> b.cancel(false));
+    }
+
+    private void start() {
+      //
+      // Start one worker per slot. Each worker keeps pulling
+      // arguments until there are none left, so the number of
+      // running functions never exceeds the slot count.
+      //
+      var workers = Math.min(this.options.maxParallelism(), this.arguments.size());
+      var startedWorkers = 0;
+      RejectedExecutionException rejection = null;
+      for (int i = 0; i < workers; i++) {
+        try {
+          this.executor.execute(this::work);
+          startedWorkers++;
+        }
+        catch (RejectedExecutionException e) {
+          rejection = e;
+        }
+      }
+
+      if (startedWorkers == 0 && rejection != null) {
+        //
+        // Nothing is going to process the arguments.
+        //
+        for (var branch : this.branches) {
+          branch.completeExceptionally(rejection);
+        }
+      }
+    }
+
+    /**
+     * Run pending branches until there are none left.
+     */
+    private void work() {
+      //
+      // Use the caller's deadline, and make sure we don't inherit
+      // a deadline from whatever the thread ran before.
+      //
+      try (var ignored = Deadline.bind(this.deadline)) {
+        int index;
+        while ((index = this.nextIndex.getAndIncrement()) < this.arguments.size()) {
+          var branch = this.branches.get(index);
+          if (branch.isDone()) {
+            //
+            // Cancelled or timed out before we got to start it.
+            //
+            continue;
+          }
+
           try {
-            results.add(future.get());
+            branch.complete(this.function.apply(this.arguments.get(index)));
           }
           catch (Exception e) {
-            exceptions.add(Exceptions.unwrap(e));
+            branch.completeExceptionally(e);
           }
         }
+      }
+    }
 
-        if (exceptions.isEmpty()) {
-          return results;
+    private @NotNull Collection<R> aggregate() {
+      var results = new ArrayList<R>(this.branches.size());
+      var exceptions = new LinkedList<Exception>();
+      for (int i = 0; i < this.branches.size(); i++) {
+        var branch = this.branches.get(i);
+        var exceptionCount = exceptions.size();
+
+        switch (branch.state()) {
+          case SUCCESS -> results.add(branch.resultNow());
+          case FAILED -> exceptions.add(branch.exceptionNow() instanceof Exception e
+            ? Exceptions.unwrap(e)
+            : new ExecutionException(branch.exceptionNow()));
+          case CANCELLED -> {
+            //
+            // Branches we cancelled ourselves after a sibling failed are
+            // not worth reporting, the sibling's exception is.
+            //
+            if (!this.cancelled.get()) {
+              exceptions.add(new CancellationException());
+            }
+          }
+          default -> throw new IllegalStateException("Branch has not completed");
         }
-        else {
-          throw new AggregateException(exceptions);
+
+        if (this.failureHandler != null && exceptions.size() > exceptionCount) {
+          //
+          // Report the failure and keep the other results.
+          //
+          this.failureHandler.accept(this.arguments.get(i), exceptions.removeLast());
         }
-      },
-      executor);
+      }
+
+      if (exceptions.isEmpty()) {
+        return results;
+      }
+      else {
+        throw new CompletionException(new AggregateException(exceptions));
+      }
+    }
   }
 
   /**
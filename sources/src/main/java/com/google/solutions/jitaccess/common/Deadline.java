@@ -0,0 +1,210 @@
+//
+// Copyright 2026 Google LLC
+//
+// Licensed to the Apache Software Foundation (ASF) under one
+// or more contributor license agreements.  See the NOTICE file
+// distributed with this work for additional information
+// regarding copyright ownership.  The ASF licenses this file
+// to you under the Apache License, Version 2.0 (the
+// "License"); you may not use this file except in compliance
+// with the License.  You may obtain a copy of the License at
+//
+//   http://www.apache.org/licenses/LICENSE-2.0
+//
+// Unless required by applicable law or agreed to in writing,
+// software distributed under the License is distributed on an
+// "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+// KIND, either express or implied.  See the License for the
+// specific language governing permissions and limitations
+// under the License.
+//
+
+package com.google.solutions.jitaccess.common;
+
+import com.google.common.base.Preconditions;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import java.io.InterruptedIOException;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Optional;
+import java.util.concurrent.Callable;
+
+/**
+ * Point in time after which pending work is no longer useful,
+ * typically because the client that initiated it has given up.
+ * <p>
+ * A deadline can be bound to the current thread so that code
+ * further down the call stack (such as HTTP request initializers)
+ * can adjust timeouts to the remaining budget without the
+ * deadline being passed explicitly.
+ */
+public class Deadline {
+  private static final @NotNull ThreadLocal<Deadline> CURRENT = new ThreadLocal<>();
+
+  private final @NotNull Instant expiry;
+
+  private Deadline(@NotNull Instant expiry) {
+    this.expiry = expiry;
+  }
+
+  /**
+   * Create a deadline that expires after a certain timeout.
+   */
+  public static @NotNull Deadline after(@NotNull Duration timeout) {
+    Preconditions.checkNotNull(timeout, "timeout");
+    Preconditions.checkArgument(!timeout.isNegative(), "timeout");
+
+    return new Deadline(Instant.now().plus(timeout));
+  }
+
+  /**
+   * Get the deadline bound to the current thread, if any.
+   */
+  public static @NotNull Optional<Deadline> current() {
+    return Optional.ofNullable(CURRENT.get());
+  }
+
+  /**
+   * Check that the deadline bound to the current thread, if
+   * any, hasn't expired yet.
+   */
+  public static void checkCurrent() throws ExceededException {
+    var deadline = CURRENT.get();
+    if (deadline != null) {
+      deadline.check();
+    }
+  }
+
+  /**
+   * Wrap a callable so that it runs with the deadline that's
+   * bound to the current thread, if any.
+   * <p>
+   * If the current thread has no deadline, the callable runs
+   * without a deadline, even if the thread that eventually
+   * runs it has one.
+   */
+  public static @NotNull <T> Callable<T> propagate(@NotNull Callable<T> callable) {
+    var deadline = CURRENT.get();
+    return () -> {
+      try (var ignored = bind(deadline)) {
+        if (deadline != null) {
+          deadline.check();
+        }
+
+        return callable.call();
+      }
+    };
+  }
+
+  /**
+   * Remove the deadline from the current thread until the
+   * returned scope is closed.
+   * <p>
+   * Use this for work whose result outlives the current request,
+   * such as populating a shared cache.
+   */
+  public static @NotNull Scope clear() {
+    return bind(null);
+  }
+
+  /**
+   * Bind a deadline, or no deadline, to the current thread
+   * until the returned scope is closed.
+   */
+  public static @NotNull Scope bind(@Nullable Deadline deadline) {
+    var previous = CURRENT.get();
+    if (deadline == null) {
+      CURRENT.remove();
+    }
+    else {
+      CURRENT.set(deadline);
+    }
+
+    return () -> {
+      if (previous == null) {
+        CURRENT.remove();
+      }
+      else {
+        CURRENT.set(previous);
+      }
+    };
+  }
+
+  public @NotNull Instant expiry() {
+    return this.expiry;
+  }
+
+  /**
+   * Time left until the deadline expires, zero if it has expired.
+   */
+  public @NotNull Duration remaining() {
+    var remaining = Duration.between(Instant.now(), this.expiry);
+    return remaining.isNegative() ? Duration.ZERO : remaining;
+  }
+
+  public boolean isExpired() {
+    return !Instant.now().isBefore(this.expiry);
+  }
+
+  /**
+   * Check that the deadline hasn't expired yet.
+   */
+  public void check() throws ExceededException {
+    if (isExpired()) {
+      throw new ExceededException(this);
+    }
+  }
+
+  /**
+   * Shorten a timeout so that it doesn't exceed the deadline.
+   *
+   * @param timeout timeout, zero meaning infinite
+   * @return adjusted timeout, never zero
+   */
+  public @NotNull Duration limit(@NotNull Duration timeout) {
+    var remaining = this.remaining();
+    var limited = timeout.isZero() || remaining.compareTo(timeout) < 0
+      ? remaining
+      : timeout;
+
+    //
+    // Zero means infinite, so we must never return that.
+    //
+    return limited.toMillis() < 1 ? Duration.ofMillis(1) : limited;
+  }
+
+  /**
+   * Bind the deadline to the current thread until the
+   * returned scope is closed.
+   */
+  public @NotNull Scope bind() {
+    return bind(this);
+  }
+
+  @Override
+  public String toString() {
+    return this.expiry.toString();
+  }
+
+  /**
+   * Scope during which a deadline is bound to a thread.
+   */
+  public interface Scope extends AutoCloseable {
+    @Override
+    void close();
+  }
+
+  /**
+   * Indicates that an operation was aborted because its
+   * deadline has expired.
+   */
+  public static class ExceededException extends InterruptedIOException {
+    public ExceededException(@NotNull Deadline deadline) {
+      super(String.format(
+        "The operation was aborted because its deadline (%s) has expired",
+        deadline));
+    }
+  }
+}
@@ -56,7 +56,7 @@ public abstract class Lazy<T> implements Supplier<T>, Future<T> {
   /**
    * Reset value and reinitialize on next access.
    */
-  abstract void reset();
+  public abstract void reset();
 
   @Override
   public boolean cancel(boolean mayInterruptIfRunning) {
@@ -120,7 +120,7 @@ public abstract class Lazy<T> implements Supplier<T>, Future<T> {
       this.initializer = initializer;
     }
 
-    void reset() {
+    public void reset() {
       this.cached.set(null);
     }
 
@@ -178,7 +178,7 @@ public abstract class Lazy<T> implements Supplier<T>, Future<T> {
       this.initializer = initializer;
     }
 
-    void reset() {
+    public void reset() {
       this.cached.set(null);
     }
 
@@ -271,7 +271,7 @@ public abstract class Lazy<T> implements Supplier<T>, Future<T> {
     }
 
     @Override
-    void reset() {
+    public void reset() {
       this.source.reset();
     }
 
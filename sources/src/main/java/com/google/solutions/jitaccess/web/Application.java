@@ -34,21 +34,32 @@ import com.google.solutions.jitaccess.catalog.JitGroupContext;
 import com.google.solutions.jitaccess.catalog.Proposal;
 import com.google.solutions.jitaccess.catalog.legacy.LegacyPolicy;
 import com.google.solutions.jitaccess.catalog.legacy.LegacyPolicyLoader;
+import com.google.solutions.jitaccess.catalog.legacy.LegacyPolicyUpdater;
+import com.google.solutions.jitaccess.catalog.legacy.PubSubAssetFeed;
 import com.google.solutions.jitaccess.catalog.policy.PolicyDocumentSource;
+import com.google.solutions.jitaccess.common.FanOutExecutor;
 import com.google.solutions.jitaccess.web.proposal.*;
 import com.google.solutions.jitaccess.web.rest.UserResource;
+import io.quarkus.runtime.Startup;
 import jakarta.enterprise.context.RequestScoped;
+import jakarta.enterprise.inject.Disposes;
 import jakarta.enterprise.inject.Produces;
 import jakarta.inject.Singleton;
 import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
 
 import java.io.IOException;
 import java.net.URI;
+import java.nio.file.Path;
 import java.time.Duration;
 import java.util.Collection;
 import java.util.LinkedList;
 import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
 import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
 import java.util.function.Function;
 
 /**
@@ -61,6 +72,11 @@ public class Application {
    */
   private static @NotNull Logger logger;
 
+  /**
+   * Output for log entries.
+   */
+  private static @NotNull Appendable logOutput;
+
   /**
    * Configuration, based on app.yaml environment variables.
    */
@@ -71,6 +87,11 @@ public class Application {
    */
   private static @NotNull ApplicationRuntime runtime;
 
+  /**
+   * Updater for the legacy policy, if any.
+   */
+  private @Nullable LegacyPolicyUpdater legacyPolicyUpdater;
+
   // -------------------------------------------------------------------------
   // Application startup.
   // -------------------------------------------------------------------------
@@ -89,8 +110,22 @@ public class Application {
     @NotNull ApplicationRuntime runtime,
     @NotNull ApplicationConfiguration configuration,
     @NotNull Logger logger
+  ) {
+    initialize(runtime, configuration, logger, System.out);
+  }
+
+  /**
+   * Initialize static variables. This method is intended to be called
+   * from outside the CDI context, in the application's main method.
+   */
+  public static void initialize(
+    @NotNull ApplicationRuntime runtime,
+    @NotNull ApplicationConfiguration configuration,
+    @NotNull Logger logger,
+    @NotNull Appendable logOutput
   ) {
     Application.logger = logger;
+    Application.logOutput = logOutput;
     Application.configuration = configuration;
     Application.runtime = runtime;
   }
@@ -189,6 +224,139 @@ public class Application {
       new Directory(configuration.primaryDomain));
   }
 
+  @Produces
+  @Singleton
+  public @NotNull IapAssertionVerifier produceIapAssertionVerifier(
+    @NotNull RequireIapPrincipalFilter.Options options,
+    @NotNull @FanOutExecutor Executor executor
+  ) {
+    var keySet = new JsonWebKeySetCache(
+      IapAssertionVerifier.IAP_JWKS_URL,
+      executor,
+      produceHttpTransportOptions(),
+      JsonWebKeySetCache.Options.DEFAULT);
+
+    return new IapAssertionVerifier(
+      options.expectedAudience(),
+      keySet,
+      CachingTokenVerifier.Options.DEFAULT);
+  }
+
+  @Produces
+  @Singleton
+  @Startup
+  public @NotNull StartupWarmup produceStartupWarmup(
+    @NotNull EnvironmentRegistry environments,
+    @NotNull IapAssertionVerifier iapAssertionVerifier,
+    @NotNull IamRoleResolver roleResolver,
+    @NotNull @FanOutExecutor Executor executor
+  ) {
+    var tasks = new LinkedList<StartupWarmup.Task>();
+
+    //
+    // Load all policies. Parsing a policy also compiles
+    // its constraints.
+    //
+    for (var environment : environments.environments()) {
+      tasks.add(new StartupWarmup.Task(
+        String.format("environment '%s'", environment.name()),
+        environment::policy));
+    }
+
+    if (runtime.type() != ApplicationRuntime.Type.DEVELOPMENT) {
+      tasks.add(new StartupWarmup.Task("IAP keys", iapAssertionVerifier::prefetchKeys));
+    }
+
+    tasks.add(new StartupWarmup.Task("predefined roles", roleResolver::prefetch));
+
+    var warmup = new StartupWarmup(
+      tasks,
+      executor,
+      new StartupWarmup.Options(configuration.warmupTimeout),
+      logger);
+    warmup.start();
+    return warmup;
+  }
+
+  @Produces
+  @Singleton
+  public @NotNull LogRequestFilter.Options produceLogRequestFilterOptions() {
+    return new LogRequestFilter.Options(configuration.requestTimeout);
+  }
+
+  @Produces
+  @Singleton
+  public @NotNull OperationAuditTrail.Options produceOperationAuditTrailOptions(
+    @NotNull PubSubClient pubSubClient,
+    @NotNull @FanOutExecutor Executor executor
+  ) {
+    if (configuration.auditTopic.isPresent()) {
+      //
+      // Publish audit events in batches so that publishing
+      // doesn't add latency to requests.
+      //
+      var publisher = new PubSubBatchPublisher(
+        pubSubClient,
+        configuration.auditTopic.get(),
+        executor,
+        PubSubBatchPublisher.Options.DEFAULT);
+
+      AuditSpool spool = null;
+      if (configuration.auditSpoolFile.isPresent()) {
+        //
+        // Spool events to disk first so that they aren't lost
+        // if Pub/Sub is unavailable.
+        //
+        try {
+          spool = new AuditSpool(
+            Path.of(configuration.auditSpoolFile.get()),
+            AuditSpool.Options.DEFAULT,
+            logger);
+          spool.startForwarding(event -> {
+            try {
+              return publisher.publish(OperationAuditTrail.Options.decodeSpooledMessage(event));
+            }
+            catch (IOException | InterruptedException e) {
+              return CompletableFuture.failedFuture(e);
+            }
+          });
+        }
+        catch (IOException e) {
+          logger.error(EventIds.FORWARD_AUDIT_EVENTS, "Opening the audit spool failed", e);
+        }
+      }
+
+      return new OperationAuditTrail.Options(publisher, spool, logger);
+    }
+    else {
+      return OperationAuditTrail.Options.DEFAULT;
+    }
+  }
+
+  public void disposeOperationAuditTrailOptions(
+    @Disposes @NotNull OperationAuditTrail.Options options
+  ) {
+    if (options.spool() != null) {
+      //
+      // Stop forwarding and write spooled events to disk. Events
+      // that haven't been forwarded yet are forwarded after a restart.
+      //
+      try {
+        options.spool().close();
+      }
+      catch (IOException e) {
+        logger.warn(EventIds.FORWARD_AUDIT_EVENTS, "Closing the audit spool failed", e);
+      }
+    }
+
+    if (options.publisher() != null) {
+      //
+      // Publish pending audit events before we exit.
+      //
+      options.publisher().close();
+    }
+  }
+
   @Produces
   @Singleton
   public @NotNull HttpTransport.Options produceHttpTransportOptions() {
@@ -200,8 +368,30 @@ public class Application {
 
   @Produces
   @Singleton
-  public @NotNull ServiceAccountSigner.Options produceServiceAccountSignerOptions() {
-    return new ServiceAccountSigner.Options(runtime.applicationPrincipal());
+  @Startup
+  public @NotNull TokenSigner produceTokenSigner(
+    @NotNull IamCredentialsClient iamCredentialsClient,
+    @NotNull SecretManagerClient secretManagerClient,
+    @NotNull HttpTransport.Options httpOptions,
+    @NotNull @FanOutExecutor Executor executor
+  ) {
+    if (configuration.proposalSigningSecret.isPresent()) {
+      //
+      // Sign locally, using keys from Secret Manager.
+      //
+      return new LocalKeySigner(
+        secretManagerClient,
+        new LocalKeySigner.Options(
+          configuration.proposalSigningSecret.get(),
+          runtime.applicationPrincipal()));
+    }
+    else {
+      return new ServiceAccountSigner(
+        iamCredentialsClient,
+        httpOptions,
+        executor,
+        new ServiceAccountSigner.Options(runtime.applicationPrincipal()));
+    }
   }
 
   @Produces
@@ -227,7 +417,7 @@ public class Application {
 
   @Produces
   public @NotNull RequestContextLogger produceLogger(@NotNull RequestContext context) {
-    return new RequestContextLogger(context);
+    return new RequestContextLogger(logOutput, configuration.logFilter, context);
   }
 
   @Produces
@@ -268,6 +458,7 @@ public class Application {
   }
 
   @Produces
+  @Singleton
   public @NotNull ProposalHandler produceProposalHandler(
     @NotNull TokenSigner tokenSigner,
     @NotNull SecretManagerClient secretManagerClient
@@ -296,12 +487,29 @@ public class Application {
           configuration.smtpPassword.get());
       }
 
-      return new MailProposalHandler(
-        tokenSigner,
-        new EmailMapping(configuration.smtpAddressMapping.orElse(null)),
+      //
+      // Deliver mail in the background so that requests don't
+      // have to wait for the SMTP server.
+      //
+      var mailQueue = new MailQueue(
         new SmtpClient(
           secretManagerClient,
           smtpOptions),
+        new MailQueue.Options(
+          MailQueue.Options.DEFAULT.capacity(),
+          MailQueue.Options.DEFAULT.workerThreads(),
+          MailQueue.Options.DEFAULT.maxAttempts(),
+          MailQueue.Options.DEFAULT.initialBackoff(),
+          MailQueue.Options.DEFAULT.maxBackoff(),
+          MailQueue.Options.DEFAULT.metricsInterval(),
+          MailQueue.Options.DEFAULT.drainTimeout(),
+          configuration.smtpSpoolDirectory.map(Path::of).orElse(null)),
+        logger);
+
+      return new MailProposalHandler(
+        tokenSigner,
+        new EmailMapping(configuration.smtpAddressMapping.orElse(null)),
+        mailQueue,
         new MailProposalHandler.Options(
           configuration.notificationTimeZone,
           configuration.proposalTimeout));
@@ -331,12 +539,54 @@ public class Application {
     }
   }
 
+  public void disposeProposalHandler(
+    @Disposes @NotNull ProposalHandler proposalHandler
+  ) {
+    if (proposalHandler instanceof MailProposalHandler mailProposalHandler) {
+      //
+      // Deliver pending mail and close the SMTP connection pool.
+      //
+      mailProposalHandler.close();
+    }
+  }
+
+  @Produces
+  @Singleton
+  @FanOutExecutor
+  public @NotNull Executor produceFanOutExecutor(
+    @NotNull Executor executor
+  ) {
+    if (configuration.backendVirtualThreads) {
+      //
+      // Fan-outs spend most of their time waiting for backend
+      // requests, so use a virtual thread per task instead of
+      // occupying threads of the shared pool.
+      //
+      return Executors.newVirtualThreadPerTaskExecutor();
+    }
+    else {
+      return executor;
+    }
+  }
+
+  public void disposeFanOutExecutor(
+    @Disposes @NotNull @FanOutExecutor Executor executor
+  ) {
+    if (executor instanceof ExecutorService executorService && configuration.backendVirtualThreads) {
+      //
+      // Only shut down the executor if we created it, the shared
+      // pool is managed by Quarkus.
+      //
+      executorService.shutdown();
+    }
+  }
+
   @Produces
   @Singleton
   public @NotNull EnvironmentRegistry produceEnvironmentRegistry(
     @NotNull GroupMapping groupMapping,
     @NotNull CloudIdentityGroupsClient groupsClient,
-    @NotNull Executor executor
+    @NotNull @FanOutExecutor Executor executor
   ) {
     //
     // Prepare configuration for all environments, but don't load their
@@ -395,7 +645,8 @@ public class Application {
       }
     }
 
-    if (configuration.legacyCatalog.equalsIgnoreCase("ASSETINVENTORY") &&
+    var useAssetInventorySearch = configuration.legacyCatalog.equalsIgnoreCase("ASSETINVENTORYSEARCH");
+    if ((configuration.legacyCatalog.equalsIgnoreCase("ASSETINVENTORY") || useAssetInventorySearch) &&
       configuration.legacyScope.isPresent()) {
 
       //
@@ -403,26 +654,107 @@ public class Application {
       //
       var legacyLoader = new LegacyPolicyLoader(
         () -> new ResourceManagerClient(runtime.applicationCredentials(), produceHttpTransportOptions()),
-        () -> new AssetInventoryClient(runtime.applicationCredentials(), produceHttpTransportOptions()));
+        () -> new AssetInventoryClient(runtime.applicationCredentials(), produceHttpTransportOptions()),
+        executor,
+        new LegacyPolicyLoader.Options(
+          configuration.legacyPrefetch,
+          LegacyPolicyLoader.Options.DEFAULT.maxParallelism(),
+          LegacyPolicyLoader.Options.DEFAULT.maxRequestsPerMinute(),
+          LegacyPolicyLoader.Options.DEFAULT.prefetchTimeout(),
+          configuration.legacyMaxProjectsInMemory));
+
+      LegacyPolicyUpdater legacyUpdater = null;
+      if (configuration.legacyFeedSubscription.isPresent()) {
+        //
+        // Keep the policy up to date using asset change notifications,
+        // and only reload it occasionally.
+        //
+        legacyUpdater = new LegacyPolicyUpdater(
+          legacyLoader,
+          configuration.legacyScope.get(),
+          new PubSubAssetFeed(
+            new PubSubClient(runtime.applicationCredentials(), produceHttpTransportOptions()),
+            configuration.legacyFeedSubscription.get()),
+          new LegacyPolicyUpdater.Options(
+            LegacyPolicyUpdater.Options.DEFAULT.pollInterval(),
+            configuration.legacyResyncInterval),
+          logger);
+        this.legacyPolicyUpdater = legacyUpdater;
+      }
 
+      final var updater = legacyUpdater;
       configurations.add(
         new EnvironmentConfiguration(
           LegacyPolicy.NAME,
           LegacyPolicy.DESCRIPTION,
           runtime.applicationCredentials() // Use app service account, as in 1.x
         ) {
+          private LegacyPolicy previousPolicy = null;
+
+          @Override
+          @NotNull Optional<Duration> policyCacheDuration() {
+            return updater != null
+              ? Optional.of(configuration.legacyResyncInterval)
+              : Optional.empty();
+          }
+
           @Override
           PolicyDocumentSource loadPolicy() {
+            //
+            // Let the updater record changes that happen while
+            // we're loading, so that it can apply them afterwards.
+            //
+            var watermark = updater != null ? updater.beginLoad() : null;
             try {
-              return PolicyDocumentSource.fromPolicy(legacyLoader.load(
-                configuration.legacyProjectsQuery,
-                configuration.legacyScope.get(),
-                configuration.legacyActivationTimeout,
-                configuration.legacyJustificationPattern,
-                configuration.legacyJustificationHint,
-                logger));
+              LegacyPolicy policy;
+              if (useAssetInventorySearch) {
+                //
+                // Find eligible role bindings using a bulk search.
+                //
+                policy = legacyLoader.loadUsingSearch(
+                  configuration.legacyProjectsQuery,
+                  configuration.legacyScope.get(),
+                  configuration.legacyActivationTimeout,
+                  configuration.legacyJustificationPattern,
+                  configuration.legacyJustificationHint,
+                  logger);
+              }
+              else {
+                policy = legacyLoader.load(
+                  configuration.legacyProjectsQuery,
+                  configuration.legacyScope.get(),
+                  configuration.legacyActivationTimeout,
+                  configuration.legacyJustificationPattern,
+                  configuration.legacyJustificationHint,
+                  logger);
+              }
+
+              if (updater != null) {
+                updater.attach(policy, watermark);
+              }
+
+              if (this.previousPolicy != null) {
+                var metrics = this.previousPolicy.metrics();
+                logger.info(
+                  EventIds.LOAD_ENVIRONMENT,
+                  "Previous policy of environment '%s' had %d projects and %d groups in memory, " +
+                    "hit rate: %.2f, evictions: %d",
+                  LegacyPolicy.NAME,
+                  metrics.initializedProjects(),
+                  metrics.initializedGroups(),
+                  metrics.hitRate(),
+                  metrics.evictions());
+              }
+
+              this.previousPolicy = policy;
+
+              return PolicyDocumentSource.fromPolicy(policy);
             }
             catch (Exception e) {
+              if (updater != null) {
+                updater.abandonLoad(watermark);
+              }
+
               throw new UncheckedExecutionException(e);
             }
           }});
@@ -444,14 +776,44 @@ public class Application {
       runtime.type() == ApplicationRuntime.Type.DEVELOPMENT
         ? Duration.ofSeconds(20)
         : configuration.environmentCacheTimeout,
-      produceHttpTransportOptions());
+      produceHttpTransportOptions(),
+      configuration.policySnapshotDirectory
+        .map(d -> new PolicySnapshotStore(Path.of(d)))
+        .orElse(null),
+      configuration.reconcileOnPolicyChange);
 
-    return new EnvironmentRegistry(
+    var registry = new EnvironmentRegistry(
       configurations,
       groupMapping,
       groupsClient,
       executor,
       options,
       logger);
+
+    if (this.legacyPolicyUpdater != null) {
+      //
+      // Reload the legacy policy if a change can't be applied
+      // incrementally.
+      //
+      this.legacyPolicyUpdater.onReloadRequired(() -> registry
+        .environments()
+        .stream()
+        .filter(env -> env.name().equals(LegacyPolicy.NAME))
+        .forEach(env -> env.invalidatePolicy()));
+      this.legacyPolicyUpdater.start();
+    }
+
+    return registry;
+  }
+
+  public void disposeEnvironmentRegistry(
+    @Disposes @NotNull EnvironmentRegistry registry
+  ) {
+    if (this.legacyPolicyUpdater != null) {
+      //
+      // Stop processing asset change notifications.
+      //
+      this.legacyPolicyUpdater.close();
+    }
   }
 }
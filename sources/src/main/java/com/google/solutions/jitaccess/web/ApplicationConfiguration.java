@@ -21,9 +21,13 @@
 
 package com.google.solutions.jitaccess.web;
 
+import com.google.solutions.jitaccess.apis.AsyncLogWriter;
 import com.google.solutions.jitaccess.apis.CustomerId;
 import com.google.solutions.jitaccess.apis.Domain;
+import com.google.solutions.jitaccess.apis.LogFilter;
 import com.google.solutions.jitaccess.apis.OrganizationId;
+import com.google.solutions.jitaccess.apis.clients.PubSubSubscription;
+import com.google.solutions.jitaccess.apis.clients.PubSubTopic;
 import org.jetbrains.annotations.NotNull;
 
 import java.time.Duration;
@@ -77,11 +81,61 @@ public class ApplicationConfiguration extends AbstractConfiguration {
    */
   final @NotNull Duration proposalTimeout;
 
+  /**
+   * Path to a SecretManager secret that contains the private keys
+   * for signing proposal tokens. If empty, tokens are signed
+   * using the application's service account.
+   * <p>
+   * The path must be in the format projects/x/secrets/y/versions/z.
+   */
+  final @NotNull Optional<String> proposalSigningSecret;
+
+  /**
+   * Write log entries on a background thread.
+   */
+  final boolean asyncLogging;
+
+  /**
+   * What to do with informational log entries if the log queue is full.
+   */
+  final @NotNull AsyncLogWriter.OverflowPolicy asyncLogOverflowPolicy;
+
+  /**
+   * Filter for operational log entries.
+   */
+  final @NotNull LogFilter logFilter;
+
+  /**
+   * Pub/Sub topic to publish audit events to.
+   */
+  final @NotNull Optional<PubSubTopic> auditTopic;
+
+  /**
+   * File to spool audit events in before they're published.
+   */
+  final @NotNull Optional<String> auditSpoolFile;
+
   /**
    * Timeout for environment cache.
    */
   final @NotNull Duration environmentCacheTimeout;
 
+  /**
+   * Directory in which to keep snapshots of policies.
+   */
+  final @NotNull Optional<String> policySnapshotDirectory;
+
+  /**
+   * Reconcile groups automatically when their policy changed.
+   */
+  final boolean reconcileOnPolicyChange;
+
+  /**
+   * Maximum time to spend on warming up caches before
+   * reporting the application as ready.
+   */
+  final @NotNull Duration warmupTimeout;
+
   /**
    * CEL expression for mapping userIDs to email addresses.
    */
@@ -130,6 +184,11 @@ public class ApplicationConfiguration extends AbstractConfiguration {
    */
   final @NotNull Optional<String> smtpSecret;
 
+  /**
+   * Directory to spool queued mail in so that it survives restarts.
+   */
+  final @NotNull Optional<String> smtpSpoolDirectory;
+
   /**
    * Extra JavaMail options.
    */
@@ -160,6 +219,17 @@ public class ApplicationConfiguration extends AbstractConfiguration {
    */
   final @NotNull Duration backendWriteTimeout;
 
+  /**
+   * Time after which backend requests made on behalf of
+   * a client request are abandoned.
+   */
+  final @NotNull Duration requestTimeout;
+
+  /**
+   * Use virtual threads to fan out blocking backend requests.
+   */
+  final boolean backendVirtualThreads;
+
   final @NotNull String legacyCatalog;
   final @NotNull Optional<String> legacyScope;
   final @NotNull Duration legacyActivationTimeout;
@@ -167,6 +237,28 @@ public class ApplicationConfiguration extends AbstractConfiguration {
   final @NotNull String legacyJustificationHint;
   final @NotNull String legacyProjectsQuery;
 
+  /**
+   * Load the IAM policies of all projects eagerly.
+   */
+  final boolean legacyPrefetch;
+
+  /**
+   * Maximum number of projects to keep in memory.
+   */
+  final int legacyMaxProjectsInMemory;
+
+  /**
+   * Pub/Sub subscription of an Asset Inventory feed for IAM
+   * policy changes.
+   */
+  final @NotNull Optional<PubSubSubscription> legacyFeedSubscription;
+
+  /**
+   * Time after which to reload the legacy policy if it's kept
+   * up to date using the feed.
+   */
+  final @NotNull Duration legacyResyncInterval;
+
   public ApplicationConfiguration(@NotNull Map<String, String> settingsData) {
     super(settingsData);
 
@@ -217,6 +309,17 @@ public class ApplicationConfiguration extends AbstractConfiguration {
       "APPROVAL_TIMEOUT",
       "ACTIVATION_REQUEST_TIMEOUT") // Name used in 1.x
       .orElse(Duration.ofHours(1));
+    this.proposalSigningSecret = readStringSetting("PROPOSAL_SIGNING_SECRET");
+    this.asyncLogging = readSetting(Boolean::parseBoolean, "LOG_ASYNC")
+      .orElse(false);
+    this.asyncLogOverflowPolicy = readSetting(
+      s -> AsyncLogWriter.OverflowPolicy.valueOf(s.trim().toUpperCase()),
+      "LOG_ASYNC_OVERFLOW")
+      .orElse(AsyncLogWriter.Options.DEFAULT.overflowPolicy());
+    this.logFilter = readSetting(LogFilter::parse, "LOG_FILTER")
+      .orElse(LogFilter.NONE);
+    this.auditTopic = readSetting(s -> PubSubTopic.parse(s).orElseThrow(), "AUDIT_TOPIC");
+    this.auditSpoolFile = readStringSetting("AUDIT_SPOOL_FILE");
     this.environments = readStringSetting("ENVIRONMENTS").stream()
       .flatMap(s -> Arrays.stream(s.split(",")))
       .map(String::trim)
@@ -226,6 +329,13 @@ public class ApplicationConfiguration extends AbstractConfiguration {
       ChronoUnit.SECONDS,
       "RESOURCE_CACHE_TIMEOUT")
       .orElse(Duration.ofMinutes(5));
+    this.policySnapshotDirectory = readStringSetting("POLICY_SNAPSHOT_DIRECTORY");
+    this.reconcileOnPolicyChange = readSetting(Boolean::parseBoolean, "POLICY_RECONCILE_ON_CHANGE")
+      .orElse(false);
+    this.warmupTimeout = readDurationSetting(
+      ChronoUnit.SECONDS,
+      "WARMUP_TIMEOUT")
+      .orElse(StartupWarmup.Options.DEFAULT.timeout());
 
     //
     // SMTP settings.
@@ -244,6 +354,7 @@ public class ApplicationConfiguration extends AbstractConfiguration {
     this.smtpPassword = readStringSetting("SMTP_PASSWORD");
     this.smtpSecret = readStringSetting("SMTP_SECRET");
     this.smtpExtraOptions = readStringSetting("SMTP_OPTIONS");
+    this.smtpSpoolDirectory = readStringSetting("SMTP_SPOOL_DIRECTORY");
 
     //
     // Notification settings.
@@ -267,6 +378,10 @@ public class ApplicationConfiguration extends AbstractConfiguration {
       .orElse(Duration.ofSeconds(20));
     this.backendWriteTimeout = readDurationSetting(ChronoUnit.SECONDS, "BACKEND_WRITE_TIMEOUT")
       .orElse(Duration.ofSeconds(5));
+    this.requestTimeout = readDurationSetting(ChronoUnit.SECONDS, "REQUEST_TIMEOUT")
+      .orElse(Duration.ofSeconds(60));
+    this.backendVirtualThreads = readSetting(Boolean::parseBoolean, "BACKEND_VIRTUAL_THREADS")
+      .orElse(false);
 
     //
     // Legacy settings.
@@ -284,6 +399,34 @@ public class ApplicationConfiguration extends AbstractConfiguration {
       .orElse("Bug or case number");
     this.legacyProjectsQuery = readStringSetting("AVAILABLE_PROJECTS_QUERY")
       .orElse("state:ACTIVE");
+    this.legacyPrefetch = readSetting(Boolean::parseBoolean, "RESOURCE_PREFETCH")
+      .orElse(false);
+    this.legacyMaxProjectsInMemory = readSetting(Integer::parseInt, "RESOURCE_MAX_PROJECTS_IN_MEMORY")
+      .filter(n -> n > 0)
+      .orElse(Integer.MAX_VALUE);
+    this.legacyFeedSubscription = readSetting(
+      s -> PubSubSubscription.parse(s).orElseThrow(),
+      "RESOURCE_FEED_SUBSCRIPTION");
+    this.legacyResyncInterval = readDurationSetting(
+      ChronoUnit.MINUTES,
+      "RESOURCE_FEED_RESYNC_INTERVAL")
+      .orElse(Duration.ofHours(6));
+  }
+
+  public boolean isAsyncLoggingEnabled() {
+    return this.asyncLogging;
+  }
+
+  public @NotNull AsyncLogWriter.Options asyncLogOptions() {
+    return new AsyncLogWriter.Options(
+      AsyncLogWriter.Options.DEFAULT.capacity(),
+      AsyncLogWriter.Options.DEFAULT.maxBatchSize(),
+      this.asyncLogOverflowPolicy,
+      AsyncLogWriter.Options.DEFAULT.shutdownTimeout());
+  }
+
+  public @NotNull LogFilter logFilter() {
+    return this.logFilter;
   }
 
   public boolean isSmtpConfigured() {
@@ -0,0 +1,437 @@
+//
+// Copyright 2026 Google LLC
+//
+// Licensed to the Apache Software Foundation (ASF) under one
+// or more contributor license agreements.  See the NOTICE file
+// distributed with this work for additional information
+// regarding copyright ownership.  The ASF licenses this file
+// to you under the Apache License, Version 2.0 (the
+// "License"); you may not use this file except in compliance
+// with the License.  You may obtain a copy of the License at
+//
+//   http://www.apache.org/licenses/LICENSE-2.0
+//
+// Unless required by applicable law or agreed to in writing,
+// software distributed under the License is distributed on an
+// "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+// KIND, either express or implied.  See the License for the
+// specific language governing permissions and limitations
+// under the License.
+//
+
+package com.google.solutions.jitaccess.web;
+
+import com.google.common.base.Preconditions;
+import com.google.solutions.jitaccess.apis.Logger;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.zip.CRC32;
+
+/**
+ * Append-only spool for audit events, backed by a memory-mapped file.
+ * <p>
+ * Events are appended to the spool first, which is a cheap sequential
+ * write to memory. A background thread then forwards spooled events to
+ * a sink, and records its progress in a checkpoint so that events that
+ * haven't been forwarded yet survive a restart.
+ * <p>
+ * Events are forwarded at least once. If the process stops after
+ * forwarding a batch but before updating the checkpoint, the batch
+ * is forwarded again.
+ * <p>
+ * File layout:
+ * <pre>
+ *   [magic:int][version:int][checkpoint:long]
+ *   [length:int][crc32:int][data:byte[length]]...
+ *   [0:int]
+ * </pre>
+ */
+public class AuditSpool implements Closeable {
+  private static final int MAGIC = 0x4A495453;
+  private static final int VERSION = 1;
+  private static final int CHECKPOINT_OFFSET = 8;
+  private static final int HEADER_SIZE = 16;
+  private static final int RECORD_HEADER_SIZE = 8;
+
+  private final @NotNull Options options;
+  private final @NotNull Logger logger;
+  private final @NotNull FileChannel channel;
+  private final @NotNull MappedByteBuffer buffer;
+  private final int capacity;
+
+  /**
+   * Lock that guards the buffer and positions.
+   */
+  private final @NotNull Object lock = new Object();
+
+  /**
+   * Offset of the first event that hasn't been forwarded yet.
+   */
+  private int checkpoint;
+
+  /**
+   * Offset at which to append the next event.
+   */
+  private int writePosition;
+
+  /**
+   * Total number of bytes that compaction has moved events by.
+   */
+  private long compactedBytes = 0;
+
+  private @Nullable Thread forwarderThread;
+  private volatile boolean closed = false;
+
+  public AuditSpool(
+    @NotNull Path file,
+    @NotNull Options options,
+    @NotNull Logger logger
+  ) throws IOException {
+    Preconditions.checkNotNull(file, "file");
+    Preconditions.checkNotNull(options, "options");
+    Preconditions.checkNotNull(logger, "logger");
+
+    this.options = options;
+    this.logger = logger;
+    this.capacity = options.capacity;
+    this.channel = FileChannel.open(
+      file,
+      StandardOpenOption.CREATE,
+      StandardOpenOption.READ,
+      StandardOpenOption.WRITE);
+    this.buffer = this.channel.map(FileChannel.MapMode.READ_WRITE, 0, this.capacity);
+
+    if (this.buffer.getInt(0) != MAGIC || this.buffer.getInt(4) != VERSION) {
+      //
+      // New or incompatible file, start over.
+      //
+      this.buffer.putInt(0, MAGIC);
+      this.buffer.putInt(4, VERSION);
+      this.buffer.putLong(CHECKPOINT_OFFSET, HEADER_SIZE);
+      this.buffer.putInt(HEADER_SIZE, 0);
+    }
+
+    var savedCheckpoint = this.buffer.getLong(CHECKPOINT_OFFSET);
+    this.checkpoint = savedCheckpoint >= HEADER_SIZE && savedCheckpoint <= this.capacity
+      ? (int)savedCheckpoint
+      : HEADER_SIZE;
+
+    //
+    // Find the end of the spooled events. Stop at the first
+    // record that's incomplete or corrupt.
+    //
+    var position = this.checkpoint;
+    byte[] data;
+    while ((data = readRecord(position)) != null) {
+      position += RECORD_HEADER_SIZE + data.length;
+    }
+
+    this.writePosition = position;
+  }
+
+  /**
+   * Read the record at a position.
+   *
+   * @return record data, or null if there's no valid record.
+   */
+  private @Nullable byte[] readRecord(int position) {
+    if (position + RECORD_HEADER_SIZE > this.capacity) {
+      return null;
+    }
+
+    var length = this.buffer.getInt(position);
+    if (length <= 0 || position + RECORD_HEADER_SIZE + length > this.capacity) {
+      return null;
+    }
+
+    var data = new byte[length];
+    this.buffer.get(position + RECORD_HEADER_SIZE, data);
+
+    var crc = new CRC32();
+    crc.update(data);
+    if ((int)crc.getValue() != this.buffer.getInt(position + 4)) {
+      return null;
+    }
+
+    return data;
+  }
+
+  /**
+   * Move events that haven't been forwarded yet to the start of
+   * the file to make room for new events.
+   * <p>
+   * Must be called while holding the lock.
+   */
+  private void compact() {
+    assert Thread.holdsLock(this.lock);
+
+    var delta = this.checkpoint - HEADER_SIZE;
+    var length = this.writePosition - this.checkpoint;
+    if (delta == 0 || length + 4 > delta) {
+      //
+      // Nothing to gain, or the copy would overlap with the events'
+      // current location. Overwriting them in place isn't crash-safe,
+      // so leave the spool as is.
+      //
+      return;
+    }
+
+    //
+    // Copy the events to the start of the file, which only overwrites
+    // events that have been forwarded already. The copy is ignored
+    // until we move the checkpoint, so a crash at any point leaves
+    // a consistent file.
+    //
+    var pending = new byte[length];
+    this.buffer.get(this.checkpoint, pending);
+    this.buffer.put(HEADER_SIZE, pending);
+    this.buffer.putInt(HEADER_SIZE + length, 0);
+    this.buffer.force(HEADER_SIZE, length + 4);
+
+    //
+    // Switch to the copy.
+    //
+    this.buffer.putLong(CHECKPOINT_OFFSET, HEADER_SIZE);
+    this.buffer.force(0, HEADER_SIZE);
+
+    this.checkpoint = HEADER_SIZE;
+    this.writePosition = HEADER_SIZE + length;
+    this.compactedBytes += delta;
+  }
+
+  /**
+   * Append an event to the spool.
+   *
+   * @return false if the spool is full
+   */
+  public boolean append(@NotNull byte[] data) {
+    Preconditions.checkNotNull(data, "data");
+    Preconditions.checkArgument(data.length > 0, "data");
+
+    var crc = new CRC32();
+    crc.update(data);
+
+    synchronized (this.lock) {
+      var recordSize = RECORD_HEADER_SIZE + data.length;
+      if (this.writePosition + recordSize > this.capacity) {
+        compact();
+      }
+
+      if (this.writePosition + recordSize > this.capacity) {
+        return false;
+      }
+
+      //
+      // Write the data before the length so that a partially
+      // written record is never mistaken for a complete one.
+      //
+      var position = this.writePosition;
+      this.buffer.put(position + RECORD_HEADER_SIZE, data);
+      this.buffer.putInt(position + 4, (int)crc.getValue());
+      if (position + recordSize + 4 <= this.capacity) {
+        this.buffer.putInt(position + recordSize, 0);
+      }
+      this.buffer.putInt(position, data.length);
+
+      this.writePosition = position + recordSize;
+      this.lock.notifyAll();
+    }
+
+    return true;
+  }
+
+  /**
+   * Number of bytes of events that haven't been forwarded yet.
+   */
+  public int backlog() {
+    synchronized (this.lock) {
+      return this.writePosition - this.checkpoint;
+    }
+  }
+
+  //---------------------------------------------------------------------------
+  // Forwarding.
+  //---------------------------------------------------------------------------
+
+  /**
+   * Start forwarding events to a sink.
+   */
+  public void startForwarding(@NotNull Sink sink) {
+    Preconditions.checkNotNull(sink, "sink");
+    Preconditions.checkState(this.forwarderThread == null, "Already forwarding");
+
+    this.forwarderThread = Thread.ofPlatform()
+      .name("audit-spool-forwarder")
+      .daemon(true)
+      .start(() -> forward(sink));
+  }
+
+  /**
+   * Forward one batch of events.
+   *
+   * @return number of events forwarded
+   */
+  int forwardBatch(@NotNull Sink sink) throws Exception {
+    List<byte[]> batch = new ArrayList<>();
+    int batchEnd;
+    long compactedBytesAtRead;
+
+    synchronized (this.lock) {
+      var position = this.checkpoint;
+      while (batch.size() < this.options.maxBatchSize && position < this.writePosition) {
+        var data = readRecord(position);
+        if (data == null) {
+          break;
+        }
+
+        batch.add(data);
+        position += RECORD_HEADER_SIZE + data.length;
+      }
+
+      batchEnd = position;
+      compactedBytesAtRead = this.compactedBytes;
+    }
+
+    if (batch.isEmpty()) {
+      return 0;
+    }
+
+    CompletableFuture
+      .allOf(batch.stream().map(sink::forward).toArray(CompletableFuture[]::new))
+      .get(this.options.forwardTimeout.toMillis(), TimeUnit.MILLISECONDS);
+
+    synchronized (this.lock) {
+      //
+      // Account for compactions that happened while we were
+      // forwarding the batch.
+      //
+      this.checkpoint = (int)(batchEnd - (this.compactedBytes - compactedBytesAtRead));
+      this.buffer.putLong(CHECKPOINT_OFFSET, this.checkpoint);
+    }
+
+    return batch.size();
+  }
+
+  private void forward(@NotNull Sink sink) {
+    var backoff = this.options.retryBackoff;
+
+    while (!this.closed) {
+      try {
+        if (forwardBatch(sink) == 0) {
+          synchronized (this.lock) {
+            if (this.checkpoint == this.writePosition && !this.closed) {
+              this.lock.wait(1000);
+            }
+          }
+        }
+
+        backoff = this.options.retryBackoff;
+      }
+      catch (InterruptedException e) {
+        return;
+      }
+      catch (Exception e) {
+        this.logger.warn(
+          EventIds.FORWARD_AUDIT_EVENTS,
+          String.format("Forwarding audit events failed, retrying in %d seconds", backoff.toSeconds()),
+          e);
+
+        try {
+          Thread.sleep(backoff);
+        }
+        catch (InterruptedException ignored) {
+          return;
+        }
+
+        backoff = backoff.multipliedBy(2);
+        if (backoff.compareTo(this.options.maxRetryBackoff) > 0) {
+          backoff = this.options.maxRetryBackoff;
+        }
+      }
+    }
+  }
+
+  /**
+   * Stop forwarding and write spooled events to disk.
+   */
+  @Override
+  public void close() throws IOException {
+    this.closed = true;
+
+    if (this.forwarderThread != null) {
+      this.forwarderThread.interrupt();
+      try {
+        this.forwarderThread.join(1000);
+      }
+      catch (InterruptedException e) {
+        Thread.currentThread().interrupt();
+      }
+    }
+
+    synchronized (this.lock) {
+      this.buffer.force();
+    }
+
+    this.channel.close();
+  }
+
+  //---------------------------------------------------------------------------
+  // Inner classes.
+  //---------------------------------------------------------------------------
+
+  /**
+   * Destination for spooled events.
+   */
+  @FunctionalInterface
+  public interface Sink {
+    /**
+     * Forward an event.
+     *
+     * @return future that completes once the event has been
+     *         accepted by the sink.
+     */
+    @NotNull CompletableFuture<?> forward(@NotNull byte[] event);
+  }
+
+  /**
+   * @param capacity size of the spool file, in bytes
+   * @param maxBatchSize maximum number of events to forward at once
+   * @param forwardTimeout maximum time to wait for a batch to be forwarded
+   * @param retryBackoff initial time to wait after forwarding failed
+   * @param maxRetryBackoff maximum time to wait after forwarding failed
+   */
+  public record Options(
+    int capacity,
+    int maxBatchSize,
+    @NotNull Duration forwardTimeout,
+    @NotNull Duration retryBackoff,
+    @NotNull Duration maxRetryBackoff
+  ) {
+    public static final @NotNull Options DEFAULT = new Options(
+      32 * 1024 * 1024,
+      500,
+      Duration.ofSeconds(30),
+      Duration.ofSeconds(1),
+      Duration.ofMinutes(1));
+
+    public Options {
+      Preconditions.checkArgument(capacity > HEADER_SIZE + RECORD_HEADER_SIZE, "capacity");
+      Preconditions.checkArgument(maxBatchSize > 0, "maxBatchSize");
+      Preconditions.checkNotNull(forwardTimeout, "forwardTimeout");
+      Preconditions.checkNotNull(retryBackoff, "retryBackoff");
+      Preconditions.checkNotNull(maxRetryBackoff, "maxRetryBackoff");
+    }
+  }
+}
@@ -0,0 +1,251 @@
+//
+// Copyright 2026 Google LLC
+//
+// Licensed to the Apache Software Foundation (ASF) under one
+// or more contributor license agreements.  See the NOTICE file
+// distributed with this work for additional information
+// regarding copyright ownership.  The ASF licenses this file
+// to you under the Apache License, Version 2.0 (the
+// "License"); you may not use this file except in compliance
+// with the License.  You may obtain a copy of the License at
+//
+//   http://www.apache.org/licenses/LICENSE-2.0
+//
+// Unless required by applicable law or agreed to in writing,
+// software distributed under the License is distributed on an
+// "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+// KIND, either express or implied.  See the License for the
+// specific language governing permissions and limitations
+// under the License.
+//
+
+package com.google.solutions.jitaccess.web;
+
+import com.google.api.client.json.gson.GsonFactory;
+import com.google.api.client.json.webtoken.JsonWebSignature;
+import com.google.auth.oauth2.TokenVerifier;
+import com.google.common.base.Preconditions;
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+import com.google.common.hash.Hashing;
+import com.google.solutions.jitaccess.apis.clients.JsonWebKeySetCache;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.security.PublicKey;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Verifies JWTs against the keys of a JSON Web Key Set, and caches
+ * verified tokens until they expire.
+ * <p>
+ * Verifying the same token again is cheap, so callers that see the
+ * same token repeatedly (such as an IAP assertion that accompanies
+ * each API call) don't pay for signature verification each time.
+ */
+public class CachingTokenVerifier {
+  private final @NotNull KeyResolver keySet;
+  private final @Nullable String issuer;
+  private final @Nullable String audience;
+
+  /**
+   * Verifiers by key ID, kept for as long as the key is in use.
+   */
+  private final @NotNull Map<String, KeyVerifier> verifiers = new ConcurrentHashMap<>();
+
+  /**
+   * Verified tokens, keyed by a hash of the token.
+   */
+  private final @NotNull Cache<String, VerifiedToken> verifiedTokens;
+
+  public CachingTokenVerifier(
+    @NotNull JsonWebKeySetCache keySet,
+    @Nullable String issuer,
+    @Nullable String audience,
+    @NotNull Options options
+  ) {
+    this(
+      (KeyResolver)keySet::get,
+      issuer,
+      audience,
+      options);
+  }
+
+  public CachingTokenVerifier(
+    @NotNull KeyResolver keySet,
+    @Nullable String issuer,
+    @Nullable String audience,
+    @NotNull Options options
+  ) {
+    Preconditions.checkNotNull(keySet, "keySet");
+    Preconditions.checkNotNull(options, "options");
+
+    this.keySet = keySet;
+    this.issuer = issuer;
+    this.audience = audience;
+    this.verifiedTokens = CacheBuilder.newBuilder()
+      .maximumSize(options.cacheSize)
+      .expireAfterWrite(options.maxCacheDuration)
+      .build();
+  }
+
+  /**
+   * Verify a token, or return a cached result if the same
+   * token has been verified before.
+   *
+   * @return a copy of the verified token
+   */
+  public @NotNull JsonWebSignature verify(
+    @NotNull String token
+  ) throws TokenVerifier.VerificationException {
+    Preconditions.checkNotNull(token, "token");
+
+    var tokenHash = Hashing.sha256()
+      .hashString(token, StandardCharsets.UTF_8)
+      .toString();
+
+    var cached = this.verifiedTokens.getIfPresent(tokenHash);
+    if (cached == null || !Instant.now().isBefore(cached.expiry)) {
+      cached = verifyUncached(token);
+      this.verifiedTokens.put(tokenHash, cached);
+    }
+
+    //
+    // Return a copy so that callers can't tamper with cached data.
+    //
+    return new JsonWebSignature(
+      cached.signature.getHeader().clone(),
+      cached.signature.getPayload().clone(),
+      cached.signature.getSignatureBytes(),
+      cached.signature.getSignedContentBytes());
+  }
+
+  private @NotNull VerifiedToken verifyUncached(
+    @NotNull String token
+  ) throws TokenVerifier.VerificationException {
+    String keyId;
+    try {
+      keyId = JsonWebSignature
+        .parse(GsonFactory.getDefaultInstance(), token)
+        .getHeader()
+        .getKeyId();
+    }
+    catch (IOException | IllegalArgumentException e) {
+      throw new TokenVerifier.VerificationException("The token is malformed", e);
+    }
+
+    if (keyId == null) {
+      throw new TokenVerifier.VerificationException("The token lacks a key ID");
+    }
+
+    Optional<PublicKey> key;
+    try {
+      key = this.keySet.get(keyId);
+    }
+    catch (IOException e) {
+      throw new TokenVerifier.VerificationException("Fetching public keys failed", e);
+    }
+
+    if (key.isEmpty()) {
+      throw new TokenVerifier.VerificationException(
+        String.format("The token uses an unknown key ID: %s", keyId));
+    }
+
+    //
+    // Use a long-lived verifier for each key.
+    //
+    var verifier = this.verifiers.get(keyId);
+    if (verifier == null || !verifier.key.equals(key.get())) {
+      //
+      // The key set has changed, so the cached verifiers
+      // might be for keys that are no longer in use.
+      //
+      pruneVerifiers();
+
+      verifier = new KeyVerifier(
+        key.get(),
+        TokenVerifier.newBuilder()
+          .setPublicKey(key.get())
+          .setAudience(this.audience)
+          .setIssuer(this.issuer)
+          .build());
+      this.verifiers.put(keyId, verifier);
+    }
+
+    var signature = verifier.verifier.verify(token);
+    var expiry = signature.getPayload().getExpirationTimeSeconds();
+    if (expiry == null) {
+      throw new TokenVerifier.VerificationException("The token lacks an expiry");
+    }
+
+    return new VerifiedToken(signature, Instant.ofEpochSecond(expiry));
+  }
+
+  /**
+   * Remove verifiers for keys that the key set no longer contains.
+   */
+  private void pruneVerifiers() {
+    this.verifiers.entrySet().removeIf(entry -> {
+      try {
+        return !this.keySet
+          .get(entry.getKey())
+          .map(k -> k.equals(entry.getValue().key))
+          .orElse(false);
+      }
+      catch (IOException e) {
+        //
+        // Can't tell, keep the verifier for now.
+        //
+        return false;
+      }
+    });
+  }
+
+  /**
+   * Resolves key IDs to public keys.
+   */
+  @FunctionalInterface
+  public interface KeyResolver {
+    /**
+     * Look up the public key for a key ID.
+     *
+     * @return key, or empty if the key ID is unknown.
+     */
+    @NotNull Optional<PublicKey> get(@NotNull String keyId) throws IOException;
+  }
+
+  private record KeyVerifier(
+    @NotNull PublicKey key,
+    @NotNull TokenVerifier verifier
+  ) {}
+
+  private record VerifiedToken(
+    @NotNull JsonWebSignature signature,
+    @NotNull Instant expiry
+  ) {}
+
+  /**
+   * @param cacheSize maximum number of verified tokens to cache.
+   * @param maxCacheDuration maximum time to cache a verified token, even
+   *                         if the token is valid for longer.
+   */
+  public record Options(
+    int cacheSize,
+    @NotNull Duration maxCacheDuration
+  ) {
+    public static final @NotNull Options DEFAULT = new Options(
+      1000,
+      Duration.ofMinutes(10));
+
+    public Options {
+      Preconditions.checkArgument(cacheSize >= 0, "cacheSize");
+      Preconditions.checkNotNull(maxCacheDuration, "maxCacheDuration");
+    }
+  }
+}
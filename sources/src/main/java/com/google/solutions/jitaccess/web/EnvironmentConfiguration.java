@@ -39,8 +39,10 @@ import java.io.IOException;
 import java.net.MalformedURLException;
 import java.net.URISyntaxException;
 import java.net.URL;
+import java.time.Duration;
 import java.time.Instant;
 import java.util.List;
+import java.util.Optional;
 
 /**
  * Configuration for an environment.
@@ -80,6 +82,14 @@ abstract class EnvironmentConfiguration implements PolicyHeader {
     return this.resourceCredentials;
   }
 
+  /**
+   * Duration for which to cache the policy, or empty to use
+   * the default.
+   */
+  @NotNull Optional<Duration> policyCacheDuration() {
+    return Optional.empty();
+  }
+
   /**
    * Load policy from file or backend.
    */
@@ -273,18 +283,21 @@ abstract class EnvironmentConfiguration implements PolicyHeader {
             environmentCredentials,
             httpOptions);
 
+          var secretVersion = secretClient.accessSecretVersion(secretPath);
+
           //
           // Set default environment name in metadata so that
-          // the YAML itself doesn't need to specify a name.
+          // the YAML itself doesn't need to specify a name. Record
+          // the version so that we can detect if it changed.
           //
           var metadata = new Policy.Metadata(
             secretPath,
             Instant.now(),
-            null,
+            secretVersion.name(),
             environmentName);
 
           return PolicyDocumentSource.fromString(
-            secretClient.accessSecret(secretPath),
+            secretVersion.payload(),
             metadata);
         }
         catch (ResourceNotFoundException | AccessDeniedException e)
@@ -321,10 +334,18 @@ abstract class EnvironmentConfiguration implements PolicyHeader {
             parameterRegionId,
             httpOptions);
 
+          var parameterVersion = parameterManagerClient.renderVersion(parameterPath);
+
           //
           // Set default environment name in metadata so that
           // the YAML itself doesn't need to specify a name.
           //
+          // Don't record the parameter version: the rendered payload
+          // resolves secret references such as __REF__(.../versions/latest),
+          // so it can change without a new parameter version. Leaving
+          // the version empty lets the content fingerprint decide
+          // whether the policy changed.
+          //
           var metadata = new Policy.Metadata(
             parameterPath,
             Instant.now(),
@@ -332,7 +353,7 @@ abstract class EnvironmentConfiguration implements PolicyHeader {
             environmentName);
 
           return PolicyDocumentSource.fromString(
-            parameterManagerClient.render(parameterPath),
+            parameterVersion.payload(),
             metadata);
         }
         catch (Exception e) {
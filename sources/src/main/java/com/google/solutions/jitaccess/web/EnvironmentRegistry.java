@@ -26,14 +26,21 @@ import com.google.solutions.jitaccess.apis.clients.CloudIdentityGroupsClient;
 import com.google.solutions.jitaccess.apis.clients.HttpTransport;
 import com.google.solutions.jitaccess.apis.clients.ResourceManagerClient;
 import com.google.solutions.jitaccess.auth.GroupMapping;
+import com.google.solutions.jitaccess.auth.JitGroupId;
+import com.google.solutions.jitaccess.catalog.policy.EnvironmentPolicy;
 import com.google.solutions.jitaccess.catalog.policy.PolicyDocumentSource;
 import com.google.solutions.jitaccess.catalog.provisioning.Environment;
 import com.google.solutions.jitaccess.catalog.provisioning.Provisioner;
+import com.google.solutions.jitaccess.common.Lazy;
 import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
 
+import java.io.IOException;
 import java.time.Duration;
 import java.util.Collection;
+import java.util.Optional;
 import java.util.concurrent.Executor;
+import java.util.concurrent.atomic.AtomicReference;
 
 /**
  * Registry for environments and their associated provisioners.
@@ -74,12 +81,185 @@ public class EnvironmentRegistry {
           cfg.name(),
           cfg.description(),
           provisioner,
-          options.cacheDuration()
+          cfg.policyCacheDuration().orElse(options.cacheDuration())
         ) {
+          /**
+           * Snapshot that the policy was initially loaded from, if any.
+           * Read at most once, so that concurrent initial loads all
+           * use the same snapshot.
+           */
+          private final @NotNull Lazy<Optional<PolicyDocumentSource>> snapshotSource =
+            Lazy.initializePessimistically(this::readSnapshot);
+
+          /**
+           * Indicates whether the snapshot has been checked against the
+           * actual policy, so that it shouldn't be used anymore.
+           */
+          private volatile boolean snapshotChecked = false;
+
+          /**
+           * Source that has been loaded in the background, if any.
+           */
+          private final @NotNull AtomicReference<PolicyDocumentSource> prefetchedSource =
+            new AtomicReference<>();
+
           @Override
           public PolicyDocumentSource loadPolicy() {
+            var prefetched = this.prefetchedSource.getAndSet(null);
+            if (prefetched != null) {
+              return prefetched;
+            }
+
+            if (options.snapshotStore() != null && !this.snapshotChecked) {
+              var snapshot = this.snapshotSource.get();
+              if (snapshot.isPresent()) {
+                //
+                // Use the snapshot to speed up startup until we've
+                // checked whether it's still current.
+                //
+                return snapshot.get();
+              }
+            }
+
             return cfg.loadPolicy();
           }
+
+          private @NotNull Optional<PolicyDocumentSource> readSnapshot() {
+            var snapshotStore = options.snapshotStore();
+            assert snapshotStore != null;
+
+            Optional<PolicyDocumentSource> snapshot;
+            try {
+              snapshot = snapshotStore.read(cfg.name());
+            }
+            catch (IOException e) {
+              logger.warn(
+                EventIds.LOAD_ENVIRONMENT,
+                String.format("Reading the policy snapshot of environment '%s' failed", cfg.name()),
+                e);
+              snapshot = Optional.empty();
+            }
+
+            if (snapshot.isPresent()) {
+              //
+              // Check in the background whether the snapshot is
+              // still current.
+              //
+              var source = snapshot.get();
+              executor.execute(() -> checkSnapshot(source));
+            }
+            else {
+              this.snapshotChecked = true;
+            }
+
+            return snapshot;
+          }
+
+          private void checkSnapshot(@NotNull PolicyDocumentSource snapshot) {
+            try {
+              var source = cfg.loadPolicy();
+              if (!source.isUnchangedFrom(snapshot)) {
+                //
+                // The snapshot is outdated. Reload the policy, using
+                // the source we just loaded.
+                //
+                this.snapshotChecked = true;
+                this.prefetchedSource.set(source);
+                invalidatePolicy();
+              }
+            }
+            catch (Exception e) {
+              logger.warn(
+                EventIds.LOAD_ENVIRONMENT,
+                String.format("Checking the policy snapshot of environment '%s' failed", cfg.name()),
+                e);
+            }
+            finally {
+              this.snapshotChecked = true;
+            }
+          }
+
+          @Override
+          protected void policyLoaded(@NotNull PolicyDocumentSource source) {
+            var snapshotStore = options.snapshotStore();
+            if (snapshotStore == null ||
+              (this.snapshotSource.isDone() && source == this.snapshotSource.get().orElse(null)) ||
+              source.fingerprint().isEmpty()) {
+              //
+              // Snapshots disabled, or not applicable.
+              //
+              return;
+            }
+
+            executor.execute(() -> {
+              try {
+                snapshotStore.write(cfg.name(), source);
+              }
+              catch (IOException e) {
+                logger.warn(
+                  EventIds.LOAD_ENVIRONMENT,
+                  String.format("Writing the policy snapshot of environment '%s' failed", cfg.name()),
+                  e);
+              }
+            });
+          }
+
+          @Override
+          protected void policyUpdated(
+            @NotNull EnvironmentPolicy policy,
+            @NotNull Collection<JitGroupId> changedGroups
+          ) {
+            if (changedGroups.isEmpty()) {
+              return;
+            }
+
+            logger.info(
+              EventIds.LOAD_ENVIRONMENT,
+              "Policy of environment '%s' changed, affected groups: %s",
+              cfg.name(),
+              changedGroups);
+
+            if (!options.reconcileOnPolicyChange()) {
+              //
+              // Reconciling requires the RECONCILE permission, so leave
+              // it to a user unless automatic reconciliation is enabled.
+              //
+              return;
+            }
+
+            //
+            // Reconcile the groups that changed in the background so
+            // that their IAM bindings reflect the updated policy.
+            //
+            for (var groupId : changedGroups) {
+              var group = policy
+                .system(groupId.system())
+                .flatMap(sys -> sys.group(groupId.name()));
+              if (group.isEmpty()) {
+                //
+                // Group has been removed.
+                //
+                continue;
+              }
+
+              executor.execute(() -> {
+                try {
+                  provisioner.reconcile(group.get());
+
+                  logger.info(
+                    EventIds.RECONCILE_ENVIRONMENT,
+                    "Reconciled group '%s' after a policy change",
+                    groupId);
+                }
+                catch (Exception e) {
+                  logger.warn(
+                    EventIds.RECONCILE_ENVIRONMENT,
+                    String.format("Reconciling group '%s' after a policy change failed", groupId),
+                    e);
+                }
+              });
+            }
+          }
         };
       })
       .toList();
@@ -89,8 +269,18 @@ public class EnvironmentRegistry {
     return this.environments;
   }
 
+  /**
+   * @param cacheDuration duration for which to cache policies.
+   * @param httpTransportOptions options for API clients.
+   * @param snapshotStore store for policy snapshots, or null
+   *                      to disable snapshots.
+   * @param reconcileOnPolicyChange reconcile groups automatically
+   *                                when their policy changed.
+   */
   public record Options(
     @NotNull Duration cacheDuration,
-    @NotNull HttpTransport.Options httpTransportOptions
+    @NotNull HttpTransport.Options httpTransportOptions,
+    @Nullable PolicySnapshotStore snapshotStore,
+    boolean reconcileOnPolicyChange
   ) {}
 }
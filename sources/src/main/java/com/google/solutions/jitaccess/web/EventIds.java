@@ -36,4 +36,7 @@ public class EventIds {
   public static final String API_APPROVE_JOIN = "api.groups.approve";
   public static final String STARTUP = "application.startup";
   public static final String LOAD_ENVIRONMENT = "application.environments.load";
+  public static final String RECONCILE_ENVIRONMENT = "application.environments.reconcile";
+  public static final String DELIVER_MAIL = "application.mail.deliver";
+  public static final String FORWARD_AUDIT_EVENTS = "application.audit.forward";
 }
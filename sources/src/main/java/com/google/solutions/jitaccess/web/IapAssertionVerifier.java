@@ -0,0 +1,78 @@
+//
+// Copyright 2026 Google LLC
+//
+// Licensed to the Apache Software Foundation (ASF) under one
+// or more contributor license agreements.  See the NOTICE file
+// distributed with this work for additional information
+// regarding copyright ownership.  The ASF licenses this file
+// to you under the Apache License, Version 2.0 (the
+// "License"); you may not use this file except in compliance
+// with the License.  You may obtain a copy of the License at
+//
+//   http://www.apache.org/licenses/LICENSE-2.0
+//
+// Unless required by applicable law or agreed to in writing,
+// software distributed under the License is distributed on an
+// "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+// KIND, either express or implied.  See the License for the
+// specific language governing permissions and limitations
+// under the License.
+//
+
+package com.google.solutions.jitaccess.web;
+
+import com.google.auth.oauth2.TokenVerifier;
+import com.google.common.base.Preconditions;
+import com.google.solutions.jitaccess.apis.clients.JsonWebKeySetCache;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import java.io.IOException;
+
+/**
+ * Verifies IAP assertions.
+ * <p>
+ * The UI makes multiple API calls per page, and each call carries the
+ * same assertion. To avoid verifying the same assertion over and over
+ * again, the verifier caches verified assertions until they expire.
+ */
+public class IapAssertionVerifier {
+  static final String IAP_ISSUER_URL = "https://cloud.google.com/iap";
+  static final String IAP_JWKS_URL = "https://www.gstatic.com/iap/verify/public_key-jwk";
+
+  private final @NotNull JsonWebKeySetCache keySet;
+  private final @NotNull CachingTokenVerifier tokenVerifier;
+
+  public IapAssertionVerifier(
+    @Nullable String expectedAudience,
+    @NotNull JsonWebKeySetCache keySet,
+    @NotNull CachingTokenVerifier.Options options
+  ) {
+    Preconditions.checkNotNull(keySet, "keySet");
+    Preconditions.checkNotNull(options, "options");
+
+    this.keySet = keySet;
+    this.tokenVerifier = new CachingTokenVerifier(
+      keySet,
+      IAP_ISSUER_URL,
+      expectedAudience,
+      options);
+  }
+
+  /**
+   * Fetch IAP's public keys ahead of the first verification.
+   */
+  public void prefetchKeys() throws IOException {
+    this.keySet.refresh();
+  }
+
+  /**
+   * Verify an assertion, or use a cached result if the
+   * same assertion has been verified before.
+   */
+  @NotNull IapAssertion verify(
+    @NotNull String assertion
+  ) throws TokenVerifier.VerificationException {
+    return new IapAssertion(this.tokenVerifier.verify(assertion));
+  }
+}
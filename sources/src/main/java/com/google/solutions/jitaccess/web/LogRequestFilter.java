@@ -1,5 +1,7 @@
 package com.google.solutions.jitaccess.web;
 
+import com.google.common.base.Preconditions;
+import com.google.solutions.jitaccess.common.Deadline;
 import jakarta.annotation.Priority;
 import jakarta.enterprise.context.Dependent;
 import jakarta.inject.Inject;
@@ -7,6 +9,9 @@ import jakarta.ws.rs.Priorities;
 import jakarta.ws.rs.container.ContainerRequestContext;
 import jakarta.ws.rs.container.ContainerRequestFilter;
 import jakarta.ws.rs.ext.Provider;
+import org.jetbrains.annotations.NotNull;
+
+import java.time.Duration;
 
 @Dependent
 @Provider
@@ -22,11 +27,33 @@ public class LogRequestFilter implements ContainerRequestFilter {
   @Inject
   RequestContext requestContext;
 
+  @Inject
+  Options options;
+
   @Override
   public void filter(ContainerRequestContext containerRequestContext) {
+    //
+    // Start the clock for the request's deadline. The deadline
+    // is bound to the thread by RequestDeadlineInterceptor.
+    //
     this.requestContext.initialize(
       containerRequestContext.getRequest().getMethod(),
       containerRequestContext.getUriInfo().getPath(),
-      containerRequestContext.getHeaderString(TRACE_CONTEXT_HEADER_NAME));
+      containerRequestContext.getHeaderString(TRACE_CONTEXT_HEADER_NAME),
+      Deadline.after(this.options.requestTimeout()));
+  }
+
+  /**
+   * @param requestTimeout time after which backend calls made on
+   *                       behalf of a request are abandoned.
+   */
+  public record Options(
+    @NotNull Duration requestTimeout
+  ) {
+    public Options {
+      Preconditions.checkArgument(
+        !requestTimeout.isNegative() && !requestTimeout.isZero(),
+        "requestTimeout");
+    }
   }
 }
@@ -21,8 +21,12 @@
 
 package com.google.solutions.jitaccess.web;
 
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.google.api.client.json.gson.GsonFactory;
+import com.google.api.services.pubsub.model.PubsubMessage;
 import com.google.common.base.Preconditions;
 import com.google.solutions.jitaccess.apis.Logger;
+import com.google.solutions.jitaccess.apis.clients.PubSubBatchPublisher;
 import com.google.solutions.jitaccess.auth.IamPrincipalId;
 import com.google.solutions.jitaccess.auth.JitGroupId;
 import com.google.solutions.jitaccess.auth.Principal;
@@ -32,18 +36,40 @@ import com.google.solutions.jitaccess.common.Exceptions;
 import com.google.solutions.jitaccess.common.MoreStrings;
 import com.google.solutions.jitaccess.web.proposal.ProposalHandler;
 import jakarta.enterprise.context.Dependent;
+import jakarta.inject.Inject;
 import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
 
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.time.Duration;
+import java.time.Instant;
 import java.time.ZoneOffset;
 import java.time.temporal.ChronoUnit;
+import java.util.HashMap;
+import java.util.Map;
 import java.util.stream.Collectors;
 
 /**
  * Audit trail for group operations.
+ * <p>
+ * Audit events are always logged. If a publisher is configured,
+ * events are also published to Pub/Sub, in batches and in the
+ * background.
  */
 @Dependent
 public class OperationAuditTrail {
+  private static final @NotNull ObjectMapper JSON_MAPPER = new ObjectMapper();
+
+  /**
+   * Maximum time to wait for room in the publisher's backlog. If
+   * the backlog stays full, for example because Pub/Sub is unavailable,
+   * the event is dropped so that requests don't stall.
+   */
+  private static final @NotNull Duration PUBLISH_TIMEOUT = Duration.ofMillis(50);
+
   private final @NotNull Logger logger;
+  private final @NotNull Options options;
 
   static final String LABEL_GROUP_ID = "group/id";
   static final String LABEL_GROUP_EXPIRY = "group/expiry";
@@ -53,7 +79,34 @@ public class OperationAuditTrail {
   static final String LABEL_EVENT_TYPE = "event/type";
 
   public OperationAuditTrail(@NotNull Logger logger) {
+    this(logger, Options.DEFAULT);
+  }
+
+  @Inject
+  public OperationAuditTrail(
+    @NotNull Logger logger,
+    @NotNull Options options
+  ) {
     this.logger = logger;
+    this.options = options;
+  }
+
+  private @NotNull Logger.LogEntry buildInfo(@NotNull String eventId) {
+    return publishing(this.logger.buildInfo(eventId), "INFO", eventId);
+  }
+
+  private @NotNull Logger.LogEntry buildError(@NotNull String eventId) {
+    return publishing(this.logger.buildError(eventId), "ERROR", eventId);
+  }
+
+  private @NotNull Logger.LogEntry publishing(
+    @NotNull Logger.LogEntry entry,
+    @NotNull String severity,
+    @NotNull String eventId
+  ) {
+    return this.options.publisher != null
+      ? new PublishingLogEntry(entry, this.options, severity, eventId)
+      : entry;
   }
 
   public void constraintFailed(
@@ -65,7 +118,7 @@ public class OperationAuditTrail {
     // log all the details.
     //
     for (var detail : e.exceptions()) {
-      this.logger.buildError(EventIds.GROUP_CONSTRAINT_FAILED)
+      buildError(EventIds.GROUP_CONSTRAINT_FAILED)
         .addLabel(LABEL_EVENT_TYPE, "audit")
         .addLabel(LABEL_GROUP_ID, groupId)
         .setMessage(Exceptions.fullMessage(detail))
@@ -77,7 +130,7 @@ public class OperationAuditTrail {
     @NotNull JitGroupContext.JoinOperation joinOp,
     @NotNull ProposalHandler.ProposalToken proposal
   ) {
-    this.logger.buildInfo(EventIds.API_JOIN_GROUP)
+    buildInfo(EventIds.API_JOIN_GROUP)
       .addLabel(LABEL_EVENT_TYPE, "audit")
       .addLabel(LABEL_GROUP_ID, joinOp.group())
       .addLabel(LABEL_PROPOSAL_RECIPIENTS, proposal.audience()
@@ -111,7 +164,7 @@ public class OperationAuditTrail {
       .atOffset(ZoneOffset.UTC)
       .truncatedTo(ChronoUnit.SECONDS);
 
-    this.logger.buildInfo(EventIds.API_JOIN_GROUP)
+    buildInfo(EventIds.API_JOIN_GROUP)
       .addLabel(LABEL_EVENT_TYPE, "audit")
       .addLabel(LABEL_GROUP_ID,  joinOp.group())
       .addLabel(LABEL_GROUP_EXPIRY, expiry)
@@ -136,7 +189,7 @@ public class OperationAuditTrail {
       .atOffset(ZoneOffset.UTC)
       .truncatedTo(ChronoUnit.SECONDS);
 
-    this.logger.buildInfo(EventIds.API_APPROVE_JOIN)
+    buildInfo(EventIds.API_APPROVE_JOIN)
       .addLabel(LABEL_EVENT_TYPE, "audit")
       .addLabel(LABEL_GROUP_ID, approveOp.group())
       .addLabel(LABEL_GROUP_EXPIRY, expiry)
@@ -154,4 +207,158 @@ public class OperationAuditTrail {
         expiry)
       .write();
   }
+
+  //---------------------------------------------------------------------------
+  // Inner classes.
+  //---------------------------------------------------------------------------
+
+  /**
+   * Log entry that, when written, is also published to Pub/Sub.
+   */
+  private static class PublishingLogEntry implements Logger.LogEntry {
+    private final @NotNull Logger.LogEntry entry;
+    private final @NotNull Options options;
+    private final @NotNull Map<String, String> labels = new HashMap<>();
+    private @Nullable String message;
+
+    private PublishingLogEntry(
+      @NotNull Logger.LogEntry entry,
+      @NotNull Options options,
+      @NotNull String severity,
+      @NotNull String eventId
+    ) {
+      this.entry = entry;
+      this.options = options;
+      this.labels.put("event/id", eventId);
+      this.labels.put("severity", severity);
+    }
+
+    @Override
+    public @NotNull Logger.LogEntry addLabel(@NotNull String label, @Nullable Object value) {
+      if (value != null) {
+        this.labels.put(label, value.toString());
+      }
+      this.entry.addLabel(label, value);
+      return this;
+    }
+
+    @Override
+    public @NotNull Logger.LogEntry addLabels(@NotNull Map<String, String> labels) {
+      this.labels.putAll(labels);
+      this.entry.addLabels(labels);
+      return this;
+    }
+
+    @Override
+    public @NotNull Logger.LogEntry setMessage(@NotNull String message) {
+      this.message = message;
+      this.entry.setMessage(message);
+      return this;
+    }
+
+    @Override
+    public @NotNull Logger.LogEntry setMessage(@NotNull String format, Object... args) {
+      return setMessage(String.format(format, args));
+    }
+
+    @Override
+    public void write() {
+      this.entry.write();
+
+      try {
+        var event = new HashMap<String, Object>();
+        event.put("timestamp", Instant.now().toString());
+        event.put("labels", this.labels);
+        event.put("message", this.message);
+
+        //
+        // Don't set an ordering key. Batches are formed per ordering
+        // key, so ordering events by group would leave most batches
+        // with a single event. Consumers can order events by their
+        // timestamp instead.
+        //
+        var message = new PubsubMessage()
+          .encodeData(JSON_MAPPER.writeValueAsBytes(event))
+          .setAttributes(Map.of("event/id", this.labels.get("event/id")));
+
+        if (this.options.spool != null &&
+          this.options.spool.append(GsonFactory.getDefaultInstance().toByteArray(message))) {
+          //
+          // The spool forwards the message to the publisher
+          // in the background.
+          //
+          return;
+        }
+
+        //
+        // Don't wait for the message to be published, and don't
+        // wait long for room in the backlog. Failures are benign
+        // because the event has been logged already.
+        //
+        // The future typically completes on one of the publisher's
+        // threads after the request has ended, so use the background
+        // logger, not the request logger.
+        //
+        var publisher = this.options.publisher;
+        var backgroundLogger = this.options.backgroundLogger;
+        assert publisher != null && backgroundLogger != null;
+        publisher
+          .publish(message, PUBLISH_TIMEOUT)
+          .exceptionally(e -> {
+            backgroundLogger.warn(
+              EventIds.FORWARD_AUDIT_EVENTS,
+              "Publishing audit event failed (%d events dropped so far): %s",
+              publisher.droppedMessages(),
+              Exceptions.fullMessage(e));
+            return null;
+          });
+      }
+      catch (IOException ignored) {
+      }
+      catch (InterruptedException e) {
+        Thread.currentThread().interrupt();
+      }
+    }
+  }
+
+  /**
+   * @param publisher publisher for audit events, optional.
+   * @param spool spool to write audit events to before they're
+   *              published, optional.
+   * @param backgroundLogger logger for publishing failures. Publishing
+   *                         completes after the request has ended, so
+   *                         this logger must not depend on the request
+   *                         context. Required if a publisher is set.
+   */
+  public record Options(
+    @Nullable PubSubBatchPublisher publisher,
+    @Nullable AuditSpool spool,
+    @Nullable Logger backgroundLogger
+  ) {
+    public static final @NotNull Options DEFAULT = new Options(null, null, null);
+
+    public Options {
+      Preconditions.checkArgument(
+        publisher == null || backgroundLogger != null,
+        "A publisher requires a background logger");
+    }
+
+    public Options(
+      @Nullable PubSubBatchPublisher publisher,
+      @Nullable Logger backgroundLogger
+    ) {
+      this(publisher, null, backgroundLogger);
+    }
+
+    /**
+     * Decode a message that has been written to the spool.
+     */
+    public static @NotNull PubsubMessage decodeSpooledMessage(
+      @NotNull byte[] data
+    ) throws IOException {
+      return GsonFactory
+        .getDefaultInstance()
+        .fromInputStream(new ByteArrayInputStream(data), PubsubMessage.class);
+    }
+  }
 }
@@ -0,0 +1,210 @@
+//
+// Copyright 2026 Google LLC
+//
+// Licensed to the Apache Software Foundation (ASF) under one
+// or more contributor license agreements.  See the NOTICE file
+// distributed with this work for additional information
+// regarding copyright ownership.  The ASF licenses this file
+// to you under the Apache License, Version 2.0 (the
+// "License"); you may not use this file except in compliance
+// with the License.  You may obtain a copy of the License at
+//
+//   http://www.apache.org/licenses/LICENSE-2.0
+//
+// Unless required by applicable law or agreed to in writing,
+// software distributed under the License is distributed on an
+// "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+// KIND, either express or implied.  See the License for the
+// specific language governing permissions and limitations
+// under the License.
+//
+
+package com.google.solutions.jitaccess.web;
+
+import com.google.common.base.Preconditions;
+import com.google.solutions.jitaccess.catalog.policy.Policy;
+import com.google.solutions.jitaccess.catalog.policy.PolicyDocumentSource;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.EOFException;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.time.Instant;
+import java.util.Optional;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * Stores snapshots of policy documents on local disk so that
+ * environments can be loaded quickly after a restart.
+ * <p>
+ * Only policies that have been loaded and validated successfully
+ * are stored. Snapshots contain the policy's source and metadata,
+ * and a fingerprint that's used to detect corrupted files.
+ * <p>
+ * The fingerprint doesn't authenticate the snapshot. Snapshots are
+ * used in place of the actual policy until they've been checked, so
+ * the directory must only be writable by the application.
+ * <p>
+ * File layout:
+ * <pre>
+ *   [magic:int][version:int]
+ *   [source:utf][lastModified:long][version:utf?][defaultName:utf?]
+ *   [fingerprint:utf][length:int][gzip(yaml):byte[length]]
+ * </pre>
+ */
+public class PolicySnapshotStore {
+  private static final int MAGIC = 0x4A495450;
+  private static final int VERSION = 1;
+  private static final String FILE_SUFFIX = ".policy";
+
+  private final @NotNull Path directory;
+
+  public PolicySnapshotStore(@NotNull Path directory) {
+    Preconditions.checkNotNull(directory, "directory");
+    this.directory = directory;
+  }
+
+  private @NotNull Path snapshotFile(@NotNull String environmentName) {
+    return this.directory.resolve(environmentName + FILE_SUFFIX);
+  }
+
+  private static void writeNullableString(
+    @NotNull DataOutputStream stream,
+    @Nullable String s
+  ) throws IOException {
+    stream.writeBoolean(s != null);
+    if (s != null) {
+      stream.writeUTF(s);
+    }
+  }
+
+  private static @Nullable String readNullableString(
+    @NotNull DataInputStream stream
+  ) throws IOException {
+    return stream.readBoolean() ? stream.readUTF() : null;
+  }
+
+  /**
+   * Store a snapshot of a policy, replacing any previous snapshot.
+   *
+   * @throws IllegalArgumentException if the source doesn't have a
+   *         fingerprint, which indicates that it's not a plain document.
+   */
+  public void write(
+    @NotNull String environmentName,
+    @NotNull PolicyDocumentSource source
+  ) throws IOException {
+    Preconditions.checkNotNull(environmentName, "environmentName");
+    Preconditions.checkArgument(
+      source.fingerprint().isPresent(),
+      "The policy source does not support snapshots");
+
+    var compressedYaml = new ByteArrayOutputStream();
+    try (var gzip = new GZIPOutputStream(compressedYaml)) {
+      gzip.write(source.yaml().getBytes(StandardCharsets.UTF_8));
+    }
+
+    Files.createDirectories(this.directory);
+
+    //
+    // Write to a temporary file first so that readers never
+    // see a partially written snapshot.
+    //
+    var tempFile = Files.createTempFile(this.directory, environmentName, ".tmp");
+    try {
+      try (var stream = new DataOutputStream(
+        new BufferedOutputStream(Files.newOutputStream(tempFile)))) {
+        var metadata = source.metadata();
+
+        stream.writeInt(MAGIC);
+        stream.writeInt(VERSION);
+        stream.writeUTF(metadata.source());
+        stream.writeLong(metadata.lastModified().toEpochMilli());
+        writeNullableString(stream, metadata.version());
+        writeNullableString(stream, metadata.defaultName());
+        stream.writeUTF(source.fingerprint().get());
+        stream.writeInt(compressedYaml.size());
+        compressedYaml.writeTo(stream);
+      }
+
+      Files.move(
+        tempFile,
+        snapshotFile(environmentName),
+        StandardCopyOption.REPLACE_EXISTING,
+        StandardCopyOption.ATOMIC_MOVE);
+    }
+    finally {
+      Files.deleteIfExists(tempFile);
+    }
+  }
+
+  /**
+   * Read the snapshot of a policy.
+   *
+   * @return snapshot, or empty if no snapshot exists.
+   * @throws IOException if the snapshot is unreadable or corrupt.
+   */
+  public @NotNull Optional<PolicyDocumentSource> read(
+    @NotNull String environmentName
+  ) throws IOException {
+    Preconditions.checkNotNull(environmentName, "environmentName");
+
+    var file = snapshotFile(environmentName);
+    if (!Files.exists(file)) {
+      return Optional.empty();
+    }
+
+    try (var stream = new DataInputStream(
+      new BufferedInputStream(Files.newInputStream(file)))) {
+      if (stream.readInt() != MAGIC || stream.readInt() != VERSION) {
+        throw new IOException(
+          String.format("The file '%s' is not a supported policy snapshot", file));
+      }
+
+      var metadata = new Policy.Metadata(
+        stream.readUTF(),
+        Instant.ofEpochMilli(stream.readLong()),
+        readNullableString(stream),
+        readNullableString(stream));
+      var fingerprint = stream.readUTF();
+
+      var length = stream.readInt();
+      if (length < 0 || length > Files.size(file)) {
+        throw new IOException(
+          String.format("The policy snapshot '%s' is corrupt", file));
+      }
+
+      var compressedYaml = new byte[length];
+      stream.readFully(compressedYaml);
+
+      String yaml;
+      try (var gzip = new GZIPInputStream(new ByteArrayInputStream(compressedYaml))) {
+        yaml = new String(gzip.readAllBytes(), StandardCharsets.UTF_8);
+      }
+
+      var source = PolicyDocumentSource.fromString(yaml, metadata);
+      if (!source.fingerprint().orElse("").equals(fingerprint)) {
+        throw new IOException(
+          String.format("The policy snapshot '%s' is corrupt", file));
+      }
+
+      return Optional.of(source);
+    }
+    catch (EOFException e) {
+      throw new IOException(
+        String.format("The policy snapshot '%s' is truncated", file),
+        e);
+    }
+  }
+}
@@ -3,6 +3,7 @@ package com.google.solutions.jitaccess.web;
 import com.google.common.util.concurrent.UncheckedExecutionException;
 import com.google.solutions.jitaccess.apis.clients.AccessException;
 import com.google.solutions.jitaccess.auth.*;
+import com.google.solutions.jitaccess.common.Deadline;
 import jakarta.enterprise.context.RequestScoped;
 import org.jetbrains.annotations.NotNull;
 import org.jetbrains.annotations.Nullable;
@@ -38,6 +39,7 @@ public class RequestContext {
   private @Nullable String requestMethod;
   private @Nullable String requestPath;
   private @Nullable String requestTraceId;
+  private @Nullable Deadline requestDeadline;
 
   public RequestContext(@NotNull SubjectResolver subjectResolver) {
     this.authenticationContext = new AuthenticationContext();
@@ -50,11 +52,13 @@ public class RequestContext {
   void initialize(
     @NotNull String method,
     @NotNull String path,
-    @Nullable String traceId
+    @Nullable String traceId,
+    @Nullable Deadline deadline
   ) {
     this.requestMethod = method;
     this.requestPath = path;
     this.requestTraceId = traceId;
+    this.requestDeadline = deadline;
   }
 
   /**
@@ -137,6 +141,10 @@ public class RequestContext {
     return this.requestTraceId;
   }
 
+  public @Nullable Deadline requestDeadline() {
+    return this.requestDeadline;
+  }
+
   private static class AuthenticationContext implements Subject {
     private Subject subject = ANONYMOUS_SUBJECT;
     private @NotNull Device device = IapDevice.UNKNOWN;
@@ -21,6 +21,7 @@
 
 package com.google.solutions.jitaccess.web;
 
+import com.google.solutions.jitaccess.apis.LogFilter;
 import com.google.solutions.jitaccess.apis.StructuredLogger;
 import org.jetbrains.annotations.NotNull;
 import org.jetbrains.annotations.Nullable;
@@ -36,12 +37,20 @@ public class RequestContextLogger extends StructuredLogger {
 
   RequestContextLogger(
     @NotNull Appendable output,
+    @NotNull LogFilter filter,
     @NotNull RequestContext requestContext
   ) {
-    super(output);
+    super(output, filter);
     this.requestContext = requestContext;
   }
 
+  RequestContextLogger(
+    @NotNull Appendable output,
+    @NotNull RequestContext requestContext
+  ) {
+    this(output, LogFilter.NONE, requestContext);
+  }
+
   RequestContextLogger(@NotNull RequestContext requestContext) {
     this(System.out, requestContext);
   }
@@ -0,0 +1,53 @@
+//
+// Copyright 2026 Google LLC
+//
+// Licensed to the Apache Software Foundation (ASF) under one
+// or more contributor license agreements.  See the NOTICE file
+// distributed with this work for additional information
+// regarding copyright ownership.  The ASF licenses this file
+// to you under the Apache License, Version 2.0 (the
+// "License"); you may not use this file except in compliance
+// with the License.  You may obtain a copy of the License at
+//
+//   http://www.apache.org/licenses/LICENSE-2.0
+//
+// Unless required by applicable law or agreed to in writing,
+// software distributed under the License is distributed on an
+// "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+// KIND, either express or implied.  See the License for the
+// specific language governing permissions and limitations
+// under the License.
+//
+
+package com.google.solutions.jitaccess.web;
+
+import com.google.solutions.jitaccess.common.Deadline;
+import jakarta.annotation.Priority;
+import jakarta.inject.Inject;
+import jakarta.interceptor.AroundInvoke;
+import jakarta.interceptor.Interceptor;
+import jakarta.interceptor.InvocationContext;
+
+/**
+ * Binds the request's deadline to the current thread while a
+ * resource method runs, so that backend calls (and fan-outs) made
+ * while handling the request stop once the client has given up.
+ * <p>
+ * The deadline is unbound when the method returns or throws,
+ * so that it never leaks into unrelated work that later runs
+ * on the same thread.
+ */
+@RequestDeadline
+@Interceptor
+@Priority(Interceptor.Priority.APPLICATION)
+public class RequestDeadlineInterceptor {
+  @Inject
+  RequestContext requestContext;
+
+  @AroundInvoke
+  Object bindDeadline(InvocationContext invocationContext) throws Exception {
+    try (var ignored = Deadline.bind(this.requestContext.requestDeadline())) {
+      return invocationContext.proceed();
+    }
+  }
+}
@@ -0,0 +1,202 @@
+//
+// Copyright 2026 Google LLC
+//
+// Licensed to the Apache Software Foundation (ASF) under one
+// or more contributor license agreements.  See the NOTICE file
+// distributed with this work for additional information
+// regarding copyright ownership.  The ASF licenses this file
+// to you under the Apache License, Version 2.0 (the
+// "License"); you may not use this file except in compliance
+// with the License.  You may obtain a copy of the License at
+//
+//   http://www.apache.org/licenses/LICENSE-2.0
+//
+// Unless required by applicable law or agreed to in writing,
+// software distributed under the License is distributed on an
+// "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+// KIND, either express or implied.  See the License for the
+// specific language governing permissions and limitations
+// under the License.
+//
+
+package com.google.solutions.jitaccess.web;
+
+import com.google.common.base.Preconditions;
+import com.google.solutions.jitaccess.apis.Logger;
+import com.google.solutions.jitaccess.apis.clients.Diagnosable;
+import com.google.solutions.jitaccess.apis.clients.DiagnosticsResult;
+import org.jetbrains.annotations.NotNull;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Collection;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Warms up caches after startup so that the first requests
+ * don't have to pay for populating them.
+ * <p>
+ * Tasks run in parallel, and the warm-up reports the application
+ * as not ready until all tasks have completed or timed out. The
+ * timeout only affects readiness: tasks that time out continue
+ * to run in the background, so that the caches they populate
+ * aren't left incomplete.
+ * <p>
+ * Failing tasks are logged, but don't affect readiness: all
+ * caches are also populated on first access, so a failed
+ * task only means that the first request is slower.
+ */
+public class StartupWarmup implements Diagnosable {
+  static final @NotNull String NAME = "StartupWarmup";
+
+  private final @NotNull List<Task> tasks;
+  private final @NotNull Executor executor;
+  private final @NotNull Options options;
+  private final @NotNull Logger logger;
+  private final @NotNull AtomicBoolean started = new AtomicBoolean(false);
+  private final @NotNull CompletableFuture<Void> completion = new CompletableFuture<>();
+
+  public StartupWarmup(
+    @NotNull List<Task> tasks,
+    @NotNull Executor executor,
+    @NotNull Options options,
+    @NotNull Logger logger
+  ) {
+    Preconditions.checkNotNull(tasks, "tasks");
+    Preconditions.checkNotNull(executor, "executor");
+    Preconditions.checkNotNull(options, "options");
+    Preconditions.checkNotNull(logger, "logger");
+
+    this.tasks = tasks;
+    this.executor = executor;
+    this.options = options;
+    this.logger = logger;
+  }
+
+  /**
+   * Start running all tasks in the background.
+   */
+  public void start() {
+    Preconditions.checkState(this.started.compareAndSet(false, true), "Already started");
+
+    var startTime = Instant.now();
+
+    var futures = this.tasks
+      .stream()
+      .map(task -> CompletableFuture
+        .runAsync(() -> run(task), this.executor)
+        .orTimeout(this.options.timeout.toMillis(), TimeUnit.MILLISECONDS)
+        .exceptionally(e -> {
+          //
+          // The task timed out, but might still complete
+          // in the background.
+          //
+          this.logger.warn(
+            EventIds.STARTUP,
+            "Warming up %s did not complete within %d seconds",
+            task.name(),
+            this.options.timeout.toSeconds());
+          return null;
+        }))
+      .toArray(CompletableFuture[]::new);
+
+    CompletableFuture
+      .allOf(futures)
+      .whenComplete((result, e) -> {
+        this.logger.info(
+          EventIds.STARTUP,
+          "Warm-up completed after %d ms",
+          Duration.between(startTime, Instant.now()).toMillis());
+        this.completion.complete(null);
+      });
+  }
+
+  private void run(@NotNull Task task) {
+    //
+    // Don't bind a deadline: tasks might use their own timeouts
+    // that exceed the warm-up timeout, and cutting them short
+    // would only leave the caches incomplete.
+    //
+    try {
+      task.action().run();
+    }
+    catch (Exception e) {
+      this.logger.warn(
+        EventIds.STARTUP,
+        String.format("Warming up %s failed", task.name()),
+        e);
+    }
+  }
+
+  /**
+   * Check if all tasks have completed or timed out.
+   */
+  public boolean isComplete() {
+    return this.completion.isDone();
+  }
+
+  /**
+   * Future that completes once all tasks have completed or timed out.
+   */
+  @NotNull CompletableFuture<Void> completion() {
+    return this.completion;
+  }
+
+  @Override
+  public Collection<DiagnosticsResult> diagnose() {
+    if (isComplete()) {
+      return List.of(new DiagnosticsResult(NAME));
+    }
+    else {
+      return List.of(new DiagnosticsResult(
+        NAME,
+        false,
+        "Warm-up is still in progress"));
+    }
+  }
+
+  //---------------------------------------------------------------------------
+  // Inner classes.
+  //---------------------------------------------------------------------------
+
+  /**
+   * Action that populates a cache.
+   */
+  @FunctionalInterface
+  public interface Action {
+    void run() throws Exception;
+  }
+
+  /**
+   * @param name name of the task, used for logging
+   * @param action action to perform
+   */
+  public record Task(
+    @NotNull String name,
+    @NotNull Action action
+  ) {
+    public Task {
+      Preconditions.checkNotNull(name, "name");
+      Preconditions.checkNotNull(action, "action");
+    }
+  }
+
+  /**
+   * @param timeout maximum time to wait for tasks to complete
+   *                before reporting the application as ready
+   */
+  public record Options(
+    @NotNull Duration timeout
+  ) {
+    public static final @NotNull Options DEFAULT = new Options(Duration.ofMinutes(1));
+
+    public Options {
+      Preconditions.checkNotNull(timeout, "timeout");
+      Preconditions.checkArgument(!timeout.isNegative() && !timeout.isZero(), "timeout");
+    }
+  }
+}
@@ -54,7 +54,7 @@ import java.util.stream.Collectors;
 /**
  * Implements proposals by sending emails.
  */
-public class MailProposalHandler extends AbstractProposalHandler {
+public class MailProposalHandler extends AbstractProposalHandler implements AutoCloseable {
   private static final @NotNull SecureRandom RANDOM = new SecureRandom();
 
   /**
@@ -64,12 +64,12 @@ public class MailProposalHandler extends AbstractProposalHandler {
   static final String PROPOSAL_APPROVED_TEMPLATE = "mail-templates/proposal-approved.html";
   private final @NotNull Options options;
   private final @NotNull EmailMapping emailMapping;
-  private final @NotNull SmtpClient smtpClient;
+  private final @NotNull MailQueue mailQueue;
 
   public MailProposalHandler(
     @NotNull TokenSigner tokenSigner,
     @NotNull EmailMapping emailMapping,
-    @NotNull SmtpClient smtpClient,
+    @NotNull MailQueue mailQueue,
     @NotNull Options options
   ) {
     super(
@@ -77,10 +77,22 @@ public class MailProposalHandler extends AbstractProposalHandler {
       RANDOM,
       new AbstractProposalHandler.Options(options.tokenExpiry));
     this.emailMapping = emailMapping;
-    this.smtpClient = smtpClient;
+    this.mailQueue = mailQueue;
     this.options = options;
   }
 
+  /**
+   * Deliver pending mail and close the queue.
+   */
+  @Override
+  public void close() {
+    this.mailQueue.close();
+  }
+
+  /**
+   * Queue mail for delivery. Delivery happens in the background,
+   * so this method doesn't wait for the SMTP server.
+   */
   void sendMail(
     @NotNull Collection<EmailAddress> to,
     @NotNull Collection<EmailAddress> cc,
@@ -89,7 +101,7 @@ public class MailProposalHandler extends AbstractProposalHandler {
     boolean isReply
   ) throws IOException {
     try {
-      this.smtpClient.sendMail(
+      this.mailQueue.enqueue(
         to,
         cc,
         subject,
@@ -99,7 +111,7 @@ public class MailProposalHandler extends AbstractProposalHandler {
           : EnumSet.of(SmtpClient.Flags.NONE));
     }
     catch (SmtpClient.MailException e) {
-      throw new IOException("Sending email failed", e);
+      throw new IOException("Queueing email failed", e);
     }
   }
 
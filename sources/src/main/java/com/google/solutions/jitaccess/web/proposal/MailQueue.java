@@ -0,0 +1,492 @@
+//
+// Copyright 2026 Google LLC
+//
+// Licensed to the Apache Software Foundation (ASF) under one
+// or more contributor license agreements.  See the NOTICE file
+// distributed with this work for additional information
+// regarding copyright ownership.  The ASF licenses this file
+// to you under the Apache License, Version 2.0 (the
+// "License"); you may not use this file except in compliance
+// with the License.  You may obtain a copy of the License at
+//
+//   http://www.apache.org/licenses/LICENSE-2.0
+//
+// Unless required by applicable law or agreed to in writing,
+// software distributed under the License is distributed on an
+// "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+// KIND, either express or implied.  See the License for the
+// specific language governing permissions and limitations
+// under the License.
+//
+
+package com.google.solutions.jitaccess.web.proposal;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.google.common.base.Preconditions;
+import com.google.common.util.concurrent.ThreadFactoryBuilder;
+import com.google.solutions.jitaccess.apis.Logger;
+import com.google.solutions.jitaccess.apis.clients.SmtpClient;
+import com.google.solutions.jitaccess.auth.EmailAddress;
+import com.google.solutions.jitaccess.web.EventIds;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.time.Duration;
+import java.util.Collection;
+import java.util.EnumSet;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Queue for delivering mail in the background.
+ * <p>
+ * Mail is delivered by a pool of worker threads so that callers don't
+ * have to wait for the SMTP server. Failed deliveries are retried with
+ * exponential backoff.
+ * <p>
+ * If a spool directory is configured, queued mail is also written to
+ * disk, and any mail that is still in the spool directory on startup
+ * is delivered again.
+ * <p>
+ * The queue periodically logs delivery metrics. On close, the queue
+ * waits for pending deliveries to complete before it stops.
+ */
+public class MailQueue implements AutoCloseable {
+  private static final @NotNull ObjectMapper JSON_MAPPER = new ObjectMapper();
+  private static final @NotNull String SPOOL_FILE_EXTENSION = ".json";
+
+  private final @NotNull SmtpClient smtpClient;
+  private final @NotNull Options options;
+  private final @NotNull Logger logger;
+  private final @NotNull ScheduledExecutorService executor;
+
+  private final @NotNull AtomicInteger pending = new AtomicInteger();
+  private final @NotNull AtomicLong delivered = new AtomicLong();
+  private final @NotNull AtomicLong retried = new AtomicLong();
+  private final @NotNull AtomicLong failed = new AtomicLong();
+  private final @NotNull AtomicLong rejected = new AtomicLong();
+
+  /**
+   * Metrics that have been logged last, only accessed by the
+   * metrics task.
+   */
+  private @Nullable Metrics loggedMetrics;
+
+  public MailQueue(
+    @NotNull SmtpClient smtpClient,
+    @NotNull Options options,
+    @NotNull Logger logger
+  ) {
+    Preconditions.checkNotNull(smtpClient, "smtpClient");
+    Preconditions.checkNotNull(options, "options");
+    Preconditions.checkNotNull(logger, "logger");
+
+    this.smtpClient = smtpClient;
+    this.options = options;
+    this.logger = logger;
+    this.executor = new ScheduledThreadPoolExecutor(
+      options.workerThreads,
+      new ThreadFactoryBuilder()
+        .setNameFormat("mail-queue-%d")
+        .setDaemon(true)
+        .build());
+
+    if (options.spoolDirectory != null) {
+      recoverSpool(options.spoolDirectory);
+    }
+
+    this.executor.scheduleWithFixedDelay(
+      this::logMetrics,
+      options.metricsInterval.toMillis(),
+      options.metricsInterval.toMillis(),
+      TimeUnit.MILLISECONDS);
+  }
+
+  /**
+   * Queue mail for delivery.
+   *
+   * @throws SmtpClient.MailException if the queue is full.
+   */
+  public void enqueue(
+    @NotNull Collection<EmailAddress> toRecipients,
+    @NotNull Collection<EmailAddress> ccRecipients,
+    @NotNull String subject,
+    @NotNull String htmlContent,
+    @NotNull EnumSet<SmtpClient.Flags> flags
+  ) throws SmtpClient.MailException {
+    Preconditions.checkNotNull(toRecipients, "toRecipients");
+    Preconditions.checkNotNull(ccRecipients, "ccRecipients");
+    Preconditions.checkNotNull(subject, "subject");
+    Preconditions.checkNotNull(htmlContent, "htmlContent");
+
+    if (this.pending.incrementAndGet() > this.options.capacity) {
+      this.pending.decrementAndGet();
+      this.rejected.incrementAndGet();
+      throw new SmtpClient.MailException(
+        "The mail queue is full",
+        new RejectedExecutionException());
+    }
+
+    var mail = new QueuedMail(
+      toRecipients,
+      ccRecipients,
+      subject,
+      htmlContent,
+      flags.contains(SmtpClient.Flags.REPLY));
+
+    Path spoolFile = null;
+    if (this.options.spoolDirectory != null) {
+      try {
+        spoolFile = spool(this.options.spoolDirectory, mail);
+      }
+      catch (IOException e) {
+        //
+        // Deliver anyway, but the mail won't survive a restart.
+        //
+        this.logger.warn(EventIds.DELIVER_MAIL, "Spooling mail failed", e);
+      }
+    }
+
+    schedule(new Delivery(mail, spoolFile), Duration.ZERO);
+  }
+
+  /**
+   * Get delivery metrics.
+   */
+  public @NotNull Metrics metrics() {
+    return new Metrics(
+      this.pending.get(),
+      this.delivered.get(),
+      this.retried.get(),
+      this.failed.get(),
+      this.rejected.get());
+  }
+
+  /**
+   * Stop accepting mail, and wait for pending deliveries to complete.
+   * Mail that hasn't been delivered when the drain timeout elapses
+   * remains in the spool directory, if any.
+   */
+  @Override
+  public void close() {
+    this.executor.shutdown();
+
+    try {
+      if (!this.executor.awaitTermination(
+        this.options.drainTimeout.toMillis(),
+        TimeUnit.MILLISECONDS)) {
+        this.logger.warn(
+          EventIds.DELIVER_MAIL,
+          "Stopping mail delivery with %d mails pending",
+          this.pending.get());
+      }
+    }
+    catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+    }
+    finally {
+      this.executor.shutdownNow();
+      this.smtpClient.close();
+    }
+  }
+
+  private void logMetrics() {
+    var metrics = metrics();
+    if (!metrics.equals(this.loggedMetrics)) {
+      //
+      // Only log if something changed to avoid flooding the log
+      // when the queue is idle.
+      //
+      this.logger.info(
+        EventIds.DELIVER_MAIL,
+        "Mail queue: %d pending, %d delivered, %d retried, %d failed, %d rejected",
+        metrics.pending(),
+        metrics.delivered(),
+        metrics.retried(),
+        metrics.failed(),
+        metrics.rejected());
+      this.loggedMetrics = metrics;
+    }
+  }
+
+  //---------------------------------------------------------------------------
+  // Delivery.
+  //---------------------------------------------------------------------------
+
+  private void schedule(@NotNull Delivery delivery, @NotNull Duration delay) {
+    try {
+      this.executor.schedule(
+        () -> deliver(delivery),
+        delay.toMillis(),
+        TimeUnit.MILLISECONDS);
+    }
+    catch (RejectedExecutionException e) {
+      //
+      // Queue has been closed.
+      //
+      this.pending.decrementAndGet();
+
+      var spoolFile = delivery.spoolFile;
+      if (spoolFile == null && this.options.spoolDirectory != null) {
+        try {
+          spoolFile = spool(this.options.spoolDirectory, delivery.mail);
+        }
+        catch (IOException spoolException) {
+          this.logger.warn(EventIds.DELIVER_MAIL, "Spooling mail failed", spoolException);
+        }
+      }
+
+      if (spoolFile != null) {
+        //
+        // The mail remains in the spool and is delivered
+        // after a restart.
+        //
+        this.logger.warn(
+          EventIds.DELIVER_MAIL,
+          "The mail queue has been closed, mail '%s' remains spooled",
+          delivery.mail.subject);
+      }
+      else {
+        this.logger.error(
+          EventIds.DELIVER_MAIL,
+          String.format(
+            "The mail queue has been closed, dropping mail '%s'",
+            delivery.mail.subject),
+          e);
+        this.failed.incrementAndGet();
+      }
+    }
+  }
+
+  private void deliver(@NotNull Delivery delivery) {
+    var mail = delivery.mail;
+
+    try {
+      this.smtpClient.sendMail(
+        mail.to,
+        mail.cc,
+        mail.subject,
+        mail.htmlContent,
+        mail.reply
+          ? EnumSet.of(SmtpClient.Flags.REPLY)
+          : EnumSet.of(SmtpClient.Flags.NONE));
+
+      this.delivered.incrementAndGet();
+      completed(delivery);
+    }
+    catch (Exception e) {
+      var attempt = delivery.attempt + 1;
+      if (attempt < this.options.maxAttempts) {
+        //
+        // Retry with exponential backoff.
+        //
+        var backoff = this.options.initialBackoff.multipliedBy(1L << Math.min(attempt - 1, 16));
+        if (backoff.compareTo(this.options.maxBackoff) > 0) {
+          backoff = this.options.maxBackoff;
+        }
+
+        this.logger.warn(
+          EventIds.DELIVER_MAIL,
+          String.format(
+            "Delivering mail '%s' failed (attempt %d of %d), retrying in %d seconds",
+            mail.subject,
+            attempt,
+            this.options.maxAttempts,
+            backoff.toSeconds()),
+          e);
+
+        this.retried.incrementAndGet();
+        schedule(new Delivery(mail, delivery.spoolFile, attempt), backoff);
+      }
+      else {
+        this.logger.error(
+          EventIds.DELIVER_MAIL,
+          String.format(
+            "Delivering mail '%s' failed after %d attempts, giving up",
+            mail.subject,
+            attempt),
+          e);
+
+        this.failed.incrementAndGet();
+        completed(delivery);
+      }
+    }
+  }
+
+  private void completed(@NotNull Delivery delivery) {
+    this.pending.decrementAndGet();
+
+    if (delivery.spoolFile != null) {
+      try {
+        Files.deleteIfExists(delivery.spoolFile);
+      }
+      catch (IOException e) {
+        this.logger.warn(EventIds.DELIVER_MAIL, "Removing spooled mail failed", e);
+      }
+    }
+  }
+
+  //---------------------------------------------------------------------------
+  // Spooling.
+  //---------------------------------------------------------------------------
+
+  private static @NotNull Path spool(
+    @NotNull Path directory,
+    @NotNull QueuedMail mail
+  ) throws IOException {
+    Files.createDirectories(directory);
+
+    //
+    // Write to a temporary file first so that a crash doesn't
+    // leave a partial file behind.
+    //
+    var name = UUID.randomUUID().toString();
+    var tempFile = directory.resolve(name + ".tmp");
+    var spoolFile = directory.resolve(name + SPOOL_FILE_EXTENSION);
+
+    Files.write(tempFile, JSON_MAPPER.writeValueAsBytes(mail));
+    Files.move(tempFile, spoolFile, StandardCopyOption.ATOMIC_MOVE);
+
+    return spoolFile;
+  }
+
+  private void recoverSpool(@NotNull Path directory) {
+    if (!Files.isDirectory(directory)) {
+      return;
+    }
+
+    List<Path> files;
+    try (var stream = Files.list(directory)) {
+      files = stream
+        .filter(f -> f.getFileName().toString().endsWith(SPOOL_FILE_EXTENSION))
+        .toList();
+    }
+    catch (IOException e) {
+      this.logger.warn(EventIds.DELIVER_MAIL, "Reading the mail spool failed", e);
+      return;
+    }
+
+    for (var file : files) {
+      try {
+        var mail = JSON_MAPPER.readValue(file.toFile(), QueuedMail.class);
+
+        //
+        // Don't enforce the capacity limit here, spooled mail
+        // has been accepted before.
+        //
+        this.pending.incrementAndGet();
+        schedule(new Delivery(mail, file), Duration.ZERO);
+      }
+      catch (IOException e) {
+        this.logger.warn(
+          EventIds.DELIVER_MAIL,
+          String.format("The spooled mail %s is corrupt, discarding", file.getFileName()),
+          e);
+
+        try {
+          Files.deleteIfExists(file);
+        }
+        catch (IOException ignored) {
+        }
+      }
+    }
+
+    if (!files.isEmpty()) {
+      this.logger.info(
+        EventIds.DELIVER_MAIL,
+        "Recovered %d mails from spool",
+        files.size());
+    }
+  }
+
+  //---------------------------------------------------------------------------
+  // Inner classes.
+  //---------------------------------------------------------------------------
+
+  /**
+   * Mail, in a form that can be serialized to the spool.
+   */
+  record QueuedMail(
+    @NotNull Collection<EmailAddress> to,
+    @NotNull Collection<EmailAddress> cc,
+    @NotNull String subject,
+    @NotNull String htmlContent,
+    boolean reply
+  ) {}
+
+  private record Delivery(
+    @NotNull QueuedMail mail,
+    @Nullable Path spoolFile,
+    int attempt
+  ) {
+    Delivery(@NotNull QueuedMail mail, @Nullable Path spoolFile) {
+      this(mail, spoolFile, 0);
+    }
+  }
+
+  /**
+   * @param pending number of mails waiting for delivery
+   * @param delivered number of mails delivered successfully
+   * @param retried number of failed delivery attempts that were retried
+   * @param failed number of mails that couldn't be delivered
+   * @param rejected number of mails rejected because the queue was full
+   */
+  public record Metrics(
+    int pending,
+    long delivered,
+    long retried,
+    long failed,
+    long rejected
+  ) {}
+
+  /**
+   * @param capacity maximum number of mails waiting for delivery
+   * @param workerThreads number of threads delivering mail
+   * @param maxAttempts maximum number of delivery attempts per mail
+   * @param initialBackoff time to wait before the first retry
+   * @param maxBackoff maximum time to wait between retries
+   * @param metricsInterval interval for logging delivery metrics
+   * @param drainTimeout maximum time to wait for pending deliveries on close
+   * @param spoolDirectory directory to persist queued mail in, optional
+   */
+  public record Options(
+    int capacity,
+    int workerThreads,
+    int maxAttempts,
+    @NotNull Duration initialBackoff,
+    @NotNull Duration maxBackoff,
+    @NotNull Duration metricsInterval,
+    @NotNull Duration drainTimeout,
+    @Nullable Path spoolDirectory
+  ) {
+    public static final @NotNull Options DEFAULT = new Options(
+      500,
+      2,
+      6,
+      Duration.ofSeconds(5),
+      Duration.ofMinutes(5),
+      Duration.ofMinutes(5),
+      Duration.ofSeconds(10),
+      null);
+
+    public Options {
+      Preconditions.checkArgument(capacity > 0, "capacity");
+      Preconditions.checkArgument(workerThreads > 0, "workerThreads");
+      Preconditions.checkArgument(maxAttempts > 0, "maxAttempts");
+      Preconditions.checkNotNull(initialBackoff, "initialBackoff");
+      Preconditions.checkNotNull(maxBackoff, "maxBackoff");
+      Preconditions.checkArgument(metricsInterval.isPositive(), "metricsInterval");
+      Preconditions.checkNotNull(drainTimeout, "drainTimeout");
+    }
+  }
+}
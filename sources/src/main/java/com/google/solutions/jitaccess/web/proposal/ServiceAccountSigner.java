@@ -25,39 +25,61 @@ import com.google.api.client.json.webtoken.JsonWebToken;
 import com.google.auth.oauth2.TokenVerifier;
 import com.google.common.base.Preconditions;
 import com.google.solutions.jitaccess.apis.clients.AccessException;
+import com.google.solutions.jitaccess.apis.clients.HttpTransport;
 import com.google.solutions.jitaccess.apis.clients.IamCredentialsClient;
+import com.google.solutions.jitaccess.apis.clients.JsonWebKeySetCache;
 import com.google.solutions.jitaccess.auth.ServiceAccountId;
-import jakarta.inject.Singleton;
+import com.google.solutions.jitaccess.web.CachingTokenVerifier;
 import org.jetbrains.annotations.NotNull;
 
 import java.io.IOException;
 import java.time.Instant;
+import java.util.concurrent.Executor;
 
 /**
  * Signs JWTs using a service account's Google-managed service account key.
  */
-@Singleton
 public class ServiceAccountSigner implements TokenSigner {
   private final IamCredentialsClient iamCredentialsClient;
   private final Options options;
-  private final TokenVerifier tokenVerifier;
+  private final CachingTokenVerifier tokenVerifier;
 
   public ServiceAccountSigner(
     @NotNull IamCredentialsClient iamCredentialsClient,
+    @NotNull HttpTransport.Options httpOptions,
+    @NotNull Executor executor,
     @NotNull Options options
   ) {
     this.options = options;
     this.iamCredentialsClient = iamCredentialsClient;
 
+    var keySet = new JsonWebKeySetCache(
+      IamCredentialsClient.getJwksUrl(options.serviceAccount),
+      executor,
+      httpOptions,
+      JsonWebKeySetCache.Options.DEFAULT);
+
+    //
+    // Load the keys in the background so that the first request
+    // doesn't have to wait for them. If that fails, we'll try
+    // again on first use.
+    //
+    executor.execute(() -> {
+      try {
+        keySet.refresh();
+      }
+      catch (IOException ignored) {
+      }
+    });
+
     //
     // Create verifier to check signature and obligatory claims.
     //
-    this.tokenVerifier = TokenVerifier
-      .newBuilder()
-      .setCertificatesLocation(IamCredentialsClient.getJwksUrl(options.serviceAccount))
-      .setIssuer(options.serviceAccount.value())
-      .setAudience(options.serviceAccount.value())
-      .build();
+    this.tokenVerifier = new CachingTokenVerifier(
+      keySet,
+      options.serviceAccount.value(),
+      options.serviceAccount.value(),
+      CachingTokenVerifier.Options.DEFAULT);
   }
 
   @Override
@@ -96,6 +118,9 @@ public class ServiceAccountSigner implements TokenSigner {
     // Verify the token against the service account's JWKs. If that succeeds, we know
     // that the token has been issued by us.
     //
+    // Verified tokens are cached until they expire, so repeated requests
+    // for the same proposal are cheap.
+    //
     var decodedToken = this.tokenVerifier.verify(token);
     if (!decodedToken.getHeader().getAlgorithm().equals("RS256")) {
       //
@@ -31,6 +31,7 @@ import com.google.solutions.jitaccess.catalog.policy.PolicyHeader;
 import com.google.solutions.jitaccess.common.Exceptions;
 import com.google.solutions.jitaccess.web.EventIds;
 import com.google.solutions.jitaccess.web.LogRequest;
+import com.google.solutions.jitaccess.web.RequestDeadline;
 import com.google.solutions.jitaccess.web.RequireIapPrincipal;
 import jakarta.enterprise.context.Dependent;
 import jakarta.inject.Inject;
@@ -48,6 +49,7 @@ import java.util.stream.Collectors;
 @Path("/api")
 @RequireIapPrincipal
 @LogRequest
+@RequestDeadline
 public class EnvironmentsResource {
   private static final AccessDeniedException NOT_FOUND = new AccessDeniedException(
     "The environment does not exist or access is denied");
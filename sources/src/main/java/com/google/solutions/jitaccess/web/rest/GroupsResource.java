@@ -54,6 +54,7 @@ import java.util.Optional;
 @Path("/api")
 @RequireIapPrincipal
 @LogRequest
+@RequestDeadline
 public class GroupsResource {
   private static final AccessDeniedException NOT_FOUND = new AccessDeniedException(
     "The group does not exist or access is denied");
@@ -24,6 +24,7 @@ package com.google.solutions.jitaccess.web.rest;
 import com.google.solutions.jitaccess.apis.Logger;
 import com.google.solutions.jitaccess.apis.clients.Diagnosable;
 import com.google.solutions.jitaccess.common.CompletableFutures;
+import com.google.solutions.jitaccess.common.FanOutExecutor;
 import com.google.solutions.jitaccess.web.EventIds;
 import jakarta.enterprise.context.Dependent;
 import jakarta.enterprise.inject.Instance;
@@ -48,6 +49,7 @@ import java.util.stream.Collectors;
 @Path("/health")
 public class HealthResource {
   @Inject
+  @FanOutExecutor
   Executor executor;
 
   @Inject
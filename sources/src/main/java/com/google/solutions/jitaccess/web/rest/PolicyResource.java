@@ -27,6 +27,7 @@ import com.google.solutions.jitaccess.catalog.policy.*;
 import com.google.solutions.jitaccess.common.Cast;
 import com.google.solutions.jitaccess.common.MoreStrings;
 import com.google.solutions.jitaccess.web.LogRequest;
+import com.google.solutions.jitaccess.web.RequestDeadline;
 import com.google.solutions.jitaccess.web.RequireIapPrincipal;
 import jakarta.enterprise.context.Dependent;
 import jakarta.inject.Inject;
@@ -44,6 +45,7 @@ import java.util.stream.Stream;
 @Path("/api")
 @RequireIapPrincipal
 @LogRequest
+@RequestDeadline
 public class PolicyResource {
   @Inject
   IamRoleResolver roleResolver;
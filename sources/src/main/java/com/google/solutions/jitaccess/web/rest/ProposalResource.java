@@ -33,6 +33,7 @@ import com.google.solutions.jitaccess.catalog.policy.PolicyAnalysis;
 import com.google.solutions.jitaccess.catalog.policy.Property;
 import com.google.solutions.jitaccess.web.EventIds;
 import com.google.solutions.jitaccess.web.LogRequest;
+import com.google.solutions.jitaccess.web.RequestDeadline;
 import com.google.solutions.jitaccess.web.OperationAuditTrail;
 import com.google.solutions.jitaccess.web.RequireIapPrincipal;
 import com.google.solutions.jitaccess.web.proposal.ProposalHandler;
@@ -52,6 +53,7 @@ import java.util.List;
 @Path("/api")
 @RequireIapPrincipal
 @LogRequest
+@RequestDeadline
 public class ProposalResource {
   private static final AccessDeniedException NOT_FOUND = new AccessDeniedException(
     "The group does not exist or access is denied");
@@ -28,6 +28,7 @@ import com.google.solutions.jitaccess.catalog.SystemContext;
 import com.google.solutions.jitaccess.catalog.policy.SystemPolicy;
 import com.google.solutions.jitaccess.web.EventIds;
 import com.google.solutions.jitaccess.web.LogRequest;
+import com.google.solutions.jitaccess.web.RequestDeadline;
 import com.google.solutions.jitaccess.web.RequireIapPrincipal;
 import jakarta.enterprise.context.Dependent;
 import jakarta.inject.Inject;
@@ -46,6 +47,7 @@ import java.util.List;
 @Path("/api")
 @RequireIapPrincipal
 @LogRequest
+@RequestDeadline
 public class SystemsResource {
   private static final AccessDeniedException NOT_FOUND = new AccessDeniedException(
     "The system does not exist or access is denied");
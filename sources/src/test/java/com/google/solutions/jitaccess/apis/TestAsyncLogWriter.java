@@ -0,0 +1,169 @@
+//
+// Copyright 2026 Google LLC
+//
+// Licensed to the Apache Software Foundation (ASF) under one
+// or more contributor license agreements.  See the NOTICE file
+// distributed with this work for additional information
+// regarding copyright ownership.  The ASF licenses this file
+// to you under the Apache License, Version 2.0 (the
+// "License"); you may not use this file except in compliance
+// with the License.  You may obtain a copy of the License at
+//
+//   http://www.apache.org/licenses/LICENSE-2.0
+//
+// Unless required by applicable law or agreed to in writing,
+// software distributed under the License is distributed on an
+// "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+// KIND, either express or implied.  See the License for the
+// specific language governing permissions and limitations
+// under the License.
+//
+
+package com.google.solutions.jitaccess.apis;
+
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.concurrent.CountDownLatch;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class TestAsyncLogWriter {
+  private static final AsyncLogWriter.Options SMALL_QUEUE = new AsyncLogWriter.Options(
+    1,
+    10,
+    AsyncLogWriter.OverflowPolicy.DROP,
+    Duration.ofSeconds(5));
+
+  /**
+   * Output that blocks until released.
+   */
+  private static class BlockingOutput implements Appendable {
+    private final StringBuffer buffer = new StringBuffer();
+    private final CountDownLatch released = new CountDownLatch(1);
+    private final CountDownLatch entered = new CountDownLatch(1);
+
+    @Override
+    public Appendable append(CharSequence csq) {
+      this.entered.countDown();
+      try {
+        this.released.await();
+      }
+      catch (InterruptedException e) {
+        throw new RuntimeException(e);
+      }
+
+      this.buffer.append(csq);
+      return this;
+    }
+
+    @Override
+    public Appendable append(CharSequence csq, int start, int end) {
+      return append(csq.subSequence(start, end));
+    }
+
+    @Override
+    public Appendable append(char c) {
+      return append(String.valueOf(c));
+    }
+  }
+
+  //---------------------------------------------------------------------------
+  // append.
+  //---------------------------------------------------------------------------
+
+  @Test
+  public void append() {
+    var output = new StringBuffer();
+    var writer = new AsyncLogWriter(output, AsyncLogWriter.Options.DEFAULT);
+
+    writer.append("line-1\n");
+    writer.append("line-2\n");
+    writer.flush();
+
+    assertEquals("line-1\nline-2\n", output.toString());
+    writer.close();
+  }
+
+  @Test
+  public void append_whenQueueFullAndPolicyIsDrop() throws Exception {
+    var output = new BlockingOutput();
+    var writer = new AsyncLogWriter(output, SMALL_QUEUE);
+
+    //
+    // Let the writer thread pick up a line and get stuck.
+    //
+    assertTrue(writer.append("line-1\n", AsyncLogWriter.OverflowPolicy.BLOCK));
+    output.entered.await();
+
+    assertTrue(writer.append("line-2\n", AsyncLogWriter.OverflowPolicy.DROP));
+    assertFalse(writer.append("line-3\n", AsyncLogWriter.OverflowPolicy.DROP));
+    assertEquals(1, writer.droppedCount());
+
+    output.released.countDown();
+    writer.close();
+
+    assertTrue(output.buffer.toString().startsWith("line-1\nline-2\n"));
+    assertTrue(output.buffer.toString().contains("Dropped 1 log entries"));
+    assertTrue(output.buffer.toString().contains("\"severity\":\"WARN\""));
+    assertTrue(output.buffer.toString().contains("\"event/id\":\"" + EventIds.DROP_LOG_ENTRIES + "\""));
+    assertFalse(output.buffer.toString().contains("line-3"));
+  }
+
+  //---------------------------------------------------------------------------
+  // close.
+  //---------------------------------------------------------------------------
+
+  @Test
+  public void close_writesQueuedLines() {
+    var output = new StringBuffer();
+    var writer = new AsyncLogWriter(output, AsyncLogWriter.Options.DEFAULT);
+
+    for (int i = 0; i < 1000; i++) {
+      writer.append("line\n");
+    }
+
+    writer.close();
+
+    assertEquals(1000, output.toString().split("\n").length);
+  }
+
+  @Test
+  public void close_whenClosed_thenWritesSynchronously() {
+    var output = new StringBuffer();
+    var writer = new AsyncLogWriter(output, AsyncLogWriter.Options.DEFAULT);
+    writer.close();
+
+    writer.append("line\n");
+
+    assertEquals("line\n", output.toString());
+  }
+
+  //---------------------------------------------------------------------------
+  // StructuredLogger.
+  //---------------------------------------------------------------------------
+
+  @Test
+  public void structuredLogger_whenQueueFull_thenWarningsAreNotDropped() throws Exception {
+    var output = new BlockingOutput();
+    var writer = new AsyncLogWriter(output, SMALL_QUEUE);
+    var logger = new StructuredLogger(writer);
+
+    writer.append("line-1\n");
+    output.entered.await();
+
+    logger.info("event-1", "info-1");
+    logger.info("event-1", "info-2");
+
+    var warning = new Thread(() -> logger.warn("event-1", "warning-1"));
+    warning.start();
+
+    output.released.countDown();
+    warning.join();
+    writer.close();
+
+    assertTrue(output.buffer.toString().contains("info-1"));
+    assertFalse(output.buffer.toString().contains("info-2"));
+    assertTrue(output.buffer.toString().contains("warning-1"));
+  }
+}
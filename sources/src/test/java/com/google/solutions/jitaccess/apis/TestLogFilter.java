@@ -0,0 +1,100 @@
+//
+// Copyright 2026 Google LLC
+//
+// Licensed to the Apache Software Foundation (ASF) under one
+// or more contributor license agreements.  See the NOTICE file
+// distributed with this work for additional information
+// regarding copyright ownership.  The ASF licenses this file
+// to you under the Apache License, Version 2.0 (the
+// "License"); you may not use this file except in compliance
+// with the License.  You may obtain a copy of the License at
+//
+//   http://www.apache.org/licenses/LICENSE-2.0
+//
+// Unless required by applicable law or agreed to in writing,
+// software distributed under the License is distributed on an
+// "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+// KIND, either express or implied.  See the License for the
+// specific language governing permissions and limitations
+// under the License.
+//
+
+package com.google.solutions.jitaccess.apis;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class TestLogFilter {
+  //---------------------------------------------------------------------------
+  // parse.
+  //---------------------------------------------------------------------------
+
+  @Test
+  public void parse_whenEmpty() {
+    var filter = LogFilter.parse("");
+
+    assertTrue(filter.isLoggable("INFO", "event-1"));
+    assertTrue(filter.isLoggable("WARN", "event-1"));
+    assertTrue(filter.isLoggable("ERROR", "event-1"));
+  }
+
+  @Test
+  public void parse_whenRuleMalformed() {
+    assertThrows(IllegalArgumentException.class, () -> LogFilter.parse("event-1"));
+    assertThrows(IllegalArgumentException.class, () -> LogFilter.parse("=INFO"));
+    assertThrows(IllegalArgumentException.class, () -> LogFilter.parse("event-1=VERBOSE"));
+    assertThrows(IllegalArgumentException.class, () -> LogFilter.parse("event-1=INFO:x"));
+    assertThrows(IllegalArgumentException.class, () -> LogFilter.parse("event-1=INFO:2"));
+  }
+
+  //---------------------------------------------------------------------------
+  // isLoggable.
+  //---------------------------------------------------------------------------
+
+  @Test
+  public void isLoggable_whenBelowThreshold() {
+    var filter = LogFilter.parse("event-1=WARN, event-2=ERROR");
+
+    assertFalse(filter.isLoggable("INFO", "event-1"));
+    assertTrue(filter.isLoggable("WARN", "event-1"));
+    assertTrue(filter.isLoggable("ERROR", "event-1"));
+
+    assertFalse(filter.isLoggable("INFO", "event-2"));
+    assertFalse(filter.isLoggable("WARN", "event-2"));
+    assertTrue(filter.isLoggable("ERROR", "event-2"));
+  }
+
+  @Test
+  public void isLoggable_whenNoRuleForEventId_thenUsesDefaultRule() {
+    var filter = LogFilter.parse("*=WARN,event-1=INFO");
+
+    assertTrue(filter.isLoggable("INFO", "event-1"));
+    assertFalse(filter.isLoggable("INFO", "event-2"));
+    assertTrue(filter.isLoggable("WARN", "event-2"));
+  }
+
+  @Test
+  public void isLoggable_whenSamplingRateIsZero() {
+    var filter = LogFilter.parse("event-1=INFO:0");
+
+    for (var i = 0; i < 100; i++) {
+      assertFalse(filter.isLoggable("INFO", "event-1"));
+      assertTrue(filter.isLoggable("WARN", "event-1"));
+    }
+  }
+
+  @Test
+  public void isLoggable_whenSampled() {
+    var filter = LogFilter.parse("event-1=INFO:0.5");
+
+    var logged = 0;
+    for (var i = 0; i < 10000; i++) {
+      if (filter.isLoggable("INFO", "event-1")) {
+        logged++;
+      }
+    }
+
+    assertTrue(logged > 4000 && logged < 6000);
+  }
+}
@@ -22,9 +22,13 @@
 package com.google.solutions.jitaccess.apis.clients;
 
 import com.google.solutions.jitaccess.apis.ProjectId;
+import com.google.solutions.jitaccess.common.CompletableFutures;
 import org.junit.jupiter.api.Test;
 
-import static org.junit.jupiter.api.Assertions.assertThrows;
+import java.util.List;
+import java.util.concurrent.Executors;
+
+import static org.junit.jupiter.api.Assertions.*;
 
 public class ITestAssetInventoryClient {
   private static final ProjectId SAMPLE_PROJECT = new ProjectId("project-1");
@@ -71,4 +75,20 @@ public class ITestAssetInventoryClient {
         "projects/" + ITestEnvironment.PROJECT_ID,
         "projects/0"));
   }
-}
\ No newline at end of file
+
+  @Test
+  public void getEffectiveIamPolicies_whenBatchContainsNonexistentProject() throws Exception {
+    var client = new AssetInventoryClient(
+      ITestEnvironment.APPLICATION_CREDENTIALS,
+      HttpTransport.Options.DEFAULT);
+
+    var policies = client.getEffectiveIamPolicies(
+      "projects/" + ITestEnvironment.PROJECT_ID,
+      List.of("projects/" + ITestEnvironment.PROJECT_ID, "projects/0"),
+      Executors.newFixedThreadPool(2),
+      CompletableFutures.FanOutOptions.UNBOUNDED);
+
+    assertEquals(1, policies.size());
+    assertTrue(policies.containsKey("projects/" + ITestEnvironment.PROJECT_ID));
+  }
+}
@@ -0,0 +1,90 @@
+//
+// Copyright 2026 Google LLC
+//
+// Licensed to the Apache Software Foundation (ASF) under one
+// or more contributor license agreements.  See the NOTICE file
+// distributed with this work for additional information
+// regarding copyright ownership.  The ASF licenses this file
+// to you under the Apache License, Version 2.0 (the
+// "License"); you may not use this file except in compliance
+// with the License.  You may obtain a copy of the License at
+//
+//   http://www.apache.org/licenses/LICENSE-2.0
+//
+// Unless required by applicable law or agreed to in writing,
+// software distributed under the License is distributed on an
+// "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+// KIND, either express or implied.  See the License for the
+// specific language governing permissions and limitations
+// under the License.
+//
+
+package com.google.solutions.jitaccess.apis.clients;
+
+import org.junit.jupiter.api.Test;
+
+import java.math.BigInteger;
+import java.security.KeyPairGenerator;
+import java.security.interfaces.ECPublicKey;
+import java.security.interfaces.RSAPublicKey;
+import java.security.spec.ECGenParameterSpec;
+import java.util.Arrays;
+import java.util.Base64;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class TestJsonWebKeySetCache {
+  private static String encode(BigInteger value) {
+    var bytes = value.toByteArray();
+    if (bytes.length > 1 && bytes[0] == 0) {
+      bytes = Arrays.copyOfRange(bytes, 1, bytes.length);
+    }
+
+    return Base64.getUrlEncoder().withoutPadding().encodeToString(bytes);
+  }
+
+  //---------------------------------------------------------------------------
+  // parseKey.
+  //---------------------------------------------------------------------------
+
+  @Test
+  public void parseKey_whenRsa() throws Exception {
+    var generator = KeyPairGenerator.getInstance("RSA");
+    generator.initialize(2048);
+    var publicKey = (RSAPublicKey)generator.generateKeyPair().getPublic();
+
+    var jwk = new JsonWebKeySetCache.JsonWebKey();
+    jwk.keyType = "RSA";
+    jwk.modulus = encode(publicKey.getModulus());
+    jwk.exponent = encode(publicKey.getPublicExponent());
+
+    var parsed = JsonWebKeySetCache.parseKey(jwk);
+    assertTrue(parsed.isPresent());
+    assertEquals(publicKey, parsed.get());
+  }
+
+  @Test
+  public void parseKey_whenEc() throws Exception {
+    var generator = KeyPairGenerator.getInstance("EC");
+    generator.initialize(new ECGenParameterSpec("secp256r1"));
+    var publicKey = (ECPublicKey)generator.generateKeyPair().getPublic();
+
+    var jwk = new JsonWebKeySetCache.JsonWebKey();
+    jwk.keyType = "EC";
+    jwk.curve = "P-256";
+    jwk.x = encode(publicKey.getW().getAffineX());
+    jwk.y = encode(publicKey.getW().getAffineY());
+
+    var parsed = JsonWebKeySetCache.parseKey(jwk);
+    assertTrue(parsed.isPresent());
+    assertEquals(publicKey, parsed.get());
+  }
+
+  @Test
+  public void parseKey_whenKeyTypeUnsupported() throws Exception {
+    var jwk = new JsonWebKeySetCache.JsonWebKey();
+    jwk.keyType = "oct";
+
+    assertFalse(JsonWebKeySetCache.parseKey(jwk).isPresent());
+  }
+}
@@ -0,0 +1,45 @@
+//
+// Copyright 2026 Google LLC
+//
+// Licensed to the Apache Software Foundation (ASF) under one
+// or more contributor license agreements.  See the NOTICE file
+// distributed with this work for additional information
+// regarding copyright ownership.  The ASF licenses this file
+// to you under the Apache License, Version 2.0 (the
+// "License"); you may not use this file except in compliance
+// with the License.  You may obtain a copy of the License at
+//
+//   http://www.apache.org/licenses/LICENSE-2.0
+//
+// Unless required by applicable law or agreed to in writing,
+// software distributed under the License is distributed on an
+// "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+// KIND, either express or implied.  See the License for the
+// specific language governing permissions and limitations
+// under the License.
+//
+
+package com.google.solutions.jitaccess.apis.clients;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+public class TestPartialResponse {
+  // -------------------------------------------------------------------------
+  // forPage.
+  // -------------------------------------------------------------------------
+
+  @Test
+  public void forPage_whenItemFieldsNull() {
+    assertNull(PartialResponse.forPage("groups", null));
+  }
+
+  @Test
+  public void forPage_includesPageToken() {
+    assertEquals(
+      "nextPageToken,groups(name,groupKey)",
+      PartialResponse.forPage("groups", "name,groupKey"));
+  }
+}
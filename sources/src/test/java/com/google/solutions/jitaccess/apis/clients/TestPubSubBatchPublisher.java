@@ -0,0 +1,384 @@
+//
+// Copyright 2026 Google LLC
+//
+// Licensed to the Apache Software Foundation (ASF) under one
+// or more contributor license agreements.  See the NOTICE file
+// distributed with this work for additional information
+// regarding copyright ownership.  The ASF licenses this file
+// to you under the Apache License, Version 2.0 (the
+// "License"); you may not use this file except in compliance
+// with the License.  You may obtain a copy of the License at
+//
+//   http://www.apache.org/licenses/LICENSE-2.0
+//
+// Unless required by applicable law or agreed to in writing,
+// software distributed under the License is distributed on an
+// "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+// KIND, either express or implied.  See the License for the
+// specific language governing permissions and limitations
+// under the License.
+//
+
+package com.google.solutions.jitaccess.apis.clients;
+
+import com.google.api.services.pubsub.model.PubsubMessage;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.util.LinkedList;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.IntStream;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+public class TestPubSubBatchPublisher {
+  private static final PubSubTopic SAMPLE_TOPIC = new PubSubTopic("project-1", "topic-1");
+
+  /**
+   * Executor that runs tasks on demand.
+   */
+  private static class QueueingExecutor implements Executor {
+    private final LinkedList<Runnable> tasks = new LinkedList<>();
+
+    @Override
+    public void execute(Runnable command) {
+      this.tasks.add(command);
+    }
+
+    void runNext() {
+      this.tasks.removeFirst().run();
+    }
+  }
+
+  private static PubSubClient createClient() throws Exception {
+    var client = mock(PubSubClient.class);
+    when(client.publish(eq(SAMPLE_TOPIC), anyList()))
+      .thenAnswer(invocation -> IntStream
+        .range(0, invocation.<List<?>>getArgument(1).size())
+        .mapToObj(i -> "id-" + i)
+        .toList());
+    return client;
+  }
+
+  private static PubsubMessage message(String orderingKey) {
+    return new PubsubMessage()
+      .encodeData("data".getBytes())
+      .setOrderingKey(orderingKey);
+  }
+
+  //---------------------------------------------------------------------------
+  // publish.
+  //---------------------------------------------------------------------------
+
+  @Test
+  public void publish_whenBatchFull() throws Exception {
+    var client = createClient();
+    var executor = new QueueingExecutor();
+    var publisher = new PubSubBatchPublisher(
+      client,
+      SAMPLE_TOPIC,
+      executor,
+      new PubSubBatchPublisher.Options(2, 1024, Duration.ofMinutes(1), 4, 100, 1, Duration.ZERO, Duration.ZERO));
+
+    var first = publisher.publish(message(null));
+    var second = publisher.publish(message(null));
+
+    assertEquals(1, executor.tasks.size());
+    executor.runNext();
+
+    verify(client, times(1)).publish(eq(SAMPLE_TOPIC), argThat((List<PubsubMessage> l) -> l.size() == 2));
+    assertEquals("id-0", first.get());
+    assertEquals("id-1", second.get());
+
+    publisher.close();
+  }
+
+  @Test
+  public void publish_whenMaxDelayElapsed() throws Exception {
+    var client = createClient();
+    var publisher = new PubSubBatchPublisher(
+      client,
+      SAMPLE_TOPIC,
+      Runnable::run,
+      new PubSubBatchPublisher.Options(100, 1024, Duration.ofMillis(10), 4, 100, 1, Duration.ZERO, Duration.ZERO));
+
+    var future = publisher.publish(message(null));
+
+    assertEquals("id-0", future.get(5, TimeUnit.SECONDS));
+    verify(client, times(1)).publish(eq(SAMPLE_TOPIC), argThat((List<PubsubMessage> l) -> l.size() == 1));
+
+    publisher.close();
+  }
+
+  @Test
+  public void publish_whenOrderingKeySet_thenBatchesAreSerialized() throws Exception {
+    var client = createClient();
+    var executor = new QueueingExecutor();
+    var publisher = new PubSubBatchPublisher(
+      client,
+      SAMPLE_TOPIC,
+      executor,
+      new PubSubBatchPublisher.Options(1, 1024, Duration.ofMinutes(1), 4, 100, 1, Duration.ZERO, Duration.ZERO));
+
+    publisher.publish(message("key-1"));
+    publisher.publish(message("key-1"));
+    publisher.publish(message("key-2"));
+
+    //
+    // Only one batch per key may be in flight.
+    //
+    assertEquals(2, executor.tasks.size());
+
+    executor.runNext();
+    assertEquals(2, executor.tasks.size());
+
+    executor.runNext();
+    executor.runNext();
+    assertEquals(0, executor.tasks.size());
+
+    verify(client, times(3)).publish(eq(SAMPLE_TOPIC), anyList());
+
+    publisher.close();
+  }
+
+  @Test
+  public void publish_whenInFlightLimitReached_thenBatchWaits() throws Exception {
+    var client = createClient();
+    var executor = new QueueingExecutor();
+    var publisher = new PubSubBatchPublisher(
+      client,
+      SAMPLE_TOPIC,
+      executor,
+      new PubSubBatchPublisher.Options(1, 1024, Duration.ofMinutes(1), 1, 100, 1, Duration.ZERO, Duration.ZERO));
+
+    publisher.publish(message("key-1"));
+    publisher.publish(message("key-2"));
+
+    assertEquals(1, executor.tasks.size());
+
+    executor.runNext();
+    assertEquals(1, executor.tasks.size());
+
+    executor.runNext();
+    verify(client, times(2)).publish(eq(SAMPLE_TOPIC), anyList());
+
+    publisher.close();
+  }
+
+  @Test
+  public void publish_whenPublishingFails() throws Exception {
+    var client = mock(PubSubClient.class);
+    when(client.publish(eq(SAMPLE_TOPIC), anyList()))
+      .thenThrow(new IOException("mock"));
+
+    var publisher = new PubSubBatchPublisher(
+      client,
+      SAMPLE_TOPIC,
+      Runnable::run,
+      new PubSubBatchPublisher.Options(1, 1024, Duration.ofMinutes(1), 1, 100, 1, Duration.ZERO, Duration.ZERO));
+
+    var future = publisher.publish(message(null));
+
+    var exception = assertThrows(ExecutionException.class, future::get);
+    assertInstanceOf(IOException.class, exception.getCause());
+
+    publisher.close();
+  }
+
+  @Test
+  public void publish_whenPublishingFailsTransiently_thenRetries() throws Exception {
+    var client = mock(PubSubClient.class);
+    when(client.publish(eq(SAMPLE_TOPIC), anyList()))
+      .thenThrow(new IOException("mock"))
+      .thenReturn(List.of("id-0"));
+
+    var publisher = new PubSubBatchPublisher(
+      client,
+      SAMPLE_TOPIC,
+      Runnable::run,
+      new PubSubBatchPublisher.Options(1, 1024, Duration.ofMinutes(1), 1, 100, 3, Duration.ofMillis(10), Duration.ZERO));
+
+    var future = publisher.publish(message("key-1"));
+
+    assertEquals("id-0", future.get(5, TimeUnit.SECONDS));
+    verify(client, times(2)).publish(eq(SAMPLE_TOPIC), anyList());
+
+    publisher.close();
+  }
+
+  @Test
+  public void publish_whenOrderedBatchFails_thenQueuedMessagesFail() throws Exception {
+    var client = mock(PubSubClient.class);
+    when(client.publish(eq(SAMPLE_TOPIC), anyList()))
+      .thenThrow(new IOException("mock"));
+
+    var executor = new QueueingExecutor();
+    var publisher = new PubSubBatchPublisher(
+      client,
+      SAMPLE_TOPIC,
+      executor,
+      new PubSubBatchPublisher.Options(1, 1024, Duration.ofMinutes(1), 4, 100, 1, Duration.ZERO, Duration.ZERO));
+
+    var first = publisher.publish(message("key-1"));
+    var second = publisher.publish(message("key-1"));
+
+    assertEquals(1, executor.tasks.size());
+    executor.runNext();
+
+    //
+    // The second message must not be published after the first failed.
+    //
+    assertEquals(0, executor.tasks.size());
+    verify(client, times(1)).publish(eq(SAMPLE_TOPIC), anyList());
+
+    assertInstanceOf(IOException.class, assertThrows(ExecutionException.class, first::get).getCause());
+    assertInstanceOf(IOException.class, assertThrows(ExecutionException.class, second::get).getCause());
+
+    publisher.close();
+  }
+
+  @Test
+  public void publish_whenExecutorRejects_thenMessagesFail() throws Exception {
+    var client = createClient();
+    var publisher = new PubSubBatchPublisher(
+      client,
+      SAMPLE_TOPIC,
+      command -> {
+        throw new RejectedExecutionException("mock");
+      },
+      new PubSubBatchPublisher.Options(1, 1024, Duration.ofMinutes(1), 1, 1, 1, Duration.ZERO, Duration.ZERO));
+
+    //
+    // The backlog only has room for one message, so publishing
+    // the second message blocks unless the first one was released.
+    //
+    assertTimeoutPreemptively(Duration.ofSeconds(5), () -> {
+      for (int i = 0; i < 2; i++) {
+        var future = publisher.publish(message(null));
+        assertInstanceOf(
+          RejectedExecutionException.class,
+          assertThrows(ExecutionException.class, future::get).getCause());
+      }
+    });
+
+    verify(client, never()).publish(any(), anyList());
+
+    publisher.close();
+  }
+
+  @Test
+  public void publish_whenBacklogFullAndTimeoutElapses_thenMessageIsDropped() throws Exception {
+    var client = createClient();
+    var executor = new QueueingExecutor();
+    var publisher = new PubSubBatchPublisher(
+      client,
+      SAMPLE_TOPIC,
+      executor,
+      new PubSubBatchPublisher.Options(1, 1024, Duration.ofMinutes(1), 1, 1, 1, Duration.ZERO, Duration.ZERO));
+
+    var first = publisher.publish(message(null), Duration.ofMillis(10));
+    var second = publisher.publish(message(null), Duration.ofMillis(10));
+
+    assertInstanceOf(
+      RejectedExecutionException.class,
+      assertThrows(ExecutionException.class, second::get).getCause());
+    assertEquals(1, publisher.droppedMessages());
+
+    executor.runNext();
+    assertEquals("id-0", first.get());
+
+    publisher.close();
+  }
+
+  @Test
+  public void publish_whenOrderedBatchFailed_thenKeyIsPausedUntilResumed() throws Exception {
+    var client = mock(PubSubClient.class);
+    when(client.publish(eq(SAMPLE_TOPIC), anyList()))
+      .thenThrow(new IOException("mock"))
+      .thenReturn(List.of("id-0"));
+
+    var executor = new QueueingExecutor();
+    var publisher = new PubSubBatchPublisher(
+      client,
+      SAMPLE_TOPIC,
+      executor,
+      new PubSubBatchPublisher.Options(1, 1024, Duration.ofMinutes(1), 4, 100, 1, Duration.ZERO, Duration.ZERO));
+
+    var failed = publisher.publish(message("key-1"));
+    executor.runNext();
+    assertInstanceOf(IOException.class, assertThrows(ExecutionException.class, failed::get).getCause());
+
+    //
+    // Messages published after the failure must not overtake
+    // the failed message.
+    //
+    var paused = publisher.publish(message("key-1"));
+    assertEquals(0, executor.tasks.size());
+    assertInstanceOf(IllegalStateException.class, assertThrows(ExecutionException.class, paused::get).getCause());
+
+    //
+    // Other keys aren't affected.
+    //
+    publisher.publish(message("key-2"));
+    assertEquals(1, executor.tasks.size());
+    executor.runNext();
+
+    publisher.resumePublish("key-1");
+
+    var resumed = publisher.publish(message("key-1"));
+    assertEquals(1, executor.tasks.size());
+    executor.runNext();
+    assertTrue(resumed.isDone());
+    assertFalse(resumed.isCompletedExceptionally());
+
+    publisher.close();
+  }
+
+  //---------------------------------------------------------------------------
+  // flush.
+  //---------------------------------------------------------------------------
+
+  @Test
+  public void flush() throws Exception {
+    var client = createClient();
+    var publisher = new PubSubBatchPublisher(
+      client,
+      SAMPLE_TOPIC,
+      Runnable::run,
+      new PubSubBatchPublisher.Options(100, 1024, Duration.ofMinutes(1), 4, 100, 1, Duration.ZERO, Duration.ZERO));
+
+    var future = publisher.publish(message(null));
+    assertFalse(future.isDone());
+
+    publisher.flush();
+    assertTrue(future.isDone());
+
+    publisher.close();
+  }
+
+  //---------------------------------------------------------------------------
+  // close.
+  //---------------------------------------------------------------------------
+
+  @Test
+  public void close_publishesPendingMessages() throws Exception {
+    var client = createClient();
+    var publisher = new PubSubBatchPublisher(
+      client,
+      SAMPLE_TOPIC,
+      Runnable::run,
+      new PubSubBatchPublisher.Options(100, 1024, Duration.ofMinutes(1), 4, 100, 1, Duration.ZERO, Duration.ofSeconds(5)));
+
+    var future = publisher.publish(message("key-1"));
+    assertFalse(future.isDone());
+
+    publisher.close();
+    assertEquals("id-0", future.get());
+  }
+}
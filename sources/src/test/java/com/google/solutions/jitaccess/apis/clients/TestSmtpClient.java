@@ -25,10 +25,11 @@ import com.google.solutions.jitaccess.auth.EmailAddress;
 import org.junit.jupiter.api.Test;
 import org.mockito.Mockito;
 
+import java.time.Duration;
 import java.util.Map;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
-import static org.mockito.Mockito.when;
+import static org.mockito.Mockito.*;
 
 public class TestSmtpClient {
 
@@ -70,4 +71,66 @@ public class TestSmtpClient {
     var authentication = options.createPasswordAuthentication(secretManager);
     assertEquals("password-from-secret", authentication.getPassword());
   }
+
+  @Test
+  public void createAuthenticator_whenCredentialsCached() throws Exception {
+    var options = new SmtpClient.Options(
+      "host",
+      2525,
+      "sender",
+      new EmailAddress("sender@example.com"),
+      true,
+      Map.of())
+      .setSmtpSecretCredentials("user", "path/to/secret");
+
+    var secretManager = Mockito.mock(SecretManagerClient.class);
+    when(secretManager.accessSecret("path/to/secret")).thenReturn("password-from-secret");
+
+    options.createPasswordAuthentication(secretManager);
+    options.createPasswordAuthentication(secretManager);
+
+    verify(secretManager, times(1)).accessSecret("path/to/secret");
+  }
+
+  @Test
+  public void createAuthenticator_whenCredentialsExpired() throws Exception {
+    var options = new SmtpClient.Options(
+      "host",
+      2525,
+      "sender",
+      new EmailAddress("sender@example.com"),
+      true,
+      Map.of())
+      .setSmtpSecretCredentials("user", "path/to/secret")
+      .setCredentialsTtl(Duration.ZERO);
+
+    var secretManager = Mockito.mock(SecretManagerClient.class);
+    when(secretManager.accessSecret("path/to/secret"))
+      .thenReturn("old-password")
+      .thenReturn("new-password");
+
+    assertEquals("old-password", options.createPasswordAuthentication(secretManager).getPassword());
+    assertEquals("new-password", options.createPasswordAuthentication(secretManager).getPassword());
+  }
+
+  @Test
+  public void createAuthenticator_whenCredentialsInvalidated() throws Exception {
+    var options = new SmtpClient.Options(
+      "host",
+      2525,
+      "sender",
+      new EmailAddress("sender@example.com"),
+      true,
+      Map.of())
+      .setSmtpSecretCredentials("user", "path/to/secret");
+
+    var secretManager = Mockito.mock(SecretManagerClient.class);
+    when(secretManager.accessSecret("path/to/secret")).thenReturn("password-from-secret");
+
+    options.createPasswordAuthentication(secretManager);
+    options.invalidatePasswordAuthentication();
+    options.createPasswordAuthentication(secretManager);
+
+    verify(secretManager, times(2)).accessSecret("path/to/secret");
+  }
 }
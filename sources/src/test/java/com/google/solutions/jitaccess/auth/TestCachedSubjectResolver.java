@@ -48,7 +48,7 @@ public class TestCachedSubjectResolver {
     var mapping = new GroupMapping(SAMPLE_DOMAIN);
 
     var groupsClient = Mockito.mock(CloudIdentityGroupsClient.class);
-    when(groupsClient.listMembershipsByUser(eq(SAMPLE_USER)))
+    when(groupsClient.listMembershipsByUser(eq(SAMPLE_USER), anyString()))
       .thenReturn(List.of());
 
     var resolver = new CachedSubjectResolver(
@@ -63,6 +63,6 @@ public class TestCachedSubjectResolver {
     resolver.resolveGroupPrincipals(SAMPLE_USER); // Triggers load
     resolver.resolveGroupPrincipals(SAMPLE_USER); // Triggers cache
 
-    verify(groupsClient, times(1)).listMembershipsByUser(eq(SAMPLE_USER));
+    verify(groupsClient, times(1)).listMembershipsByUser(eq(SAMPLE_USER), anyString());
   }
 }
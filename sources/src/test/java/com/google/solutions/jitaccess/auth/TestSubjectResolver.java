@@ -27,12 +27,18 @@ import com.google.solutions.jitaccess.apis.Logger;
 import com.google.solutions.jitaccess.apis.clients.CloudIdentityGroupsClient;
 import com.google.solutions.jitaccess.apis.clients.ResourceNotFoundException;
 import com.google.solutions.jitaccess.catalog.EventIds;
+import com.google.solutions.jitaccess.common.Deadline;
 import org.junit.jupiter.api.Test;
 import org.mockito.Mockito;
 
+import java.time.Duration;
 import java.time.Instant;
 import java.util.List;
+import java.util.concurrent.CountDownLatch;
 import java.util.concurrent.Executor;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
 import java.util.stream.Collectors;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
@@ -148,6 +154,61 @@ public class TestSubjectResolver {
     assertEquals(0, principals.size());
   }
 
+  @Test
+  public void resolveJitGroupMemberships_whenLookupTimesOut_thenOtherGroupsAreResolved() throws Exception {
+    var mapping = new GroupMapping(SAMPLE_DOMAIN);
+    var fastMembershipId = new CloudIdentityGroupsClient.MembershipId("m1");
+    var slowMembershipId = new CloudIdentityGroupsClient.MembershipId("m2");
+    var slowGroup = new JitGroupId("env-1", "sys-1", "grp-2");
+
+    var release = new CountDownLatch(1);
+    var groupsClient = Mockito.mock(CloudIdentityGroupsClient.class);
+    when(groupsClient.getMembership(eq(fastMembershipId)))
+      .thenReturn(new Membership()
+        .setPreferredMemberKey(new EntityKey().setId(SAMPLE_USER.email))
+        .setRoles(List.of(
+          new MembershipRole()
+            .setName("MEMBER")
+            .setExpiryDetail(new ExpiryDetail().setExpireTime("2030-01-01T00:00:00Z")))));
+    when(groupsClient.getMembership(eq(slowMembershipId)))
+      .thenAnswer(invocation -> {
+        release.await(10, TimeUnit.SECONDS);
+        throw new ResourceNotFoundException("mock");
+      });
+
+    var executor = Executors.newFixedThreadPool(2);
+    var logger = Mockito.mock(Logger.class);
+    var resolver = new SubjectResolver(
+      groupsClient,
+      mapping,
+      new Directory(SAMPLE_DOMAIN),
+      executor,
+      logger);
+
+    try (var ignored = Deadline.after(Duration.ofMillis(200)).bind()) {
+      var principals = resolver.resolveJitGroupMemberships(
+        SAMPLE_USER,
+        List.of(
+          new SubjectResolver.UnresolvedMembership(
+            mapping.groupFromJitGroup(slowGroup),
+            slowMembershipId),
+          new SubjectResolver.UnresolvedMembership(
+            mapping.groupFromJitGroup(SAMPLE_JITGROUP),
+            fastMembershipId)));
+
+      assertEquals(1, principals.size());
+      assertEquals(SAMPLE_JITGROUP, principals.stream().findFirst().get().id());
+      verify(logger, times(1)).warn(
+        eq(EventIds.SUBJECT_RESOLUTION),
+        anyString(),
+        any(TimeoutException.class));
+    }
+    finally {
+      release.countDown();
+      executor.shutdown();
+    }
+  }
+
   //---------------------------------------------------------------------------
   // resolveGroupPrincipals
   //---------------------------------------------------------------------------
@@ -157,7 +218,7 @@ public class TestSubjectResolver {
     var mapping = new GroupMapping(SAMPLE_DOMAIN);
 
     var groupsClient = Mockito.mock(CloudIdentityGroupsClient.class);
-    when(groupsClient.listMembershipsByUser(eq(SAMPLE_USER)))
+    when(groupsClient.listMembershipsByUser(eq(SAMPLE_USER), anyString()))
       .thenReturn(List.of(
         new MembershipRelation()
           .setGroupKey(new EntityKey().setId(SAMPLE_GROUP.email)),
@@ -198,7 +259,7 @@ public class TestSubjectResolver {
     var mapping = new GroupMapping(SAMPLE_DOMAIN);
 
     var groupsClient = Mockito.mock(CloudIdentityGroupsClient.class);
-    when(groupsClient.listMembershipsByUser(eq(SAMPLE_USER)))
+    when(groupsClient.listMembershipsByUser(eq(SAMPLE_USER), anyString()))
       .thenReturn(List.of());
 
     var resolver = new SubjectResolver(
@@ -225,7 +286,7 @@ public class TestSubjectResolver {
     var mapping = new GroupMapping(SAMPLE_DOMAIN);
 
     var groupsClient = Mockito.mock(CloudIdentityGroupsClient.class);
-    when(groupsClient.listMembershipsByUser(eq(SAMPLE_USER)))
+    when(groupsClient.listMembershipsByUser(eq(SAMPLE_USER), anyString()))
       .thenReturn(List.of());
 
     var resolver = new SubjectResolver(
@@ -252,7 +313,7 @@ public class TestSubjectResolver {
     var mapping = new GroupMapping(SAMPLE_DOMAIN);
 
     var groupsClient = Mockito.mock(CloudIdentityGroupsClient.class);
-    when(groupsClient.listMembershipsByUser(eq(SAMPLE_USER)))
+    when(groupsClient.listMembershipsByUser(eq(SAMPLE_USER), anyString()))
       .thenReturn(List.of());
 
     var resolver = new SubjectResolver(
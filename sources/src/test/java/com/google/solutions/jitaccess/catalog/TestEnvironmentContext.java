@@ -189,7 +189,7 @@ public class TestEnvironmentContext {
   @Test
   public void export() {
     var environment = Mockito.mock(Environment.class);
-    when(environment.loadPolicy())
+    when(environment.policySource())
       .thenReturn(PolicyDocumentSource.fromString("original yaml"));
     when(environment.policy())
       .thenReturn(new EnvironmentPolicy(
@@ -208,6 +208,7 @@ public class TestEnvironmentContext {
     assertTrue(context.canExport());
     assertTrue(context.export().isPresent());
     assertEquals("original yaml", context.export().get().yaml());
+    verify(environment, never()).loadPolicy();
   }
 
   // -------------------------------------------------------------------------
@@ -37,6 +37,7 @@ import org.junit.jupiter.params.provider.ValueSource;
 
 import java.time.Duration;
 import java.time.Instant;
+import java.util.ArrayList;
 import java.util.EnumSet;
 import java.util.List;
 
@@ -45,6 +46,7 @@ import static org.junit.jupiter.api.Assertions.*;
 public class TestLegacyPolicy {
   private static final Policy.Metadata METADATA = new Policy.Metadata("Asset Inventory", Instant.EPOCH);
   private static final ProjectId SAMPLE_PROJECT_1 = new ProjectId("project-1");
+  private static final ProjectId SAMPLE_PROJECT_2 = new ProjectId("project-2");
   private static final IamRole SAMPLE_ROLE_1 = new IamRole("roles/role-1");
   private static final IamRole UNACCEPTABLY_LONG_ROLE = new IamRole(
     "roles/" + new String(new char[LegacyPolicy.RolePolicy.NAME_MAX_LENGTH + 1]).replace('\0', 'a'));
@@ -301,6 +303,173 @@ public class TestLegacyPolicy {
     assertInstanceOf(UnsupportedOperationException.class, issue.exception().get());
   }
 
+  //---------------------------------------------------------------------------
+  // metrics.
+  //---------------------------------------------------------------------------
+
+  private static Project project(int number) {
+    return new Project()
+      .setName("projects/" + number)
+      .setProjectId("project-" + number);
+  }
+
+  @Test
+  public void metrics_whenProjectAccessedRepeatedly() {
+    var policy = new LegacyPolicy(Duration.ofMinutes(1), "", "", List.of(), METADATA);
+    policy.add(project(1), List::of);
+    policy.add(project(2), List::of);
+
+    var project = policy.systems().iterator().next();
+    project.groups();
+    project.groups();
+    project.group("unknown");
+
+    var metrics = policy.metrics();
+    assertEquals(1, metrics.initializedProjects());
+    assertEquals(0, metrics.initializedGroups());
+    assertEquals(2, metrics.hits());
+    assertEquals(1, metrics.misses());
+    assertEquals(0, metrics.evictions());
+    assertEquals(2.0 / 3, metrics.hitRate(), 0.001);
+  }
+
+  @Test
+  public void metrics_whenMaxInitializedProjectsExceeded_thenLeastRecentlyUsedProjectIsEvicted() {
+    var reloaded = new ArrayList<ProjectId>();
+    var policy = new LegacyPolicy(
+      Duration.ofMinutes(1),
+      "",
+      "",
+      List.of(),
+      METADATA,
+      2,
+      projectId -> {
+        reloaded.add(projectId);
+        return List.of();
+      });
+
+    policy.add(project(1), List::of);
+    policy.add(project(2), List::of);
+    policy.add(project(3), List::of);
+
+    var project1 = policy.project(1).get();
+    var project2 = policy.project(2).get();
+    var project3 = policy.project(3).get();
+
+    project1.groups();
+    project2.groups();
+    project1.groups();
+    project3.groups();
+
+    //
+    // Project 2 was least recently used.
+    //
+    assertSame(project1, policy.project(1).get());
+    assertNotSame(project2, policy.project(2).get());
+    assertSame(project3, policy.project(3).get());
+    assertTrue(project2.isInitialized());
+    assertFalse(policy.project(2).get().isInitialized());
+    assertEquals(3, policy.systems().size());
+
+    var metrics = policy.metrics();
+    assertEquals(2, metrics.initializedProjects());
+    assertEquals(1, metrics.evictions());
+
+    //
+    // Accessing the evicted project reloads it, and evicts project 1.
+    //
+    assertTrue(reloaded.isEmpty());
+    policy.project(2).get().groups();
+    assertEquals(List.of(SAMPLE_PROJECT_2), reloaded);
+
+    assertNotSame(project1, policy.project(1).get());
+    assertEquals(2, policy.metrics().evictions());
+  }
+
+  @Test
+  public void metrics_whenEvictedProjectAccessedThroughStaleReference() {
+    var policy = new LegacyPolicy(
+      Duration.ofMinutes(1),
+      "",
+      "",
+      List.of(),
+      METADATA,
+      1,
+      projectId -> List.of());
+
+    policy.add(project(1), List::of);
+    policy.add(project(2), List::of);
+
+    var project1 = policy.project(1).get();
+    project1.groups();
+    policy.project(2).get().groups();
+
+    //
+    // Accessing the stale project must not evict the current one.
+    //
+    project1.groups();
+
+    assertEquals(1, policy.metrics().evictions());
+    assertTrue(policy.project(2).get().isInitialized());
+  }
+
+  @Test
+  public void metrics_whenInitializedProjectReplaced_thenProjectIsNoLongerTracked() {
+    var policy = new LegacyPolicy(
+      Duration.ofMinutes(1),
+      "",
+      "",
+      List.of(),
+      METADATA,
+      2,
+      projectId -> List.of());
+
+    policy.add(project(1), List::of);
+    policy.add(project(2), List::of);
+
+    policy.project(1).get().groups();
+    policy.project(2).get().groups();
+    assertEquals(2, policy.metrics().initializedProjects());
+
+    policy.replace(1, SAMPLE_PROJECT_1, List::of);
+    assertEquals(1, policy.metrics().initializedProjects());
+
+    //
+    // Initializing the replacement must not evict project 2.
+    //
+    policy.project(1).get().groups();
+    assertEquals(2, policy.metrics().initializedProjects());
+    assertEquals(0, policy.metrics().evictions());
+    assertTrue(policy.project(2).get().isInitialized());
+  }
+
+  @Test
+  public void metrics_whenInitializedProjectRemoved_thenProjectIsNoLongerTracked() {
+    var policy = new LegacyPolicy(
+      Duration.ofMinutes(1),
+      "",
+      "",
+      List.of(),
+      METADATA,
+      2,
+      projectId -> List.of());
+
+    policy.add(project(1), List::of);
+    policy.add(project(2), List::of);
+    policy.add(project(3), List::of);
+
+    policy.project(1).get().groups();
+    policy.project(2).get().groups();
+
+    policy.remove(1);
+    assertEquals(1, policy.metrics().initializedProjects());
+
+    policy.project(3).get().groups();
+    assertEquals(2, policy.metrics().initializedProjects());
+    assertEquals(0, policy.metrics().evictions());
+    assertTrue(policy.project(2).get().isInitialized());
+  }
+
   @Nested
   public class ProjectPolicy {
 
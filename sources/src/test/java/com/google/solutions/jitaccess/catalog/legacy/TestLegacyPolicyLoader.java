@@ -0,0 +1,274 @@
+//
+// Copyright 2026 Google LLC
+//
+// Licensed to the Apache Software Foundation (ASF) under one
+// or more contributor license agreements.  See the NOTICE file
+// distributed with this work for additional information
+// regarding copyright ownership.  The ASF licenses this file
+// to you under the Apache License, Version 2.0 (the
+// "License"); you may not use this file except in compliance
+// with the License.  You may obtain a copy of the License at
+//
+//   http://www.apache.org/licenses/LICENSE-2.0
+//
+// Unless required by applicable law or agreed to in writing,
+// software distributed under the License is distributed on an
+// "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+// KIND, either express or implied.  See the License for the
+// specific language governing permissions and limitations
+// under the License.
+//
+
+package com.google.solutions.jitaccess.catalog.legacy;
+
+import com.google.api.services.cloudasset.v1.model.Binding;
+import com.google.api.services.cloudasset.v1.model.Expr;
+import com.google.api.services.cloudasset.v1.model.IamPolicySearchResult;
+import com.google.api.services.cloudasset.v1.model.Policy;
+import com.google.api.services.cloudresourcemanager.v3.model.Project;
+import com.google.solutions.jitaccess.apis.Logger;
+import com.google.solutions.jitaccess.apis.clients.AssetInventoryClient;
+import com.google.solutions.jitaccess.apis.clients.ResourceManagerClient;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Executors;
+import java.util.function.Consumer;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+public class TestLegacyPolicyLoader {
+  private static final String SCOPE = "organizations/0";
+
+  private static final LegacyPolicyLoader.Options PREFETCH = new LegacyPolicyLoader.Options(
+    true,
+    2,
+    60_000,
+    Duration.ofMinutes(1),
+    Integer.MAX_VALUE);
+
+  private static Project project(int number) {
+    return new Project()
+      .setName("projects/" + number)
+      .setProjectId("project-" + number);
+  }
+
+  private static ResourceManagerClient resourceManagerClient(int projectCount) throws Exception {
+    var client = mock(ResourceManagerClient.class);
+    when(client.searchProjects(anyString()))
+      .thenReturn(IntStream
+        .rangeClosed(1, projectCount)
+        .mapToObj(TestLegacyPolicyLoader::project)
+        .toList());
+    return client;
+  }
+
+  private static LegacyPolicy load(LegacyPolicyLoader loader) throws Exception {
+    return loader.load(
+      "state:ACTIVE",
+      SCOPE,
+      Duration.ofMinutes(5),
+      ".*",
+      "hint",
+      mock(Logger.class));
+  }
+
+  //---------------------------------------------------------------------------
+  // load.
+  //---------------------------------------------------------------------------
+
+  @Test
+  public void load_whenPrefetchDisabled_thenProjectsAreLoadedLazily() throws Exception {
+    var resourceManagerClient = resourceManagerClient(3);
+    var assetInventoryClient = mock(AssetInventoryClient.class);
+
+    var loader = new LegacyPolicyLoader(
+      () -> resourceManagerClient,
+      () -> assetInventoryClient);
+
+    var policy = load(loader);
+
+    assertEquals(3, policy.systems().size());
+    verify(assetInventoryClient, times(1)).getEffectiveIamPolicies(eq(SCOPE), anyString());
+
+    policy.systems().iterator().next().groups();
+    verify(assetInventoryClient, times(2)).getEffectiveIamPolicies(eq(SCOPE), anyString());
+  }
+
+  @Test
+  public void load_whenPrefetchEnabled_thenProjectsAreLoadedInBatches() throws Exception {
+    var resourceManagerClient = resourceManagerClient(50);
+    var assetInventoryClient = mock(AssetInventoryClient.class);
+    when(assetInventoryClient.getEffectiveIamPolicies(eq(SCOPE), anyCollection(), any(), any()))
+      .thenAnswer(invocation -> invocation
+        .<Collection<String>>getArgument(1)
+        .stream()
+        .collect(Collectors.toMap(id -> id, id -> List.of())));
+
+    var loader = new LegacyPolicyLoader(
+      () -> resourceManagerClient,
+      () -> assetInventoryClient,
+      Executors.newFixedThreadPool(2),
+      PREFETCH);
+
+    var policy = load(loader);
+
+    assertEquals(50, policy.systems().size());
+    verify(assetInventoryClient, times(1)).getEffectiveIamPolicies(eq(SCOPE), anyString());
+    verify(assetInventoryClient, times(2)).getEffectiveIamPolicies(
+      eq(SCOPE),
+      argThat((Collection<String> ids) -> ids.size() == 40 || ids.size() == 10),
+      any(),
+      any());
+
+    policy.systems().forEach(s -> s.groups());
+    verify(assetInventoryClient, times(1)).getEffectiveIamPolicies(eq(SCOPE), anyString());
+  }
+
+  @Test
+  public void load_whenPrefetchFails_thenProjectsAreLoadedLazily() throws Exception {
+    var resourceManagerClient = resourceManagerClient(2);
+    var assetInventoryClient = mock(AssetInventoryClient.class);
+    when(assetInventoryClient.getEffectiveIamPolicies(eq(SCOPE), anyCollection(), any(), any()))
+      .thenThrow(new IOException("mock"));
+
+    var loader = new LegacyPolicyLoader(
+      () -> resourceManagerClient,
+      () -> assetInventoryClient,
+      Executors.newFixedThreadPool(2),
+      PREFETCH);
+
+    var policy = load(loader);
+
+    assertEquals(2, policy.systems().size());
+    verify(assetInventoryClient, times(1)).getEffectiveIamPolicies(eq(SCOPE), anyString());
+
+    policy.systems().forEach(s -> s.groups());
+    verify(assetInventoryClient, times(1)).getEffectiveIamPolicies(SCOPE, "projects/project-1");
+    verify(assetInventoryClient, times(1)).getEffectiveIamPolicies(SCOPE, "projects/project-2");
+  }
+
+  @Test
+  public void load_whenPrefetchOmitsProjects_thenOmittedProjectsAreLoadedLazily() throws Exception {
+    var resourceManagerClient = resourceManagerClient(2);
+    var assetInventoryClient = mock(AssetInventoryClient.class);
+    when(assetInventoryClient.getEffectiveIamPolicies(eq(SCOPE), anyCollection(), any(), any()))
+      .thenReturn(Map.of("projects/project-1", List.of()));
+
+    var loader = new LegacyPolicyLoader(
+      () -> resourceManagerClient,
+      () -> assetInventoryClient,
+      Executors.newFixedThreadPool(2),
+      PREFETCH);
+
+    var policy = load(loader);
+
+    assertEquals(2, policy.systems().size());
+
+    policy.systems().forEach(s -> s.groups());
+    verify(assetInventoryClient, never()).getEffectiveIamPolicies(SCOPE, "projects/project-1");
+    verify(assetInventoryClient, times(1)).getEffectiveIamPolicies(SCOPE, "projects/project-2");
+  }
+
+  //---------------------------------------------------------------------------
+  // loadUsingSearch.
+  //---------------------------------------------------------------------------
+
+  private static IamPolicySearchResult searchResult(
+    String assetType,
+    String resource,
+    String role
+  ) {
+    return new IamPolicySearchResult()
+      .setAssetType(assetType)
+      .setResource(resource)
+      .setPolicy(new Policy().setBindings(List.of(
+        new Binding()
+          .setRole(role)
+          .setCondition(new Expr().setExpression("has({}.jitAccessConstraint)"))
+          .setMembers(List.of("user:user@example.com")))));
+  }
+
+  @SuppressWarnings("unchecked")
+  private static void stubSearch(
+    AssetInventoryClient client,
+    IamPolicySearchResult... results
+  ) throws Exception {
+    doAnswer(invocation -> {
+      var consumer = (Consumer<IamPolicySearchResult>)invocation.getArgument(3);
+      for (var result : results) {
+        consumer.accept(result);
+      }
+      return null;
+    })
+      .when(client)
+      .searchAllIamPolicies(eq(SCOPE), anyString(), anyList(), any());
+  }
+
+  @Test
+  public void loadUsingSearch_whenBindingsOnProjects() throws Exception {
+    var resourceManagerClient = resourceManagerClient(2);
+    var assetInventoryClient = mock(AssetInventoryClient.class);
+    stubSearch(
+      assetInventoryClient,
+      searchResult(
+        "cloudresourcemanager.googleapis.com/Project",
+        "//cloudresourcemanager.googleapis.com/projects/1",
+        "roles/role-1"));
+
+    var loader = new LegacyPolicyLoader(
+      () -> resourceManagerClient,
+      () -> assetInventoryClient);
+
+    var policy = loader.loadUsingSearch(
+      "state:ACTIVE",
+      SCOPE,
+      Duration.ofMinutes(5),
+      ".*",
+      "hint",
+      mock(Logger.class));
+
+    assertEquals(2, policy.systems().size());
+    assertEquals(1, policy.system("1").get().groups().size());
+    assertEquals(0, policy.system("2").get().groups().size());
+
+    verify(assetInventoryClient, times(1)).getEffectiveIamPolicies(eq(SCOPE), anyString());
+  }
+
+  @Test
+  public void loadUsingSearch_whenBindingsOnFolder_thenFallsBackToEffectivePolicies() throws Exception {
+    var resourceManagerClient = resourceManagerClient(2);
+    var assetInventoryClient = mock(AssetInventoryClient.class);
+    stubSearch(
+      assetInventoryClient,
+      searchResult(
+        "cloudresourcemanager.googleapis.com/Folder",
+        "//cloudresourcemanager.googleapis.com/folders/1",
+        "roles/role-1"));
+
+    var loader = new LegacyPolicyLoader(
+      () -> resourceManagerClient,
+      () -> assetInventoryClient);
+
+    var policy = loader.loadUsingSearch(
+      "state:ACTIVE",
+      SCOPE,
+      Duration.ofMinutes(5),
+      ".*",
+      "hint",
+      mock(Logger.class));
+
+    assertEquals(2, policy.systems().size());
+
+    policy.systems().forEach(s -> s.groups());
+    verify(assetInventoryClient, times(1)).getEffectiveIamPolicies(SCOPE, "projects/project-1");
+    verify(assetInventoryClient, times(1)).getEffectiveIamPolicies(SCOPE, "projects/project-2");
+  }
+}
@@ -0,0 +1,313 @@
+//
+// Copyright 2026 Google LLC
+//
+// Licensed to the Apache Software Foundation (ASF) under one
+// or more contributor license agreements.  See the NOTICE file
+// distributed with this work for additional information
+// regarding copyright ownership.  The ASF licenses this file
+// to you under the Apache License, Version 2.0 (the
+// "License"); you may not use this file except in compliance
+// with the License.  You may obtain a copy of the License at
+//
+//   http://www.apache.org/licenses/LICENSE-2.0
+//
+// Unless required by applicable law or agreed to in writing,
+// software distributed under the License is distributed on an
+// "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+// KIND, either express or implied.  See the License for the
+// specific language governing permissions and limitations
+// under the License.
+//
+
+package com.google.solutions.jitaccess.catalog.legacy;
+
+import com.google.api.services.cloudresourcemanager.v3.model.Project;
+import com.google.solutions.jitaccess.apis.Logger;
+import com.google.solutions.jitaccess.apis.clients.AssetInventoryClient;
+import com.google.solutions.jitaccess.apis.clients.ResourceManagerClient;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.IntStream;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+public class TestLegacyPolicyUpdater {
+  private static final String SCOPE = "organizations/0";
+  private static final String PROJECT_ASSET_TYPE = "cloudresourcemanager.googleapis.com/Project";
+  private static final String FOLDER_ASSET_TYPE = "cloudresourcemanager.googleapis.com/Folder";
+  private static final String ORGANIZATION_ASSET_TYPE = "cloudresourcemanager.googleapis.com/Organization";
+
+  private static Project project(int number) {
+    return new Project()
+      .setName("projects/" + number)
+      .setProjectId("project-" + number);
+  }
+
+  private static String projectAssetName(int number) {
+    return "//cloudresourcemanager.googleapis.com/projects/" + number;
+  }
+
+  private static LegacyPolicyLoader createLoader(
+    AssetInventoryClient assetInventoryClient
+  ) throws Exception {
+    var resourceManagerClient = mock(ResourceManagerClient.class);
+    when(resourceManagerClient.searchProjects(anyString()))
+      .thenReturn(IntStream
+        .rangeClosed(1, 3)
+        .mapToObj(TestLegacyPolicyUpdater::project)
+        .toList());
+
+    return new LegacyPolicyLoader(
+      () -> resourceManagerClient,
+      () -> assetInventoryClient);
+  }
+
+  private static LegacyPolicy load(LegacyPolicyLoader loader) throws Exception {
+    return loader.load(
+      "state:ACTIVE",
+      SCOPE,
+      Duration.ofMinutes(5),
+      ".*",
+      "hint",
+      mock(Logger.class));
+  }
+
+  private static LegacyPolicy load(
+    LegacyPolicyUpdater updater,
+    LegacyPolicyLoader loader
+  ) throws Exception {
+    var watermark = updater.beginLoad();
+    var policy = load(loader);
+    updater.attach(policy, watermark);
+    return policy;
+  }
+
+  private static LegacyPolicyUpdater createUpdater(
+    LegacyPolicyLoader loader,
+    AssetFeed feed
+  ) {
+    return new LegacyPolicyUpdater(
+      loader,
+      SCOPE,
+      feed,
+      LegacyPolicyUpdater.Options.DEFAULT,
+      mock(Logger.class));
+  }
+
+  //---------------------------------------------------------------------------
+  // processNotifications.
+  //---------------------------------------------------------------------------
+
+  @Test
+  public void processNotifications_whenFeedEmpty() throws Exception {
+    var loader = createLoader(mock(AssetInventoryClient.class));
+    var feed = new InMemoryAssetFeed();
+    var updater = createUpdater(loader, feed);
+    load(updater, loader);
+
+    assertEquals(0, updater.processNotifications());
+    assertEquals(0, feed.acknowledged());
+  }
+
+  @Test
+  public void processNotifications_whenNoPolicyAttached() throws Exception {
+    var loader = createLoader(mock(AssetInventoryClient.class));
+    var feed = new InMemoryAssetFeed();
+    var updater = createUpdater(loader, feed);
+
+    feed.publish(projectAssetName(1), PROJECT_ASSET_TYPE, false);
+
+    assertEquals(1, updater.processNotifications());
+    assertEquals(1, feed.acknowledged());
+  }
+
+  @Test
+  public void processNotifications_whenProjectChanged_thenProjectIsReloaded() throws Exception {
+    var assetInventoryClient = mock(AssetInventoryClient.class);
+    var loader = createLoader(assetInventoryClient);
+    var feed = new InMemoryAssetFeed();
+    var updater = createUpdater(loader, feed);
+
+    var policy = load(updater, loader);
+
+    var project = policy.project(1).get();
+    project.groups();
+    verify(assetInventoryClient, times(1)).getEffectiveIamPolicies(SCOPE, "projects/project-1");
+
+    feed.publish(projectAssetName(1), PROJECT_ASSET_TYPE, false);
+    assertEquals(1, updater.processNotifications());
+    assertEquals(1, feed.acknowledged());
+
+    var reloadedProject = policy.project(1).get();
+    assertNotSame(project, reloadedProject);
+    assertSame(policy, reloadedProject.parent().get());
+    assertEquals(3, policy.systems().size());
+
+    reloadedProject.groups();
+    verify(assetInventoryClient, times(2)).getEffectiveIamPolicies(SCOPE, "projects/project-1");
+  }
+
+  @Test
+  public void processNotifications_whenProjectDeleted_thenProjectIsRemoved() throws Exception {
+    var loader = createLoader(mock(AssetInventoryClient.class));
+    var feed = new InMemoryAssetFeed();
+    var updater = createUpdater(loader, feed);
+
+    var policy = load(updater, loader);
+
+    feed.publish(projectAssetName(2), PROJECT_ASSET_TYPE, true);
+    assertEquals(1, updater.processNotifications());
+
+    assertFalse(policy.project(2).isPresent());
+    assertEquals(2, policy.systems().size());
+  }
+
+  @Test
+  public void processNotifications_whenProjectUnknown_thenNotificationIsIgnored() throws Exception {
+    var loader = createLoader(mock(AssetInventoryClient.class));
+    var feed = new InMemoryAssetFeed();
+    var updater = createUpdater(loader, feed);
+
+    var policy = load(updater, loader);
+
+    feed.publish(projectAssetName(99), PROJECT_ASSET_TYPE, false);
+    feed.publish("//compute.googleapis.com/projects/1/zones/z/instances/i", "compute.googleapis.com/Instance", false);
+    assertEquals(2, updater.processNotifications());
+    assertEquals(2, feed.acknowledged());
+
+    assertFalse(policy.project(99).isPresent());
+    assertEquals(3, policy.systems().size());
+  }
+
+  @Test
+  public void processNotifications_whenFolderChanged_thenAllProjectsAreReloaded() throws Exception {
+    var loader = createLoader(mock(AssetInventoryClient.class));
+    var feed = new InMemoryAssetFeed();
+    var updater = createUpdater(loader, feed);
+
+    var policy = load(updater, loader);
+
+    var projects = List.copyOf(policy.systems());
+
+    feed.publish("//cloudresourcemanager.googleapis.com/folders/1", FOLDER_ASSET_TYPE, false);
+    assertEquals(1, updater.processNotifications());
+
+    assertEquals(3, policy.systems().size());
+    for (var project : projects) {
+      assertNotSame(project, policy.system(project.name()).get());
+    }
+  }
+
+  @Test
+  public void processNotifications_whenScopeChanged_thenReloadIsRequired() throws Exception {
+    var loader = createLoader(mock(AssetInventoryClient.class));
+    var feed = new InMemoryAssetFeed();
+    var updater = createUpdater(loader, feed);
+
+    var reloads = new AtomicInteger();
+    updater.onReloadRequired(reloads::incrementAndGet);
+
+    var policy = load(updater, loader);
+
+    var projects = List.copyOf(policy.systems());
+
+    feed.publish("//cloudresourcemanager.googleapis.com/" + SCOPE, ORGANIZATION_ASSET_TYPE, false);
+    feed.publish(projectAssetName(1), PROJECT_ASSET_TYPE, false);
+    assertEquals(2, updater.processNotifications());
+    assertEquals(1, reloads.get());
+
+    //
+    // The policy is detached, so later notifications don't touch it.
+    //
+    for (var project : projects) {
+      assertSame(project, policy.system(project.name()).get());
+    }
+
+    feed.publish("//cloudresourcemanager.googleapis.com/" + SCOPE, ORGANIZATION_ASSET_TYPE, false);
+    assertEquals(1, updater.processNotifications());
+    assertEquals(1, reloads.get());
+  }
+
+  //---------------------------------------------------------------------------
+  // attach.
+  //---------------------------------------------------------------------------
+
+  @Test
+  public void attach_whenProjectChangedDuringLoad_thenProjectIsReloaded() throws Exception {
+    var assetInventoryClient = mock(AssetInventoryClient.class);
+    var loader = createLoader(assetInventoryClient);
+    var feed = new InMemoryAssetFeed();
+    var updater = createUpdater(loader, feed);
+
+    feed.publish(projectAssetName(2), PROJECT_ASSET_TYPE, false);
+    assertEquals(1, updater.processNotifications());
+
+    var watermark = updater.beginLoad();
+    var policy = load(loader);
+    var project1 = policy.project(1).get();
+    var project2 = policy.project(2).get();
+
+    //
+    // The change happens while the load is in progress.
+    //
+    feed.publish(projectAssetName(1), PROJECT_ASSET_TYPE, false);
+    assertEquals(1, updater.processNotifications());
+    assertEquals(2, feed.acknowledged());
+
+    updater.attach(policy, watermark);
+
+    assertNotSame(project1, policy.project(1).get());
+    assertSame(project2, policy.project(2).get(), "Changed before the load started");
+  }
+
+  @Test
+  public void attach_whenScopeChangedDuringLoad_thenReloadIsRequired() throws Exception {
+    var loader = createLoader(mock(AssetInventoryClient.class));
+    var feed = new InMemoryAssetFeed();
+    var updater = createUpdater(loader, feed);
+
+    var reloads = new AtomicInteger();
+    updater.onReloadRequired(reloads::incrementAndGet);
+
+    var watermark = updater.beginLoad();
+    var policy = load(loader);
+
+    feed.publish("//cloudresourcemanager.googleapis.com/" + SCOPE, ORGANIZATION_ASSET_TYPE, false);
+    assertEquals(1, updater.processNotifications());
+    assertEquals(0, reloads.get());
+
+    updater.attach(policy, watermark);
+    assertEquals(1, reloads.get());
+
+    //
+    // The policy isn't attached, so later notifications don't touch it.
+    //
+    var project = policy.project(1).get();
+    feed.publish(projectAssetName(1), PROJECT_ASSET_TYPE, false);
+    assertEquals(1, updater.processNotifications());
+    assertSame(project, policy.project(1).get());
+  }
+
+  @Test
+  public void attach_whenLoadAbandoned_thenLaterLoadIgnoresEarlierChanges() throws Exception {
+    var loader = createLoader(mock(AssetInventoryClient.class));
+    var feed = new InMemoryAssetFeed();
+    var updater = createUpdater(loader, feed);
+
+    var failedLoad = updater.beginLoad();
+    feed.publish(projectAssetName(1), PROJECT_ASSET_TYPE, false);
+    assertEquals(1, updater.processNotifications());
+    updater.abandonLoad(failedLoad);
+
+    var watermark = updater.beginLoad();
+    var policy = load(loader);
+    var project = policy.project(1).get();
+    updater.attach(policy, watermark);
+
+    assertSame(project, policy.project(1).get());
+  }
+}
@@ -28,6 +28,7 @@ import com.google.solutions.jitaccess.apis.ProjectId;
 import com.google.solutions.jitaccess.auth.ClassPrincipalSet;
 import com.google.solutions.jitaccess.auth.EndUserId;
 import com.google.solutions.jitaccess.auth.IamRole;
+import com.google.solutions.jitaccess.auth.JitGroupId;
 import org.jetbrains.annotations.NotNull;
 import org.junit.jupiter.api.Nested;
 import org.junit.jupiter.api.Test;
@@ -38,6 +39,8 @@ import java.time.Duration;
 import java.time.Instant;
 import java.util.List;
 import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.atomic.AtomicBoolean;
 
 import static org.junit.jupiter.api.Assertions.*;
 
@@ -195,6 +198,213 @@ public class TestPolicyDocument {
     assertFalse(doc.policy().metadata().lastModified().isAfter(Instant.now()));
   }
 
+  //---------------------------------------------------------------------------
+  // applyTo.
+  //---------------------------------------------------------------------------
+
+  private static final String UPDATE_BASELINE =
+    "schemaVersion: 1\n" +
+      "environment:\n" +
+      "  name: \"env\"\n" +
+      "  systems:\n" +
+      "  - name: \"system-1\"\n" +
+      "    groups:\n" +
+      "    - name: \"group-1\"\n" +
+      "      description: \"one\"\n" +
+      "    - name: \"group-2\"\n" +
+      "      description: \"two\"\n" +
+      "  - name: \"system-2\"\n" +
+      "    groups:\n" +
+      "    - name: \"group-3\"\n";
+
+  private static PolicyDocument parse(String yaml) throws Exception {
+    return PolicyDocument.parse(PolicyDocumentSource.fromString(yaml));
+  }
+
+  private static JitGroupPolicy group(PolicyDocument document, String system, String group) {
+    return document.policy().system(system).get().group(group).get();
+  }
+
+  @Test
+  public void applyTo_whenPreviousDocumentNotParsed() throws Exception {
+    var previous = new PolicyDocument(new EnvironmentPolicy("env", "", METADATA));
+
+    assertFalse(parse(UPDATE_BASELINE).applyTo(previous).isPresent());
+  }
+
+  @Test
+  public void applyTo_whenEnvironmentChanged() throws Exception {
+    var previous = parse(UPDATE_BASELINE);
+    var document = parse(UPDATE_BASELINE.replace(
+      "  name: \"env\"\n",
+      "  name: \"env\"\n  description: \"changed\"\n"));
+
+    assertFalse(document.applyTo(previous).isPresent());
+  }
+
+  @Test
+  public void applyTo_whenUnchanged() throws Exception {
+    var previous = parse(UPDATE_BASELINE);
+    var group1 = group(previous, "system-1", "group-1");
+
+    var document = parse(UPDATE_BASELINE);
+    var update = document.applyTo(previous).get();
+
+    assertSame(document.policy(), update.document().policy());
+    assertSame(group1, group(update.document(), "system-1", "group-1"));
+    assertSame(
+      update.document().policy(),
+      update.document().policy().system("system-1").get().parent().get());
+    assertTrue(update.changedGroups().isEmpty());
+  }
+
+  @Test
+  public void applyTo_whenGroupChanged() throws Exception {
+    var previous = parse(UPDATE_BASELINE);
+    var group1 = group(previous, "system-1", "group-1");
+    var group2 = group(previous, "system-1", "group-2");
+    var group3 = group(previous, "system-2", "group-3");
+
+    var document = parse(UPDATE_BASELINE.replace("\"two\"", "\"changed\""));
+    var update = document.applyTo(previous).get();
+
+    assertNotSame(previous.policy(), update.document().policy());
+    assertSame(document.policy().metadata(), update.document().policy().metadata());
+    assertEquals(
+      List.of(new JitGroupId("env", "system-1", "group-2")),
+      List.copyOf(update.changedGroups()));
+
+    assertSame(group1, group(update.document(), "system-1", "group-1"));
+    assertSame(group3, group(update.document(), "system-2", "group-3"));
+
+    var updatedGroup2 = group(update.document(), "system-1", "group-2");
+    assertNotSame(group2, updatedGroup2);
+    assertEquals("changed", updatedGroup2.description());
+    assertSame(update.document().policy().system("system-1").get(), updatedGroup2.parent().get());
+    assertSame(updatedGroup2.parent().get(), group1.parent().get());
+
+    //
+    // Previous policy remains unchanged.
+    //
+    assertSame(group2, group(previous, "system-1", "group-2"));
+    assertEquals("two", group(previous, "system-1", "group-2").description());
+  }
+
+  @Test
+  public void applyTo_whenGroupAddedAndRemoved() throws Exception {
+    var previous = parse(UPDATE_BASELINE);
+
+    var document = parse(UPDATE_BASELINE.replace("group-2", "group-4"));
+    var update = document.applyTo(previous).get();
+
+    assertEquals(
+      List.of(
+        new JitGroupId("env", "system-1", "group-4"),
+        new JitGroupId("env", "system-1", "group-2")),
+      List.copyOf(update.changedGroups()));
+
+    var system1 = update.document().policy().system("system-1").get();
+    assertFalse(system1.group("group-2").isPresent());
+    assertTrue(system1.group("group-4").isPresent());
+    assertEquals(2, system1.groups().size());
+
+    assertTrue(previous.policy().system("system-1").get().group("group-2").isPresent());
+    assertFalse(previous.policy().system("system-1").get().group("group-4").isPresent());
+  }
+
+  @Test
+  public void applyTo_whenSystemChanged() throws Exception {
+    var previous = parse(UPDATE_BASELINE);
+    var system1 = previous.policy().system("system-1").get();
+    var system2 = previous.policy().system("system-2").get();
+
+    var document = parse(UPDATE_BASELINE.replace(
+      "  - name: \"system-1\"\n",
+      "  - name: \"system-1\"\n    description: \"changed\"\n"));
+    var update = document.applyTo(previous).get();
+
+    assertNotSame(system1, update.document().policy().system("system-1").get());
+    assertSame(system2, update.document().policy().system("system-2").get());
+    assertEquals(
+      "changed",
+      update.document().policy().system("system-1").get().description());
+    assertEquals(
+      List.of(
+        new JitGroupId("env", "system-1", "group-1"),
+        new JitGroupId("env", "system-1", "group-2")),
+      List.copyOf(update.changedGroups()));
+  }
+
+  @Test
+  public void applyTo_whenSystemRemoved() throws Exception {
+    var previous = parse(UPDATE_BASELINE);
+
+    var document = parse(UPDATE_BASELINE.substring(0, UPDATE_BASELINE.indexOf("  - name: \"system-2\"")));
+    var update = document.applyTo(previous).get();
+
+    assertFalse(update.document().policy().system("system-2").isPresent());
+    assertTrue(previous.policy().system("system-2").isPresent());
+    assertEquals(
+      List.of(new JitGroupId("env", "system-2", "group-3")),
+      List.copyOf(update.changedGroups()));
+  }
+
+  @Test
+  public void applyTo_whenReadConcurrently_thenRetainedGroupKeepsEffectiveAcl() throws Exception {
+    var baseline = UPDATE_BASELINE.replace(
+      "  name: \"env\"\n",
+      "  name: \"env\"\n" +
+        "  access:\n" +
+        "  - principal: \"class:iapUsers\"\n" +
+        "    allow: \"VIEW\"\n");
+
+    var previous = parse(baseline);
+    var group1 = group(previous, "system-1", "group-1");
+    var expectedAcl = group1.effectiveAccessControlList()
+      .entries()
+      .stream()
+      .map(Object::toString)
+      .toList();
+    assertFalse(expectedAcl.isEmpty());
+
+    //
+    // Read the retained group's effective ACL and its siblings
+    // while the policy is updated repeatedly.
+    //
+    var done = new AtomicBoolean(false);
+    var reader = CompletableFuture.runAsync(() -> {
+      while (!done.get()) {
+        assertEquals(
+          expectedAcl,
+          group1.effectiveAccessControlList()
+            .entries()
+            .stream()
+            .map(Object::toString)
+            .toList());
+
+        //
+        // The system might be incomplete, but enumerating
+        // its groups must not fail.
+        //
+        assertEquals(2, group1.system().groups().stream().map(JitGroupPolicy::name).count());
+      }
+    });
+
+    try {
+      for (int i = 0; i < 1000; i++) {
+        var document = parse(baseline.replace("\"two\"", "\"two-" + i + "\""));
+        previous = document.applyTo(previous).get().document();
+
+        assertSame(group1, group(previous, "system-1", "group-1"));
+      }
+    }
+    finally {
+      done.set(true);
+    }
+
+    reader.get();
+  }
+
   //---------------------------------------------------------------------------
   // Issue.
   //---------------------------------------------------------------------------
@@ -85,4 +85,83 @@ public class TestPolicyDocumentSource {
     assertEquals(tempFile.getName(), source.metadata().source());
     assertFalse(source.metadata().lastModified().isAfter(Instant.now()));
   }
+
+  //---------------------------------------------------------------------------
+  // isUnchangedFrom.
+  //---------------------------------------------------------------------------
+
+  @Test
+  public void isUnchangedFrom_whenVersionsMatch() {
+    var lhs = PolicyDocumentSource.fromString(
+      "yaml-1",
+      new Policy.Metadata("source", Instant.EPOCH, "versions/1", "env"));
+    var rhs = PolicyDocumentSource.fromString(
+      "yaml-2",
+      new Policy.Metadata("source", Instant.now(), "versions/1", "env"));
+
+    assertTrue(lhs.isUnchangedFrom(rhs));
+  }
+
+  @Test
+  public void isUnchangedFrom_whenVersionsDifferButContentMatches() {
+    var lhs = PolicyDocumentSource.fromString(
+      "yaml",
+      new Policy.Metadata("source", Instant.EPOCH, "versions/1", "env"));
+    var rhs = PolicyDocumentSource.fromString(
+      "yaml",
+      new Policy.Metadata("source", Instant.now(), "versions/2", "env"));
+
+    assertTrue(lhs.isUnchangedFrom(rhs));
+  }
+
+  @Test
+  public void isUnchangedFrom_whenContentDiffers() {
+    var lhs = PolicyDocumentSource.fromString(
+      "yaml-1",
+      new Policy.Metadata("source", Instant.EPOCH, "versions/1", "env"));
+    var rhs = PolicyDocumentSource.fromString(
+      "yaml-2",
+      new Policy.Metadata("source", Instant.now(), "versions/2", "env"));
+
+    assertFalse(lhs.isUnchangedFrom(rhs));
+    assertFalse(PolicyDocumentSource.fromString("yaml-1").isUnchangedFrom(PolicyDocumentSource.fromString("yaml-2")));
+  }
+
+  @Test
+  public void isUnchangedFrom_whenVersionUnknownAndContentDiffers() {
+    var lhs = PolicyDocumentSource.fromString(
+      "yaml-1",
+      new Policy.Metadata("source/versions/latest", Instant.EPOCH, null, "env"));
+    var rhs = PolicyDocumentSource.fromString(
+      "yaml-2",
+      new Policy.Metadata("source/versions/latest", Instant.now(), null, "env"));
+
+    assertFalse(lhs.isUnchangedFrom(rhs));
+  }
+
+  @Test
+  public void isUnchangedFrom_whenDefaultNameDiffers() {
+    var lhs = PolicyDocumentSource.fromString(
+      "yaml",
+      new Policy.Metadata("source", Instant.EPOCH, null, "env-1"));
+    var rhs = PolicyDocumentSource.fromString(
+      "yaml",
+      new Policy.Metadata("source", Instant.EPOCH, null, "env-2"));
+
+    assertFalse(lhs.isUnchangedFrom(rhs));
+  }
+
+  @Test
+  public void isUnchangedFrom_whenFingerprintUnavailable() {
+    var policy = new EnvironmentPolicy(
+      "env",
+      "",
+      new Policy.Metadata("source", Instant.EPOCH));
+
+    var lhs = PolicyDocumentSource.fromPolicy(policy);
+    var rhs = PolicyDocumentSource.fromPolicy(policy);
+
+    assertFalse(lhs.fingerprint().isPresent());
+    assertFalse(lhs.isUnchangedFrom(rhs));
+  }
 }
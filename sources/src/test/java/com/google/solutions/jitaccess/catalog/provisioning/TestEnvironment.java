@@ -0,0 +1,225 @@
+//
+// Copyright 2026 Google LLC
+//
+// Licensed to the Apache Software Foundation (ASF) under one
+// or more contributor license agreements.  See the NOTICE file
+// distributed with this work for additional information
+// regarding copyright ownership.  The ASF licenses this file
+// to you under the Apache License, Version 2.0 (the
+// "License"); you may not use this file except in compliance
+// with the License.  You may obtain a copy of the License at
+//
+//   http://www.apache.org/licenses/LICENSE-2.0
+//
+// Unless required by applicable law or agreed to in writing,
+// software distributed under the License is distributed on an
+// "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+// KIND, either express or implied.  See the License for the
+// specific language governing permissions and limitations
+// under the License.
+//
+
+package com.google.solutions.jitaccess.catalog.provisioning;
+
+import com.google.solutions.jitaccess.auth.JitGroupId;
+import com.google.solutions.jitaccess.catalog.policy.EnvironmentPolicy;
+import com.google.solutions.jitaccess.catalog.policy.PolicyDocumentSource;
+import org.jetbrains.annotations.NotNull;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mockito;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.Supplier;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class TestEnvironment {
+  private static final String POLICY_YAML =
+    "schemaVersion: 1\n" +
+      "environment: \n" +
+      "  name: 'env-1'";
+
+  private static Environment createEnvironment(
+    AtomicInteger loadCount,
+    Duration cacheDuration,
+    Supplier<String> yaml
+  ) {
+    return new Environment(
+      "env-1",
+      "",
+      Mockito.mock(Provisioner.class),
+      cacheDuration
+    ) {
+      @Override
+      public PolicyDocumentSource loadPolicy() {
+        loadCount.incrementAndGet();
+        return PolicyDocumentSource.fromString(yaml.get());
+      }
+    };
+  }
+
+  private static Environment createEnvironment(AtomicInteger loadCount) {
+    return createEnvironment(loadCount, Duration.ofMinutes(1), () -> POLICY_YAML);
+  }
+
+  //---------------------------------------------------------------------------
+  // policySource.
+  //---------------------------------------------------------------------------
+
+  @Test
+  public void policySource_whenPolicyLoaded_thenReturnsCachedSource() {
+    var loadCount = new AtomicInteger(0);
+    var environment = createEnvironment(loadCount);
+
+    assertEquals("env-1", environment.policy().name());
+    assertEquals(POLICY_YAML, environment.policySource().yaml());
+    assertSame(environment.policySource(), environment.policySource());
+
+    assertEquals(1, loadCount.get());
+  }
+
+  @Test
+  public void policySource_whenPolicyNotLoaded_thenLoadsPolicy() {
+    var loadCount = new AtomicInteger(0);
+    var environment = createEnvironment(loadCount);
+
+    assertEquals(POLICY_YAML, environment.policySource().yaml());
+    assertEquals("env-1", environment.policy().name());
+
+    assertEquals(1, loadCount.get());
+  }
+
+  //---------------------------------------------------------------------------
+  // policy.
+  //---------------------------------------------------------------------------
+
+  @Test
+  public void policy_whenReloadedAndUnchanged_thenReturnsExistingPolicy() throws Exception {
+    var loadCount = new AtomicInteger(0);
+    var environment = createEnvironment(loadCount, Duration.ZERO, () -> POLICY_YAML);
+
+    var policy = environment.policy();
+    Thread.sleep(10);
+
+    assertSame(policy, environment.policy());
+    assertTrue(loadCount.get() > 1);
+  }
+
+  @Test
+  public void policy_whenReloadedAndChanged_thenReturnsNewPolicy() throws Exception {
+    var loadCount = new AtomicInteger(0);
+    var yaml = new AtomicReference<>(POLICY_YAML);
+    var environment = createEnvironment(loadCount, Duration.ZERO, yaml::get);
+
+    var policy = environment.policy();
+
+    yaml.set(POLICY_YAML + "\n  description: 'changed'");
+    Thread.sleep(10);
+
+    var reloadedPolicy = environment.policy();
+    assertNotSame(policy, reloadedPolicy);
+    assertEquals("changed", reloadedPolicy.description());
+  }
+
+  @Test
+  public void policy_whenReloadedAndGroupChanged_thenUpdatesPolicyIncrementally() throws Exception {
+    var yaml = new AtomicReference<>(
+      POLICY_YAML + "\n" +
+        "  systems:\n" +
+        "  - name: 'system-1'\n" +
+        "    groups:\n" +
+        "    - name: 'group-1'\n" +
+        "    - name: 'group-2'");
+    var changedGroups = new ArrayList<JitGroupId>();
+
+    var environment = new Environment(
+      "env-1",
+      "",
+      Mockito.mock(Provisioner.class),
+      Duration.ZERO
+    ) {
+      @Override
+      public PolicyDocumentSource loadPolicy() {
+        return PolicyDocumentSource.fromString(yaml.get());
+      }
+
+      @Override
+      protected void policyUpdated(
+        @NotNull EnvironmentPolicy policy,
+        @NotNull Collection<JitGroupId> groups
+      ) {
+        changedGroups.addAll(groups);
+      }
+    };
+
+    var policy = environment.policy();
+    var group1 = policy.system("system-1").get().group("group-1").get();
+
+    yaml.set(yaml.get() + "\n      description: 'changed'");
+    Thread.sleep(10);
+
+    var reloadedPolicy = environment.policy();
+    assertNotSame(policy, reloadedPolicy);
+    assertSame(group1, reloadedPolicy.system("system-1").get().group("group-1").get());
+    assertEquals(
+      "changed",
+      reloadedPolicy.system("system-1").get().group("group-2").get().description());
+    assertEquals("", policy.system("system-1").get().group("group-2").get().description());
+    assertEquals(List.of(new JitGroupId("env-1", "system-1", "group-2")), changedGroups);
+  }
+
+  //---------------------------------------------------------------------------
+  // invalidatePolicy.
+  //---------------------------------------------------------------------------
+
+  @Test
+  public void invalidatePolicy() {
+    var loadCount = new AtomicInteger(0);
+    var yaml = new AtomicReference<>(POLICY_YAML);
+    var environment = createEnvironment(loadCount, Duration.ofMinutes(1), yaml::get);
+
+    assertNotEquals("changed", environment.policy().description());
+
+    yaml.set(POLICY_YAML + "\n  description: 'changed'");
+    environment.invalidatePolicy();
+
+    assertEquals("changed", environment.policy().description());
+    assertEquals(2, loadCount.get());
+  }
+
+  @Test
+  public void invalidatePolicy_whenPolicyBeingLoaded_thenDiscardsLoadedPolicy() {
+    var loadCount = new AtomicInteger(0);
+    var environment = new Environment(
+      "env-1",
+      "",
+      Mockito.mock(Provisioner.class),
+      Duration.ofMinutes(1)
+    ) {
+      @Override
+      public PolicyDocumentSource loadPolicy() {
+        if (loadCount.incrementAndGet() == 1) {
+          //
+          // Invalidate before the loaded policy has been cached.
+          //
+          invalidatePolicy();
+          return PolicyDocumentSource.fromString(POLICY_YAML);
+        }
+        else {
+          return PolicyDocumentSource.fromString(POLICY_YAML + "\n  description: 'changed'");
+        }
+      }
+    };
+
+    assertEquals("changed", environment.policy().description());
+    assertEquals(2, loadCount.get());
+
+    assertEquals("changed", environment.policy().description());
+    assertEquals(2, loadCount.get());
+  }
+}
@@ -261,7 +261,7 @@ public class TestProvisioner {
     public void isProvisioned_whenGroupNotFound() throws Exception {
       var groupsClient = Mockito.mock(CloudIdentityGroupsClient.class);
       when(groupsClient
-        .getGroup(eq(SAMPLE_GROUP)))
+        .getGroup(eq(SAMPLE_GROUP), anyString()))
         .thenThrow(new ResourceNotFoundException("mock"));
 
       var logger = Mockito.mock(Logger.class);
@@ -277,7 +277,7 @@ public class TestProvisioner {
     public void isProvisioned_whenGroupFound() throws Exception {
       var groupsClient = Mockito.mock(CloudIdentityGroupsClient.class);
       when(groupsClient
-        .getGroup(eq(SAMPLE_GROUP)))
+        .getGroup(eq(SAMPLE_GROUP), anyString()))
         .thenReturn(new Group());
 
       var logger = Mockito.mock(Logger.class);
@@ -364,9 +364,9 @@ public class TestProvisioner {
           any(),
           any()))
         .thenReturn(new GroupKey("1"));
-      when(groupsClient.getGroup(eq(SAMPLE_GROUP)))
+      when(groupsClient.getGroup(eq(SAMPLE_GROUP), anyString()))
         .thenReturn(new Group());
-      when(groupsClient.searchGroupsByPrefix(eq(Provisioner.GKE_SECURITY_GROUPS_PREFIX), eq(false)))
+      when(groupsClient.searchGroupsByPrefix(eq(Provisioner.GKE_SECURITY_GROUPS_PREFIX), eq(false), anyString()))
         .thenReturn(List.of(new Group()
             .setName("groups/gke")
           .setGroupKey(new EntityKey().setId(Provisioner.GKE_SECURITY_GROUPS_PREFIX))));
@@ -409,7 +409,8 @@ public class TestProvisioner {
       var groupsClient = Mockito.mock(CloudIdentityGroupsClient.class);
       when(groupsClient.searchGroupsByPrefix(
         eq("jit.env-1."),
-        eq(false)))
+        eq(false),
+        anyString()))
         .thenReturn(List.of(
           // Invalid groups
           new Group().setGroupKey(new EntityKey().setId("jit.env-1.invalid@example.com")),
@@ -518,7 +519,7 @@ public class TestProvisioner {
     @Test
     public void provisionAccess_whenBindingsEmpty() throws Exception {
       var groupsClient = Mockito.mock(CloudIdentityGroupsClient.class);
-      when(groupsClient.getGroup(eq(SAMPLE_GROUP)))
+      when(groupsClient.getGroup(eq(SAMPLE_GROUP), anyString()))
         .thenReturn(new Group().setDescription("Test group"));
 
       var resourceManagerClient = Mockito.mock(ResourceManagerClient.class);
@@ -540,7 +541,7 @@ public class TestProvisioner {
     @Test
     public void provisionAccess_whenBindingsCurrent() throws Exception {
       var groupsClient = Mockito.mock(CloudIdentityGroupsClient.class);
-      when(groupsClient.getGroup(eq(SAMPLE_GROUP)))
+      when(groupsClient.getGroup(eq(SAMPLE_GROUP), anyString()))
         .thenReturn(new Group().setDescription("Test group #d4c347b3"));
 
       var resourceManagerClient = Mockito.mock(ResourceManagerClient.class);
@@ -562,7 +563,7 @@ public class TestProvisioner {
     @Test
     public void provisionAccess_whenBindingsChanged() throws Exception {
       var groupsClient = Mockito.mock(CloudIdentityGroupsClient.class);
-      when(groupsClient.getGroup(eq(SAMPLE_GROUP)))
+      when(groupsClient.getGroup(eq(SAMPLE_GROUP), anyString()))
         .thenReturn(new Group()
           .setName("1")
           .setDescription("Test group #d4c347b3"));
@@ -601,7 +602,7 @@ public class TestProvisioner {
     @Test
     public void provisionAccess_whenAccessDenied() throws Exception {
       var groupsClient = Mockito.mock(CloudIdentityGroupsClient.class);
-      when(groupsClient.getGroup(eq(SAMPLE_GROUP)))
+      when(groupsClient.getGroup(eq(SAMPLE_GROUP), anyString()))
         .thenReturn(new Group()
           .setName("1")
           .setDescription("Test group"));
@@ -23,9 +23,14 @@ package com.google.solutions.jitaccess.common;
 
 import org.junit.jupiter.api.Test;
 
+import java.time.Duration;
+import java.util.LinkedList;
 import java.util.List;
 import java.util.concurrent.ExecutionException;
 import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeoutException;
+import java.util.stream.IntStream;
 
 import static org.junit.jupiter.api.Assertions.*;
 
@@ -33,6 +38,22 @@ public class TestCompletableFutures {
   private static class CheckedException extends Exception {}
   private static final Executor EXECUTOR = (Runnable r) -> r.run();
 
+  /**
+   * Executor that queues commands until they're run explicitly.
+   */
+  private static class QueueingExecutor implements Executor {
+    private final LinkedList<Runnable> queue = new LinkedList<>();
+
+    @Override
+    public void execute(Runnable command) {
+      this.queue.add(command);
+    }
+
+    void runNext() {
+      this.queue.removeFirst().run();
+    }
+  }
+
   //---------------------------------------------------------------------------
   // supplyAsync.
   //---------------------------------------------------------------------------
@@ -137,4 +158,159 @@ public class TestCompletableFutures {
     var aggregateException = assertInstanceOf(AggregateException.class, exception.getCause());
     assertEquals(2, aggregateException.getCauses().size());
   }
+
+  //---------------------------------------------------------------------------
+  // mapAsync - with options.
+  //---------------------------------------------------------------------------
+
+  @Test
+  public void mapAsync_whenMaxParallelismReached_thenQueuesArguments() throws Exception {
+    var executor = new QueueingExecutor();
+    var future = CompletableFutures.mapAsync(
+      List.of("foo", "bar", "baz"),
+      arg -> arg.toUpperCase(),
+      executor,
+      new CompletableFutures.FanOutOptions(2, null, false));
+
+    //
+    // One worker per slot.
+    //
+    assertEquals(2, executor.queue.size());
+
+    //
+    // The first worker processes all queued arguments.
+    //
+    executor.runNext();
+    assertTrue(future.isDone());
+
+    executor.runNext();
+    assertEquals(0, executor.queue.size());
+
+    assertEquals(
+      List.of("FOO", "BAR", "BAZ"),
+      future.get());
+  }
+
+  @Test
+  public void mapAsync_whenManyArgumentsAndExecutorRunsInline() throws Exception {
+    var arguments = IntStream.range(0, 100_000).boxed().toList();
+    var future = CompletableFutures.mapAsync(
+      arguments,
+      arg -> arg,
+      EXECUTOR,
+      new CompletableFutures.FanOutOptions(1, null, false));
+
+    assertEquals(arguments.size(), future.get().size());
+  }
+
+  @Test
+  public void mapAsync_whenOneFailsAndCancelOnFailure_thenSkipsPendingArguments() throws Exception {
+    var executor = new QueueingExecutor();
+    var future = CompletableFutures.mapAsync(
+      List.of("", "foo", "bar"),
+      arg -> {
+        if (arg.isBlank()) {
+          throw new IllegalStateException();
+        }
+        else {
+          return arg.toUpperCase();
+        }
+      },
+      executor,
+      new CompletableFutures.FanOutOptions(1, null, true));
+
+    executor.runNext();
+    assertEquals(0, executor.queue.size());
+
+    var exception = assertThrows(
+      ExecutionException.class,
+      () -> future.get());
+
+    var aggregateException = assertInstanceOf(AggregateException.class, exception.getCause());
+    assertEquals(1, aggregateException.getCauses().size());
+    assertInstanceOf(IllegalStateException.class, aggregateException.getCause());
+  }
+
+  @Test
+  public void mapAsync_whenTimeoutElapses() throws Exception {
+    var executor = new QueueingExecutor();
+    var future = CompletableFutures.mapAsync(
+      List.of("foo"),
+      arg -> arg.toUpperCase(),
+      executor,
+      new CompletableFutures.FanOutOptions(1, Duration.ofMillis(1), false));
+
+    var exception = assertThrows(
+      ExecutionException.class,
+      () -> future.get());
+
+    var aggregateException = assertInstanceOf(AggregateException.class, exception.getCause());
+    assertInstanceOf(TimeoutException.class, aggregateException.getCause());
+  }
+
+  @Test
+  public void mapAsync_whenExecutorRejects() throws Exception {
+    var future = CompletableFutures.mapAsync(
+      List.of("foo"),
+      arg -> arg.toUpperCase(),
+      command -> { throw new RejectedExecutionException(); },
+      CompletableFutures.FanOutOptions.UNBOUNDED);
+
+    var exception = assertThrows(
+      ExecutionException.class,
+      () -> future.get());
+
+    var aggregateException = assertInstanceOf(AggregateException.class, exception.getCause());
+    assertInstanceOf(RejectedExecutionException.class, aggregateException.getCause());
+  }
+
+  //---------------------------------------------------------------------------
+  // mapAsyncPartial.
+  //---------------------------------------------------------------------------
+
+  @Test
+  public void mapAsyncPartial_whenSomeFunctionsFail_thenReturnsOtherResults() throws Exception {
+    var failures = new LinkedList<String>();
+    var future = CompletableFutures.mapAsyncPartial(
+      List.of("foo", "bar"),
+      arg -> {
+        if (arg.equals("bar")) {
+          throw new CheckedException();
+        }
+        return arg.toUpperCase();
+      },
+      EXECUTOR,
+      CompletableFutures.FanOutOptions.UNBOUNDED,
+      (arg, e) -> {
+        assertInstanceOf(CheckedException.class, e);
+        failures.add(arg);
+      });
+
+    assertEquals(List.of("FOO"), List.copyOf(future.get()));
+    assertEquals(List.of("bar"), failures);
+  }
+
+  @Test
+  public void mapAsyncPartial_whenTimeoutElapses_thenReportsFailure() throws Exception {
+    var failures = new LinkedList<String>();
+    var future = CompletableFutures.mapAsyncPartial(
+      List.of("foo"),
+      arg -> arg.toUpperCase(),
+      new QueueingExecutor(),
+      new CompletableFutures.FanOutOptions(1, Duration.ofMillis(1), false),
+      (arg, e) -> {
+        assertInstanceOf(TimeoutException.class, e);
+        failures.add(arg);
+      });
+
+    assertTrue(future.get().isEmpty());
+    assertEquals(List.of("foo"), failures);
+  }
+
+  @Test
+  public void fanOutOptions_whenMaxParallelismInvalid() {
+    assertThrows(
+      IllegalArgumentException.class,
+      () -> new CompletableFutures.FanOutOptions(0, null, false));
+  }
 }
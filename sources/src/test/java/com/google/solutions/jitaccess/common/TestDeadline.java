@@ -0,0 +1,194 @@
+//
+// Copyright 2026 Google LLC
+//
+// Licensed to the Apache Software Foundation (ASF) under one
+// or more contributor license agreements.  See the NOTICE file
+// distributed with this work for additional information
+// regarding copyright ownership.  The ASF licenses this file
+// to you under the Apache License, Version 2.0 (the
+// "License"); you may not use this file except in compliance
+// with the License.  You may obtain a copy of the License at
+//
+//   http://www.apache.org/licenses/LICENSE-2.0
+//
+// Unless required by applicable law or agreed to in writing,
+// software distributed under the License is distributed on an
+// "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+// KIND, either express or implied.  See the License for the
+// specific language governing permissions and limitations
+// under the License.
+//
+
+package com.google.solutions.jitaccess.common;
+
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executor;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class TestDeadline {
+  private static final Executor EXECUTOR = (Runnable r) -> r.run();
+
+  //---------------------------------------------------------------------------
+  // isExpired.
+  //---------------------------------------------------------------------------
+
+  @Test
+  public void isExpired_whenTimeoutZero() {
+    var deadline = Deadline.after(Duration.ZERO);
+
+    assertTrue(deadline.isExpired());
+    assertEquals(Duration.ZERO, deadline.remaining());
+    assertThrows(Deadline.ExceededException.class, deadline::check);
+  }
+
+  @Test
+  public void isExpired_whenTimeoutInFuture() throws Exception {
+    var deadline = Deadline.after(Duration.ofMinutes(1));
+
+    assertFalse(deadline.isExpired());
+    deadline.check();
+  }
+
+  //---------------------------------------------------------------------------
+  // limit.
+  //---------------------------------------------------------------------------
+
+  @Test
+  public void limit_whenTimeoutExceedsDeadline() {
+    var deadline = Deadline.after(Duration.ofSeconds(10));
+
+    assertTrue(deadline.limit(Duration.ofMinutes(1)).compareTo(Duration.ofSeconds(10)) <= 0);
+    assertTrue(deadline.limit(Duration.ZERO).compareTo(Duration.ofSeconds(10)) <= 0);
+  }
+
+  @Test
+  public void limit_whenTimeoutWithinDeadline() {
+    var deadline = Deadline.after(Duration.ofMinutes(1));
+
+    assertEquals(Duration.ofSeconds(10), deadline.limit(Duration.ofSeconds(10)));
+  }
+
+  @Test
+  public void limit_whenExpired_thenReturnsNonZero() {
+    var deadline = Deadline.after(Duration.ZERO);
+
+    assertEquals(Duration.ofMillis(1), deadline.limit(Duration.ZERO));
+  }
+
+  //---------------------------------------------------------------------------
+  // bind.
+  //---------------------------------------------------------------------------
+
+  @Test
+  public void bind() {
+    var outer = Deadline.after(Duration.ofMinutes(1));
+    var inner = Deadline.after(Duration.ofSeconds(1));
+
+    assertFalse(Deadline.current().isPresent());
+
+    try (var outerScope = outer.bind()) {
+      assertSame(outer, Deadline.current().get());
+
+      try (var innerScope = inner.bind()) {
+        assertSame(inner, Deadline.current().get());
+      }
+
+      assertSame(outer, Deadline.current().get());
+    }
+
+    assertFalse(Deadline.current().isPresent());
+  }
+
+  //---------------------------------------------------------------------------
+  // clear.
+  //---------------------------------------------------------------------------
+
+  @Test
+  public void clear() {
+    var deadline = Deadline.after(Duration.ofMinutes(1));
+
+    try (var scope = deadline.bind()) {
+      try (var clearScope = Deadline.clear()) {
+        assertFalse(Deadline.current().isPresent());
+      }
+
+      assertSame(deadline, Deadline.current().get());
+    }
+  }
+
+  //---------------------------------------------------------------------------
+  // propagate.
+  //---------------------------------------------------------------------------
+
+  @Test
+  public void propagate_whenNoDeadline() throws Exception {
+    assertEquals("test", Deadline.propagate(() -> "test").call());
+  }
+
+  @Test
+  public void propagate_whenNoDeadline_thenClearsDeadlineOfExecutingThread() throws Exception {
+    var callable = Deadline.propagate(() -> Deadline.current().isPresent());
+
+    try (var scope = Deadline.after(Duration.ZERO).bind()) {
+      assertFalse(callable.call());
+    }
+  }
+
+  @Test
+  public void propagate_whenMapAsyncAndNoDeadline_thenClearsDeadlineOfExecutingThread() throws Exception {
+    var staleDeadline = Deadline.after(Duration.ZERO);
+
+    var future = CompletableFutures.mapAsync(
+      List.of("foo"),
+      arg -> Deadline.current().isPresent(),
+      command -> {
+        try (var scope = staleDeadline.bind()) {
+          command.run();
+        }
+      },
+      CompletableFutures.FanOutOptions.UNBOUNDED);
+
+    assertEquals(List.of(false), future.get());
+  }
+
+  @Test
+  public void propagate_whenExpired() {
+    try (var scope = Deadline.after(Duration.ZERO).bind()) {
+      var callable = Deadline.propagate(() -> "test");
+      assertThrows(Deadline.ExceededException.class, callable::call);
+    }
+  }
+
+  @Test
+  public void propagate_whenUsedWithMapAsync() throws Exception {
+    var deadline = Deadline.after(Duration.ofMinutes(1));
+
+    try (var scope = deadline.bind()) {
+      var future = CompletableFutures.mapAsync(
+        List.of("foo"),
+        arg -> Deadline.current().get(),
+        EXECUTOR);
+
+      assertSame(deadline, future.get().stream().findFirst().get());
+    }
+  }
+
+  @Test
+  public void propagate_whenMapAsyncAndExpired() {
+    try (var scope = Deadline.after(Duration.ZERO).bind()) {
+      var future = CompletableFutures.mapAsync(
+        List.of("foo"),
+        arg -> arg,
+        command -> {}, // Never run
+        CompletableFutures.FanOutOptions.UNBOUNDED);
+
+      var exception = assertThrows(ExecutionException.class, future::get);
+      assertInstanceOf(AggregateException.class, exception.getCause());
+    }
+  }
+}
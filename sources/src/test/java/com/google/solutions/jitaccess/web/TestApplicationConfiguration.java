@@ -21,6 +21,7 @@
 
 package com.google.solutions.jitaccess.web;
 
+import com.google.solutions.jitaccess.apis.AsyncLogWriter;
 import com.google.solutions.jitaccess.apis.CustomerId;
 import org.junit.jupiter.api.Test;
 
@@ -180,4 +181,29 @@ public class TestApplicationConfiguration {
     assertEquals("2", configuration.smtpExtraOptionsMap().get("b"));
 
   }
+
+  // -------------------------------------------------------------------------
+  // Logging.
+  // -------------------------------------------------------------------------
+
+  @Test
+  public void asyncLogOptions_whenOverflowNotSpecified() {
+    var configuration = new ApplicationConfiguration(createMandatorySettings());
+
+    assertEquals(
+      AsyncLogWriter.Options.DEFAULT,
+      configuration.asyncLogOptions());
+  }
+
+  @Test
+  public void asyncLogOptions_whenOverflowSpecified() {
+    var settings = new HashMap<>(createMandatorySettings());
+    settings.put("LOG_ASYNC_OVERFLOW", " block ");
+
+    var configuration = new ApplicationConfiguration(settings);
+
+    assertEquals(
+      AsyncLogWriter.OverflowPolicy.BLOCK,
+      configuration.asyncLogOptions().overflowPolicy());
+  }
 }
@@ -0,0 +1,208 @@
+//
+// Copyright 2026 Google LLC
+//
+// Licensed to the Apache Software Foundation (ASF) under one
+// or more contributor license agreements.  See the NOTICE file
+// distributed with this work for additional information
+// regarding copyright ownership.  The ASF licenses this file
+// to you under the Apache License, Version 2.0 (the
+// "License"); you may not use this file except in compliance
+// with the License.  You may obtain a copy of the License at
+//
+//   http://www.apache.org/licenses/LICENSE-2.0
+//
+// Unless required by applicable law or agreed to in writing,
+// software distributed under the License is distributed on an
+// "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+// KIND, either express or implied.  See the License for the
+// specific language governing permissions and limitations
+// under the License.
+//
+
+package com.google.solutions.jitaccess.web;
+
+import com.google.solutions.jitaccess.apis.Logger;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.mock;
+
+public class TestAuditSpool {
+  private static final AuditSpool.Options SMALL_SPOOL = new AuditSpool.Options(
+    128,
+    10,
+    Duration.ofSeconds(5),
+    Duration.ofMillis(10),
+    Duration.ofMillis(10));
+
+  private static byte[] event(String s) {
+    return s.getBytes(StandardCharsets.UTF_8);
+  }
+
+  private static class RecordingSink implements AuditSpool.Sink {
+    private final List<String> events = new ArrayList<>();
+
+    @Override
+    public CompletableFuture<?> forward(byte[] event) {
+      this.events.add(new String(event, StandardCharsets.UTF_8));
+      return CompletableFuture.completedFuture(null);
+    }
+  }
+
+  //---------------------------------------------------------------------------
+  // append.
+  //---------------------------------------------------------------------------
+
+  @Test
+  public void append(@TempDir Path directory) throws Exception {
+    try (var spool = new AuditSpool(directory.resolve("spool"), SMALL_SPOOL, mock(Logger.class))) {
+      assertTrue(spool.append(event("event-1")));
+      assertTrue(spool.append(event("event-2")));
+
+      assertEquals(2 * (8 + 7), spool.backlog());
+    }
+  }
+
+  @Test
+  public void append_whenFull(@TempDir Path directory) throws Exception {
+    try (var spool = new AuditSpool(directory.resolve("spool"), SMALL_SPOOL, mock(Logger.class))) {
+      assertTrue(spool.append(new byte[100]));
+      assertFalse(spool.append(new byte[100]));
+    }
+  }
+
+  @Test
+  public void append_whenFullAndForwarded_thenCompacts(@TempDir Path directory) throws Exception {
+    try (var spool = new AuditSpool(directory.resolve("spool"), SMALL_SPOOL, mock(Logger.class))) {
+      var sink = new RecordingSink();
+
+      assertTrue(spool.append(new byte[50]));
+      assertTrue(spool.append(event("event-1")));
+      assertEquals(2, spool.forwardBatch(sink));
+
+      assertTrue(spool.append(new byte[40]));
+      assertTrue(spool.append(new byte[40]));
+      assertEquals(2 * (8 + 40), spool.backlog());
+    }
+  }
+
+  @Test
+  public void append_whenPendingEventsOverlapForwardedEvents_thenDoesNotCompact(@TempDir Path directory) throws Exception {
+    try (var spool = new AuditSpool(directory.resolve("spool"), SMALL_SPOOL, mock(Logger.class))) {
+      var sink = new RecordingSink();
+
+      assertTrue(spool.append(event("event-1")));
+      assertEquals(1, spool.forwardBatch(sink));
+      assertTrue(spool.append(new byte[60]));
+
+      //
+      // Moving the pending event would overwrite itself.
+      //
+      assertFalse(spool.append(new byte[30]));
+      assertEquals(8 + 60, spool.backlog());
+    }
+  }
+
+  @Test
+  public void reopen_whenCompacted_thenUnforwardedEventsRemain(@TempDir Path directory) throws Exception {
+    var file = directory.resolve("spool");
+
+    try (var spool = new AuditSpool(file, SMALL_SPOOL, mock(Logger.class))) {
+      assertTrue(spool.append(new byte[50]));
+      assertTrue(spool.append(new byte[20]));
+      assertEquals(2, spool.forwardBatch(new RecordingSink()));
+
+      assertTrue(spool.append(event("event-1")));
+      assertTrue(spool.append(new byte[40]));
+    }
+
+    try (var spool = new AuditSpool(file, SMALL_SPOOL, mock(Logger.class))) {
+      var sink = new RecordingSink();
+      assertEquals(2, spool.forwardBatch(sink));
+      assertEquals("event-1", sink.events.get(0));
+    }
+  }
+
+  //---------------------------------------------------------------------------
+  // forwardBatch.
+  //---------------------------------------------------------------------------
+
+  @Test
+  public void forwardBatch(@TempDir Path directory) throws Exception {
+    try (var spool = new AuditSpool(directory.resolve("spool"), SMALL_SPOOL, mock(Logger.class))) {
+      var sink = new RecordingSink();
+
+      spool.append(event("event-1"));
+      spool.append(event("event-2"));
+
+      assertEquals(2, spool.forwardBatch(sink));
+      assertEquals(0, spool.forwardBatch(sink));
+      assertEquals(List.of("event-1", "event-2"), sink.events);
+      assertEquals(0, spool.backlog());
+    }
+  }
+
+  @Test
+  public void forwardBatch_whenSinkFails_thenEventsRemain(@TempDir Path directory) throws Exception {
+    try (var spool = new AuditSpool(directory.resolve("spool"), SMALL_SPOOL, mock(Logger.class))) {
+      spool.append(event("event-1"));
+
+      assertThrows(
+        Exception.class,
+        () -> spool.forwardBatch(e -> CompletableFuture.failedFuture(new IOException("mock"))));
+
+      var sink = new RecordingSink();
+      assertEquals(1, spool.forwardBatch(sink));
+      assertEquals(List.of("event-1"), sink.events);
+    }
+  }
+
+  //---------------------------------------------------------------------------
+  // Restart.
+  //---------------------------------------------------------------------------
+
+  @Test
+  public void reopen_thenUnforwardedEventsRemain(@TempDir Path directory) throws Exception {
+    var file = directory.resolve("spool");
+
+    try (var spool = new AuditSpool(file, SMALL_SPOOL, mock(Logger.class))) {
+      spool.append(event("event-1"));
+      spool.forwardBatch(new RecordingSink());
+      spool.append(event("event-2"));
+    }
+
+    try (var spool = new AuditSpool(file, SMALL_SPOOL, mock(Logger.class))) {
+      var sink = new RecordingSink();
+      assertEquals(1, spool.forwardBatch(sink));
+      assertEquals(List.of("event-2"), sink.events);
+    }
+  }
+
+  //---------------------------------------------------------------------------
+  // startForwarding.
+  //---------------------------------------------------------------------------
+
+  @Test
+  public void startForwarding(@TempDir Path directory) throws Exception {
+    try (var spool = new AuditSpool(directory.resolve("spool"), SMALL_SPOOL, mock(Logger.class))) {
+      var forwarded = new CompletableFuture<String>();
+      spool.startForwarding(e -> {
+        forwarded.complete(new String(e, StandardCharsets.UTF_8));
+        return CompletableFuture.completedFuture(null);
+      });
+
+      spool.append(event("event-1"));
+
+      assertEquals("event-1", forwarded.get());
+    }
+  }
+}
@@ -0,0 +1,131 @@
+//
+// Copyright 2026 Google LLC
+//
+// Licensed to the Apache Software Foundation (ASF) under one
+// or more contributor license agreements.  See the NOTICE file
+// distributed with this work for additional information
+// regarding copyright ownership.  The ASF licenses this file
+// to you under the Apache License, Version 2.0 (the
+// "License"); you may not use this file except in compliance
+// with the License.  You may obtain a copy of the License at
+//
+//   http://www.apache.org/licenses/LICENSE-2.0
+//
+// Unless required by applicable law or agreed to in writing,
+// software distributed under the License is distributed on an
+// "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+// KIND, either express or implied.  See the License for the
+// specific language governing permissions and limitations
+// under the License.
+//
+
+package com.google.solutions.jitaccess.web;
+
+import com.google.api.client.json.gson.GsonFactory;
+import com.google.api.client.json.webtoken.JsonWebSignature;
+import com.google.api.client.json.webtoken.JsonWebToken;
+import com.google.auth.oauth2.TokenVerifier;
+import com.google.solutions.jitaccess.apis.clients.JsonWebKeySetCache;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mockito;
+
+import java.security.KeyPair;
+import java.security.KeyPairGenerator;
+import java.time.Instant;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+public class TestCachingTokenVerifier {
+  private static final String SAMPLE_KEY_ID = "key-1";
+  private static final String SAMPLE_ISSUER = "issuer";
+  private static final String SAMPLE_AUDIENCE = "audience";
+  private static final KeyPair SAMPLE_KEY_PAIR;
+
+  static {
+    try {
+      var generator = KeyPairGenerator.getInstance("RSA");
+      generator.initialize(2048);
+      SAMPLE_KEY_PAIR = generator.generateKeyPair();
+    }
+    catch (Exception e) {
+      throw new RuntimeException(e);
+    }
+  }
+
+  private static String createToken(JsonWebSignature.Header header) throws Exception {
+    var payload = new JsonWebToken.Payload()
+      .setIssuer(SAMPLE_ISSUER)
+      .setAudience(SAMPLE_AUDIENCE)
+      .setIssuedAtTimeSeconds(Instant.now().getEpochSecond())
+      .setExpirationTimeSeconds(Instant.now().plusSeconds(600).getEpochSecond())
+      .set("data", "value");
+
+    return JsonWebSignature.signUsingRsaSha256(
+      SAMPLE_KEY_PAIR.getPrivate(),
+      GsonFactory.getDefaultInstance(),
+      header,
+      payload);
+  }
+
+  private static CachingTokenVerifier createVerifier(JsonWebKeySetCache keySet) {
+    return new CachingTokenVerifier(
+      keySet,
+      SAMPLE_ISSUER,
+      SAMPLE_AUDIENCE,
+      CachingTokenVerifier.Options.DEFAULT);
+  }
+
+  //---------------------------------------------------------------------------
+  // verify.
+  //---------------------------------------------------------------------------
+
+  @Test
+  public void verify_whenKeyIdMissing_thenThrowsException() throws Exception {
+    var keySet = Mockito.mock(JsonWebKeySetCache.class);
+    var token = createToken(new JsonWebSignature.Header().setAlgorithm("RS256"));
+
+    assertThrows(
+      TokenVerifier.VerificationException.class,
+      () -> createVerifier(keySet).verify(token));
+  }
+
+  @Test
+  public void verify_whenTokenCached_thenReturnsCopy() throws Exception {
+    var keySet = Mockito.mock(JsonWebKeySetCache.class);
+    when(keySet.get(eq(SAMPLE_KEY_ID))).thenReturn(Optional.of(SAMPLE_KEY_PAIR.getPublic()));
+
+    var verifier = createVerifier(keySet);
+    var token = createToken(new JsonWebSignature.Header()
+      .setAlgorithm("RS256")
+      .setKeyId(SAMPLE_KEY_ID));
+
+    verifier.verify(token).getPayload().set("data", "tampered");
+
+    assertEquals("value", verifier.verify(token).getPayload().get("data"));
+    verify(keySet, times(1)).get(eq(SAMPLE_KEY_ID));
+  }
+
+  @Test
+  public void verify_whenKeyReplaced_thenUsesNewKey() throws Exception {
+    var otherKeyPair = KeyPairGenerator.getInstance("RSA").generateKeyPair();
+
+    var keySet = Mockito.mock(JsonWebKeySetCache.class);
+    when(keySet.get(eq(SAMPLE_KEY_ID)))
+      .thenReturn(Optional.of(otherKeyPair.getPublic()))
+      .thenReturn(Optional.of(SAMPLE_KEY_PAIR.getPublic()));
+
+    var verifier = createVerifier(keySet);
+    var token = createToken(new JsonWebSignature.Header()
+      .setAlgorithm("RS256")
+      .setKeyId(SAMPLE_KEY_ID));
+
+    assertThrows(
+      TokenVerifier.VerificationException.class,
+      () -> verifier.verify(token));
+
+    assertEquals("value", verifier.verify(token).getPayload().get("data"));
+  }
+}
@@ -0,0 +1,143 @@
+//
+// Copyright 2026 Google LLC
+//
+// Licensed to the Apache Software Foundation (ASF) under one
+// or more contributor license agreements.  See the NOTICE file
+// distributed with this work for additional information
+// regarding copyright ownership.  The ASF licenses this file
+// to you under the Apache License, Version 2.0 (the
+// "License"); you may not use this file except in compliance
+// with the License.  You may obtain a copy of the License at
+//
+//   http://www.apache.org/licenses/LICENSE-2.0
+//
+// Unless required by applicable law or agreed to in writing,
+// software distributed under the License is distributed on an
+// "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+// KIND, either express or implied.  See the License for the
+// specific language governing permissions and limitations
+// under the License.
+//
+
+package com.google.solutions.jitaccess.web;
+
+import com.google.api.client.json.gson.GsonFactory;
+import com.google.api.client.json.webtoken.JsonWebSignature;
+import com.google.api.client.json.webtoken.JsonWebToken;
+import com.google.auth.oauth2.TokenVerifier;
+import com.google.solutions.jitaccess.apis.clients.JsonWebKeySetCache;
+import com.google.solutions.jitaccess.auth.EndUserId;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mockito;
+
+import java.security.KeyPair;
+import java.security.KeyPairGenerator;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+public class TestIapAssertionVerifier {
+  private static final String SAMPLE_KEY_ID = "key-1";
+  private static final String SAMPLE_AUDIENCE = "/projects/1/apps/sample";
+  private static final KeyPair SAMPLE_KEY_PAIR;
+
+  static {
+    try {
+      var generator = KeyPairGenerator.getInstance("RSA");
+      generator.initialize(2048);
+      SAMPLE_KEY_PAIR = generator.generateKeyPair();
+    }
+    catch (Exception e) {
+      throw new RuntimeException(e);
+    }
+  }
+
+  private static String createAssertion(String keyId, String audience) throws Exception {
+    var header = new JsonWebSignature.Header()
+      .setAlgorithm("RS256")
+      .setKeyId(keyId);
+    var payload = new JsonWebToken.Payload()
+      .setIssuer(IapAssertionVerifier.IAP_ISSUER_URL)
+      .setAudience(audience)
+      .setIssuedAtTimeSeconds(Instant.now().getEpochSecond())
+      .setExpirationTimeSeconds(Instant.now().plusSeconds(600).getEpochSecond())
+      .set("email", "user@example.com");
+
+    return JsonWebSignature.signUsingRsaSha256(
+      SAMPLE_KEY_PAIR.getPrivate(),
+      GsonFactory.getDefaultInstance(),
+      header,
+      payload);
+  }
+
+  private static JsonWebKeySetCache createKeySet() throws Exception {
+    var keySet = Mockito.mock(JsonWebKeySetCache.class);
+    when(keySet.get(eq(SAMPLE_KEY_ID))).thenReturn(Optional.of(SAMPLE_KEY_PAIR.getPublic()));
+    when(keySet.get(eq("unknown"))).thenReturn(Optional.empty());
+    return keySet;
+  }
+
+  //---------------------------------------------------------------------------
+  // verify.
+  //---------------------------------------------------------------------------
+
+  @Test
+  public void verify_whenKeyUnknown_thenThrowsException() throws Exception {
+    var verifier = new IapAssertionVerifier(
+      SAMPLE_AUDIENCE,
+      createKeySet(),
+      CachingTokenVerifier.Options.DEFAULT);
+
+    assertThrows(
+      TokenVerifier.VerificationException.class,
+      () -> verifier.verify(createAssertion("unknown", SAMPLE_AUDIENCE)));
+  }
+
+  @Test
+  public void verify_whenAudienceWrong_thenThrowsException() throws Exception {
+    var verifier = new IapAssertionVerifier(
+      SAMPLE_AUDIENCE,
+      createKeySet(),
+      CachingTokenVerifier.Options.DEFAULT);
+
+    assertThrows(
+      TokenVerifier.VerificationException.class,
+      () -> verifier.verify(createAssertion(SAMPLE_KEY_ID, "/projects/1/apps/other")));
+  }
+
+  @Test
+  public void verify_whenAssertionValid_thenCachesResult() throws Exception {
+    var keySet = createKeySet();
+    var verifier = new IapAssertionVerifier(
+      SAMPLE_AUDIENCE,
+      keySet,
+      CachingTokenVerifier.Options.DEFAULT);
+
+    var assertion = createAssertion(SAMPLE_KEY_ID, SAMPLE_AUDIENCE);
+
+    assertEquals(new EndUserId("user@example.com"), verifier.verify(assertion).user());
+    assertEquals(new EndUserId("user@example.com"), verifier.verify(assertion).user());
+
+    verify(keySet, times(1)).get(eq(SAMPLE_KEY_ID));
+  }
+
+  @Test
+  public void verify_whenCacheDisabled() throws Exception {
+    var keySet = createKeySet();
+    var verifier = new IapAssertionVerifier(
+      SAMPLE_AUDIENCE,
+      keySet,
+      new CachingTokenVerifier.Options(0, Duration.ofMinutes(1)));
+
+    var assertion = createAssertion(SAMPLE_KEY_ID, SAMPLE_AUDIENCE);
+
+    verifier.verify(assertion);
+    verifier.verify(assertion);
+
+    verify(keySet, times(2)).get(eq(SAMPLE_KEY_ID));
+  }
+}
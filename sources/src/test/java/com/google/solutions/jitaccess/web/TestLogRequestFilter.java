@@ -0,0 +1,72 @@
+//
+// Copyright 2026 Google LLC
+//
+// Licensed to the Apache Software Foundation (ASF) under one
+// or more contributor license agreements.  See the NOTICE file
+// distributed with this work for additional information
+// regarding copyright ownership.  The ASF licenses this file
+// to you under the Apache License, Version 2.0 (the
+// "License"); you may not use this file except in compliance
+// with the License.  You may obtain a copy of the License at
+//
+//   http://www.apache.org/licenses/LICENSE-2.0
+//
+// Unless required by applicable law or agreed to in writing,
+// software distributed under the License is distributed on an
+// "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+// KIND, either express or implied.  See the License for the
+// specific language governing permissions and limitations
+// under the License.
+//
+
+package com.google.solutions.jitaccess.web;
+
+import com.google.solutions.jitaccess.auth.SubjectResolver;
+import com.google.solutions.jitaccess.common.Deadline;
+import jakarta.ws.rs.container.ContainerRequestContext;
+import jakarta.ws.rs.core.Request;
+import jakarta.ws.rs.core.UriInfo;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mockito;
+
+import java.time.Duration;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+public class TestLogRequestFilter {
+  private static ContainerRequestContext createRequest() {
+    var request = Mockito.mock(ContainerRequestContext.class);
+    when(request.getRequest()).thenReturn(Mockito.mock(Request.class));
+    when(request.getRequest().getMethod()).thenReturn("GET");
+    when(request.getUriInfo()).thenReturn(Mockito.mock(UriInfo.class));
+    when(request.getUriInfo().getPath()).thenReturn("/");
+    return request;
+  }
+
+  @Test
+  public void filter_initializesContext() {
+    var filter = new LogRequestFilter();
+    filter.requestContext = new RequestContext(Mockito.mock(SubjectResolver.class));
+    filter.options = new LogRequestFilter.Options(Duration.ofMinutes(1));
+
+    filter.filter(createRequest());
+
+    assertEquals("GET", filter.requestContext.requestMethod());
+    assertEquals("/", filter.requestContext.requestPath());
+    assertNotNull(filter.requestContext.requestDeadline());
+    assertFalse(filter.requestContext.requestDeadline().isExpired());
+
+    //
+    // Binding the deadline is left to the interceptor.
+    //
+    assertFalse(Deadline.current().isPresent());
+  }
+
+  @Test
+  public void options_whenTimeoutZero() {
+    assertThrows(
+      IllegalArgumentException.class,
+      () -> new LogRequestFilter.Options(Duration.ZERO));
+  }
+}
@@ -21,22 +21,33 @@
 
 package com.google.solutions.jitaccess.web;
 
+import com.google.api.services.pubsub.model.PubsubMessage;
 import com.google.solutions.jitaccess.apis.Logger;
+import com.google.solutions.jitaccess.apis.clients.PubSubBatchPublisher;
 import com.google.solutions.jitaccess.auth.EndUserId;
 import com.google.solutions.jitaccess.auth.JitGroupId;
 import com.google.solutions.jitaccess.auth.Principal;
 import com.google.solutions.jitaccess.catalog.JitGroupContext;
 import com.google.solutions.jitaccess.catalog.policy.PolicyAnalysis;
 import com.google.solutions.jitaccess.web.proposal.ProposalHandler;
+import jakarta.enterprise.context.ContextNotActiveException;
 import org.jetbrains.annotations.NotNull;
 import org.jetbrains.annotations.Nullable;
 import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
 import org.mockito.Mockito;
 
+import java.io.IOException;
+import java.time.Duration;
 import java.time.Instant;
 import java.util.*;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.atomic.AtomicBoolean;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
 import static org.mockito.Mockito.*;
 
 public class TestOperationAuditTrail {
@@ -230,4 +241,125 @@ public class TestOperationAuditTrail {
         "'jit-group:env-1.system-1.group-1' with expiry 2030-01-01T00:00Z",
       entry.message);
   }
+
+  //---------------------------------------------------------------------------
+  // Publishing.
+  //---------------------------------------------------------------------------
+
+  @Test
+  public void joinExecuted_whenPublisherConfigured_thenPublishesEvent() throws Exception {
+    var entry = new LogEntry();
+    var logger = Mockito.mock(Logger.class);
+    when(logger.buildInfo(EventIds.API_JOIN_GROUP))
+      .thenReturn(entry);
+
+    var joinOp = Mockito.mock(JitGroupContext.JoinOperation.class);
+    when(joinOp.user()).thenReturn(SAMPLER_USER_1);
+    when(joinOp.group()).thenReturn(SAMPLE_JITGROUP);
+    when(joinOp.input()).thenReturn(List.of());
+
+    var publisher = Mockito.mock(PubSubBatchPublisher.class);
+    when(publisher.publish(any(), any(Duration.class)))
+      .thenReturn(CompletableFuture.completedFuture("id-1"));
+
+    var trail = new OperationAuditTrail(
+      logger,
+      new OperationAuditTrail.Options(publisher, Mockito.mock(Logger.class)));
+    trail.joinExecuted(
+      joinOp,
+      new Principal(SAMPLE_JITGROUP, INSTANT_2030));
+
+    assertEquals(
+      SAMPLE_JITGROUP.toString(),
+      entry.labels.get(OperationAuditTrail.LABEL_GROUP_ID));
+
+    var message = ArgumentCaptor.forClass(PubsubMessage.class);
+    verify(publisher, times(1)).publish(message.capture(), any(Duration.class));
+
+    assertNull(message.getValue().getOrderingKey());
+    assertEquals(EventIds.API_JOIN_GROUP, message.getValue().getAttributes().get("event/id"));
+
+    var data = new String(message.getValue().decodeData());
+    assertTrue(data.contains("approval was not required"));
+    assertTrue(data.contains("\"audit\""));
+  }
+
+  @Test
+  public void joinExecuted_whenPublishingFails_thenLogsWarning() throws Exception {
+    var entry = new LogEntry();
+    var logger = Mockito.mock(Logger.class);
+    when(logger.buildInfo(EventIds.API_JOIN_GROUP))
+      .thenReturn(entry);
+
+    var joinOp = Mockito.mock(JitGroupContext.JoinOperation.class);
+    when(joinOp.user()).thenReturn(SAMPLER_USER_1);
+    when(joinOp.group()).thenReturn(SAMPLE_JITGROUP);
+    when(joinOp.input()).thenReturn(List.of());
+
+    var publisher = Mockito.mock(PubSubBatchPublisher.class);
+    when(publisher.publish(any(), any(Duration.class)))
+      .thenReturn(CompletableFuture.failedFuture(new RejectedExecutionException("mock")));
+
+    var backgroundLogger = Mockito.mock(Logger.class);
+    var trail = new OperationAuditTrail(
+      logger,
+      new OperationAuditTrail.Options(publisher, backgroundLogger));
+    trail.joinExecuted(
+      joinOp,
+      new Principal(SAMPLE_JITGROUP, INSTANT_2030));
+
+    verify(publisher, never()).publish(any());
+    verify(logger, never()).warn(
+      eq(EventIds.FORWARD_AUDIT_EVENTS),
+      anyString(),
+      any(Object[].class));
+    verify(backgroundLogger, times(1)).warn(
+      eq(EventIds.FORWARD_AUDIT_EVENTS),
+      anyString(),
+      any(Object[].class));
+  }
+
+  @Test
+  public void joinExecuted_whenPublishingFailsAfterRequestEnded_thenLogsWarning() throws Exception {
+    //
+    // Simulate a request-scoped context that becomes inactive once
+    // the request has ended.
+    //
+    var requestActive = new AtomicBoolean(true);
+    var requestContext = Mockito.mock(RequestContext.class, invocation -> {
+      if (!requestActive.get()) {
+        throw new ContextNotActiveException();
+      }
+      return RETURNS_DEFAULTS.answer(invocation);
+    });
+    var requestLogger = new RequestContextLogger(new StringBuilder(), requestContext);
+
+    var joinOp = Mockito.mock(JitGroupContext.JoinOperation.class);
+    when(joinOp.user()).thenReturn(SAMPLER_USER_1);
+    when(joinOp.group()).thenReturn(SAMPLE_JITGROUP);
+    when(joinOp.input()).thenReturn(List.of());
+
+    var pendingPublish = new CompletableFuture<String>();
+    var publisher = Mockito.mock(PubSubBatchPublisher.class);
+    when(publisher.publish(any(), any(Duration.class)))
+      .thenReturn(pendingPublish);
+
+    var backgroundLogger = Mockito.mock(Logger.class);
+    var trail = new OperationAuditTrail(
+      requestLogger,
+      new OperationAuditTrail.Options(publisher, backgroundLogger));
+    trail.joinExecuted(
+      joinOp,
+      new Principal(SAMPLE_JITGROUP, INSTANT_2030));
+
+    requestActive.set(false);
+    CompletableFuture
+      .runAsync(() -> pendingPublish.completeExceptionally(new IOException("mock")))
+      .get();
+
+    verify(backgroundLogger, times(1)).warn(
+      eq(EventIds.FORWARD_AUDIT_EVENTS),
+      anyString(),
+      any(Object[].class));
+  }
 }
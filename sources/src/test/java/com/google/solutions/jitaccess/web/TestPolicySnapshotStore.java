@@ -0,0 +1,150 @@
+//
+// Copyright 2026 Google LLC
+//
+// Licensed to the Apache Software Foundation (ASF) under one
+// or more contributor license agreements.  See the NOTICE file
+// distributed with this work for additional information
+// regarding copyright ownership.  The ASF licenses this file
+// to you under the Apache License, Version 2.0 (the
+// "License"); you may not use this file except in compliance
+// with the License.  You may obtain a copy of the License at
+//
+//   http://www.apache.org/licenses/LICENSE-2.0
+//
+// Unless required by applicable law or agreed to in writing,
+// software distributed under the License is distributed on an
+// "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+// KIND, either express or implied.  See the License for the
+// specific language governing permissions and limitations
+// under the License.
+//
+
+package com.google.solutions.jitaccess.web;
+
+import com.google.solutions.jitaccess.catalog.policy.Policy;
+import com.google.solutions.jitaccess.catalog.policy.PolicyDocumentSource;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Instant;
+import java.util.Arrays;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.mock;
+
+public class TestPolicySnapshotStore {
+  private static final String YAML =
+    "schemaVersion: 1\n" +
+    "environment:\n" +
+    "  name: \"env-1\"\n";
+
+  private static final Policy.Metadata METADATA = new Policy.Metadata(
+    "secret",
+    Instant.ofEpochSecond(1000),
+    "projects/1/secrets/policy/versions/2",
+    "env-1");
+
+  //---------------------------------------------------------------------------
+  // write.
+  //---------------------------------------------------------------------------
+
+  @Test
+  public void write_whenSourceHasNoFingerprint(@TempDir Path directory) {
+    var store = new PolicySnapshotStore(directory);
+
+    assertThrows(
+      IllegalArgumentException.class,
+      () -> store.write("env-1", mock(PolicyDocumentSource.class)));
+  }
+
+  @Test
+  public void write_whenSnapshotExists(@TempDir Path directory) throws Exception {
+    var store = new PolicySnapshotStore(directory);
+
+    store.write("env-1", PolicyDocumentSource.fromString("old", METADATA));
+    store.write("env-1", PolicyDocumentSource.fromString(YAML, METADATA));
+
+    var snapshot = store.read("env-1");
+    assertTrue(snapshot.isPresent());
+    assertEquals(YAML, snapshot.get().yaml());
+
+    try (var files = Files.list(directory)) {
+      assertEquals(1, files.count());
+    }
+  }
+
+  //---------------------------------------------------------------------------
+  // read.
+  //---------------------------------------------------------------------------
+
+  @Test
+  public void read_whenSnapshotMissing(@TempDir Path directory) throws Exception {
+    var store = new PolicySnapshotStore(directory);
+
+    assertFalse(store.read("env-1").isPresent());
+  }
+
+  @Test
+  public void read(@TempDir Path directory) throws Exception {
+    var store = new PolicySnapshotStore(directory);
+    var source = PolicyDocumentSource.fromString(YAML, METADATA);
+
+    store.write("env-1", source);
+
+    var snapshot = store.read("env-1");
+    assertTrue(snapshot.isPresent());
+    assertEquals(YAML, snapshot.get().yaml());
+    assertEquals(METADATA, snapshot.get().metadata());
+    assertEquals(source.fingerprint(), snapshot.get().fingerprint());
+    assertTrue(snapshot.get().isUnchangedFrom(source));
+  }
+
+  @Test
+  public void read_whenFileInvalid(@TempDir Path directory) throws Exception {
+    Files.writeString(directory.resolve("env-1.policy"), "not a snapshot");
+
+    var store = new PolicySnapshotStore(directory);
+
+    assertThrows(
+      IOException.class,
+      () -> store.read("env-1"));
+  }
+
+  @Test
+  public void read_whenFileTruncated(@TempDir Path directory) throws Exception {
+    var store = new PolicySnapshotStore(directory);
+    store.write("env-1", PolicyDocumentSource.fromString(YAML, METADATA));
+
+    var file = directory.resolve("env-1.policy");
+    var content = Files.readAllBytes(file);
+    Files.write(file, Arrays.copyOf(content, content.length - 8));
+
+    assertThrows(
+      IOException.class,
+      () -> store.read("env-1"));
+  }
+
+  @Test
+  public void read_whenFileCorrupt(@TempDir Path directory) throws Exception {
+    var store = new PolicySnapshotStore(directory);
+    store.write("env-1", PolicyDocumentSource.fromString(YAML, METADATA));
+
+    //
+    // Change the fingerprint.
+    //
+    var fingerprint = PolicyDocumentSource.fromString(YAML, METADATA).fingerprint().get();
+    var tampered = (fingerprint.charAt(0) == 'a' ? "b" : "a") + fingerprint.substring(1);
+
+    var file = directory.resolve("env-1.policy");
+    var content = Files.readString(file, StandardCharsets.ISO_8859_1);
+    Files.writeString(file, content.replace(fingerprint, tampered), StandardCharsets.ISO_8859_1);
+
+    assertThrows(
+      IOException.class,
+      () -> store.read("env-1"));
+  }
+}
@@ -37,7 +37,7 @@ public class TestRequestContextLogger {
   public void info_whenTraceIdAndUserIdSet() {
     var buffer = new StringBuilder();
     var requestContext = new RequestContext(Mockito.mock(SubjectResolver.class));
-    requestContext.initialize("GET", "/", "trace-1");
+    requestContext.initialize("GET", "/", "trace-1", null);
     requestContext.authenticate(
       new EndUserId("id"),
       Directory.CONSUMER,
@@ -60,7 +60,7 @@ public class TestRequestContextLogger {
   public void info_whenTraceIdAndAccessLevelsSet() {
     var buffer = new StringBuilder();
     var requestContext = new RequestContext(Mockito.mock(SubjectResolver.class));
-    requestContext.initialize("GET", "/", "trace-1");
+    requestContext.initialize("GET", "/", "trace-1", null);
     requestContext.authenticate(
       new EndUserId("id"),
       Directory.CONSUMER,
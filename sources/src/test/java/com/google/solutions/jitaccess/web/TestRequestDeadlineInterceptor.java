@@ -0,0 +1,83 @@
+//
+// Copyright 2026 Google LLC
+//
+// Licensed to the Apache Software Foundation (ASF) under one
+// or more contributor license agreements.  See the NOTICE file
+// distributed with this work for additional information
+// regarding copyright ownership.  The ASF licenses this file
+// to you under the Apache License, Version 2.0 (the
+// "License"); you may not use this file except in compliance
+// with the License.  You may obtain a copy of the License at
+//
+//   http://www.apache.org/licenses/LICENSE-2.0
+//
+// Unless required by applicable law or agreed to in writing,
+// software distributed under the License is distributed on an
+// "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+// KIND, either express or implied.  See the License for the
+// specific language governing permissions and limitations
+// under the License.
+//
+
+package com.google.solutions.jitaccess.web;
+
+import com.google.solutions.jitaccess.auth.SubjectResolver;
+import com.google.solutions.jitaccess.common.Deadline;
+import jakarta.interceptor.InvocationContext;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mockito;
+
+import java.time.Duration;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.when;
+
+public class TestRequestDeadlineInterceptor {
+  private static RequestDeadlineInterceptor createInterceptor(Deadline deadline) {
+    var interceptor = new RequestDeadlineInterceptor();
+    interceptor.requestContext = new RequestContext(Mockito.mock(SubjectResolver.class));
+    interceptor.requestContext.initialize("GET", "/", null, deadline);
+    return interceptor;
+  }
+
+  //---------------------------------------------------------------------------
+  // bindDeadline.
+  //---------------------------------------------------------------------------
+
+  @Test
+  public void bindDeadline() throws Exception {
+    var deadline = Deadline.after(Duration.ofMinutes(1));
+    var interceptor = createInterceptor(deadline);
+
+    var invocationContext = Mockito.mock(InvocationContext.class);
+    when(invocationContext.proceed()).thenAnswer(i -> Deadline.current().orElse(null));
+
+    assertSame(deadline, interceptor.bindDeadline(invocationContext));
+    assertFalse(Deadline.current().isPresent());
+  }
+
+  @Test
+  public void bindDeadline_whenMethodThrows() throws Exception {
+    var interceptor = createInterceptor(Deadline.after(Duration.ofMinutes(1)));
+
+    var invocationContext = Mockito.mock(InvocationContext.class);
+    when(invocationContext.proceed()).thenThrow(new IllegalStateException());
+
+    assertThrows(
+      IllegalStateException.class,
+      () -> interceptor.bindDeadline(invocationContext));
+    assertFalse(Deadline.current().isPresent());
+  }
+
+  @Test
+  public void bindDeadline_whenThreadHasStaleDeadline() throws Exception {
+    var interceptor = createInterceptor(null);
+
+    var invocationContext = Mockito.mock(InvocationContext.class);
+    when(invocationContext.proceed()).thenAnswer(i -> Deadline.current().isPresent());
+
+    try (var scope = Deadline.after(Duration.ZERO).bind()) {
+      assertEquals(false, interceptor.bindDeadline(invocationContext));
+    }
+  }
+}
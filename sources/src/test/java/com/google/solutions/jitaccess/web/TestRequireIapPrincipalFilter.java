@@ -22,6 +22,8 @@
 package com.google.solutions.jitaccess.web;
 
 import com.google.solutions.jitaccess.apis.Logger;
+import com.google.solutions.jitaccess.apis.clients.HttpTransport;
+import com.google.solutions.jitaccess.apis.clients.JsonWebKeySetCache;
 import com.google.solutions.jitaccess.auth.SubjectResolver;
 import jakarta.ws.rs.ForbiddenException;
 import jakarta.ws.rs.container.ContainerRequestContext;
@@ -35,12 +37,24 @@ import static org.mockito.Mockito.anyString;
 import static org.mockito.Mockito.when;
 
 public class TestRequireIapPrincipalFilter {
+  private static IapAssertionVerifier createVerifier(String audience) {
+    return new IapAssertionVerifier(
+      audience,
+      new JsonWebKeySetCache(
+        IapAssertionVerifier.IAP_JWKS_URL,
+        Runnable::run,
+        HttpTransport.Options.DEFAULT,
+        JsonWebKeySetCache.Options.DEFAULT),
+      CachingTokenVerifier.Options.DEFAULT);
+  }
+
   @Test()
   public void filter_whenHeaderMissing_thenThrowsForbiddenException() {
     RequireIapPrincipalFilter filter = new RequireIapPrincipalFilter();
     filter.options = new RequireIapPrincipalFilter.Options(false, "audience");
     filter.requestContext = new RequestContext(Mockito.mock(SubjectResolver.class));
     filter.logger = Mockito.mock(Logger.class);
+    filter.verifier = createVerifier("audience");
 
     ContainerRequestContext request = Mockito.mock(ContainerRequestContext.class);
     when(request.getHeaderString(anyString())).thenReturn(null);
@@ -54,6 +68,7 @@ public class TestRequireIapPrincipalFilter {
     filter.options = new RequireIapPrincipalFilter.Options(false, "audience");
     filter.requestContext = new RequestContext(Mockito.mock(SubjectResolver.class));
     filter.logger = Mockito.mock(Logger.class);
+    filter.verifier = createVerifier("audience");
 
     ContainerRequestContext request = Mockito.mock(ContainerRequestContext.class);
     when(request.getHeaderString(anyString())).thenReturn("ey00");
@@ -67,6 +82,7 @@ public class TestRequireIapPrincipalFilter {
     filter.options = new RequireIapPrincipalFilter.Options(false, "audience");
     filter.requestContext = new RequestContext(Mockito.mock(SubjectResolver.class));
     filter.logger = Mockito.mock(Logger.class);
+    filter.verifier = createVerifier("audience");
 
     // Random JWT that doesn't even come from IAP.
     String randomJwt =
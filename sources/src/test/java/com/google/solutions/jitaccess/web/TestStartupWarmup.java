@@ -0,0 +1,189 @@
+//
+// Copyright 2026 Google LLC
+//
+// Licensed to the Apache Software Foundation (ASF) under one
+// or more contributor license agreements.  See the NOTICE file
+// distributed with this work for additional information
+// regarding copyright ownership.  The ASF licenses this file
+// to you under the Apache License, Version 2.0 (the
+// "License"); you may not use this file except in compliance
+// with the License.  You may obtain a copy of the License at
+//
+//   http://www.apache.org/licenses/LICENSE-2.0
+//
+// Unless required by applicable law or agreed to in writing,
+// software distributed under the License is distributed on an
+// "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+// KIND, either express or implied.  See the License for the
+// specific language governing permissions and limitations
+// under the License.
+//
+
+package com.google.solutions.jitaccess.web;
+
+import com.google.solutions.jitaccess.apis.Logger;
+import com.google.solutions.jitaccess.common.Deadline;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verify;
+
+public class TestStartupWarmup {
+  //---------------------------------------------------------------------------
+  // start.
+  //---------------------------------------------------------------------------
+
+  @Test
+  public void start_whenAlreadyStarted_thenThrows() {
+    var warmup = new StartupWarmup(
+      List.of(),
+      Runnable::run,
+      StartupWarmup.Options.DEFAULT,
+      mock(Logger.class));
+
+    warmup.start();
+
+    assertThrows(
+      IllegalStateException.class,
+      warmup::start);
+  }
+
+  @Test
+  public void start_whenNoTasks() {
+    var warmup = new StartupWarmup(
+      List.of(),
+      Runnable::run,
+      StartupWarmup.Options.DEFAULT,
+      mock(Logger.class));
+
+    warmup.start();
+
+    assertTrue(warmup.isComplete());
+  }
+
+  @Test
+  public void start_runsAllTasks() throws Exception {
+    var count = new AtomicInteger(0);
+    var warmup = new StartupWarmup(
+      List.of(
+        new StartupWarmup.Task("task-1", count::incrementAndGet),
+        new StartupWarmup.Task("task-2", count::incrementAndGet)),
+      Executors.newCachedThreadPool(),
+      StartupWarmup.Options.DEFAULT,
+      mock(Logger.class));
+
+    warmup.start();
+    warmup.completion().get(5, TimeUnit.SECONDS);
+
+    assertTrue(warmup.isComplete());
+    assertEquals(2, count.get());
+  }
+
+  @Test
+  public void start_whenTaskFails_thenCompletes() throws Exception {
+    var logger = mock(Logger.class);
+    var warmup = new StartupWarmup(
+      List.of(
+        new StartupWarmup.Task("task-1", () -> { throw new IOException("mock"); })),
+      Executors.newCachedThreadPool(),
+      StartupWarmup.Options.DEFAULT,
+      logger);
+
+    warmup.start();
+    warmup.completion().get(5, TimeUnit.SECONDS);
+
+    assertTrue(warmup.isComplete());
+    verify(logger).warn(eq(EventIds.STARTUP), anyString(), any(IOException.class));
+  }
+
+  @Test
+  public void start_whenTaskTimesOut_thenCompletes() throws Exception {
+    var release = new CountDownLatch(1);
+    var warmup = new StartupWarmup(
+      List.of(
+        new StartupWarmup.Task("task-1", release::await)),
+      Executors.newCachedThreadPool(),
+      new StartupWarmup.Options(Duration.ofMillis(50)),
+      mock(Logger.class));
+
+    warmup.start();
+    warmup.completion().get(5, TimeUnit.SECONDS);
+
+    assertTrue(warmup.isComplete());
+    release.countDown();
+  }
+
+  @Test
+  public void start_whenTaskTimesOut_thenTaskContinuesWithoutDeadline() throws Exception {
+    var release = new CountDownLatch(1);
+    var deadlineBound = new AtomicBoolean(true);
+    var taskCompleted = new CountDownLatch(1);
+    var warmup = new StartupWarmup(
+      List.of(
+        new StartupWarmup.Task("task-1", () -> {
+          release.await();
+          deadlineBound.set(Deadline.current().isPresent());
+          taskCompleted.countDown();
+        })),
+      Executors.newCachedThreadPool(),
+      new StartupWarmup.Options(Duration.ofMillis(50)),
+      mock(Logger.class));
+
+    warmup.start();
+    warmup.completion().get(5, TimeUnit.SECONDS);
+
+    release.countDown();
+    assertTrue(taskCompleted.await(5, TimeUnit.SECONDS));
+    assertFalse(deadlineBound.get());
+  }
+
+  //---------------------------------------------------------------------------
+  // diagnose.
+  //---------------------------------------------------------------------------
+
+  @Test
+  public void diagnose_whenNotStarted() {
+    var warmup = new StartupWarmup(
+      List.of(),
+      Runnable::run,
+      StartupWarmup.Options.DEFAULT,
+      mock(Logger.class));
+
+    var results = warmup.diagnose();
+    assertEquals(1, results.size());
+    assertFalse(results.iterator().next().successful());
+  }
+
+  @Test
+  public void diagnose_whenInProgress() throws Exception {
+    var release = new CountDownLatch(1);
+    var warmup = new StartupWarmup(
+      List.of(
+        new StartupWarmup.Task("task-1", release::await)),
+      Executors.newCachedThreadPool(),
+      StartupWarmup.Options.DEFAULT,
+      mock(Logger.class));
+
+    warmup.start();
+
+    assertFalse(warmup.diagnose().iterator().next().successful());
+
+    release.countDown();
+    warmup.completion().get(5, TimeUnit.SECONDS);
+
+    assertTrue(warmup.diagnose().iterator().next().successful());
+  }
+}
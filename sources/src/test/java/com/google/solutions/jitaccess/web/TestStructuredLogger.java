@@ -21,11 +21,12 @@
 
 package com.google.solutions.jitaccess.web;
 
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.google.solutions.jitaccess.apis.LogFilter;
 import com.google.solutions.jitaccess.apis.StructuredLogger;
 import org.junit.jupiter.api.Test;
 
-import static org.junit.jupiter.api.Assertions.assertEquals;
-import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.junit.jupiter.api.Assertions.*;
 
 public class TestStructuredLogger {
   // -------------------------------------------------------------------------
@@ -135,4 +136,125 @@ public class TestStructuredLogger {
     assertTrue(buffer.toString()
       .contains("exception: outer-exception, caused by IllegalArgumentException: inner-exception"));
   }
+
+  // -------------------------------------------------------------------------
+  // write.
+  // -------------------------------------------------------------------------
+
+  @Test
+  public void write_whenMessageContainsSpecialCharacters() throws Exception {
+    var buffer = new StringBuilder();
+    var logger = new StructuredLogger(buffer);
+
+    logger.info("event-1", "\"quoted\"\nline\\");
+
+    var json = new ObjectMapper().readTree(buffer.toString());
+    assertEquals("\"quoted\"\nline\\", json.get("message").asText());
+    assertTrue(buffer.toString().endsWith("}\n"));
+    assertEquals(1, buffer.toString().split("\n").length);
+  }
+
+  @Test
+  public void write_whenEntriesWrittenConsecutively() throws Exception {
+    var buffer = new StringBuilder();
+    var logger = new StructuredLogger(buffer);
+
+    logger.info("event-1", "a rather long message-1");
+    logger.warn("event-2", "message-2");
+
+    var lines = buffer.toString().split("\n");
+    assertEquals(2, lines.length);
+
+    var first = new ObjectMapper().readTree(lines[0]);
+    assertEquals("INFO", first.get("severity").asText());
+    assertEquals("a rather long message-1", first.get("message").asText());
+
+    var second = new ObjectMapper().readTree(lines[1]);
+    assertEquals("WARN", second.get("severity").asText());
+    assertEquals("message-2", second.get("message").asText());
+    assertEquals("event-2", second.get("logging.googleapis.com/labels").get("event/id").asText());
+  }
+
+  @Test
+  public void write_whenFormattedMessagesWrittenConsecutively() throws Exception {
+    var buffer = new StringBuilder();
+    var logger = new StructuredLogger(buffer);
+
+    var longValue = "x".repeat(1000);
+    logger.info("event-1", "long: %s \"%d\"", longValue, 1);
+    logger.info("event-2", "short: %d", 2);
+
+    var lines = buffer.toString().split("\n");
+    assertEquals(2, lines.length);
+    assertEquals(
+      "long: " + longValue + " \"1\"",
+      new ObjectMapper().readTree(lines[0]).get("message").asText());
+    assertEquals(
+      "short: 2",
+      new ObjectMapper().readTree(lines[1]).get("message").asText());
+  }
+
+  @Test
+  public void write_whenExceptionLogged() throws Exception {
+    var buffer = new StringBuilder();
+    var logger = new StructuredLogger(buffer);
+
+    logger.error("event-1", "message-1", new IllegalStateException("failure"));
+
+    var json = new ObjectMapper().readTree(buffer.toString());
+    assertEquals("ERROR", json.get("severity").asText());
+    assertEquals("message-1: failure", json.get("message").asText());
+    assertTrue(json
+      .get("logging.googleapis.com/labels")
+      .get("exception/stacktrace")
+      .asText()
+      .contains("IllegalStateException"));
+    assertNull(json.get("logging.googleapis.com/trace"));
+  }
+
+  // -------------------------------------------------------------------------
+  // Filtering.
+  // -------------------------------------------------------------------------
+
+  @Test
+  public void write_whenFilteredOut() {
+    var buffer = new StringBuilder();
+    var logger = new StructuredLogger(buffer, LogFilter.parse("event-1=WARN"));
+
+    logger.info("event-1", "message-1");
+    logger.info("event-2", "message-2");
+
+    assertFalse(buffer.toString().contains("message-1"));
+    assertTrue(buffer.toString().contains("message-2"));
+  }
+
+  @Test
+  public void write_whenFilteredOut_thenMessageIsNotFormatted() {
+    var buffer = new StringBuilder();
+    var logger = new StructuredLogger(buffer, LogFilter.parse("event-1=ERROR"));
+    var argument = new Object() {
+      @Override
+      public String toString() {
+        throw new AssertionError("Message formatted");
+      }
+    };
+
+    logger.info("event-1", "%s", argument);
+    logger.warn("event-1", "%s", argument);
+
+    assertEquals("", buffer.toString());
+  }
+
+  @Test
+  public void write_whenAuditEvent_thenFilterIsIgnored() {
+    var buffer = new StringBuilder();
+    var logger = new StructuredLogger(buffer, LogFilter.parse("*=ERROR"));
+
+    logger.buildInfo("event-1")
+      .addLabel("event/type", "audit")
+      .setMessage("message-1")
+      .write();
+
+    assertTrue(buffer.toString().contains("message-1"));
+  }
 }
@@ -53,6 +53,8 @@ public class ITestServiceAccountSigner {
     var tokenSignerOptions = new ServiceAccountSigner.Options(serviceAccount);
     var tokenSigner = new ServiceAccountSigner(
       credentialsAdapter,
+      HttpTransport.Options.DEFAULT,
+      Runnable::run,
       tokenSignerOptions);
 
     var emptyPayload = new JsonWebToken.Payload();
@@ -92,6 +94,8 @@ public class ITestServiceAccountSigner {
 
     var tokenSigner = new ServiceAccountSigner(
       credentialsAdapter,
+      HttpTransport.Options.DEFAULT,
+      Runnable::run,
       new ServiceAccountSigner.Options(serviceAccount));
 
     var payload = new JsonWebToken.Payload()
@@ -112,6 +116,8 @@ public class ITestServiceAccountSigner {
 
     var tokenSigner = new ServiceAccountSigner(
       credentialsAdapter,
+      HttpTransport.Options.DEFAULT,
+      Runnable::run,
       new ServiceAccountSigner.Options(serviceAccount));
 
     var payload = new JsonWebToken.Payload()
@@ -133,6 +139,8 @@ public class ITestServiceAccountSigner {
 
     var tokenSigner = new ServiceAccountSigner(
       credentialsAdapter,
+      HttpTransport.Options.DEFAULT,
+      Runnable::run,
       new ServiceAccountSigner.Options(serviceAccount));
 
     var payload = new JsonWebToken.Payload()
@@ -155,6 +163,8 @@ public class ITestServiceAccountSigner {
 
     var tokenSigner = new ServiceAccountSigner(
       credentialsAdapter,
+      HttpTransport.Options.DEFAULT,
+      Runnable::run,
       new ServiceAccountSigner.Options(serviceAccount));
 
     var inputPayload = new JsonWebToken.Payload()
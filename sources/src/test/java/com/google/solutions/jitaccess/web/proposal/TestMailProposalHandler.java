@@ -21,6 +21,7 @@
 
 package com.google.solutions.jitaccess.web.proposal;
 
+import com.google.solutions.jitaccess.apis.Logger;
 import com.google.solutions.jitaccess.apis.clients.SmtpClient;
 import com.google.solutions.jitaccess.auth.EmailAddress;
 import com.google.solutions.jitaccess.auth.EmailMapping;
@@ -60,7 +61,7 @@ public class TestMailProposalHandler {
     var handler = new MailProposalHandler(
       Mockito.mock(TokenSigner.class),
       new EmailMapping("user.email"),
-      smtpClient,
+      new MailQueue(smtpClient, MailQueue.Options.DEFAULT, Mockito.mock(Logger.class)),
       new MailProposalHandler.Options(
         MailProposalHandler.Options.DEFAULT_TIMEZONE,
         Duration.ofMinutes(1)));
@@ -85,7 +86,7 @@ public class TestMailProposalHandler {
         proposal.expiry()),
       new URI("/"));
 
-    verify(smtpClient, times(1)).sendMail(
+    verify(smtpClient, timeout(5000).times(1)).sendMail(
       eq(Set.of(new EmailAddress(SAMPLE_USER_2.email))),
       eq(List.of(new EmailAddress(SAMPLE_USER_1.email))),
       eq(SAMPLE_USER_1.email + " requests to join " + SAMPLE_JITGROUP.name()),
@@ -104,7 +105,7 @@ public class TestMailProposalHandler {
     var handler = new MailProposalHandler(
       Mockito.mock(TokenSigner.class),
       new EmailMapping("user.email"),
-      smtpClient,
+      new MailQueue(smtpClient, MailQueue.Options.DEFAULT, Mockito.mock(Logger.class)),
       new MailProposalHandler.Options(
         MailProposalHandler.Options.DEFAULT_TIMEZONE,
         Duration.ofMinutes(1)));
@@ -124,7 +125,7 @@ public class TestMailProposalHandler {
       op,
       proposal);
 
-    verify(smtpClient, times(1)).sendMail(
+    verify(smtpClient, timeout(5000).times(1)).sendMail(
       eq(List.of(new EmailAddress(SAMPLE_USER_1.email))),
       eq(Set.of(new EmailAddress(SAMPLE_USER_2.email))),
       eq(SAMPLE_USER_1.email + " requests to join " + SAMPLE_JITGROUP.name()),
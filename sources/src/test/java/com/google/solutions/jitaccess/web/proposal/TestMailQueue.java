@@ -0,0 +1,283 @@
+//
+// Copyright 2026 Google LLC
+//
+// Licensed to the Apache Software Foundation (ASF) under one
+// or more contributor license agreements.  See the NOTICE file
+// distributed with this work for additional information
+// regarding copyright ownership.  The ASF licenses this file
+// to you under the Apache License, Version 2.0 (the
+// "License"); you may not use this file except in compliance
+// with the License.  You may obtain a copy of the License at
+//
+//   http://www.apache.org/licenses/LICENSE-2.0
+//
+// Unless required by applicable law or agreed to in writing,
+// software distributed under the License is distributed on an
+// "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+// KIND, either express or implied.  See the License for the
+// specific language governing permissions and limitations
+// under the License.
+//
+
+package com.google.solutions.jitaccess.web.proposal;
+
+import com.google.solutions.jitaccess.apis.Logger;
+import com.google.solutions.jitaccess.apis.clients.SmtpClient;
+import com.google.solutions.jitaccess.auth.EmailAddress;
+import com.google.solutions.jitaccess.web.EventIds;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.EnumSet;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+public class TestMailQueue {
+  private static final EmailAddress SAMPLE_ADDRESS = new EmailAddress("user@example.com");
+
+  private static MailQueue.Options createOptions(int capacity, int maxAttempts, Path spoolDirectory) {
+    return new MailQueue.Options(
+      capacity,
+      1,
+      maxAttempts,
+      Duration.ofMillis(10),
+      Duration.ofMillis(10),
+      Duration.ofMinutes(5),
+      Duration.ZERO,
+      spoolDirectory);
+  }
+
+  //---------------------------------------------------------------------------
+  // enqueue.
+  //---------------------------------------------------------------------------
+
+  @Test
+  public void enqueue() throws Exception {
+    var smtpClient = mock(SmtpClient.class);
+
+    try (var queue = new MailQueue(smtpClient, createOptions(10, 1, null), mock(Logger.class))) {
+      queue.enqueue(
+        List.of(SAMPLE_ADDRESS),
+        List.of(),
+        "subject",
+        "body",
+        EnumSet.of(SmtpClient.Flags.NONE));
+
+      verify(smtpClient, timeout(5000).times(1)).sendMail(
+        eq(List.of(SAMPLE_ADDRESS)),
+        eq(List.of()),
+        eq("subject"),
+        eq("body"),
+        eq(EnumSet.of(SmtpClient.Flags.NONE)));
+    }
+  }
+
+  @Test
+  public void enqueue_whenDeliveryFails_thenRetries() throws Exception {
+    var smtpClient = mock(SmtpClient.class);
+    doThrow(new SmtpClient.MailException("mock", new Exception()))
+      .doNothing()
+      .when(smtpClient)
+      .sendMail(anyCollection(), anyCollection(), anyString(), anyString(), any());
+
+    try (var queue = new MailQueue(smtpClient, createOptions(10, 3, null), mock(Logger.class))) {
+      queue.enqueue(
+        List.of(SAMPLE_ADDRESS),
+        List.of(),
+        "subject",
+        "body",
+        EnumSet.of(SmtpClient.Flags.REPLY));
+
+      verify(smtpClient, timeout(5000).times(2))
+        .sendMail(anyCollection(), anyCollection(), anyString(), anyString(), any());
+
+      Thread.sleep(100);
+      var metrics = queue.metrics();
+      assertEquals(1, metrics.delivered());
+      assertEquals(1, metrics.retried());
+      assertEquals(0, metrics.failed());
+      assertEquals(0, metrics.pending());
+    }
+  }
+
+  @Test
+  public void enqueue_whenDeliveryFailsRepeatedly_thenGivesUp() throws Exception {
+    var smtpClient = mock(SmtpClient.class);
+    doThrow(new SmtpClient.MailException("mock", new Exception()))
+      .when(smtpClient)
+      .sendMail(anyCollection(), anyCollection(), anyString(), anyString(), any());
+
+    try (var queue = new MailQueue(smtpClient, createOptions(10, 2, null), mock(Logger.class))) {
+      queue.enqueue(
+        List.of(SAMPLE_ADDRESS),
+        List.of(),
+        "subject",
+        "body",
+        EnumSet.of(SmtpClient.Flags.NONE));
+
+      verify(smtpClient, timeout(5000).times(2))
+        .sendMail(anyCollection(), anyCollection(), anyString(), anyString(), any());
+
+      Thread.sleep(100);
+      var metrics = queue.metrics();
+      assertEquals(0, metrics.delivered());
+      assertEquals(1, metrics.failed());
+      assertEquals(0, metrics.pending());
+    }
+  }
+
+  @Test
+  public void enqueue_whenQueueFull() throws Exception {
+    var blocked = new CountDownLatch(1);
+    var smtpClient = mock(SmtpClient.class);
+    doAnswer(invocation -> {
+      blocked.await();
+      return null;
+    })
+      .when(smtpClient)
+      .sendMail(anyCollection(), anyCollection(), anyString(), anyString(), any());
+
+    try (var queue = new MailQueue(smtpClient, createOptions(1, 1, null), mock(Logger.class))) {
+      queue.enqueue(
+        List.of(SAMPLE_ADDRESS),
+        List.of(),
+        "subject",
+        "body",
+        EnumSet.of(SmtpClient.Flags.NONE));
+
+      assertThrows(
+        SmtpClient.MailException.class,
+        () -> queue.enqueue(
+          List.of(SAMPLE_ADDRESS),
+          List.of(),
+          "subject",
+          "body",
+          EnumSet.of(SmtpClient.Flags.NONE)));
+
+      assertEquals(1, queue.metrics().rejected());
+      blocked.countDown();
+    }
+  }
+
+  @Test
+  public void enqueue_whenQueueClosed_thenMailCountsAsFailed() throws Exception {
+    var smtpClient = mock(SmtpClient.class);
+    var logger = mock(Logger.class);
+
+    var queue = new MailQueue(smtpClient, createOptions(10, 1, null), logger);
+    queue.close();
+
+    queue.enqueue(
+      List.of(SAMPLE_ADDRESS),
+      List.of(),
+      "subject",
+      "body",
+      EnumSet.of(SmtpClient.Flags.NONE));
+
+    var metrics = queue.metrics();
+    assertEquals(0, metrics.pending());
+    assertEquals(1, metrics.failed());
+    verify(logger, times(1)).error(eq(EventIds.DELIVER_MAIL), contains("dropping"), any(Exception.class));
+    verify(smtpClient, never()).sendMail(anyCollection(), anyCollection(), anyString(), anyString(), any());
+  }
+
+  //---------------------------------------------------------------------------
+  // Spooling.
+  //---------------------------------------------------------------------------
+
+  @Test
+  public void spool_whenDelivered_thenSpoolFileIsRemoved(@TempDir Path spoolDirectory) throws Exception {
+    var smtpClient = mock(SmtpClient.class);
+
+    try (var queue = new MailQueue(smtpClient, createOptions(10, 1, spoolDirectory), mock(Logger.class))) {
+      queue.enqueue(
+        List.of(SAMPLE_ADDRESS),
+        List.of(),
+        "subject",
+        "body",
+        EnumSet.of(SmtpClient.Flags.NONE));
+
+      verify(smtpClient, timeout(5000).times(1))
+        .sendMail(anyCollection(), anyCollection(), anyString(), anyString(), any());
+
+      Thread.sleep(100);
+      try (var files = Files.list(spoolDirectory)) {
+        assertEquals(0, files.count());
+      }
+    }
+  }
+
+  @Test
+  public void spool_whenRestarted_thenSpooledMailIsDelivered(@TempDir Path spoolDirectory) throws Exception {
+    var failingClient = mock(SmtpClient.class);
+    doThrow(new SmtpClient.MailException("mock", new Exception()))
+      .when(failingClient)
+      .sendMail(anyCollection(), anyCollection(), anyString(), anyString(), any());
+
+    //
+    // Enqueue mail, but stop before it could be delivered.
+    //
+    var options = new MailQueue.Options(
+      10,
+      1,
+      5,
+      Duration.ofMinutes(1),
+      Duration.ofMinutes(1),
+      Duration.ofMinutes(5),
+      Duration.ZERO,
+      spoolDirectory);
+    var queue = new MailQueue(failingClient, options, mock(Logger.class));
+    queue.enqueue(
+      List.of(SAMPLE_ADDRESS),
+      List.of(SAMPLE_ADDRESS),
+      "subject",
+      "body",
+      EnumSet.of(SmtpClient.Flags.REPLY));
+
+    verify(failingClient, timeout(5000).times(1))
+      .sendMail(anyCollection(), anyCollection(), anyString(), anyString(), any());
+    queue.close();
+
+    //
+    // Start new queue, which should deliver the spooled mail.
+    //
+    var smtpClient = mock(SmtpClient.class);
+    try (var newQueue = new MailQueue(smtpClient, createOptions(10, 1, spoolDirectory), mock(Logger.class))) {
+      verify(smtpClient, timeout(5000).times(1)).sendMail(
+        argThat(c -> c.contains(SAMPLE_ADDRESS)),
+        argThat(c -> c.contains(SAMPLE_ADDRESS)),
+        eq("subject"),
+        eq("body"),
+        eq(EnumSet.of(SmtpClient.Flags.REPLY)));
+    }
+  }
+
+  @Test
+  public void spool_whenQueueClosed_thenMailRemainsSpooled(@TempDir Path spoolDirectory) throws Exception {
+    var smtpClient = mock(SmtpClient.class);
+
+    var queue = new MailQueue(smtpClient, createOptions(10, 1, spoolDirectory), mock(Logger.class));
+    queue.close();
+
+    queue.enqueue(
+      List.of(SAMPLE_ADDRESS),
+      List.of(),
+      "subject",
+      "body",
+      EnumSet.of(SmtpClient.Flags.NONE));
+
+    var metrics = queue.metrics();
+    assertEquals(0, metrics.pending());
+    assertEquals(0, metrics.failed());
+
+    try (var files = Files.list(spoolDirectory)) {
+      assertEquals(1, files.count());
+    }
+  }
+}